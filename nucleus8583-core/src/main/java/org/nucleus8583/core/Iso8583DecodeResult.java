@@ -0,0 +1,165 @@
+package org.nucleus8583.core;
+
+import java.io.Reader;
+
+import org.nucleus8583.core.util.CharWindow;
+import org.nucleus8583.core.util.CountingReader;
+
+/**
+ * Result of decoding in error-code mode, see
+ * {@link Iso8583MessageSerializer#read(byte[], Iso8583Message, Iso8583DecodeResult)}.
+ * Malformed input is reported through a result code, the failing field and
+ * its offset instead of an exception, so rejecting garbage costs about the
+ * same as decoding a valid message.
+ *
+ * An instance is meant to be reused by a single thread, every decode
+ * overwrites the result of previous decode.
+ */
+public final class Iso8583DecodeResult {
+
+	/**
+	 * the message has been decoded successfully.
+	 */
+	public static final int OK = 0;
+
+	/**
+	 * the input ends before the message is complete.
+	 */
+	public static final int EOF = 1;
+
+	/**
+	 * length prefix of a variable length field is not a number or out of
+	 * range.
+	 */
+	public static final int INVALID_LENGTH = 2;
+
+	/**
+	 * value of a field is malformed.
+	 */
+	public static final int INVALID_VALUE = 3;
+
+	private final CountingReader reader;
+
+	private final CharWindow window;
+
+	private int code;
+
+	private int fieldId;
+
+	private int offset;
+
+	/**
+	 * create a new instance of {@link Iso8583DecodeResult}.
+	 */
+	public Iso8583DecodeResult() {
+		this.reader = new CountingReader();
+		this.window = new CharWindow();
+
+		this.code = OK;
+		this.fieldId = -1;
+		this.offset = -1;
+	}
+
+	/**
+	 * retrieve the result code.
+	 *
+	 * @return one of {@link #OK}, {@link #EOF}, {@link #INVALID_LENGTH} or
+	 *         {@link #INVALID_VALUE}.
+	 */
+	public int getCode() {
+		return code;
+	}
+
+	/**
+	 * check whether the message has been decoded successfully.
+	 *
+	 * @return <code>true</code> if the result code is {@link #OK}.
+	 */
+	public boolean isOk() {
+		return code == OK;
+	}
+
+	/**
+	 * retrieve number of the field which failed to be decoded.
+	 *
+	 * @return the field number, <code>0</code> means the MTI and
+	 *         <code>-1</code> means no error.
+	 */
+	public int getFieldId() {
+		return fieldId;
+	}
+
+	/**
+	 * retrieve offset where the failed field starts, counted in chars from the
+	 * beginning of the message. For single byte encodings such as ASCII, this
+	 * is also the byte offset.
+	 *
+	 * @return the offset or <code>-1</code> if there is no error.
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	void fail(int code) {
+		this.code = code;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	Reader reset(Reader in) {
+		code = OK;
+		fieldId = -1;
+		offset = -1;
+
+		reader.reset(in);
+
+		return reader;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	CharWindow window() {
+		return window;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	void mark(int fieldId) {
+		this.fieldId = fieldId;
+		this.offset = reader.getCount();
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	boolean done() {
+		if (code != OK) {
+			return false;
+		}
+
+		fieldId = -1;
+		offset = -1;
+
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		switch (code) {
+		case OK:
+			return "OK";
+		case EOF:
+			return "EOF at field #" + fieldId + ", offset " + offset;
+		case INVALID_LENGTH:
+			return "INVALID_LENGTH at field #" + fieldId + ", offset " + offset;
+		default:
+			return "INVALID_VALUE at field #" + fieldId + ", offset " + offset;
+		}
+	}
+}
@@ -0,0 +1,282 @@
+package org.nucleus8583.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Serializer for links which carry messages of several configurations
+ * (dialects), distinguished by the MTI or by a header preceding it. MTI
+ * patterns are compiled into a lookup table covering every 4 digits MTI, so
+ * choosing a serializer costs one array lookup, and the message is decoded
+ * in one pass by the chosen serializer.
+ *
+ * For example: <code>
+ * Iso8583DispatchingSerializer dispatcher = new Iso8583DispatchingSerializer(0);
+ * dispatcher.register("0xxx", Iso8583MessageSerializer.create("classpath:META-INF/iso87.xml"));
+ * dispatcher.register("1xxx", Iso8583MessageSerializer.create("classpath:META-INF/iso93.xml"));
+ * </code>
+ *
+ * Serializers should be registered before the instance is shared across
+ * threads, reading and writing are thread-safe afterwards.
+ */
+public final class Iso8583DispatchingSerializer {
+	private static final int MTI_COUNT = 10000;
+
+	private final int headerLength;
+
+	private final Iso8583MessageSerializer[] byMti;
+
+	private final byte[] specificity;
+
+	private Iso8583HeaderPredicate[] predicates;
+
+	private Iso8583MessageSerializer[] byHeader;
+
+	private Iso8583MessageSerializer defaultSerializer;
+
+	/**
+	 * create a new instance of {@link Iso8583DispatchingSerializer}.
+	 *
+	 * @param headerLength
+	 *            length of the header preceding the MTI in bytes, or
+	 *            <code>0</code> if there is no header.
+	 */
+	public Iso8583DispatchingSerializer(int headerLength) {
+		if (headerLength < 0) {
+			throw new IllegalArgumentException("header length must not be negative");
+		}
+
+		this.headerLength = headerLength;
+
+		this.byMti = new Iso8583MessageSerializer[MTI_COUNT];
+		this.specificity = new byte[MTI_COUNT];
+
+		this.predicates = new Iso8583HeaderPredicate[0];
+		this.byHeader = new Iso8583MessageSerializer[0];
+	}
+
+	/**
+	 * retrieve length of the header preceding the MTI.
+	 *
+	 * @return length of the header in bytes
+	 */
+	public int getHeaderLength() {
+		return headerLength;
+	}
+
+	/**
+	 * map an MTI pattern to a serializer. A pattern consists of 4 chars, each
+	 * of them is a digit or <code>x</code> which matches any digit. When
+	 * several patterns match an MTI, the one with more digits wins, or the
+	 * last registered one if they have the same number of digits.
+	 *
+	 * @param mtiPattern
+	 *            the pattern, e.g. <code>1xxx</code> or <code>08x0</code>
+	 * @param serializer
+	 *            the serializer
+	 * @throws IllegalArgumentException
+	 *             if the pattern is malformed.
+	 */
+	public void register(String mtiPattern, Iso8583MessageSerializer serializer) {
+		if ((mtiPattern == null) || (mtiPattern.length() != 4)) {
+			throw new IllegalArgumentException("MTI pattern must consist of 4 chars");
+		}
+
+		int digits = 0;
+		for (int i = 0; i < 4; ++i) {
+			char cc = mtiPattern.charAt(i);
+
+			if ((cc >= '0') && (cc <= '9')) {
+				++digits;
+			} else if ((cc != 'x') && (cc != 'X')) {
+				throw new IllegalArgumentException("MTI pattern must consist of digits or x, but found " + cc);
+			}
+		}
+
+		byte rank = (byte) (digits + 1);
+
+		for (int mti = 0; mti < MTI_COUNT; ++mti) {
+			if (matches(mtiPattern, mti) && (specificity[mti] <= rank)) {
+				byMti[mti] = serializer;
+				specificity[mti] = rank;
+			}
+		}
+	}
+
+	private static boolean matches(String pattern, int mti) {
+		for (int i = 3, rem = mti; i >= 0; --i, rem /= 10) {
+			char cc = pattern.charAt(i);
+
+			if ((cc != 'x') && (cc != 'X') && ((cc - '0') != (rem % 10))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * map a header predicate to a serializer. Header predicates are checked
+	 * in registration order, before MTI patterns.
+	 *
+	 * @param predicate
+	 *            the predicate
+	 * @param serializer
+	 *            the serializer
+	 */
+	public void register(Iso8583HeaderPredicate predicate, Iso8583MessageSerializer serializer) {
+		int n = predicates.length;
+
+		Iso8583HeaderPredicate[] newPredicates = new Iso8583HeaderPredicate[n + 1];
+		Iso8583MessageSerializer[] newByHeader = new Iso8583MessageSerializer[n + 1];
+
+		System.arraycopy(predicates, 0, newPredicates, 0, n);
+		System.arraycopy(byHeader, 0, newByHeader, 0, n);
+
+		newPredicates[n] = predicate;
+		newByHeader[n] = serializer;
+
+		this.predicates = newPredicates;
+		this.byHeader = newByHeader;
+	}
+
+	/**
+	 * set serializer used when neither header predicates nor MTI patterns
+	 * match.
+	 *
+	 * @param serializer
+	 *            the serializer, or <code>null</code> to reject such messages.
+	 */
+	public void setDefault(Iso8583MessageSerializer serializer) {
+		this.defaultSerializer = serializer;
+	}
+
+	private static int mtiIndex(int b0, int b1, int b2, int b3) {
+		if ((b0 < '0') || (b0 > '9') || (b1 < '0') || (b1 > '9') || (b2 < '0') || (b2 > '9') || (b3 < '0')
+				|| (b3 > '9')) {
+			return -1;
+		}
+
+		return (b0 - '0') * 1000 + (b1 - '0') * 100 + (b2 - '0') * 10 + (b3 - '0');
+	}
+
+	/**
+	 * choose serializer for given raw message.
+	 *
+	 * @param buf
+	 *            buffer containing the raw message, including the header.
+	 * @param off
+	 *            offset of the message in <code>buf</code>
+	 * @param len
+	 *            length of the message
+	 * @return the serializer or <code>null</code> if there is no match.
+	 */
+	public Iso8583MessageSerializer dispatch(byte[] buf, int off, int len) {
+		if (len < headerLength) {
+			return defaultSerializer;
+		}
+
+		for (int i = 0; i < predicates.length; ++i) {
+			if (predicates[i].matches(buf, off, headerLength)) {
+				return byHeader[i];
+			}
+		}
+
+		if (len >= headerLength + 4) {
+			int moff = off + headerLength;
+
+			int mti = mtiIndex(buf[moff], buf[moff + 1], buf[moff + 2], buf[moff + 3]);
+			if ((mti >= 0) && (byMti[mti] != null)) {
+				return byMti[mti];
+			}
+		}
+
+		return defaultSerializer;
+	}
+
+	/**
+	 * choose serializer for given MTI, header predicates are not used.
+	 *
+	 * @param mti
+	 *            the MTI
+	 * @return the serializer or <code>null</code> if there is no match.
+	 */
+	public Iso8583MessageSerializer dispatch(String mti) {
+		if (mti.length() == 4) {
+			int index = mtiIndex(mti.charAt(0), mti.charAt(1), mti.charAt(2), mti.charAt(3));
+
+			if ((index >= 0) && (byMti[index] != null)) {
+				return byMti[index];
+			}
+		}
+
+		return defaultSerializer;
+	}
+
+	/**
+	 * read a raw message, including its header, and set it's values to given
+	 * {@link Iso8583Message} object.
+	 *
+	 * @param buf
+	 *            The buffer
+	 * @param out
+	 *            The {@link Iso8583Message} object
+	 * @return the serializer used to decode the message
+	 * @throws IOException
+	 *             thrown if no serializer matches the message or the buffer
+	 *             length is shorter than expected.
+	 */
+	public Iso8583MessageSerializer read(byte[] buf, Iso8583Message out) throws IOException {
+		return read(buf, 0, buf.length, out);
+	}
+
+	/**
+	 * read a raw message, including its header, and set it's values to given
+	 * {@link Iso8583Message} object.
+	 *
+	 * @param buf
+	 *            The buffer
+	 * @param off
+	 *            offset of the message in <code>buf</code>
+	 * @param len
+	 *            length of the message
+	 * @param out
+	 *            The {@link Iso8583Message} object
+	 * @return the serializer used to decode the message
+	 * @throws IOException
+	 *             thrown if no serializer matches the message or the buffer
+	 *             length is shorter than expected.
+	 */
+	public Iso8583MessageSerializer read(byte[] buf, int off, int len, Iso8583Message out) throws IOException {
+		Iso8583MessageSerializer serializer = dispatch(buf, off, len);
+		if (serializer == null) {
+			throw new IOException("no serializer matches the message");
+		}
+
+		serializer.read(new ByteArrayInputStream(buf, off + headerLength, len - headerLength), out);
+
+		return serializer;
+	}
+
+	/**
+	 * serialize {@link Iso8583Message} object into given stream using
+	 * serializer chosen by its MTI. The header is not written.
+	 *
+	 * @param msg
+	 *            The {@link Iso8583Message} object
+	 * @param out
+	 *            The stream
+	 * @throws IOException
+	 *             thrown if no serializer matches the MTI or an IO error
+	 *             occurred while serializing.
+	 */
+	public void write(Iso8583Message msg, OutputStream out) throws IOException {
+		Iso8583MessageSerializer serializer = dispatch(msg.getMti());
+		if (serializer == null) {
+			throw new IOException("no serializer matches MTI " + msg.getMti());
+		}
+
+		serializer.write(msg, out);
+	}
+}
@@ -0,0 +1,107 @@
+package org.nucleus8583.core;
+
+/**
+ * Immutable set of field numbers, used to decode only a subset of fields (a
+ * projection) of a message. Field number <code>0</code> means the MTI.
+ *
+ * Instances of this class should be created once and reused, they can be
+ * shared across threads.
+ */
+public final class Iso8583FieldSet {
+
+	/**
+	 * create a new field set.
+	 *
+	 * @param fields
+	 *            number of fields, should be <code>0</code> (MTI) or in range
+	 *            <code>2-192</code>, exclude <code>65</code>.
+	 * @return the field set
+	 * @throws IllegalArgumentException
+	 *             if any of <code>fields</code> is out of range.
+	 */
+	public static Iso8583FieldSet of(int... fields) {
+		return new Iso8583FieldSet(fields);
+	}
+
+	private final boolean[] members;
+
+	private final int highest;
+
+	private final int size;
+
+	private Iso8583FieldSet(int[] fields) {
+		int max = 0;
+
+		for (int i = 0; i < fields.length; ++i) {
+			int no = fields[i];
+
+			if ((no < 0) || (no == 1) || (no > 192) || (no == 65)) {
+				throw new IllegalArgumentException("field no must be 0 or in range 2-192 and not equals to 65");
+			}
+
+			if (no > max) {
+				max = no;
+			}
+		}
+
+		this.members = new boolean[max + 1];
+
+		int n = 0;
+		for (int i = 0; i < fields.length; ++i) {
+			if (!members[fields[i]]) {
+				members[fields[i]] = true;
+				++n;
+			}
+		}
+
+		this.highest = max;
+		this.size = n;
+	}
+
+	/**
+	 * check whether given field is a member of this set.
+	 *
+	 * @param no
+	 *            number of field
+	 * @return <code>true</code> if the field is a member of this set.
+	 */
+	public boolean contains(int no) {
+		return (no >= 0) && (no < members.length) && members[no];
+	}
+
+	/**
+	 * retrieve the highest field number of this set.
+	 *
+	 * @return the highest field number or <code>0</code> if this set only
+	 *         contains MTI or is empty.
+	 */
+	public int getHighest() {
+		return highest;
+	}
+
+	/**
+	 * retrieve number of fields in this set.
+	 *
+	 * @return number of fields
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * retrieve number of fields in this set in ascending order.
+	 *
+	 * @return number of fields
+	 */
+	public int[] toArray() {
+		int[] array = new int[size];
+
+		for (int i = 0, j = 0; i < members.length; ++i) {
+			if (members[i]) {
+				array[j++] = i;
+			}
+		}
+
+		return array;
+	}
+}
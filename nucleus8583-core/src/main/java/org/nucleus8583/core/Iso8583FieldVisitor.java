@@ -0,0 +1,43 @@
+package org.nucleus8583.core;
+
+import java.util.BitSet;
+
+import org.nucleus8583.core.util.CharWindow;
+
+/**
+ * Receives fields of a raw message, in the order they appear, from
+ * {@link Iso8583MessageSerializer#read(java.io.Reader, Iso8583FieldVisitor)},
+ * without creating an {@link Iso8583Message}.
+ */
+public interface Iso8583FieldVisitor {
+
+	/**
+	 * check whether a field should be decoded, fields which are not accepted
+	 * are skipped.
+	 *
+	 * @param no
+	 *            number of field, <code>0</code> means the MTI.
+	 * @return <code>true</code> if the field should be decoded.
+	 */
+	boolean accept(int no);
+
+	/**
+	 * receive value of a string field.
+	 *
+	 * @param no
+	 *            number of field, <code>0</code> means the MTI.
+	 * @param value
+	 *            the value, valid only until this method returns.
+	 */
+	void visit(int no, CharWindow value);
+
+	/**
+	 * receive value of a binary field.
+	 *
+	 * @param no
+	 *            number of field
+	 * @param value
+	 *            the value
+	 */
+	void visit(int no, BitSet value);
+}
@@ -0,0 +1,21 @@
+package org.nucleus8583.core;
+
+/**
+ * Condition on the header of a raw message, used by
+ * {@link Iso8583DispatchingSerializer} to choose a serializer.
+ */
+public interface Iso8583HeaderPredicate {
+
+	/**
+	 * check whether given header matches this predicate.
+	 *
+	 * @param buf
+	 *            buffer containing the raw message
+	 * @param off
+	 *            offset of the header in <code>buf</code>
+	 * @param len
+	 *            length of the header
+	 * @return <code>true</code> if the header matches.
+	 */
+	boolean matches(byte[] buf, int off, int len);
+}
@@ -119,7 +119,7 @@ public final class Iso8583Message implements Serializable {
 	 *
 	 * @param no
 	 *            number of field to be set, should in range <code>2-192</code>,
-	 *            exclude <code>65<code>.
+	 *            exclude <code>65</code>.
 	 * @param value
 	 *            new binary value
 	 * @throws IllegalArgumentException
@@ -154,7 +154,7 @@ public final class Iso8583Message implements Serializable {
 	 *
 	 * @param no
 	 *            number of field to be set, should in range <code>2-192</code>,
-	 *            exclude <code>65<code>.
+	 *            exclude <code>65</code>.
 	 * @param value
 	 *            new value
 	 * @throws IllegalArgumentException
@@ -197,7 +197,7 @@ public final class Iso8583Message implements Serializable {
 	 *
 	 * @param no
 	 *            number of field to be set, should in range <code>2-192</code>,
-	 *            exclude <code>65<code>.
+	 *            exclude <code>65</code>.
 	 * @param value
 	 *            new binary value
 	 */
@@ -220,7 +220,7 @@ public final class Iso8583Message implements Serializable {
 	 *
 	 * @param no
 	 *            number of field to be set, should in range <code>2-192</code>,
-	 *            exclude <code>65<code>.
+	 *            exclude <code>65</code>.
 	 * @param value
 	 *            new value
 	 */
@@ -240,7 +240,7 @@ public final class Iso8583Message implements Serializable {
 	 *
 	 * @param no
 	 *            number of field to be cleared, should in range
-	 *            <code>2-192</code>, exclude <code>65<code>.
+	 *            <code>2-192</code>, exclude <code>65</code>.
 	 * @throws IllegalArgumentException
 	 *             if <code>no</code> less than <code>2</code> or more than
 	 *             <code>192</code> or equals to <code>65</code> or more than
@@ -273,7 +273,7 @@ public final class Iso8583Message implements Serializable {
 	 *
 	 * @param no
 	 *            number of field to be cleared, should in range
-	 *            <code>2-192</code>, exclude <code>65<code>.
+	 *            <code>2-192</code>, exclude <code>65</code>.
 	 */
 	public void unsafeUnset(int no) {
 		if (no > 128) {
@@ -292,7 +292,7 @@ public final class Iso8583Message implements Serializable {
 	 *
 	 * @param no
 	 *            number of field to be get, should in range <code>2-192</code>,
-	 *            exclude <code>65<code>.
+	 *            exclude <code>65</code>.
 	 * @return field value or null if the bit has not been set yet.
 	 * @throws IllegalArgumentException
 	 *             if <code>no</code> less than <code>2</code> or more than
@@ -324,7 +324,7 @@ public final class Iso8583Message implements Serializable {
 	 *
 	 * @param no
 	 *            number of field to be get, should in range <code>2-192</code>,
-	 *            exclude <code>65<code>.
+	 *            exclude <code>65</code>.
 	 * @return field value or null if the bit has not been set yet.
 	 * @throws IllegalArgumentException
 	 *             if <code>no</code> less than <code>2</code> or more than
@@ -352,7 +352,7 @@ public final class Iso8583Message implements Serializable {
 	 *
 	 * @param no
 	 *            number of field to be get, should in range <code>2-192</code>,
-	 *            exclude <code>65<code>.
+	 *            exclude <code>65</code>.
 	 * @return <code>null<code> if <code>no</code> less than <code>2</code> or
 	 *         more than <code>192</code> or equals to <code>65</code> or more
 	 *         than number of fields defined in configuration used by
@@ -377,7 +377,7 @@ public final class Iso8583Message implements Serializable {
 	 *
 	 * @param no
 	 *            number of field to be get, should in range <code>2-192</code>,
-	 *            exclude <code>65<code>.
+	 *            exclude <code>65</code>.
 	 * @return <code>null<code> if the field has binary (<code>b</code> data
 	 *         element) type. otherwise the field value.
 	 */
@@ -393,7 +393,7 @@ public final class Iso8583Message implements Serializable {
 	 *
 	 * @param no
 	 *            number of field to be get, should in range <code>2-192</code>,
-	 *            exclude <code>65<code>.
+	 *            exclude <code>65</code>.
 	 * @return <code>null<code> if the field type is not binary (non <code>b
 	 *         </code> data element). otherwise the field value.
 	 */
@@ -401,6 +401,91 @@ public final class Iso8583Message implements Serializable {
 		return binaryValues[no];
 	}
 
+	/**
+	 * create a field mask to be used by
+	 * {@link #copyFields(Iso8583Message, long[])}. Field number <code>n</code>
+	 * is represented by bit <code>(n - 1) % 64</code> of word
+	 * <code>(n - 1) / 64</code>, the same order as ISO-8583 bitmaps.
+	 *
+	 * @param fields
+	 *            number of fields, should in range <code>2-192</code>,
+	 *            exclude <code>65</code>.
+	 * @return the field mask
+	 * @throws IllegalArgumentException
+	 *             if any of <code>fields</code> less than <code>2</code> or
+	 *             more than <code>192</code> or equals to <code>65</code>.
+	 */
+	public static long[] fieldMask(int... fields) {
+		long[] mask = new long[3];
+
+		for (int i = 0; i < fields.length; ++i) {
+			int no = fields[i];
+
+			if ((no <= 1) || (no > 192) || (no == 65)) {
+				throw new IllegalArgumentException("field no must be in range 2-192 and not equals to 65");
+			}
+
+			mask[(no - 1) >> 6] |= 1L << ((no - 1) & 63);
+		}
+
+		return mask;
+	}
+
+	/**
+	 * copy value of fields selected by <code>fieldMask</code> from another
+	 * message. Only fields which are set in <code>src</code> are copied, other
+	 * fields of this message are left untouched. Values are copied by
+	 * reference.
+	 *
+	 * @param src
+	 *            the source message
+	 * @param fieldMask
+	 *            the field mask, see {@link #fieldMask(int...)}. Bits of
+	 *            field <code>1</code> and <code>65</code> are ignored.
+	 */
+	public void copyFields(Iso8583Message src, long[] fieldMask) {
+		int limit = Math.min(count, src.count);
+
+		int words = fieldMask.length;
+		if (words > 3) {
+			words = 3;
+		}
+
+		for (int w = 0, base = 1; w < words; ++w, base += 64) {
+			long word = fieldMask[w];
+
+			while (word != 0) {
+				int no = base + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+
+				if (no >= limit) {
+					return;
+				}
+
+				if ((no == 1) || (no == 65)) {
+					continue;
+				}
+
+				if (no > 128) {
+					if (src.bits129To192.get(no - 129)) {
+						bits129To192.set(no - 129);
+					} else {
+						continue;
+					}
+				} else {
+					if (src.bits1To128.get(no - 1)) {
+						bits1To128.set(no - 1);
+					} else {
+						continue;
+					}
+				}
+
+				binaryValues[no] = src.binaryValues[no];
+				stringValues[no] = src.stringValues[no];
+			}
+		}
+	}
+
 	/**
 	 * clear all fields value
 	 */
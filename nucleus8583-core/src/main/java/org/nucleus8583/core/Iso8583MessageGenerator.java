@@ -0,0 +1,310 @@
+package org.nucleus8583.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.nucleus8583.core.field.type.Iso8583BinaryFieldType;
+import org.nucleus8583.core.field.type.Iso8583FieldType;
+import org.nucleus8583.core.field.type.Iso8583StringFieldType;
+import org.nucleus8583.core.field.type.Iso8583UnicodeVarStringFieldType;
+
+/**
+ * Generate random but valid messages for a configuration, to be used as
+ * benchmark corpora, warm-up traffic or fuzz test input. Generated messages
+ * are reproducible, the same seed and settings always produce the same
+ * sequence.
+ *
+ * Every field defined in configuration whose type is a built-in type can be
+ * generated. Its presence is controlled by a probability and the length of
+ * string values by a range, both per field. The MTI is chosen from a weighted
+ * mix.
+ *
+ * For example: <code>
+ * Iso8583MessageGenerator generator = new Iso8583MessageGenerator(serializer, 42);
+ * generator.addMti("0200", 80);
+ * generator.addMti("0800", 20);
+ * generator.setPresence(0.3);
+ * generator.setPresence(2, 1.0);
+ * generator.setLengthRange(2, 16, 19);
+ *
+ * byte[] frame = generator.nextFrame();
+ * </code>
+ *
+ * Instances of this class are not thread-safe.
+ */
+public final class Iso8583MessageGenerator {
+	private final Iso8583MessageSerializer serializer;
+
+	private final Iso8583FieldType[] fields;
+
+	private final int count;
+
+	private final Random rnd;
+
+	private final double[] presence;
+
+	private final int[] minLength;
+
+	private final int[] maxLength;
+
+	private final List<String> mtis;
+
+	private final List<Integer> mtiWeights;
+
+	private int totalMtiWeight;
+
+	private final ByteArrayOutputStream frame;
+
+	/**
+	 * create a new generator for given serializer's configuration. Initially
+	 * every field is present with probability <code>0.5</code>, string values
+	 * have any length up to the maximum, and the MTI is always
+	 * <code>0200</code>.
+	 *
+	 * @param serializer
+	 *            the serializer
+	 * @param seed
+	 *            seed of the random sequence
+	 */
+	public Iso8583MessageGenerator(Iso8583MessageSerializer serializer, long seed) {
+		this.serializer = serializer;
+		this.fields = serializer.directFields();
+
+		this.count = Math.min(fields.length, 193);
+		this.rnd = new Random(seed);
+
+		this.presence = new double[count];
+		this.minLength = new int[count];
+		this.maxLength = new int[count];
+
+		for (int i = 0; i < count; ++i) {
+			this.presence[i] = 0.5;
+			this.minLength[i] = minLengthOf(fields[i]);
+			this.maxLength[i] = maxLengthOf(fields[i]);
+		}
+
+		this.mtis = new ArrayList<String>();
+		this.mtiWeights = new ArrayList<Integer>();
+
+		this.frame = new ByteArrayOutputStream();
+	}
+
+	private static int maxLengthOf(Iso8583FieldType type) {
+		if (type instanceof Iso8583StringFieldType) {
+			return ((Iso8583StringFieldType) type).getLength();
+		}
+
+		if (type instanceof Iso8583UnicodeVarStringFieldType) {
+			return ((Iso8583UnicodeVarStringFieldType) type).getLength();
+		}
+
+		// binary and custom types have no length range
+		return -1;
+	}
+
+	private static int minLengthOf(Iso8583FieldType type) {
+		if (type instanceof Iso8583StringFieldType) {
+			Iso8583StringFieldType stype = (Iso8583StringFieldType) type;
+
+			// a value of unaligned field must fill the whole field, and an
+			// empty value of aligned field would be read as its empty value
+			return stype.getAlign() == 'n' ? stype.getLength() : Math.min(1, stype.getLength());
+		}
+
+		return 0;
+	}
+
+	private void checkField(int no) {
+		if ((no <= 1) || (no >= count) || (no == 65)) {
+			throw new IllegalArgumentException("field no must be in range 2-" + (count - 1)
+					+ " and not equals to 65");
+		}
+	}
+
+	/**
+	 * set presence probability of all fields.
+	 *
+	 * @param probability
+	 *            the probability, <code>0.0</code> means never and
+	 *            <code>1.0</code> means always.
+	 */
+	public void setPresence(double probability) {
+		for (int i = 2; i < count; ++i) {
+			presence[i] = probability;
+		}
+	}
+
+	/**
+	 * set presence probability of a field.
+	 *
+	 * @param no
+	 *            number of field
+	 * @param probability
+	 *            the probability, <code>0.0</code> means never and
+	 *            <code>1.0</code> means always.
+	 */
+	public void setPresence(int no, double probability) {
+		checkField(no);
+
+		presence[no] = probability;
+	}
+
+	/**
+	 * set length range of a string field. Lengths are chosen uniformly from
+	 * the range. The range is limited to the maximum length of the field, and
+	 * values of fixed length fields without alignment always fill the whole
+	 * field.
+	 *
+	 * @param no
+	 *            number of field
+	 * @param min
+	 *            minimum length
+	 * @param max
+	 *            maximum length
+	 * @throws IllegalArgumentException
+	 *             if the field is not a string field or the range is invalid.
+	 */
+	public void setLengthRange(int no, int min, int max) {
+		checkField(no);
+
+		int limit = maxLengthOf(fields[no]);
+		if (limit < 0) {
+			throw new IllegalArgumentException("field #" + no + " is not a string field");
+		}
+
+		if ((min < 0) || (min > max)) {
+			throw new IllegalArgumentException("invalid length range " + min + "-" + max);
+		}
+
+		minLength[no] = Math.max(Math.min(min, limit), minLengthOf(fields[no]));
+		maxLength[no] = Math.max(Math.min(max, limit), minLength[no]);
+	}
+
+	/**
+	 * add an MTI to the mix.
+	 *
+	 * @param mti
+	 *            the MTI
+	 * @param weight
+	 *            relative frequency of the MTI
+	 */
+	public void addMti(String mti, int weight) {
+		if (weight <= 0) {
+			throw new IllegalArgumentException("weight must be greater than zero");
+		}
+
+		mtis.add(mti);
+		mtiWeights.add(Integer.valueOf(weight));
+
+		totalMtiWeight += weight;
+	}
+
+	private String nextMti() {
+		if (totalMtiWeight == 0) {
+			return "0200";
+		}
+
+		int pick = rnd.nextInt(totalMtiWeight);
+
+		for (int i = 0, n = mtis.size(); i < n; ++i) {
+			pick -= mtiWeights.get(i).intValue();
+
+			if (pick < 0) {
+				return mtis.get(i);
+			}
+		}
+
+		// should not be here
+		return mtis.get(mtis.size() - 1);
+	}
+
+	private String nextString(int no) {
+		int min = minLength[no];
+		int max = maxLength[no];
+
+		int length = min + rnd.nextInt(max - min + 1);
+
+		char[] cbuf = new char[length];
+		for (int i = 0; i < length; ++i) {
+			cbuf[i] = (char) ('1' + rnd.nextInt(9));
+		}
+
+		return new String(cbuf);
+	}
+
+	private BitSet nextBinary(Iso8583BinaryFieldType type) {
+		int bits = type.getLength() << 3;
+
+		BitSet value = new BitSet(bits);
+		for (int i = 0; i < bits; ++i) {
+			if (rnd.nextBoolean()) {
+				value.set(i);
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * generate the next message.
+	 *
+	 * @return the message
+	 */
+	public Iso8583Message next() {
+		Iso8583Message msg = new Iso8583Message(Math.max(count - 1, 64));
+		next(msg);
+
+		return msg;
+	}
+
+	/**
+	 * generate the next message into given message object.
+	 *
+	 * @param msg
+	 *            the message, it will be cleared first.
+	 */
+	public void next(Iso8583Message msg) {
+		msg.clear();
+		msg.setMti(nextMti());
+
+		int limit = Math.min(count, msg.size());
+
+		for (int i = 2; i < limit; ++i) {
+			if ((i == 65) || (rnd.nextDouble() >= presence[i])) {
+				continue;
+			}
+
+			Iso8583FieldType type = fields[i];
+
+			if (type instanceof Iso8583BinaryFieldType) {
+				msg.unsafeSet(i, nextBinary((Iso8583BinaryFieldType) type));
+			} else if (maxLength[i] >= 0) {
+				msg.unsafeSet(i, nextString(i));
+			}
+		}
+	}
+
+	/**
+	 * generate the next message and serialize it.
+	 *
+	 * @return the serialized message
+	 */
+	public byte[] nextFrame() {
+		Iso8583Message msg = next();
+
+		frame.reset();
+
+		try {
+			serializer.write(msg, frame);
+		} catch (IOException e) {
+			// should not be here
+			throw new RuntimeException(e);
+		}
+
+		return frame.toByteArray();
+	}
+}
@@ -1,30 +1,33 @@
 package org.nucleus8583.core;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.PrintWriter;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Comparator;
 import java.util.List;
 
-import javax.xml.bind.JAXBContext;
-
 import org.nucleus8583.core.charset.Charsets;
 import org.nucleus8583.core.charset.spi.CharsetProvider;
 import org.nucleus8583.core.field.type.Iso8583FieldType;
 import org.nucleus8583.core.field.type.Iso8583FieldTypes;
+import org.nucleus8583.core.util.ByteBufferInputStream;
+import org.nucleus8583.core.util.ByteBufferOutputStream;
+import org.nucleus8583.core.util.CharWindow;
 import org.nucleus8583.core.util.FastStringReader;
 import org.nucleus8583.core.util.ResourceUtils;
 import org.nucleus8583.core.xml.Iso8583FieldDefinition;
 import org.nucleus8583.core.xml.Iso8583MessageDefinition;
+import org.nucleus8583.core.xml.Iso8583MessageDefinitionReader;
 import org.w3c.dom.Node;
 
 /**
@@ -36,8 +39,6 @@ import org.w3c.dom.Node;
  */
 public final class Iso8583MessageSerializer {
 
-	private static final JAXBContext ctx;
-
 	private static final Comparator<Iso8583FieldType> sortByFieldId = new Comparator<Iso8583FieldType>() {
 
 		public int compare(Iso8583FieldType a, Iso8583FieldType b) {
@@ -45,20 +46,6 @@ public final class Iso8583MessageSerializer {
 		}
 	};
 
-	static {
-		try {
-			ctx = JAXBContext.newInstance(Iso8583MessageDefinition.class);
-		} catch (Exception e) {
-			StringWriter w = new StringWriter();
-			PrintWriter pw = new PrintWriter(w);
-
-			e.printStackTrace(pw);
-			pw.flush();
-
-			throw new InternalError(w.toString());
-		}
-	}
-
 	/**
 	 * same as <code>
 	 *     return new Iso8583MessageFactory(location);
@@ -105,6 +92,8 @@ public final class Iso8583MessageSerializer {
 
 	private int fieldsCount;
 
+	private volatile boolean warmedUp;
+
 	/**
 	 * create a new instance of {@link Iso8583MessageSerializer} using given
 	 * configuration.
@@ -129,8 +118,7 @@ public final class Iso8583MessageSerializer {
 		Iso8583MessageDefinition definition;
 
 		try {
-			definition = (Iso8583MessageDefinition) ctx.createUnmarshaller()
-					.unmarshal(found);
+			definition = Iso8583MessageDefinitionReader.read(found);
 		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
@@ -149,8 +137,7 @@ public final class Iso8583MessageSerializer {
 		Iso8583MessageDefinition definition;
 
 		try {
-			definition = (Iso8583MessageDefinition) ctx.createUnmarshaller()
-					.unmarshal(in);
+			definition = Iso8583MessageDefinitionReader.read(in);
 		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
@@ -169,8 +156,7 @@ public final class Iso8583MessageSerializer {
 		Iso8583MessageDefinition definition;
 
 		try {
-			definition = (Iso8583MessageDefinition) ctx.createUnmarshaller()
-					.unmarshal(node);
+			definition = Iso8583MessageDefinitionReader.read(node);
 		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
@@ -178,16 +164,34 @@ public final class Iso8583MessageSerializer {
 		init(definition);
 	}
 
+	/**
+	 * create a new instance of {@link Iso8583MessageSerializer} using already
+	 * resolved field types.
+	 *
+	 * @param encoding
+	 *            the encoding
+	 * @param fields
+	 *            the field types
+	 */
+	Iso8583MessageSerializer(String encoding, Iso8583FieldType[] fields) {
+		init(encoding, fields);
+	}
+
 	private void init(Iso8583MessageDefinition definition) {
 		List<Iso8583FieldDefinition> fields = definition.getFields();
 
-		this.fieldsCount = fields.size();
-
-		this.fields = new Iso8583FieldType[this.fieldsCount];
-		for (int i = 0; i < fieldsCount; ++i) {
-			this.fields[i] = Iso8583FieldTypes.getType(fields.get(i));
+		Iso8583FieldType[] types = new Iso8583FieldType[fields.size()];
+		for (int i = 0; i < types.length; ++i) {
+			types[i] = Iso8583FieldTypes.getType(fields.get(i));
 		}
 
+		init(definition.getEncoding(), types);
+	}
+
+	private void init(String encoding, Iso8583FieldType[] fields) {
+		this.fieldsCount = fields.length;
+		this.fields = fields;
+
 		// sort fields by it's id
 		Arrays.sort(this.fields, sortByFieldId);
 
@@ -203,7 +207,7 @@ public final class Iso8583MessageSerializer {
 			this.binaries[i] = this.fields[i].isBinary();
 		}
 
-		this.encoding = definition.getEncoding();
+		this.encoding = encoding;
 
 		this.charsetProvider = Charsets.getProvider(this.encoding);
 		if (this.charsetProvider == null) {
@@ -250,6 +254,22 @@ public final class Iso8583MessageSerializer {
 		read(new FastStringReader(str), out);
 	}
 
+	/**
+	 * read serialized data from buffer and set it's values to given
+	 * {@link Iso8583Message} object. Position of the buffer is advanced past
+	 * the message.
+	 *
+	 * @param buf
+	 *            The buffer
+	 * @param out
+	 *            The {@link Iso8583Message} object
+	 * @throws IOException
+	 *             thrown if the buffer is shorter than expected.
+	 */
+	public void read(ByteBuffer buf, Iso8583Message out) throws IOException {
+		read(new ByteBufferInputStream(buf), out);
+	}
+
 	/**
 	 * read serialized data from stream and set it's values to given
 	 * {@link Iso8583Message} object
@@ -317,6 +337,436 @@ public final class Iso8583MessageSerializer {
 		}
 	}
 
+	/**
+	 * read serialized data from buffer and pass values of fields to
+	 * <code>visitor</code>. Position of the buffer is advanced past the
+	 * message.
+	 *
+	 * @param buf
+	 *            The buffer
+	 * @param visitor
+	 *            receives the values
+	 * @throws IOException
+	 *             thrown if the buffer is shorter than expected.
+	 * @see #read(Reader, Iso8583FieldVisitor)
+	 */
+	public void read(ByteBuffer buf, Iso8583FieldVisitor visitor) throws IOException {
+		read(charsetProvider.createDecoder(new ByteBufferInputStream(buf)), visitor);
+	}
+
+	/**
+	 * read serialized data from stream and pass values of fields to
+	 * <code>visitor</code>, without creating an {@link Iso8583Message}.
+	 * String values are read into a reusable {@link CharWindow}, so no string
+	 * is created for fields of built-in types.
+	 *
+	 * @param reader
+	 *            The stream
+	 * @param visitor
+	 *            receives the values
+	 * @throws IOException
+	 *             thrown if an IO error occurred while reading.
+	 */
+	public void read(Reader reader, Iso8583FieldVisitor visitor) throws IOException {
+		CharWindow window = new CharWindow();
+
+		BitSet bits1To128 = new BitSet(128);
+		BitSet bits129To192 = new BitSet(64);
+
+		// read bit-0
+		if (visitor.accept(0)) {
+			fields[0].read(reader, window);
+			visitor.visit(0, window);
+		} else {
+			fields[0].skip(reader);
+		}
+
+		// read bit-1
+		fields[1].read(reader, bits1To128);
+
+		// read bit-i
+		for (int i = 2, iMin1 = 1, iMin129 = -127; i < fieldsCount; ++i, ++iMin1, ++iMin129) {
+			if (i == 65) {
+				if (bits1To128.get(64)) {
+					fields[i].read(reader, bits129To192);
+				}
+			} else if ((i < 129) ? bits1To128.get(iMin1) : bits129To192.get(iMin129)) {
+				if (!visitor.accept(i)) {
+					fields[i].skip(reader);
+				} else if (binaries[i]) {
+					visitor.visit(i, fields[i].readBinary(reader));
+				} else {
+					fields[i].read(reader, window);
+					visitor.visit(i, window);
+				}
+			}
+		}
+	}
+
+	/**
+	 * read serialized data from buffer and set values of fields listed in
+	 * <code>projection</code> to given {@link Iso8583Message} object
+	 *
+	 * @param buf
+	 *            The buffer
+	 * @param out
+	 *            The {@link Iso8583Message} object
+	 * @param projection
+	 *            fields to be decoded
+	 * @throws IOException
+	 *             thrown if the buffer length is shorter than expected.
+	 * @see #read(Reader, Iso8583Message, Iso8583FieldSet)
+	 */
+	public void read(byte[] buf, Iso8583Message out, Iso8583FieldSet projection) throws IOException {
+		read(new ByteArrayInputStream(buf), out, projection);
+	}
+
+	/**
+	 * read serialized data from string and set values of fields listed in
+	 * <code>projection</code> to given {@link Iso8583Message} object
+	 *
+	 * @param str
+	 *            The string
+	 * @param out
+	 *            The {@link Iso8583Message} object
+	 * @param projection
+	 *            fields to be decoded
+	 * @throws IOException
+	 *             thrown if the string length is shorter than expected.
+	 * @see #read(Reader, Iso8583Message, Iso8583FieldSet)
+	 */
+	public void read(String str, Iso8583Message out, Iso8583FieldSet projection) throws IOException {
+		read(new FastStringReader(str), out, projection);
+	}
+
+	/**
+	 * read serialized data from stream and set values of fields listed in
+	 * <code>projection</code> to given {@link Iso8583Message} object
+	 *
+	 * @param in
+	 *            The stream
+	 * @param out
+	 *            The {@link Iso8583Message} object
+	 * @param projection
+	 *            fields to be decoded
+	 * @throws IOException
+	 *             thrown if an IO error occurred while serializing.
+	 * @see #read(Reader, Iso8583Message, Iso8583FieldSet)
+	 */
+	public void read(InputStream in, Iso8583Message out, Iso8583FieldSet projection) throws IOException {
+		read(charsetProvider.createDecoder(in), out, projection);
+	}
+
+	/**
+	 * read serialized data from stream and set values of fields listed in
+	 * <code>projection</code> to given {@link Iso8583Message} object. Other
+	 * fields are skipped without creating their values and are left unset in
+	 * <code>out</code>. The whole message is always consumed from the stream.
+	 *
+	 * @param reader
+	 *            The stream
+	 * @param out
+	 *            The {@link Iso8583Message} object
+	 * @param projection
+	 *            fields to be decoded, field <code>0</code> means the MTI.
+	 * @throws IOException
+	 *             thrown if an IO error occurred while serializing.
+	 */
+	public void read(Reader reader, Iso8583Message out, Iso8583FieldSet projection) throws IOException {
+		BitSet bits1To128 = out.directBits1To128();
+		BitSet bits129To192 = out.directBits129To192();
+
+		int count = out.size();
+		if (count > fieldsCount) {
+			count = fieldsCount;
+		}
+
+		// read bit-0
+		if (projection.contains(0)) {
+			out.setMti(fields[0].readString(reader));
+		} else {
+			fields[0].skip(reader);
+		}
+
+		// read bit-1
+		fields[1].read(reader, bits1To128);
+
+		// read bit-i
+		for (int i = 2, iMin1 = 1, iMin129 = -127; i < count; ++i, ++iMin1, ++iMin129) {
+			if (i == 65) {
+				if (bits1To128.get(64)) {
+					fields[i].read(reader, bits129To192);
+				}
+			} else if (i < 129) {
+				if (bits1To128.get(iMin1)) {
+					if (!projection.contains(i)) {
+						fields[i].skip(reader);
+						bits1To128.clear(iMin1);
+					} else if (binaries[i]) {
+						out.unsafeSet(i, fields[i].readBinary(reader));
+					} else {
+						out.unsafeSet(i, fields[i].readString(reader));
+					}
+				}
+			} else {
+				if (bits129To192.get(iMin129)) {
+					if (!projection.contains(i)) {
+						fields[i].skip(reader);
+						bits129To192.clear(iMin129);
+					} else if (binaries[i]) {
+						out.unsafeSet(i, fields[i].readBinary(reader));
+					} else {
+						out.unsafeSet(i, fields[i].readString(reader));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * read serialized data from buffer and set it's values to given
+	 * {@link Iso8583Message} object, in error-code mode. Malformed input is
+	 * reported through <code>result</code> instead of exceptions.
+	 *
+	 * @param buf
+	 *            The buffer
+	 * @param out
+	 *            The {@link Iso8583Message} object, may contain partially
+	 *            decoded fields on failure.
+	 * @param result
+	 *            receives the result code, the failed field and its offset.
+	 *            Can be reused.
+	 * @return <code>true</code> if the message has been decoded successfully.
+	 */
+	public boolean read(byte[] buf, Iso8583Message out, Iso8583DecodeResult result) {
+		try {
+			return read(charsetProvider.createDecoder(new ByteArrayInputStream(buf)), out, result);
+		} catch (IOException e) {
+			// reading from memory, so it must be a malformed char
+			result.fail(Iso8583DecodeResult.INVALID_VALUE);
+			return false;
+		}
+	}
+
+	/**
+	 * read serialized data from string and set it's values to given
+	 * {@link Iso8583Message} object, in error-code mode.
+	 *
+	 * @param str
+	 *            The string
+	 * @param out
+	 *            The {@link Iso8583Message} object, may contain partially
+	 *            decoded fields on failure.
+	 * @param result
+	 *            receives the result code, the failed field and its offset.
+	 *            Can be reused.
+	 * @return <code>true</code> if the message has been decoded successfully.
+	 * @see #read(byte[], Iso8583Message, Iso8583DecodeResult)
+	 */
+	public boolean read(String str, Iso8583Message out, Iso8583DecodeResult result) {
+		try {
+			return read(new FastStringReader(str), out, result);
+		} catch (IOException e) {
+			// should not be here
+			result.fail(Iso8583DecodeResult.INVALID_VALUE);
+			return false;
+		}
+	}
+
+	/**
+	 * read serialized data from stream and set it's values to given
+	 * {@link Iso8583Message} object, in error-code mode. Malformed input is
+	 * reported through <code>result</code>, but IO errors of the stream
+	 * itself are still thrown.
+	 *
+	 * @param reader
+	 *            The stream
+	 * @param out
+	 *            The {@link Iso8583Message} object, may contain partially
+	 *            decoded fields on failure.
+	 * @param result
+	 *            receives the result code, the failed field and its offset.
+	 *            Can be reused.
+	 * @return <code>true</code> if the message has been decoded successfully.
+	 * @throws IOException
+	 *             thrown if an IO error occurred while reading.
+	 */
+	public boolean read(Reader reader, Iso8583Message out, Iso8583DecodeResult result) throws IOException {
+		Reader counting = result.reset(reader);
+		CharWindow window = result.window();
+
+		BitSet bits1To128 = out.directBits1To128();
+		BitSet bits129To192 = out.directBits129To192();
+
+		int count = out.size();
+		if (count > fieldsCount) {
+			count = fieldsCount;
+		}
+
+		// read bit-0
+		result.mark(0);
+
+		int code = fields[0].tryRead(counting, window);
+		if (code != Iso8583DecodeResult.OK) {
+			result.fail(code);
+			return false;
+		}
+
+		out.setMti(window.toString());
+
+		// read bit-1
+		result.mark(1);
+
+		code = fields[1].tryRead(counting, bits1To128);
+		if (code != Iso8583DecodeResult.OK) {
+			result.fail(code);
+			return false;
+		}
+
+		// read bit-i
+		for (int i = 2, iMin1 = 1, iMin129 = -127; i < count; ++i, ++iMin1, ++iMin129) {
+			boolean present;
+
+			if (i == 65) {
+				if (bits1To128.get(64)) {
+					result.mark(i);
+
+					code = fields[i].tryRead(counting, bits129To192);
+					if (code != Iso8583DecodeResult.OK) {
+						result.fail(code);
+						return false;
+					}
+				}
+
+				continue;
+			} else if (i < 129) {
+				present = bits1To128.get(iMin1);
+			} else {
+				present = bits129To192.get(iMin129);
+			}
+
+			if (present) {
+				result.mark(i);
+
+				if (binaries[i]) {
+					BitSet value = new BitSet();
+
+					code = fields[i].tryRead(counting, value);
+					if (code != Iso8583DecodeResult.OK) {
+						result.fail(code);
+						return false;
+					}
+
+					out.unsafeSet(i, value);
+				} else {
+					code = fields[i].tryRead(counting, window);
+					if (code != Iso8583DecodeResult.OK) {
+						result.fail(code);
+						return false;
+					}
+
+					out.unsafeSet(i, window.toString());
+				}
+			}
+		}
+
+		return result.done();
+	}
+
+	/**
+	 * peek the MTI, bitmap and values of fields listed in <code>fields</code>
+	 * from given buffer, without creating an {@link Iso8583Message}. Reading
+	 * stops right after the highest listed field, the rest of the message is
+	 * not examined.
+	 *
+	 * @param buf
+	 *            The buffer
+	 * @param fields
+	 *            fields to be peeked, field <code>0</code> means the MTI.
+	 * @param result
+	 *            object that receives the result, can be reused.
+	 * @throws IOException
+	 *             thrown if the buffer length is shorter than expected.
+	 */
+	public void peek(byte[] buf, Iso8583FieldSet fields, Iso8583PeekResult result) throws IOException {
+		peek(charsetProvider.createDecoder(new ByteArrayInputStream(buf)), fields, result);
+	}
+
+	/**
+	 * peek the MTI, bitmap and values of fields listed in <code>fields</code>
+	 * from given string.
+	 *
+	 * @param str
+	 *            The string
+	 * @param fields
+	 *            fields to be peeked, field <code>0</code> means the MTI.
+	 * @param result
+	 *            object that receives the result, can be reused.
+	 * @throws IOException
+	 *             thrown if the string length is shorter than expected.
+	 * @see #peek(byte[], Iso8583FieldSet, Iso8583PeekResult)
+	 */
+	public void peek(String str, Iso8583FieldSet fields, Iso8583PeekResult result) throws IOException {
+		peek(new FastStringReader(str), fields, result);
+	}
+
+	private void peek(Reader reader, Iso8583FieldSet projection, Iso8583PeekResult result) throws IOException {
+		BitSet bits1To128 = result.directBits1To128();
+		BitSet bits129To192 = result.directBits129To192();
+
+		result.reset();
+
+		// read bit-0
+		if (projection.contains(0)) {
+			result.setMti(fields[0].readString(reader));
+		} else {
+			fields[0].skip(reader);
+		}
+
+		// read bit-1
+		fields[1].read(reader, bits1To128);
+		bits129To192.clear();
+
+		// the secondary bitmap is needed even if no field above 64 is peeked
+		int count = projection.getHighest() + 1;
+		if (bits1To128.get(64) && (count < 66)) {
+			count = 66;
+		}
+		if (count > fieldsCount) {
+			count = fieldsCount;
+		}
+
+		// read bit-i, stop after the highest peeked field
+		for (int i = 2, iMin1 = 1, iMin129 = -127; i < count; ++i, ++iMin1, ++iMin129) {
+			if (i == 65) {
+				if (bits1To128.get(64)) {
+					fields[i].read(reader, bits129To192);
+				}
+			} else if (i < 129) {
+				if (bits1To128.get(iMin1)) {
+					peekField(reader, i, projection, result);
+				}
+			} else {
+				if (bits129To192.get(iMin129)) {
+					peekField(reader, i, projection, result);
+				}
+			}
+		}
+
+		result.updateBitmap();
+	}
+
+	private void peekField(Reader reader, int no, Iso8583FieldSet projection, Iso8583PeekResult result)
+			throws IOException {
+		if (!projection.contains(no)) {
+			fields[no].skip(reader);
+		} else if (binaries[no]) {
+			result.set(no, fields[no].readBinary(reader));
+		} else {
+			result.set(no, fields[no].readString(reader));
+		}
+	}
+
 	/**
 	 * serialize {@link Iso8583Message} object into given stream
 	 *
@@ -331,6 +781,23 @@ public final class Iso8583MessageSerializer {
 		write(msg, charsetProvider.createEncoder(out));
 	}
 
+	/**
+	 * serialize {@link Iso8583Message} object into given buffer, starting at
+	 * its position. Position of the buffer is advanced past the message.
+	 *
+	 * @param msg
+	 *            The {@link Iso8583Message} object
+	 * @param buf
+	 *            The buffer
+	 * @throws IOException
+	 *             thrown if an IO error occurred while serializing.
+	 * @throws java.nio.BufferOverflowException
+	 *             if the buffer is too small.
+	 */
+	public void write(Iso8583Message msg, ByteBuffer buf) throws IOException {
+		write(msg, charsetProvider.createEncoder(new ByteBufferOutputStream(buf)));
+	}
+
 	/**
 	 * serialize {@link Iso8583Message} object into given stream
 	 *
@@ -395,4 +862,125 @@ public final class Iso8583MessageSerializer {
 			}
 		}
 	}
+
+	/**
+	 * exercise read and write paths of this serializer with synthetic
+	 * messages, so the JIT compiles them before real traffic arrives. The
+	 * synthetic messages are created by {@link Iso8583MessageGenerator} and
+	 * contain every field defined in configuration whose type is a built-in
+	 * type, with lengths varying up to the maximum.
+	 *
+	 * Every synthetic message must decode in error-code mode and peek its
+	 * MTI back, so the warm-up never trains the JIT on failure paths only.
+	 *
+	 * @param iterations
+	 *            number of messages to be written and read
+	 * @return elapsed time in milliseconds
+	 * @throws IllegalStateException
+	 *             if a synthetic message could not be decoded.
+	 */
+	public long warmUp(int iterations) {
+		long startDate = System.currentTimeMillis();
+
+		Iso8583MessageGenerator generator = new Iso8583MessageGenerator(this, 8583);
+		generator.setPresence(1.0);
+
+		Iso8583Message[] samples = new Iso8583Message[16];
+		for (int i = 0; i < samples.length; ++i) {
+			samples[i] = generator.next();
+		}
+
+		int[] projected = new int[] { 0, 2, 3, 4, 11, 39, 41 };
+		int n = 0;
+		for (int i = 0; i < projected.length; ++i) {
+			if (projected[i] < fieldsCount) {
+				projected[n++] = projected[i];
+			}
+		}
+
+		int[] fieldNumbers = new int[n];
+		System.arraycopy(projected, 0, fieldNumbers, 0, n);
+
+		Iso8583FieldSet projection = Iso8583FieldSet.of(fieldNumbers);
+
+		Iso8583Message out = new Iso8583Message(Math.max(Math.min(fieldsCount - 1, 192), 64));
+		Iso8583PeekResult peeked = new Iso8583PeekResult();
+		Iso8583DecodeResult result = new Iso8583DecodeResult();
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		StringWriter sw = new StringWriter();
+
+		try {
+			for (int i = 0; i < iterations; ++i) {
+				Iso8583Message msg = samples[i & 15];
+
+				baos.reset();
+				write(msg, baos);
+
+				byte[] packed = baos.toByteArray();
+
+				out.clear();
+				read(packed, out);
+
+				out.clear();
+				if (!read(packed, out, result)) {
+					throw new IllegalStateException("unable to decode warm-up message, " + result);
+				}
+
+				out.clear();
+				read(packed, out, projection);
+
+				peek(packed, projection, peeked);
+				if (!msg.getMti().equals(peeked.getMti())) {
+					throw new IllegalStateException("unable to peek warm-up message, expected MTI " + msg.getMti()
+							+ " but actual is " + peeked.getMti());
+				}
+
+				sw.getBuffer().setLength(0);
+				write(msg, sw);
+
+				out.clear();
+				read(sw.toString(), out);
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+
+		if (iterations > 0) {
+			warmedUp = true;
+		}
+
+		return System.currentTimeMillis() - startDate;
+	}
+
+	/**
+	 * check whether {@link #warmUp(int)} has completed at least one
+	 * iteration on this serializer, e.g. for a readiness probe.
+	 *
+	 * @return <code>true</code> if this serializer has been warmed up.
+	 */
+	public boolean isWarmedUp() {
+		return warmedUp;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	Iso8583FieldType[] directFields() {
+		return fields;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	void directFields(Iso8583FieldType[] fields) {
+		this.fields = fields;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	CharsetProvider directCharsetProvider() {
+		return charsetProvider;
+	}
 }
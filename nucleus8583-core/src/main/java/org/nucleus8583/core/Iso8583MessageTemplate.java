@@ -0,0 +1,326 @@
+package org.nucleus8583.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.nucleus8583.core.charset.spi.CharsetProvider;
+import org.nucleus8583.core.field.type.Iso8583FieldType;
+
+/**
+ * Precompiled ISO-8583 message with a fixed set of fields. Constant fields
+ * (MTI, bitmaps and any field whose value never changes) are padded and
+ * encoded once when the template is compiled, so rendering a message only
+ * encodes the variable fields and copies the pre-encoded segments around
+ * them.
+ *
+ * For example, to render network management messages: <code>
+ * Iso8583Message constants = new Iso8583Message();
+ * constants.setMti("0800");
+ * constants.set(70, "301");
+ *
+ * Iso8583MessageTemplate template = Iso8583MessageTemplate.compile(serializer,
+ *         new int[] { 7, 11, 70 }, constants);
+ *
+ * OutputStream out = ...
+ * template.render(out, "0627180510", "123456");
+ * </code>
+ *
+ * Instances of this class are immutable and can be shared across threads.
+ */
+public final class Iso8583MessageTemplate {
+
+	/**
+	 * compile a new template.
+	 *
+	 * @param serializer
+	 *            serializer whose field definitions and encoding will be used
+	 * @param fields
+	 *            number of fields which are present in every rendered message
+	 *            (the bitmap), excluding MTI, <code>1</code> and
+	 *            <code>65</code>.
+	 * @param constants
+	 *            message containing the constant values. Fields listed in
+	 *            <code>fields</code> but not set in this message become
+	 *            variable fields, as does the MTI if it is empty.
+	 * @return the compiled template
+	 * @throws IllegalArgumentException
+	 *             if a field is out of range or not defined by the serializer,
+	 *             or a constant is set for a field not listed in
+	 *             <code>fields</code>.
+	 */
+	public static Iso8583MessageTemplate compile(Iso8583MessageSerializer serializer, int[] fields,
+			Iso8583Message constants) {
+		return new Iso8583MessageTemplate(serializer, fields, constants);
+	}
+
+	private final Iso8583FieldType[] fieldTypes;
+
+	private final CharsetProvider charsetProvider;
+
+	private final int[] variableFields;
+
+	private final boolean[] binaries;
+
+	private final char[][] encodedChars;
+
+	private final byte[][] encodedBytes;
+
+	private final int slotsCount;
+
+	private Iso8583MessageTemplate(Iso8583MessageSerializer serializer, int[] fields, Iso8583Message constants) {
+		this.fieldTypes = serializer.directFields();
+		this.charsetProvider = serializer.directCharsetProvider();
+
+		int fieldsCount = fieldTypes.length;
+
+		BitSet bits1To128 = new BitSet(128);
+		BitSet bits129To192 = new BitSet(64);
+
+		for (int i = 0; i < fields.length; ++i) {
+			int no = fields[i];
+
+			if ((no <= 1) || (no > 192) || (no == 65)) {
+				throw new IllegalArgumentException("field no must be in range 2-192 and not equals to 65");
+			}
+			if (no >= fieldsCount) {
+				throw new IllegalArgumentException("field #" + no + " is not defined");
+			}
+
+			if (no > 128) {
+				bits129To192.set(no - 129);
+			} else {
+				bits1To128.set(no - 1);
+			}
+		}
+
+		// bit 1 is always on, bit 65 is on if there is any field above 128
+		bits1To128.set(0);
+		if (!bits129To192.isEmpty()) {
+			bits1To128.set(64);
+		}
+
+		// check for orphan constants
+		int count = constants.size();
+		for (int i = 2; i < count; ++i) {
+			if ((i != 65) && (constants.unsafeGetString(i) != null || constants.unsafeGetBinary(i) != null)) {
+				boolean present = i > 128 ? bits129To192.get(i - 129) : bits1To128.get(i - 1);
+
+				if (!present) {
+					throw new IllegalArgumentException("field #" + i + " has constant value but not listed in the bitmap");
+				}
+			}
+		}
+
+		List<Integer> variables = new ArrayList<Integer>();
+		List<char[]> segments = new ArrayList<char[]>();
+
+		CharArrayWriter segment = new CharArrayWriter();
+
+		try {
+			// MTI
+			String mti = constants.getMti();
+			if (mti.length() == 0) {
+				segments.add(segment.toCharArray());
+				segment.reset();
+
+				variables.add(Integer.valueOf(0));
+			} else {
+				fieldTypes[0].write(segment, mti);
+			}
+
+			// primary bitmap
+			fieldTypes[1].write(segment, bits1To128);
+
+			for (int i = 2; (i < fieldsCount) && (i <= 192); ++i) {
+				boolean present;
+
+				if (i == 65) {
+					if (bits1To128.get(64)) {
+						fieldTypes[65].write(segment, bits129To192);
+					}
+
+					continue;
+				}
+
+				if (i > 128) {
+					present = bits129To192.get(i - 129);
+				} else {
+					present = bits1To128.get(i - 1);
+				}
+
+				if (!present) {
+					continue;
+				}
+
+				if (fieldTypes[i].isBinary()) {
+					BitSet value = constants.unsafeGetBinary(i);
+
+					if (value != null) {
+						fieldTypes[i].write(segment, value);
+						continue;
+					}
+				} else {
+					String value = constants.unsafeGetString(i);
+
+					if (value != null) {
+						fieldTypes[i].write(segment, value);
+						continue;
+					}
+				}
+
+				segments.add(segment.toCharArray());
+				segment.reset();
+
+				variables.add(Integer.valueOf(i));
+			}
+
+			segments.add(segment.toCharArray());
+		} catch (IOException e) {
+			// should not be here
+			throw new RuntimeException(e);
+		}
+
+		this.slotsCount = variables.size();
+
+		this.variableFields = new int[slotsCount];
+		this.binaries = new boolean[slotsCount];
+
+		for (int i = 0; i < slotsCount; ++i) {
+			int no = variables.get(i).intValue();
+
+			this.variableFields[i] = no;
+			this.binaries[i] = (no != 0) && fieldTypes[no].isBinary();
+		}
+
+		this.encodedChars = segments.toArray(new char[slotsCount + 1][]);
+		this.encodedBytes = new byte[slotsCount + 1][];
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+		try {
+			Writer encoder = charsetProvider.createEncoder(baos);
+
+			for (int i = 0; i <= slotsCount; ++i) {
+				baos.reset();
+
+				encoder.write(encodedChars[i], 0, encodedChars[i].length);
+				encoder.flush();
+
+				encodedBytes[i] = baos.toByteArray();
+			}
+		} catch (IOException e) {
+			// should not be here
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * retrieve number of variable fields, in the order expected by
+	 * <code>render</code> methods. Field number <code>0</code> means the MTI.
+	 *
+	 * @return number of variable fields
+	 */
+	public int[] getVariableFields() {
+		int[] copy = new int[slotsCount];
+		System.arraycopy(variableFields, 0, copy, 0, slotsCount);
+
+		return copy;
+	}
+
+	private void checkValues(Object[] values) {
+		if (values.length != slotsCount) {
+			throw new IllegalArgumentException("expected " + slotsCount + " variable field(s) but given "
+					+ values.length);
+		}
+	}
+
+	private void writeVariable(Writer writer, int slot, Object value) throws IOException {
+		int no = variableFields[slot];
+
+		if (value == null) {
+			throw new IllegalArgumentException("value of field #" + no + " is required");
+		}
+
+		if (binaries[slot]) {
+			fieldTypes[no].write(writer, (BitSet) value);
+		} else {
+			fieldTypes[no].write(writer, (String) value);
+		}
+	}
+
+	/**
+	 * render a message into given writer.
+	 *
+	 * @param writer
+	 *            the writer
+	 * @param values
+	 *            values of variable fields, ordered as returned by
+	 *            {@link #getVariableFields()}. Binary fields accept
+	 *            {@link BitSet}, others accept {@link String}.
+	 * @throws IOException
+	 *             thrown if an IO error occurred while writing.
+	 */
+	public void render(Writer writer, Object... values) throws IOException {
+		checkValues(values);
+
+		for (int i = 0; i < slotsCount; ++i) {
+			writer.write(encodedChars[i], 0, encodedChars[i].length);
+			writeVariable(writer, i, values[i]);
+		}
+
+		writer.write(encodedChars[slotsCount], 0, encodedChars[slotsCount].length);
+	}
+
+	/**
+	 * render a message into given stream. Pre-encoded segments are written
+	 * directly to the stream, only variable fields go through the charset
+	 * encoder.
+	 *
+	 * @param out
+	 *            the stream
+	 * @param values
+	 *            values of variable fields, ordered as returned by
+	 *            {@link #getVariableFields()}. Binary fields accept
+	 *            {@link BitSet}, others accept {@link String}.
+	 * @throws IOException
+	 *             thrown if an IO error occurred while writing.
+	 */
+	public void render(OutputStream out, Object... values) throws IOException {
+		checkValues(values);
+
+		Writer encoder = charsetProvider.createEncoder(out);
+
+		for (int i = 0; i < slotsCount; ++i) {
+			out.write(encodedBytes[i]);
+			writeVariable(encoder, i, values[i]);
+		}
+
+		out.write(encodedBytes[slotsCount]);
+	}
+
+	/**
+	 * render a message into a new byte array.
+	 *
+	 * @param values
+	 *            values of variable fields, ordered as returned by
+	 *            {@link #getVariableFields()}.
+	 * @return the rendered message
+	 */
+	public byte[] renderToBytes(Object... values) {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+		try {
+			render(baos, values);
+		} catch (IOException e) {
+			// should not be here
+		}
+
+		return baos.toByteArray();
+	}
+}
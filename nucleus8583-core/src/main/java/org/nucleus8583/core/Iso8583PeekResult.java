@@ -0,0 +1,200 @@
+package org.nucleus8583.core;
+
+import java.util.BitSet;
+
+/**
+ * Result of {@link Iso8583MessageSerializer#peek(byte[], Iso8583FieldSet, Iso8583PeekResult)}.
+ * It holds the MTI, the bitmap words and values of peeked fields. An instance
+ * is meant to be reused by a single thread, every peek overwrites the result
+ * of previous peek.
+ */
+public final class Iso8583PeekResult {
+	private final long[] bitmap;
+
+	private final BitSet bits1To128;
+
+	private final BitSet bits129To192;
+
+	private final String[] stringValues;
+
+	private final BitSet[] binaryValues;
+
+	private final int[] peeked;
+
+	private int peekedCount;
+
+	private String mti;
+
+	/**
+	 * create a new instance of {@link Iso8583PeekResult}.
+	 */
+	public Iso8583PeekResult() {
+		this.bitmap = new long[3];
+
+		this.bits1To128 = new BitSet(128);
+		this.bits129To192 = new BitSet(64);
+
+		this.stringValues = new String[193];
+		this.binaryValues = new BitSet[193];
+
+		this.peeked = new int[193];
+		this.peekedCount = 0;
+
+		this.mti = "";
+	}
+
+	/**
+	 * retrieve the MTI.
+	 *
+	 * @return the MTI
+	 */
+	public String getMti() {
+		return mti;
+	}
+
+	/**
+	 * retrieve a bitmap word. Word <code>0</code> and <code>1</code> are the
+	 * primary bitmap, word <code>2</code> is the secondary bitmap (fields
+	 * <code>129-192</code>). Field number <code>n</code> is represented by bit
+	 * <code>(n - 1) % 64</code> of word <code>(n - 1) / 64</code>, compatible
+	 * with {@link Iso8583Message#fieldMask(int...)}.
+	 *
+	 * @param index
+	 *            index of the word, should in range <code>0-2</code>.
+	 * @return the bitmap word
+	 */
+	public long getBitmapWord(int index) {
+		return bitmap[index];
+	}
+
+	/**
+	 * check whether given field is present in the peeked message, according to
+	 * its bitmap.
+	 *
+	 * @param no
+	 *            number of field, should in range <code>1-192</code>.
+	 * @return <code>true</code> if the field is present.
+	 */
+	public boolean isPresent(int no) {
+		if ((no < 1) || (no > 192)) {
+			return false;
+		}
+
+		return (bitmap[(no - 1) >> 6] & (1L << ((no - 1) & 63))) != 0;
+	}
+
+	/**
+	 * retrieve value of a peeked non binary field.
+	 *
+	 * @param no
+	 *            number of field
+	 * @return the value or <code>null</code> if the field is not present or
+	 *         has not been peeked.
+	 */
+	public String getString(int no) {
+		return stringValues[no];
+	}
+
+	/**
+	 * retrieve value of a peeked binary field.
+	 *
+	 * @param no
+	 *            number of field
+	 * @return the value or <code>null</code> if the field is not present or
+	 *         has not been peeked.
+	 */
+	public BitSet getBinary(int no) {
+		return binaryValues[no];
+	}
+
+	/**
+	 * retrieve value of a peeked field.
+	 *
+	 * @param no
+	 *            number of field, <code>0</code> means the MTI.
+	 * @return the value or <code>null</code> if the field is not present or
+	 *         has not been peeked.
+	 */
+	public Object get(int no) {
+		if (no == 0) {
+			return mti;
+		}
+
+		Object value = binaryValues[no];
+		if (value != null) {
+			return value;
+		}
+
+		return stringValues[no];
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	void reset() {
+		for (int i = peekedCount - 1; i >= 0; --i) {
+			int no = peeked[i];
+
+			stringValues[no] = null;
+			binaryValues[no] = null;
+		}
+
+		peekedCount = 0;
+
+		bitmap[0] = 0;
+		bitmap[1] = 0;
+		bitmap[2] = 0;
+
+		mti = "";
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	void setMti(String mti) {
+		this.mti = mti;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	void set(int no, String value) {
+		stringValues[no] = value;
+		peeked[peekedCount++] = no;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	void set(int no, BitSet value) {
+		binaryValues[no] = value;
+		peeked[peekedCount++] = no;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	BitSet directBits1To128() {
+		return bits1To128;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	BitSet directBits129To192() {
+		return bits129To192;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	void updateBitmap() {
+		for (int i = bits1To128.nextSetBit(0); i >= 0; i = bits1To128.nextSetBit(i + 1)) {
+			bitmap[i >> 6] |= 1L << (i & 63);
+		}
+
+		for (int i = bits129To192.nextSetBit(0); i >= 0; i = bits129To192.nextSetBit(i + 1)) {
+			bitmap[2] |= 1L << i;
+		}
+	}
+}
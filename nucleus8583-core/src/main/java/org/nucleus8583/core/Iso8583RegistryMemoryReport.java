@@ -0,0 +1,92 @@
+package org.nucleus8583.core;
+
+/**
+ * Snapshot of memory used by serializers of an
+ * {@link Iso8583SerializerRegistry}. A field slot is an entry of a
+ * serializer's field array, a registry shares field types among slots and
+ * field arrays among serializers, so the fewer distinct field types and field
+ * arrays compared to slots and serializers, the more memory is saved.
+ *
+ * @see Iso8583SerializerRegistry#getMemoryReport()
+ */
+public final class Iso8583RegistryMemoryReport {
+	private final int serializersCount;
+
+	private final int fieldSlotsCount;
+
+	private final int fieldArraysCount;
+
+	private final int fieldTypesCount;
+
+	private final long padderChars;
+
+	Iso8583RegistryMemoryReport(int serializersCount, int fieldSlotsCount, int fieldArraysCount,
+			int fieldTypesCount, long padderChars) {
+		this.serializersCount = serializersCount;
+		this.fieldSlotsCount = fieldSlotsCount;
+		this.fieldArraysCount = fieldArraysCount;
+		this.fieldTypesCount = fieldTypesCount;
+		this.padderChars = padderChars;
+	}
+
+	/**
+	 * retrieve number of distinct serializers.
+	 *
+	 * @return number of serializers
+	 */
+	public int getSerializersCount() {
+		return serializersCount;
+	}
+
+	/**
+	 * retrieve total number of fields of all serializers.
+	 *
+	 * @return number of field slots
+	 */
+	public int getFieldSlotsCount() {
+		return fieldSlotsCount;
+	}
+
+	/**
+	 * retrieve number of distinct field arrays held by the serializers.
+	 *
+	 * @return number of field arrays
+	 */
+	public int getFieldArraysCount() {
+		return fieldArraysCount;
+	}
+
+	/**
+	 * retrieve number of distinct field type instances.
+	 *
+	 * @return number of field types
+	 */
+	public int getFieldTypesCount() {
+		return fieldTypesCount;
+	}
+
+	/**
+	 * retrieve number of chars held by distinct padder arrays of the field
+	 * types. Padders are shared by all field types in the class loader, a
+	 * field type created before a longer padder was needed still holds the
+	 * shorter one, so both are counted.
+	 *
+	 * @return number of chars
+	 */
+	public long getPadderChars() {
+		return padderChars;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+
+		sb.append("serializers = ").append(serializersCount);
+		sb.append(", field slots = ").append(fieldSlotsCount);
+		sb.append(", field arrays = ").append(fieldArraysCount);
+		sb.append(", field types = ").append(fieldTypesCount);
+		sb.append(", padder chars = ").append(padderChars);
+
+		return sb.toString();
+	}
+}
@@ -0,0 +1,259 @@
+package org.nucleus8583.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.net.URL;
+
+import org.nucleus8583.core.util.ResourceUtils;
+
+/**
+ * Handle to an {@link Iso8583MessageSerializer} whose configuration can be
+ * reloaded while the application is running. A new serializer is built from
+ * the configuration and swapped in atomically, reads and writes which have
+ * already started finish using the previous serializer. There is no lock on
+ * the read/write path, only a volatile read.
+ *
+ * The configuration can be watched by a background thread, see
+ * {@link #startWatching(long)}. Only configurations located in the file
+ * system (<code>file:</code> URLs, or <code>classpath:</code> resources which
+ * resolve to files) can be watched.
+ *
+ * Instances of this class are thread-safe.
+ */
+public final class Iso8583ReloadableSerializer {
+
+	private static final class Current {
+		public final Iso8583MessageSerializer serializer;
+
+		public final long version;
+
+		public final long lastModified;
+
+		public Current(Iso8583MessageSerializer serializer, long version, long lastModified) {
+			this.serializer = serializer;
+			this.version = version;
+			this.lastModified = lastModified;
+		}
+	}
+
+	private final String location;
+
+	private final File file;
+
+	private volatile Current current;
+
+	private volatile Throwable lastError;
+
+	/**
+	 * last modification time of the file which failed to load, so the same
+	 * broken file is not parsed again on every poll.
+	 */
+	private long failedLastModified = -1;
+
+	private Thread watcher;
+
+	/**
+	 * create a new instance of {@link Iso8583ReloadableSerializer} and load
+	 * the configuration.
+	 *
+	 * @param location
+	 *            configuration location (in URI), see
+	 *            {@link Iso8583MessageSerializer#Iso8583MessageSerializer(String)}
+	 */
+	public Iso8583ReloadableSerializer(String location) {
+		this.location = location;
+		this.file = toFile(ResourceUtils.getURL(location));
+
+		long lastModified = file == null ? 0 : file.lastModified();
+		this.current = new Current(new Iso8583MessageSerializer(location), 1, lastModified);
+	}
+
+	private static File toFile(URL url) {
+		if ((url == null) || !"file".equals(url.getProtocol())) {
+			return null;
+		}
+
+		try {
+			return new File(url.toURI());
+		} catch (URISyntaxException e) {
+			return new File(url.getPath());
+		}
+	}
+
+	/**
+	 * retrieve current serializer. Callers which need to use the same
+	 * serializer for several operations should keep the returned instance
+	 * instead of calling this method repeatedly.
+	 *
+	 * @return current serializer
+	 */
+	public Iso8583MessageSerializer get() {
+		return current.serializer;
+	}
+
+	/**
+	 * retrieve version of current serializer. The first loaded configuration
+	 * has version <code>1</code>, every successful reload increments it.
+	 *
+	 * @return the version
+	 */
+	public long getVersion() {
+		return current.version;
+	}
+
+	/**
+	 * retrieve error of the last failed reload.
+	 *
+	 * @return the error or <code>null</code> if the last reload succeeded.
+	 */
+	public Throwable getLastError() {
+		return lastError;
+	}
+
+	/**
+	 * reload the configuration and swap current serializer. If the
+	 * configuration is invalid, current serializer is kept. Other errors,
+	 * such as {@link OutOfMemoryError}, are not caught.
+	 *
+	 * @return <code>true</code> if the configuration has been reloaded.
+	 */
+	public synchronized boolean reload() {
+		long lastModified = file == null ? 0 : file.lastModified();
+
+		Iso8583MessageSerializer serializer;
+
+		try {
+			serializer = new Iso8583MessageSerializer(location);
+		} catch (Exception e) {
+			return failed(e, lastModified);
+		} catch (LinkageError e) {
+			// e.g. a custom field type class which cannot be loaded
+			return failed(e, lastModified);
+		}
+
+		lastError = null;
+		failedLastModified = -1;
+		current = new Current(serializer, current.version + 1, lastModified);
+
+		return true;
+	}
+
+	private boolean failed(Throwable error, long lastModified) {
+		lastError = error;
+		failedLastModified = lastModified;
+
+		return false;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	synchronized boolean reloadIfModified() {
+		if (file == null) {
+			return false;
+		}
+
+		long lastModified = file.lastModified();
+		if ((lastModified == current.lastModified) || (lastModified == failedLastModified)) {
+			return false;
+		}
+
+		return reload();
+	}
+
+	/**
+	 * start a daemon thread which reloads the configuration whenever its file
+	 * has been modified.
+	 *
+	 * @param intervalMillis
+	 *            polling interval in milliseconds
+	 * @throws IllegalStateException
+	 *             if the configuration is not located in the file system or
+	 *             it is already being watched.
+	 */
+	public synchronized void startWatching(final long intervalMillis) {
+		if (file == null) {
+			throw new IllegalStateException(location + " is not a file, unable to watch it");
+		}
+
+		if (watcher != null) {
+			throw new IllegalStateException(location + " is already being watched");
+		}
+
+		watcher = new Thread("nucleus8583-reloader-" + file.getName()) {
+
+			@Override
+			public void run() {
+				while (!isInterrupted()) {
+					try {
+						Thread.sleep(intervalMillis);
+					} catch (InterruptedException e) {
+						break;
+					}
+
+					reloadIfModified();
+				}
+			}
+		};
+
+		watcher.setDaemon(true);
+		watcher.start();
+	}
+
+	/**
+	 * stop the thread started by {@link #startWatching(long)}, if any.
+	 */
+	public synchronized void stopWatching() {
+		if (watcher != null) {
+			watcher.interrupt();
+			watcher = null;
+		}
+	}
+
+	/**
+	 * same as <code>get().read(buf, out)</code>
+	 */
+	public void read(byte[] buf, Iso8583Message out) throws IOException {
+		current.serializer.read(buf, out);
+	}
+
+	/**
+	 * same as <code>get().read(str, out)</code>
+	 */
+	public void read(String str, Iso8583Message out) throws IOException {
+		current.serializer.read(str, out);
+	}
+
+	/**
+	 * same as <code>get().read(in, out)</code>
+	 */
+	public void read(InputStream in, Iso8583Message out) throws IOException {
+		current.serializer.read(in, out);
+	}
+
+	/**
+	 * same as <code>get().read(reader, out)</code>
+	 */
+	public void read(Reader reader, Iso8583Message out) throws IOException {
+		current.serializer.read(reader, out);
+	}
+
+	/**
+	 * same as <code>get().write(msg, out)</code>
+	 */
+	public void write(Iso8583Message msg, OutputStream out) throws IOException {
+		current.serializer.write(msg, out);
+	}
+
+	/**
+	 * same as <code>get().write(msg, writer)</code>
+	 */
+	public void write(Iso8583Message msg, Writer writer) throws IOException {
+		current.serializer.write(msg, writer);
+	}
+}
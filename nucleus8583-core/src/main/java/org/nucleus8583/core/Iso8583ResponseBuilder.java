@@ -0,0 +1,174 @@
+package org.nucleus8583.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Create response messages from request messages. A response gets its MTI
+ * derived from the request MTI (<code>0200</code> becomes <code>0210</code>,
+ * <code>0421</code> becomes <code>0430</code>) and the echoed fields copied
+ * from the request in one pass using a precomputed field mask.
+ *
+ * Echo masks are looked up by the exact request MTI first, then by message
+ * class (the second MTI digit). Defaults are predefined for authorization,
+ * financial, reversal and network management messages and can be replaced
+ * using {@link #setEchoFields(String, int...)}.
+ *
+ * Instances of this class are thread-safe.
+ */
+public final class Iso8583ResponseBuilder {
+	private static final int[] AUTHORIZATION_ECHO = { 2, 3, 4, 7, 11, 12, 13, 15, 18, 22, 25, 32, 37, 41, 42, 49 };
+
+	private static final int[] FINANCIAL_ECHO = AUTHORIZATION_ECHO;
+
+	private static final int[] REVERSAL_ECHO = { 2, 3, 4, 7, 11, 12, 13, 15, 18, 22, 25, 32, 37, 41, 42, 49, 90, 95 };
+
+	private static final int[] NETWORK_MANAGEMENT_ECHO = { 7, 11, 70 };
+
+	private final int count;
+
+	private final long[] definedMask;
+
+	private final long[][] classMasks;
+
+	private final Map<String, long[]> mtiMasks;
+
+	/**
+	 * create a new instance of {@link Iso8583ResponseBuilder}. Echo masks are
+	 * restricted to fields defined in configuration used by
+	 * <code>serializer</code>.
+	 *
+	 * @param serializer
+	 *            the serializer
+	 */
+	public Iso8583ResponseBuilder(Iso8583MessageSerializer serializer) {
+		int fieldsCount = serializer.directFields().length;
+
+		this.count = Math.max(Math.min(fieldsCount - 1, 192), 64);
+
+		this.definedMask = new long[3];
+		for (int i = 2; (i < fieldsCount) && (i <= 192); ++i) {
+			if (i != 65) {
+				definedMask[(i - 1) >> 6] |= 1L << ((i - 1) & 63);
+			}
+		}
+
+		this.classMasks = new long[10][];
+		this.classMasks[1] = restrict(Iso8583Message.fieldMask(AUTHORIZATION_ECHO));
+		this.classMasks[2] = restrict(Iso8583Message.fieldMask(FINANCIAL_ECHO));
+		this.classMasks[4] = restrict(Iso8583Message.fieldMask(REVERSAL_ECHO));
+		this.classMasks[8] = restrict(Iso8583Message.fieldMask(NETWORK_MANAGEMENT_ECHO));
+
+		this.mtiMasks = new ConcurrentHashMap<String, long[]>();
+	}
+
+	private long[] restrict(long[] mask) {
+		long[] restricted = new long[3];
+
+		for (int i = Math.min(mask.length, 3) - 1; i >= 0; --i) {
+			restricted[i] = mask[i] & definedMask[i];
+		}
+
+		return restricted;
+	}
+
+	/**
+	 * derive response MTI from request MTI. The function digit is incremented
+	 * and the repeat flag of the origin digit is cleared, so <code>0200</code>
+	 * becomes <code>0210</code> and <code>0201</code> becomes
+	 * <code>0210</code>. MTI which is not a 4 digits request MTI is returned
+	 * as is.
+	 *
+	 * @param mti
+	 *            request MTI
+	 * @return response MTI
+	 */
+	public static String responseMti(String mti) {
+		if (mti.length() != 4) {
+			return mti;
+		}
+
+		char function = mti.charAt(2);
+		char origin = mti.charAt(3);
+
+		if ((function < '0') || (function > '9') || (((function - '0') & 1) != 0) || (origin < '0') || (origin > '9')) {
+			return mti;
+		}
+
+		char[] cbuf = new char[4];
+
+		cbuf[0] = mti.charAt(0);
+		cbuf[1] = mti.charAt(1);
+		cbuf[2] = (char) (function + 1);
+		cbuf[3] = (char) ('0' + ((origin - '0') & ~1));
+
+		return new String(cbuf);
+	}
+
+	/**
+	 * set echoed fields for requests with given MTI.
+	 *
+	 * @param mti
+	 *            request MTI
+	 * @param fields
+	 *            number of echoed fields
+	 */
+	public void setEchoFields(String mti, int... fields) {
+		mtiMasks.put(mti, restrict(Iso8583Message.fieldMask(fields)));
+	}
+
+	/**
+	 * retrieve echo mask used for requests with given MTI.
+	 *
+	 * @param mti
+	 *            request MTI
+	 * @return the echo mask or <code>null</code> if nothing is echoed.
+	 */
+	public long[] getEchoMask(String mti) {
+		long[] mask = mtiMasks.get(mti);
+
+		if ((mask == null) && (mti.length() > 1)) {
+			int mclass = mti.charAt(1) - '0';
+
+			if ((mclass >= 0) && (mclass <= 9)) {
+				mask = classMasks[mclass];
+			}
+		}
+
+		return mask;
+	}
+
+	/**
+	 * create a new response message for given request.
+	 *
+	 * @param request
+	 *            the request
+	 * @return the response
+	 */
+	public Iso8583Message build(Iso8583Message request) {
+		Iso8583Message response = new Iso8583Message(count);
+		build(request, response);
+
+		return response;
+	}
+
+	/**
+	 * set MTI and echoed fields of <code>response</code> from given request.
+	 * Other fields of the response are left untouched.
+	 *
+	 * @param request
+	 *            the request
+	 * @param response
+	 *            the response
+	 */
+	public void build(Iso8583Message request, Iso8583Message response) {
+		String mti = request.getMti();
+
+		response.setMti(responseMti(mti));
+
+		long[] mask = getEchoMask(mti);
+		if (mask != null) {
+			response.copyFields(request, mask);
+		}
+	}
+}
@@ -0,0 +1,394 @@
+package org.nucleus8583.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.nucleus8583.core.field.type.Iso8583BinaryFieldType;
+import org.nucleus8583.core.field.type.Iso8583FieldType;
+import org.nucleus8583.core.field.type.Iso8583FieldTypes;
+import org.nucleus8583.core.field.type.Iso8583StringFieldType;
+import org.nucleus8583.core.field.type.Iso8583UnicodeLLLVarStringFieldType;
+import org.nucleus8583.core.field.type.Iso8583UnicodeLLVarStringFieldType;
+import org.nucleus8583.core.field.type.Iso8583UnicodeLVarStringFieldType;
+import org.nucleus8583.core.field.type.Iso8583UnicodeVarStringFieldType;
+import org.nucleus8583.core.util.ResourceUtils;
+import org.nucleus8583.core.xml.Iso8583FieldAlignments;
+import org.nucleus8583.core.xml.Iso8583FieldDefinition;
+import org.nucleus8583.core.xml.Iso8583MessageDefinition;
+import org.nucleus8583.core.xml.Iso8583MessageDefinitionReader;
+
+/**
+ * Compiled binary snapshot of a message configuration. A snapshot contains
+ * the encoding and the resolved parameters of every field type, so a
+ * serializer can be restored from it without XML parsing, without scanning
+ * <code>nucleus8583.types</code> and without reflection. Fields whose type is
+ * not one of the built-in types are stored as their definition and are
+ * resolved through {@link Iso8583FieldTypes} on restore.
+ *
+ * A snapshot records the checksum of the configuration it was compiled from
+ * and a checksum of its own content, so stale or corrupted snapshots are
+ * rejected.
+ *
+ * For example, to compile on first run and restore afterwards: <code>
+ * Iso8583MessageSerializer serializer = Iso8583SchemaSnapshot.load(
+ *         "classpath:META-INF/nucleus8583.xml", new File("work/nucleus8583.snapshot"));
+ * </code>
+ */
+public abstract class Iso8583SchemaSnapshot {
+	private static final int MAGIC = 0x4E383538;
+
+	private static final int VERSION = 1;
+
+	private static final int KIND_DEFINITION = 0;
+
+	private static final int KIND_STRING = 1;
+
+	private static final int KIND_BINARY = 2;
+
+	private static final int KIND_VAR_STRING = 3;
+
+	private static long checksum(byte[] buf, int off, int len) {
+		CRC32 crc = new CRC32();
+		crc.update(buf, off, len);
+
+		return crc.getValue();
+	}
+
+	/**
+	 * calculate checksum of given configuration, as recorded in snapshots.
+	 *
+	 * @param location
+	 *            configuration location (in URI)
+	 * @return the checksum
+	 * @throws IOException
+	 *             thrown if an IO error occurred while reading.
+	 */
+	public static long checksum(String location) throws IOException {
+		byte[] schema = ResourceUtils.toByteArray(location);
+
+		return checksum(schema, 0, schema.length);
+	}
+
+	/**
+	 * compile given configuration into a snapshot.
+	 *
+	 * @param location
+	 *            configuration location (in URI)
+	 * @param out
+	 *            stream which receives the snapshot
+	 * @throws IOException
+	 *             thrown if an IO error occurred while reading or writing.
+	 */
+	public static void compile(String location, OutputStream out) throws IOException {
+		byte[] schema = ResourceUtils.toByteArray(location);
+
+		Iso8583MessageDefinition definition = Iso8583MessageDefinitionReader.read(new ByteArrayInputStream(schema));
+		List<Iso8583FieldDefinition> defs = definition.getFields();
+
+		Map<Integer, Iso8583FieldDefinition> defsById = new HashMap<Integer, Iso8583FieldDefinition>();
+
+		Iso8583FieldType[] types = new Iso8583FieldType[defs.size()];
+		for (int i = 0; i < types.length; ++i) {
+			Iso8583FieldDefinition def = defs.get(i);
+
+			types[i] = Iso8583FieldTypes.getType(def);
+			defsById.put(Integer.valueOf(def.getId()), def);
+		}
+
+		// validates the configuration the same way as reading XML does
+		Iso8583MessageSerializer serializer = new Iso8583MessageSerializer(definition.getEncoding(), types);
+		types = serializer.directFields();
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		DataOutputStream dout = new DataOutputStream(baos);
+
+		dout.writeInt(MAGIC);
+		dout.writeShort(VERSION);
+		dout.writeLong(checksum(schema, 0, schema.length));
+		dout.writeUTF(serializer.getEncoding());
+		dout.writeInt(types.length);
+
+		for (int i = 0; i < types.length; ++i) {
+			writeField(dout, types[i], defsById.get(Integer.valueOf(types[i].getId())));
+		}
+
+		dout.flush();
+
+		byte[] payload = baos.toByteArray();
+
+		DataOutputStream sout = new DataOutputStream(out);
+		sout.write(payload);
+		sout.writeLong(checksum(payload, 0, payload.length));
+		sout.flush();
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		if (in.readBoolean()) {
+			return in.readUTF();
+		}
+
+		return null;
+	}
+
+	private static void writeField(DataOutputStream out, Iso8583FieldType type, Iso8583FieldDefinition def)
+			throws IOException {
+		Class<?> clazz = type.getClass();
+
+		if (clazz == Iso8583StringFieldType.class) {
+			Iso8583StringFieldType stype = (Iso8583StringFieldType) type;
+
+			out.writeByte(KIND_STRING);
+			out.writeInt(stype.getId());
+			out.writeInt(stype.getLength());
+			out.writeChar(stype.getAlign());
+			out.writeChar(stype.getPadWith());
+			out.writeUTF(stype.getEmptyValue());
+		} else if (clazz == Iso8583BinaryFieldType.class) {
+			Iso8583BinaryFieldType btype = (Iso8583BinaryFieldType) type;
+
+			out.writeByte(KIND_BINARY);
+			out.writeInt(btype.getId());
+			out.writeInt(btype.getLength());
+		} else if ((clazz == Iso8583UnicodeLVarStringFieldType.class)
+				|| (clazz == Iso8583UnicodeLLVarStringFieldType.class)
+				|| (clazz == Iso8583UnicodeLLLVarStringFieldType.class)) {
+			Iso8583UnicodeVarStringFieldType vtype = (Iso8583UnicodeVarStringFieldType) type;
+
+			out.writeByte(KIND_VAR_STRING);
+			out.writeInt(vtype.getId());
+			out.writeByte(vtype.getLcount());
+			out.writeUTF(vtype.getEmptyValue());
+		} else {
+			out.writeByte(KIND_DEFINITION);
+			out.writeInt(def.getId());
+			writeString(out, def.getType());
+			out.writeInt(def.getLength());
+			out.writeChar(def.getAlign() == null ? 0 : def.getAlign().symbolicValue());
+			writeString(out, def.getPadWith());
+			writeString(out, def.getEmptyValue());
+		}
+	}
+
+	private static Iso8583FieldType readField(DataInputStream in) throws IOException {
+		int kind = in.readByte();
+
+		switch (kind) {
+		case KIND_STRING: {
+			int id = in.readInt();
+			int length = in.readInt();
+			char align = in.readChar();
+			char padWith = in.readChar();
+
+			return new Iso8583StringFieldType(id, length, align, padWith, in.readUTF());
+		}
+		case KIND_BINARY: {
+			int id = in.readInt();
+
+			return new Iso8583BinaryFieldType(id, in.readInt());
+		}
+		case KIND_VAR_STRING: {
+			int id = in.readInt();
+			int lcount = in.readByte();
+			String emptyValue = in.readUTF();
+
+			switch (lcount) {
+			case 1:
+				return new Iso8583UnicodeLVarStringFieldType(id, emptyValue);
+			case 2:
+				return new Iso8583UnicodeLLVarStringFieldType(id, emptyValue);
+			case 3:
+				return new Iso8583UnicodeLLLVarStringFieldType(id, emptyValue);
+			default:
+				throw new IOException("corrupted snapshot, unknown length count " + lcount);
+			}
+		}
+		case KIND_DEFINITION: {
+			int id = in.readInt();
+			String type = readString(in);
+			int length = in.readInt();
+			char align = in.readChar();
+			String padWith = readString(in);
+			String emptyValue = readString(in);
+
+			Iso8583FieldAlignments alignment;
+			switch (align) {
+			case 'l':
+				alignment = Iso8583FieldAlignments.LEFT;
+				break;
+			case 'r':
+				alignment = Iso8583FieldAlignments.RIGHT;
+				break;
+			case 'n':
+				alignment = Iso8583FieldAlignments.NONE;
+				break;
+			default:
+				alignment = null;
+				break;
+			}
+
+			return Iso8583FieldTypes.getType(new Iso8583FieldDefinition(id, type, length, alignment, padWith,
+					emptyValue));
+		}
+		default:
+			throw new IOException("corrupted snapshot, unknown field kind " + kind);
+		}
+	}
+
+	/**
+	 * restore a serializer from given snapshot.
+	 *
+	 * @param in
+	 *            stream containing the snapshot
+	 * @return a new instance of {@link Iso8583MessageSerializer}
+	 * @throws IOException
+	 *             thrown if an IO error occurred while reading or the snapshot
+	 *             is corrupted or has unsupported version.
+	 */
+	public static Iso8583MessageSerializer restore(InputStream in) throws IOException {
+		return restore(in, false, 0);
+	}
+
+	/**
+	 * restore a serializer from given snapshot, only if it has been compiled
+	 * from configuration with given checksum.
+	 *
+	 * @param in
+	 *            stream containing the snapshot
+	 * @param checksum
+	 *            expected checksum of the configuration, see
+	 *            {@link #checksum(String)}.
+	 * @return a new instance of {@link Iso8583MessageSerializer}
+	 * @throws IOException
+	 *             thrown if an IO error occurred while reading or the snapshot
+	 *             is corrupted, has unsupported version or is stale.
+	 */
+	public static Iso8583MessageSerializer restore(InputStream in, long checksum) throws IOException {
+		return restore(in, true, checksum);
+	}
+
+	private static Iso8583MessageSerializer restore(InputStream in, boolean checkSchema, long schemaChecksum)
+			throws IOException {
+		byte[] snapshot = ResourceUtils.toByteArray(in);
+
+		int payloadLength = snapshot.length - 8;
+		if (payloadLength < 0) {
+			throw new IOException("corrupted snapshot");
+		}
+
+		DataInputStream din = new DataInputStream(new ByteArrayInputStream(snapshot));
+
+		din.skipBytes(payloadLength);
+		if (din.readLong() != checksum(snapshot, 0, payloadLength)) {
+			throw new IOException("corrupted snapshot, checksum mismatch");
+		}
+
+		din = new DataInputStream(new ByteArrayInputStream(snapshot, 0, payloadLength));
+
+		if (din.readInt() != MAGIC) {
+			throw new IOException("not a snapshot");
+		}
+
+		int version = din.readShort();
+		if (version != VERSION) {
+			throw new IOException("unsupported snapshot version " + version);
+		}
+
+		long recordedChecksum = din.readLong();
+		if (checkSchema && (recordedChecksum != schemaChecksum)) {
+			throw new IOException("stale snapshot");
+		}
+
+		String encoding = din.readUTF();
+
+		Iso8583FieldType[] types = new Iso8583FieldType[din.readInt()];
+		for (int i = 0; i < types.length; ++i) {
+			types[i] = readField(din);
+		}
+
+		return new Iso8583MessageSerializer(encoding, types);
+	}
+
+	/**
+	 * restore a serializer from <code>snapshot</code> file if it is up to
+	 * date with configuration in <code>location</code>, otherwise create the
+	 * serializer from the configuration and (re)write the snapshot file. The
+	 * snapshot is written to a temporary file in the same directory first, so
+	 * a concurrent or interrupted writer never leaves a partial snapshot.
+	 *
+	 * @param location
+	 *            configuration location (in URI)
+	 * @param snapshot
+	 *            the snapshot file
+	 * @return a new instance of {@link Iso8583MessageSerializer}
+	 * @throws IOException
+	 *             thrown if an IO error occurred while reading or writing.
+	 */
+	public static Iso8583MessageSerializer load(String location, File snapshot) throws IOException {
+		long checksum = checksum(location);
+
+		if (snapshot.isFile()) {
+			InputStream in = new FileInputStream(snapshot);
+
+			try {
+				return restore(in, checksum);
+			} catch (IOException e) {
+				// stale or corrupted, compile it again
+			} finally {
+				in.close();
+			}
+		}
+
+		write(location, snapshot);
+
+		InputStream in = new FileInputStream(snapshot);
+
+		try {
+			return restore(in, checksum);
+		} finally {
+			in.close();
+		}
+	}
+
+	private static void write(String location, File snapshot) throws IOException {
+		File temp = File.createTempFile(snapshot.getName(), ".tmp", snapshot.getAbsoluteFile().getParentFile());
+
+		try {
+			OutputStream out = new FileOutputStream(temp);
+
+			try {
+				compile(location, out);
+			} finally {
+				out.close();
+			}
+
+			// renameTo() does not replace an existing file on some platforms
+			if (!temp.renameTo(snapshot) && !(snapshot.delete() && temp.renameTo(snapshot))) {
+				throw new IOException("unable to rename " + temp + " to " + snapshot);
+			}
+		} finally {
+			if (temp.exists()) {
+				temp.delete();
+			}
+		}
+	}
+}
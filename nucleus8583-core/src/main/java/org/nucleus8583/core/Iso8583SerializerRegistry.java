@@ -0,0 +1,317 @@
+package org.nucleus8583.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.nucleus8583.core.field.type.Iso8583FieldType;
+import org.nucleus8583.core.field.type.Iso8583FieldTypes;
+import org.nucleus8583.core.field.type.Iso8583StringFieldType;
+import org.nucleus8583.core.util.ResourceUtils;
+import org.nucleus8583.core.xml.Iso8583FieldDefinition;
+import org.nucleus8583.core.xml.Iso8583MessageDefinition;
+import org.nucleus8583.core.xml.Iso8583MessageDefinitionReader;
+
+/**
+ * Cache of {@link Iso8583MessageSerializer} instances. Serializers are cached
+ * by configuration location, and by configuration content so different
+ * locations with the same content share one serializer. Identical field types,
+ * and identical field arrays, are shared across all serializers created by a
+ * registry, which reduces memory when many similar configurations are loaded.
+ * See {@link #getMemoryReport()}.
+ *
+ * A cached serializer is never reloaded automatically, use
+ * {@link #invalidate(String)} after its configuration has changed.
+ *
+ * Instances of this class are thread-safe.
+ */
+public final class Iso8583SerializerRegistry {
+
+	private static final class ContentKey {
+		private final byte[] content;
+
+		private final int hash;
+
+		public ContentKey(byte[] content) {
+			this.content = content;
+			this.hash = Arrays.hashCode(content);
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (object == this) {
+				return true;
+			}
+
+			if (!(object instanceof ContentKey)) {
+				return false;
+			}
+
+			ContentKey another = (ContentKey) object;
+
+			return (hash == another.hash) && Arrays.equals(content, another.content);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	private static final class FieldsKey {
+		private final Iso8583FieldType[] fields;
+
+		private final int hash;
+
+		public FieldsKey(Iso8583FieldType[] fields) {
+			this.fields = fields;
+			this.hash = Arrays.hashCode(fields);
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (object == this) {
+				return true;
+			}
+
+			if (!(object instanceof FieldsKey)) {
+				return false;
+			}
+
+			FieldsKey another = (FieldsKey) object;
+
+			return (hash == another.hash) && Arrays.equals(fields, another.fields);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	private static final Iso8583SerializerRegistry defaultRegistry = new Iso8583SerializerRegistry();
+
+	/**
+	 * retrieve the registry shared by the whole class loader.
+	 *
+	 * @return the default registry
+	 */
+	public static Iso8583SerializerRegistry getDefault() {
+		return defaultRegistry;
+	}
+
+	private final ConcurrentMap<String, Iso8583MessageSerializer> byLocation;
+
+	private final ConcurrentMap<ContentKey, Iso8583MessageSerializer> byContent;
+
+	private final ConcurrentMap<Iso8583FieldType, Iso8583FieldType> fieldTypes;
+
+	private final ConcurrentMap<FieldsKey, Iso8583FieldType[]> fieldArrays;
+
+	/**
+	 * create a new empty registry.
+	 */
+	public Iso8583SerializerRegistry() {
+		this.byLocation = new ConcurrentHashMap<String, Iso8583MessageSerializer>();
+		this.byContent = new ConcurrentHashMap<ContentKey, Iso8583MessageSerializer>();
+		this.fieldTypes = new ConcurrentHashMap<Iso8583FieldType, Iso8583FieldType>();
+		this.fieldArrays = new ConcurrentHashMap<FieldsKey, Iso8583FieldType[]>();
+	}
+
+	/**
+	 * retrieve serializer for given configuration, create it if it is not
+	 * cached yet.
+	 *
+	 * @param location
+	 *            configuration location (in URI), see
+	 *            {@link Iso8583MessageSerializer#Iso8583MessageSerializer(String)}
+	 * @return the serializer
+	 */
+	public Iso8583MessageSerializer get(String location) {
+		Iso8583MessageSerializer serializer = byLocation.get(location);
+
+		if (serializer == null) {
+			byte[] content;
+
+			try {
+				content = ResourceUtils.toByteArray(location);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+
+			serializer = get(content);
+
+			Iso8583MessageSerializer existing = byLocation.putIfAbsent(location, serializer);
+			if (existing != null) {
+				serializer = existing;
+			}
+		}
+
+		return serializer;
+	}
+
+	/**
+	 * retrieve serializer for given configuration content, create it if it is
+	 * not cached yet.
+	 *
+	 * @param content
+	 *            content of the configuration. It must not be modified
+	 *            afterwards.
+	 * @return the serializer
+	 */
+	public Iso8583MessageSerializer get(byte[] content) {
+		ContentKey key = new ContentKey(content);
+
+		Iso8583MessageSerializer serializer = byContent.get(key);
+
+		if (serializer == null) {
+			serializer = create(content);
+
+			Iso8583MessageSerializer existing = byContent.putIfAbsent(key, serializer);
+			if (existing != null) {
+				serializer = existing;
+			}
+		}
+
+		return serializer;
+	}
+
+	private Iso8583MessageSerializer create(byte[] content) {
+		Iso8583MessageDefinition definition;
+
+		try {
+			definition = Iso8583MessageDefinitionReader.read(new ByteArrayInputStream(content));
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+
+		List<Iso8583FieldDefinition> defs = definition.getFields();
+
+		Iso8583FieldType[] types = new Iso8583FieldType[defs.size()];
+		for (int i = 0; i < types.length; ++i) {
+			types[i] = canonicalize(Iso8583FieldTypes.getType(defs.get(i)));
+		}
+
+		Iso8583MessageSerializer serializer = new Iso8583MessageSerializer(definition.getEncoding(), types);
+
+		// fields are sorted by now, share the array with identical serializers
+		serializer.directFields(canonicalize(serializer.directFields()));
+
+		return serializer;
+	}
+
+	private Iso8583FieldType canonicalize(Iso8583FieldType type) {
+		Iso8583FieldType existing = fieldTypes.putIfAbsent(type, type);
+
+		return existing == null ? type : existing;
+	}
+
+	private Iso8583FieldType[] canonicalize(Iso8583FieldType[] fields) {
+		Iso8583FieldType[] existing = fieldArrays.putIfAbsent(new FieldsKey(fields), fields);
+
+		return existing == null ? fields : existing;
+	}
+
+	/**
+	 * remove serializer of given location from this registry. The next
+	 * {@link #get(String)} reads the configuration again. Shared field types
+	 * and field arrays no longer used by any cached serializer are released.
+	 *
+	 * @param location
+	 *            configuration location (in URI)
+	 */
+	public void invalidate(String location) {
+		Iso8583MessageSerializer serializer = byLocation.remove(location);
+
+		if (serializer != null) {
+			byContent.values().remove(serializer);
+
+			releaseUnused();
+		}
+	}
+
+	private synchronized void releaseUnused() {
+		Set<Iso8583MessageSerializer> serializers = new HashSet<Iso8583MessageSerializer>(byContent.values());
+		serializers.addAll(byLocation.values());
+
+		// arrays do not override equals(), this set compares by identity
+		Set<Iso8583FieldType[]> usedArrays = new HashSet<Iso8583FieldType[]>();
+		Set<Iso8583FieldType> usedTypes = new HashSet<Iso8583FieldType>();
+
+		for (Iso8583MessageSerializer serializer : serializers) {
+			Iso8583FieldType[] fields = serializer.directFields();
+
+			usedArrays.add(fields);
+			usedTypes.addAll(Arrays.asList(fields));
+		}
+
+		// a serializer created concurrently may lose its entries here, it only
+		// stops sharing them with serializers created later
+		fieldArrays.values().retainAll(usedArrays);
+		fieldTypes.keySet().retainAll(usedTypes);
+	}
+
+	/**
+	 * remove all serializers and shared field types from this registry.
+	 */
+	public void invalidateAll() {
+		byLocation.clear();
+		byContent.clear();
+		fieldTypes.clear();
+		fieldArrays.clear();
+	}
+
+	/**
+	 * retrieve number of distinct field type instances shared by serializers
+	 * of this registry.
+	 *
+	 * @return number of field types
+	 */
+	public int getFieldTypesCount() {
+		return fieldTypes.size();
+	}
+
+	/**
+	 * create a report about memory used by serializers of this registry.
+	 *
+	 * @return the report
+	 */
+	public Iso8583RegistryMemoryReport getMemoryReport() {
+		Set<Iso8583MessageSerializer> serializers = new HashSet<Iso8583MessageSerializer>(byContent.values());
+		serializers.addAll(byLocation.values());
+
+		// arrays do not override equals(), these sets compare by identity
+		Set<Iso8583FieldType[]> arrays = new HashSet<Iso8583FieldType[]>();
+		Set<char[]> padders = new HashSet<char[]>();
+		int fieldSlots = 0;
+		long padderChars = 0;
+
+		for (Iso8583MessageSerializer serializer : serializers) {
+			Iso8583FieldType[] fields = serializer.directFields();
+
+			fieldSlots += fields.length;
+
+			if (!arrays.add(fields)) {
+				continue;
+			}
+
+			for (Iso8583FieldType field : fields) {
+				if (field instanceof Iso8583StringFieldType) {
+					char[] padder = ((Iso8583StringFieldType) field).directPadder();
+
+					if (padders.add(padder)) {
+						padderChars += padder.length;
+					}
+				}
+			}
+		}
+
+		return new Iso8583RegistryMemoryReport(serializers.size(), fieldSlots, arrays.size(), fieldTypes.size(),
+				padderChars);
+	}
+}
@@ -2,60 +2,122 @@ package org.nucleus8583.core.charset;
 
 import java.io.InputStream;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.nucleus8583.core.charset.spi.CharsetProvider;
 import org.nucleus8583.core.util.ResourceUtils;
 
 public abstract class Charsets {
-	private static final Map<String, CharsetProvider> providers;
 
-	static {
-		providers = new HashMap<String, CharsetProvider>();
+	/**
+	 * raw provider definitions from <code>nucleus8583.charsets</code>, loaded
+	 * when a provider is requested for the first time.
+	 */
+	private static final class Definitions {
 
-		URL[] urls = ResourceUtils
-				.getURLs("classpath:META-INF/nucleus8583/nucleus8583.charsets");
+		public static final Map<String, String> raw;
 
-		for (int i = 0; i < urls.length; ++i) {
-			load(urls[i]);
+		static {
+			raw = new HashMap<String, String>();
+
+			URL[] urls = ResourceUtils.getURLs("classpath:META-INF/nucleus8583/nucleus8583.charsets");
+
+			for (int i = 0; i < urls.length; ++i) {
+				load(urls[i]);
+			}
 		}
-	}
 
-	private static void load(URL url) {
-		InputStream in = null;
-		Properties prop = new Properties();
-
-		try {
-			in = url.openStream();
-			prop.load(in);
-		} catch (Throwable t) {
-			// do nothing
-		} finally {
-			if (in != null) {
-				try {
-					in.close();
-				} catch (Throwable t) {
-					// do nothing
+		private static void load(URL url) {
+			InputStream in = null;
+			Properties prop = new Properties();
+
+			try {
+				in = url.openStream();
+				prop.load(in);
+			} catch (Throwable t) {
+				errors.put(url.toString(), t);
+			} finally {
+				if (in != null) {
+					try {
+						in.close();
+					} catch (Throwable t) {
+						// do nothing
+					}
 				}
 			}
+
+			for (Map.Entry<Object, Object> entry : prop.entrySet()) {
+				raw.put(((String) entry.getKey()).toUpperCase(), (String) entry.getValue());
+			}
 		}
+	}
+
+	private static final ConcurrentMap<String, CharsetProvider> providers = new ConcurrentHashMap<String, CharsetProvider>();
+
+	private static final ConcurrentMap<String, Throwable> errors = new ConcurrentHashMap<String, Throwable>();
+
+	/**
+	 * register a charset provider programmatically. It takes precedence over
+	 * providers defined in <code>nucleus8583.charsets</code> with the same
+	 * encoding.
+	 *
+	 * @param encoding
+	 *            the encoding (case insensitive)
+	 * @param provider
+	 *            the provider
+	 */
+	public static void register(String encoding, CharsetProvider provider) {
+		String key = encoding.toUpperCase();
+
+		providers.put(key, provider);
+		errors.remove(key);
+	}
+
+	/**
+	 * retrieve errors occurred while loading providers, keyed by encoding or
+	 * by URL of the definition file.
+	 *
+	 * @return the errors
+	 */
+	public static Map<String, Throwable> getLoadErrors() {
+		return Collections.unmodifiableMap(errors);
+	}
+
+	public static CharsetProvider getProvider(String encoding) {
+		String key = encoding.toUpperCase();
+
+		CharsetProvider provider = providers.get(key);
+		if (provider == null) {
+			// failed before, don't resolve the class again
+			if (errors.containsKey(key)) {
+				return null;
+			}
+
+			String className = Definitions.raw.get(key);
+			if (className == null) {
+				return null;
+			}
 
-		for (Map.Entry<Object, Object> entry : prop.entrySet()) {
 			try {
-				Class<?> cla = Class.forName((String) entry.getValue(), true,
-						Thread.currentThread().getContextClassLoader());
+				Class<?> cla = Class.forName(className, true, Thread.currentThread().getContextClassLoader());
 
-				providers.put(((String) entry.getKey()).toUpperCase(),
-						(CharsetProvider) cla.newInstance());
+				provider = (CharsetProvider) cla.newInstance();
 			} catch (Throwable t) {
-				// do nothing
+				errors.put(key, t);
+				return null;
+			}
+
+			CharsetProvider existing = providers.putIfAbsent(key, provider);
+			if (existing != null) {
+				provider = existing;
 			}
 		}
-	}
 
-	public static CharsetProvider getProvider(String encoding) {
-		return providers.get(encoding.toUpperCase());
+		return provider;
 	}
 }
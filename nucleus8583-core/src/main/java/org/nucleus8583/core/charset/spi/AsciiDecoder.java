@@ -45,4 +45,38 @@ public class AsciiDecoder extends Reader {
 
 		return total;
 	}
+
+	/**
+	 * skip up to <code>n</code> chars, stops at the end of stream. Use
+	 * {@link org.nucleus8583.core.util.ReaderUtils#skipFully(Reader, int)} to
+	 * treat a short skip as an error.
+	 *
+	 * @return number of chars actually skipped
+	 */
+	@Override
+	public long skip(long n) throws IOException {
+		if (n < 0) {
+			throw new IllegalArgumentException("skip value is negative");
+		}
+
+		// one byte per char, so the stream can be skipped directly
+		long remaining = n;
+
+		while (remaining > 0) {
+			long skipped = in.skip(remaining);
+
+			if (skipped <= 0) {
+				// skip() may return 0 before the end of stream, so check it
+				if (in.read() < 0) {
+					break;
+				}
+
+				skipped = 1;
+			}
+
+			remaining -= skipped;
+		}
+
+		return n - remaining;
+	}
 }
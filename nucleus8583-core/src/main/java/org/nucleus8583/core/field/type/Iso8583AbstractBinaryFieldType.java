@@ -6,6 +6,7 @@ import java.io.Reader;
 import java.io.Writer;
 import java.util.BitSet;
 
+import org.nucleus8583.core.Iso8583DecodeResult;
 import org.nucleus8583.core.xml.Iso8583FieldAlignments;
 import org.nucleus8583.core.xml.Iso8583FieldDefinition;
 
@@ -19,6 +20,10 @@ public abstract class Iso8583AbstractBinaryFieldType extends Iso8583FieldType {
 		super(def, defaultAlign, defaultPadWith, defaultEmptyValue);
 	}
 
+	protected Iso8583AbstractBinaryFieldType(int id) {
+		super(id);
+	}
+
 	public boolean isBinary() {
 		return true;
 	}
@@ -32,6 +37,23 @@ public abstract class Iso8583AbstractBinaryFieldType extends Iso8583FieldType {
 	}
 
 	protected void read(Reader reader, BitSet bits, int length) throws IOException {
+		switch (tryRead(reader, bits, length)) {
+		case Iso8583DecodeResult.EOF:
+			throw new EOFException();
+		case Iso8583DecodeResult.INVALID_VALUE:
+			throw new IllegalArgumentException("value of field #" + id + " is not a hexadecimal string");
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * same as {@link #read(Reader, BitSet, int)}, but returns
+	 * {@link Iso8583DecodeResult#EOF} or
+	 * {@link Iso8583DecodeResult#INVALID_VALUE} (chars other than
+	 * <code>0-9</code> and <code>A-F</code>) instead of throwing.
+	 */
+	protected int tryRead(Reader reader, BitSet bits, int length) throws IOException {
 		int bitsIndex = 0;
 		int ichar;
 
@@ -40,7 +62,7 @@ public abstract class Iso8583AbstractBinaryFieldType extends Iso8583FieldType {
 		for (int i = 0; i < length; ++i, bitsIndex += 4) {
 			ichar = reader.read();
 			if (ichar < 0) {
-				throw new EOFException();
+				return Iso8583DecodeResult.EOF;
 			}
 
 			switch ((char) ichar) {
@@ -123,8 +145,12 @@ public abstract class Iso8583AbstractBinaryFieldType extends Iso8583FieldType {
 				bits.set(bitsIndex + 2);
 				bits.set(bitsIndex + 3);
 				break;
+			default:
+				return Iso8583DecodeResult.INVALID_VALUE;
 			}
 		}
+
+		return Iso8583DecodeResult.OK;
 	}
 
 	protected void write(Writer writer, BitSet value, int length) throws IOException {
@@ -16,6 +16,10 @@ public abstract class Iso8583AbstractStringFieldType extends Iso8583FieldType {
 		super(def, defaultAlign, defaultPadWith, defaultEmptyValue);
 	}
 
+	protected Iso8583AbstractStringFieldType(int id) {
+		super(id);
+	}
+
 	public boolean isBinary() {
 		return false;
 	}
@@ -5,6 +5,8 @@ import java.io.Reader;
 import java.io.Writer;
 import java.util.BitSet;
 
+import org.nucleus8583.core.Iso8583DecodeResult;
+import org.nucleus8583.core.util.ReaderUtils;
 import org.nucleus8583.core.xml.Iso8583FieldAlignments;
 import org.nucleus8583.core.xml.Iso8583FieldDefinition;
 
@@ -24,6 +26,28 @@ public final class Iso8583BinaryFieldType extends Iso8583AbstractBinaryFieldType
 		this.length = def.getLength() << 1;
 	}
 
+	/**
+	 * create a new instance using already resolved parameters.
+	 *
+	 * @param id
+	 *            field number
+	 * @param length
+	 *            length of the field in bytes, as defined in configuration.
+	 */
+	public Iso8583BinaryFieldType(int id, int length) {
+		super(id);
+
+		if (length <= 0) {
+			throw new IllegalArgumentException("length must be greater than zero");
+		}
+
+		this.length = length << 1;
+	}
+
+	public int getLength() {
+		return length >> 1;
+	}
+
 	public void read(Reader reader, BitSet bits) throws IOException {
 		super.read(reader, bits, length);
 	}
@@ -35,7 +59,36 @@ public final class Iso8583BinaryFieldType extends Iso8583AbstractBinaryFieldType
 		return bits;
 	}
 
+	@Override
+	public int tryRead(Reader reader, BitSet bits) throws IOException {
+		return super.tryRead(reader, bits, length);
+	}
+
+	public void skip(Reader reader) throws IOException {
+		ReaderUtils.skipFully(reader, length);
+	}
+
 	public void write(Writer writer, BitSet value) throws IOException {
 		super.write(writer, value, length);
 	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (object == this) {
+			return true;
+		}
+
+		if (!(object instanceof Iso8583BinaryFieldType)) {
+			return false;
+		}
+
+		Iso8583BinaryFieldType another = (Iso8583BinaryFieldType) object;
+
+		return (id == another.id) && (length == another.length);
+	}
+
+	@Override
+	public int hashCode() {
+		return id * 31 + length;
+	}
 }
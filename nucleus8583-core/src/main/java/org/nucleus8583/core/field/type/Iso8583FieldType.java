@@ -1,11 +1,14 @@
 package org.nucleus8583.core.field.type;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Serializable;
 import java.io.Writer;
 import java.util.BitSet;
 
+import org.nucleus8583.core.Iso8583DecodeResult;
+import org.nucleus8583.core.util.CharWindow;
 import org.nucleus8583.core.xml.Iso8583FieldAlignments;
 import org.nucleus8583.core.xml.Iso8583FieldDefinition;
 
@@ -19,6 +22,10 @@ public abstract class Iso8583FieldType implements Serializable {
 		this.id = def.getId();
 	}
 
+	protected Iso8583FieldType(int id) {
+		this.id = id;
+	}
+
 	public int getId() {
 		return id;
 	}
@@ -34,4 +41,93 @@ public abstract class Iso8583FieldType implements Serializable {
 	public abstract BitSet readBinary(Reader reader) throws IOException;
 
 	public abstract String readString(Reader reader) throws IOException;
+
+	/**
+	 * same as {@link #readString(Reader)}, but the value is read into
+	 * <code>window</code> instead of a new string. This default
+	 * implementation copies the value returned by {@link #readString(Reader)},
+	 * subclasses should override it to read into the window directly.
+	 *
+	 * @param reader
+	 *            the reader
+	 * @param window
+	 *            receives the value, valid until the next read
+	 * @throws IOException
+	 *             thrown if an IO error occurred while reading.
+	 */
+	public void read(Reader reader, CharWindow window) throws IOException {
+		window.set(readString(reader));
+	}
+
+	/**
+	 * same as {@link #read(Reader, CharWindow)}, but malformed input is
+	 * reported as a result code instead of thrown. This default
+	 * implementation catches exceptions thrown by
+	 * {@link #read(Reader, CharWindow)}, subclasses should override it to
+	 * avoid creating exceptions at all.
+	 *
+	 * @param reader
+	 *            the reader
+	 * @param window
+	 *            receives the value, valid until the next read
+	 * @return {@link Iso8583DecodeResult#OK} or the failure code.
+	 * @throws IOException
+	 *             thrown if an IO error occurred while reading.
+	 */
+	public int tryRead(Reader reader, CharWindow window) throws IOException {
+		try {
+			read(reader, window);
+			return Iso8583DecodeResult.OK;
+		} catch (EOFException e) {
+			return Iso8583DecodeResult.EOF;
+		} catch (NumberFormatException e) {
+			return Iso8583DecodeResult.INVALID_LENGTH;
+		} catch (IllegalArgumentException e) {
+			return Iso8583DecodeResult.INVALID_VALUE;
+		}
+	}
+
+	/**
+	 * same as {@link #read(Reader, BitSet)}, but malformed input is reported
+	 * as a result code instead of thrown.
+	 *
+	 * @param reader
+	 *            the reader
+	 * @param bits
+	 *            receives the value
+	 * @return {@link Iso8583DecodeResult#OK} or the failure code.
+	 * @throws IOException
+	 *             thrown if an IO error occurred while reading.
+	 * @see #tryRead(Reader, CharWindow)
+	 */
+	public int tryRead(Reader reader, BitSet bits) throws IOException {
+		try {
+			read(reader, bits);
+			return Iso8583DecodeResult.OK;
+		} catch (EOFException e) {
+			return Iso8583DecodeResult.EOF;
+		} catch (NumberFormatException e) {
+			return Iso8583DecodeResult.INVALID_LENGTH;
+		} catch (IllegalArgumentException e) {
+			return Iso8583DecodeResult.INVALID_VALUE;
+		}
+	}
+
+	/**
+	 * advance <code>reader</code> past the value of this field without
+	 * creating the value. Subclasses should override this method if they know
+	 * the length of the value without decoding it.
+	 *
+	 * @param reader
+	 *            the reader
+	 * @throws IOException
+	 *             thrown if an IO error occurred while reading.
+	 */
+	public void skip(Reader reader) throws IOException {
+		if (isBinary()) {
+			readBinary(reader);
+		} else {
+			readString(reader);
+		}
+	}
 }
@@ -5,10 +5,13 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.nucleus8583.core.util.ResourceUtils;
 import org.nucleus8583.core.xml.Iso8583FieldAlignments;
@@ -18,63 +21,115 @@ public abstract class Iso8583FieldTypes {
 
 	private static final class Entry {
 
-		public Class<?> clazz;
+		public final Constructor<?> ctor;
 
-		public Iso8583FieldAlignments align;
+		public final Iso8583FieldAlignments align;
 
-		public String padWith;
+		public final String padWith;
 
-		public String emptyValue;
+		public final String emptyValue;
+
+		public Entry(Constructor<?> ctor, Iso8583FieldAlignments align, String padWith, String emptyValue) {
+			this.ctor = ctor;
+			this.align = align;
+			this.padWith = padWith;
+			this.emptyValue = emptyValue;
+		}
 	}
 
-	private static final Map<String, Entry> types;
+	/**
+	 * raw type definitions from <code>nucleus8583.types</code>, loaded when a
+	 * type is requested for the first time.
+	 */
+	private static final class Definitions {
+
+		public static final Map<String, String> raw;
+
+		static {
+			raw = new HashMap<String, String>();
+
+			URL[] urls = ResourceUtils.getURLs("classpath:META-INF/nucleus8583/nucleus8583.types");
 
-	static {
-		types = new HashMap<String, Entry>();
+			for (int i = 0; i < urls.length; ++i) {
+				load(urls[i]);
+			}
+		}
 
-		URL[] urls = ResourceUtils.getURLs("classpath:META-INF/nucleus8583/nucleus8583.types");
+		private static void load(URL url) {
+			InputStream in = null;
+			Properties prop = new Properties();
+
+			try {
+				in = url.openStream();
+				prop.load(in);
+			} catch (Throwable t) {
+				errors.put(url.toString(), t);
+			} finally {
+				if (in != null) {
+					try {
+						in.close();
+					} catch (Throwable t) {
+						// do nothing
+					}
+				}
+			}
 
-		for (int i = 0; i < urls.length; ++i) {
-			load(urls[i]);
+			for (Map.Entry<Object, Object> entry : prop.entrySet()) {
+				raw.put(((String) entry.getKey()).toUpperCase(), (String) entry.getValue());
+			}
 		}
 	}
 
-	private static Entry createEntry(List<String> lines) {
+	private static final ConcurrentMap<String, Entry> types = new ConcurrentHashMap<String, Entry>();
+
+	private static final ConcurrentMap<String, Throwable> errors = new ConcurrentHashMap<String, Throwable>();
+
+	private static Constructor<?> getConstructor(Class<?> clazz) throws NoSuchMethodException {
+		return clazz.getConstructor(Iso8583FieldDefinition.class, Iso8583FieldAlignments.class, String.class,
+				String.class);
+	}
+
+	private static Entry createEntry(String name, List<String> lines) {
 		int size = lines.size();
 		if (size == 0) {
 			return null;
 		}
 
-		Entry entry = new Entry();
+		Constructor<?> ctor;
 
 		try {
-			entry.clazz = Class.forName(lines.get(0), true, Thread.currentThread().getContextClassLoader());
+			ctor = getConstructor(Class.forName(lines.get(0), true, Thread.currentThread().getContextClassLoader()));
 		} catch (Throwable t) {
+			errors.put(name, t);
 			return null;
 		}
 
+		Iso8583FieldAlignments align = null;
+		String padWith = null;
+		String emptyValue = null;
+
 		for (int i = 1; i < size; ++i) {
 			String line = lines.get(i);
 			int eqidx = line.indexOf('=');
 
 			if (eqidx >= 0) {
-				String name = line.substring(0, eqidx);
+				String key = line.substring(0, eqidx);
 				String value = line.substring(eqidx + 1);
 
-				if ("align".equals(name)) {
-					entry.align = Iso8583FieldAlignments.enumValueOf(value);
-				} else if ("pad-with".equals(name)) {
-					entry.padWith = value;
-				} else if ("empty-value".equals(name)) {
-					entry.emptyValue = value;
+				if ("align".equals(key)) {
+					align = Iso8583FieldAlignments.enumValueOf(value);
+				} else if ("pad-with".equals(key)) {
+					padWith = value;
+				} else if ("empty-value".equals(key)) {
+					emptyValue = value;
 				}
 			}
 		}
 
-		return entry;
+		return new Entry(ctor, align, padWith, emptyValue);
 	}
 
-	private static Entry createEntry(String rawdef) {
+	private static Entry createEntry(String name, String rawdef) {
 		boolean escaped = false;
 
 		StringBuilder sb = new StringBuilder();
@@ -110,58 +165,108 @@ public abstract class Iso8583FieldTypes {
 			lines.add(sb.toString());
 		}
 
-		return createEntry(lines);
+		return createEntry(name, lines);
 	}
 
-	private static void load(URL url) {
-		InputStream in = null;
-		Properties prop = new Properties();
+	private static Entry getEntry(String name) {
+		String key = name.toUpperCase();
 
-		try {
-			in = url.openStream();
-			prop.load(in);
-		} catch (Throwable t) {
-			// do nothing
-		} finally {
-			if (in != null) {
-				try {
-					in.close();
-				} catch (Throwable t) {
-					// do nothing
-				}
+		Entry entry = types.get(key);
+		if (entry == null) {
+			// failed before, don't resolve the class again
+			if (errors.containsKey(key)) {
+				return null;
 			}
-		}
 
-		for (Map.Entry<Object, Object> entry : prop.entrySet()) {
-			Entry obj = createEntry((String) entry.getValue());
+			String rawdef = Definitions.raw.get(key);
+			if (rawdef == null) {
+				return null;
+			}
+
+			entry = createEntry(key, rawdef);
+			if (entry == null) {
+				return null;
+			}
 
-			if (obj != null) {
-				types.put(((String) entry.getKey()).toUpperCase(), obj);
+			Entry existing = types.putIfAbsent(key, entry);
+			if (existing != null) {
+				entry = existing;
 			}
 		}
+
+		return entry;
+	}
+
+	/**
+	 * register a field type programmatically. It takes precedence over types
+	 * defined in <code>nucleus8583.types</code> with the same name.
+	 *
+	 * @param name
+	 *            name of the type, as used in <code>type</code> attribute of
+	 *            <code>iso-field</code> (case insensitive).
+	 * @param clazz
+	 *            the type class, must have a public constructor with the same
+	 *            parameters as
+	 *            {@link Iso8583FieldType#Iso8583FieldType(Iso8583FieldDefinition, Iso8583FieldAlignments, String, String)}
+	 * @param align
+	 *            default alignment, may be <code>null</code>.
+	 * @param padWith
+	 *            default pad char, may be <code>null</code>.
+	 * @param emptyValue
+	 *            default empty value, may be <code>null</code>.
+	 * @throws IllegalArgumentException
+	 *             if <code>clazz</code> has no such constructor.
+	 */
+	public static void register(String name, Class<? extends Iso8583FieldType> clazz, Iso8583FieldAlignments align,
+			String padWith, String emptyValue) {
+		Constructor<?> ctor;
+
+		try {
+			ctor = getConstructor(clazz);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException(clazz + " has no suitable constructor", e);
+		}
+
+		String key = name.toUpperCase();
+
+		types.put(key, new Entry(ctor, align, padWith, emptyValue));
+		errors.remove(key);
+	}
+
+	/**
+	 * retrieve errors occurred while loading type definitions, keyed by type
+	 * name or by URL of the definition file.
+	 *
+	 * @return the errors
+	 */
+	public static Map<String, Throwable> getLoadErrors() {
+		return Collections.unmodifiableMap(errors);
 	}
 
 	public static Iso8583FieldType getType(Iso8583FieldDefinition def) {
-		Entry entry = types.get(def.getType().toUpperCase());
+		Entry entry = getEntry(def.getType());
 		if (entry == null) {
+			Throwable cause = errors.get(def.getType().toUpperCase());
+			if (cause != null) {
+				throw new RuntimeException("an error occured while retrieving type " + def.getType() + ", unable to load it.", cause);
+			}
+
 			throw new RuntimeException("an error occured while retrieving type " + def.getType() + ", type not found.");
 		}
 
 		try {
-			Constructor<?> ctor = entry.clazz.getConstructor(Iso8583FieldDefinition.class, Iso8583FieldAlignments.class, String.class, String.class);
-
-			return (Iso8583FieldType) ctor.newInstance(def, entry.align, entry.padWith, entry.emptyValue);
+			return (Iso8583FieldType) entry.ctor.newInstance(def, entry.align, entry.padWith, entry.emptyValue);
 		} catch (InvocationTargetException ex) {
 			Throwable t = ex.getCause();
 
 			if (t instanceof RuntimeException) {
 				throw (RuntimeException) t;
 			}
-			throw new RuntimeException("an error occured while retrieving type " + def.getType() + ", unable to instantiate class " + entry.clazz + ".", t);
+			throw new RuntimeException("an error occured while retrieving type " + def.getType() + ", unable to instantiate " + entry.ctor.getDeclaringClass() + ".", t);
 		} catch (RuntimeException ex) {
 			throw ex;
 		} catch (Throwable t) {
-			throw new RuntimeException("an error occured while retrieving type " + def.getType() + ", unable to instantiate class " + entry.clazz + ".", t);
+			throw new RuntimeException("an error occured while retrieving type " + def.getType() + ", unable to instantiate " + entry.ctor.getDeclaringClass() + ".", t);
 		}
 	}
 }
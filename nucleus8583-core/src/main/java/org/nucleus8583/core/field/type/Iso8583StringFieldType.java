@@ -5,6 +5,8 @@ import java.io.Reader;
 import java.io.Writer;
 import java.util.Arrays;
 
+import org.nucleus8583.core.Iso8583DecodeResult;
+import org.nucleus8583.core.util.CharWindow;
 import org.nucleus8583.core.util.ReaderUtils;
 import org.nucleus8583.core.util.StringUtils;
 import org.nucleus8583.core.xml.Iso8583FieldAlignments;
@@ -57,21 +59,75 @@ public final class Iso8583StringFieldType extends Iso8583AbstractStringFieldType
 			}
 		}
 
-		this.padder = new char[this.length];
-
-		Arrays.fill(this.padder, this.padWith);
+		this.padder = StringUtils.padder(this.padWith, this.length);
 
 		if (def.getEmptyValue() == null) {
 			if (defaultEmptyValue == null) {
-				this.emptyValue = new char[0];
+				this.emptyValue = StringUtils.sharedCharArray("");
 			} else {
-				this.emptyValue = defaultEmptyValue.toCharArray();
+				this.emptyValue = StringUtils.sharedCharArray(defaultEmptyValue);
 			}
 		} else {
-			this.emptyValue = def.getEmptyValue().toCharArray();
+			this.emptyValue = StringUtils.sharedCharArray(def.getEmptyValue());
 		}
 	}
 
+	/**
+	 * create a new instance using already resolved parameters.
+	 *
+	 * @param id
+	 *            field number
+	 * @param length
+	 *            length of the field
+	 * @param align
+	 *            symbolic value of the alignment, <code>l</code>,
+	 *            <code>r</code> or <code>n</code>.
+	 * @param padWith
+	 *            the pad char
+	 * @param emptyValue
+	 *            value used when the field is empty
+	 */
+	public Iso8583StringFieldType(int id, int length, char align, char padWith, String emptyValue) {
+		super(id);
+
+		if (length <= 0) {
+			throw new IllegalArgumentException("length must be greater than zero");
+		}
+		if ((align != 'l') && (align != 'r') && (align != 'n')) {
+			throw new IllegalArgumentException("unknown alignment " + align);
+		}
+
+		this.length = length;
+		this.align = align;
+		this.padWith = align == 'n' ? ' ' : padWith;
+
+		this.padder = StringUtils.padder(this.padWith, length);
+		this.emptyValue = StringUtils.sharedCharArray(emptyValue);
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	public char getAlign() {
+		return align;
+	}
+
+	public char getPadWith() {
+		return padWith;
+	}
+
+	public String getEmptyValue() {
+		return new String(emptyValue);
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	public char[] directPadder() {
+		return padder;
+	}
+
 	public String readString(Reader reader) throws IOException {
 		char[] cbuf = new char[length];
 		ReaderUtils.readFully(reader, cbuf, length);
@@ -79,6 +135,61 @@ public final class Iso8583StringFieldType extends Iso8583AbstractStringFieldType
 		return new String(StringUtils.unpad(cbuf, length, align, padWith, emptyValue));
 	}
 
+	@Override
+	public void read(Reader reader, CharWindow window) throws IOException {
+		char[] cbuf = window.ensureCapacity(length);
+		ReaderUtils.readFully(reader, cbuf, length);
+
+		unpad(cbuf, window);
+	}
+
+	@Override
+	public int tryRead(Reader reader, CharWindow window) throws IOException {
+		char[] cbuf = window.ensureCapacity(length);
+
+		if (!ReaderUtils.tryReadFully(reader, cbuf, length)) {
+			return Iso8583DecodeResult.EOF;
+		}
+
+		unpad(cbuf, window);
+		return Iso8583DecodeResult.OK;
+	}
+
+	/**
+	 * set <code>window</code> over the unpadded value in <code>cbuf</code>.
+	 */
+	private void unpad(char[] cbuf, CharWindow window) {
+		switch (align) {
+		case 'l':
+			for (int i = length - 1; i >= 0; --i) {
+				if (cbuf[i] != padWith) {
+					window.set(0, i + 1);
+					return;
+				}
+			}
+
+			window.set(emptyValue, 0, emptyValue.length);
+			break;
+		case 'r':
+			for (int i = 0; i < length; ++i) {
+				if (cbuf[i] != padWith) {
+					window.set(i, length - i);
+					return;
+				}
+			}
+
+			window.set(emptyValue, 0, emptyValue.length);
+			break;
+		default: // 'n'
+			window.set(0, length);
+			break;
+		}
+	}
+
+	public void skip(Reader reader) throws IOException {
+		ReaderUtils.skipFully(reader, length);
+	}
+
 	public void write(Writer writer, String value) throws IOException {
 		int vlen = value.length();
 		if (vlen > length) {
@@ -87,4 +198,32 @@ public final class Iso8583StringFieldType extends Iso8583AbstractStringFieldType
 
 		StringUtils.pad(writer, value, vlen, length, align, padder);
 	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (object == this) {
+			return true;
+		}
+
+		if (!(object instanceof Iso8583StringFieldType)) {
+			return false;
+		}
+
+		Iso8583StringFieldType another = (Iso8583StringFieldType) object;
+
+		return (id == another.id) && (length == another.length) && (align == another.align)
+				&& (padWith == another.padWith) && Arrays.equals(emptyValue, another.emptyValue);
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = id;
+
+		hash = hash * 31 + length;
+		hash = hash * 31 + align;
+		hash = hash * 31 + padWith;
+		hash = hash * 31 + Arrays.hashCode(emptyValue);
+
+		return hash;
+	}
 }
@@ -10,4 +10,8 @@ public final class Iso8583UnicodeLLLVarStringFieldType extends Iso8583UnicodeVar
 			String defaultPadWith, String defaultEmptyValue) {
 		super(def, defaultAlign, defaultPadWith, defaultEmptyValue, 3, 999);
 	}
+
+	public Iso8583UnicodeLLLVarStringFieldType(int id, String emptyValue) {
+		super(id, emptyValue, 3, 999);
+	}
 }
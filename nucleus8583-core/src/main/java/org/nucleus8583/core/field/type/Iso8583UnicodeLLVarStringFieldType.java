@@ -10,4 +10,8 @@ public final class Iso8583UnicodeLLVarStringFieldType extends Iso8583UnicodeVarS
 			String defaultPadWith, String defaultEmptyValue) {
 		super(def, defaultAlign, defaultPadWith, defaultEmptyValue, 2, 99);
 	}
+
+	public Iso8583UnicodeLLVarStringFieldType(int id, String emptyValue) {
+		super(id, emptyValue, 2, 99);
+	}
 }
@@ -10,4 +10,8 @@ public final class Iso8583UnicodeLVarStringFieldType extends Iso8583UnicodeVarSt
 			String defaultPadWith, String defaultEmptyValue) {
 		super(def, defaultAlign, defaultPadWith, defaultEmptyValue, 1, 9);
 	}
+
+	public Iso8583UnicodeLVarStringFieldType(int id, String emptyValue) {
+		super(id, emptyValue, 1, 9);
+	}
 }
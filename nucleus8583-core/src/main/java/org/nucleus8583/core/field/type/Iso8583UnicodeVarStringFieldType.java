@@ -4,6 +4,8 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
 
+import org.nucleus8583.core.Iso8583DecodeResult;
+import org.nucleus8583.core.util.CharWindow;
 import org.nucleus8583.core.util.FastInteger;
 import org.nucleus8583.core.util.ReaderUtils;
 import org.nucleus8583.core.xml.Iso8583FieldAlignments;
@@ -36,8 +38,38 @@ public abstract class Iso8583UnicodeVarStringFieldType extends Iso8583AbstractSt
 		}
 	}
 
-	public String readString(Reader reader) throws IOException {
+	protected Iso8583UnicodeVarStringFieldType(int id, String emptyValue, int lcount, int length) {
+		super(id);
+
+		this.lcount = lcount;
+		this.length = length;
+
+		this.emptyValue = emptyValue;
+	}
+
+	public int getLcount() {
+		return lcount;
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	public String getEmptyValue() {
+		return emptyValue;
+	}
+
+	private int readLength(Reader reader) throws IOException {
 		int vlen = FastInteger.readUint(reader, lcount);
+		if (vlen > length) {
+			throw new IllegalArgumentException("length of field #" + id + " is out of range, expected 0-" + length + " but actual is " + vlen);
+		}
+
+		return vlen;
+	}
+
+	public String readString(Reader reader) throws IOException {
+		int vlen = readLength(reader);
 
 		if (vlen == 0) {
 			return emptyValue;
@@ -49,6 +81,48 @@ public abstract class Iso8583UnicodeVarStringFieldType extends Iso8583AbstractSt
 		return new String(cbuf);
 	}
 
+	@Override
+	public void read(Reader reader, CharWindow window) throws IOException {
+		int vlen = readLength(reader);
+
+		if (vlen == 0) {
+			window.set(emptyValue);
+			return;
+		}
+
+		ReaderUtils.readFully(reader, window.ensureCapacity(vlen), vlen);
+		window.set(0, vlen);
+	}
+
+	@Override
+	public int tryRead(Reader reader, CharWindow window) throws IOException {
+		int vlen = FastInteger.tryReadUint(reader, lcount);
+
+		if (vlen < 0) {
+			return vlen == -1 ? Iso8583DecodeResult.EOF : Iso8583DecodeResult.INVALID_LENGTH;
+		}
+
+		if (vlen > length) {
+			return Iso8583DecodeResult.INVALID_LENGTH;
+		}
+
+		if (vlen == 0) {
+			window.set(emptyValue);
+			return Iso8583DecodeResult.OK;
+		}
+
+		if (!ReaderUtils.tryReadFully(reader, window.ensureCapacity(vlen), vlen)) {
+			return Iso8583DecodeResult.EOF;
+		}
+
+		window.set(0, vlen);
+		return Iso8583DecodeResult.OK;
+	}
+
+	public void skip(Reader reader) throws IOException {
+		ReaderUtils.skipFully(reader, readLength(reader));
+	}
+
 	public void write(Writer writer, String value) throws IOException {
 		int vlen = value.length();
 		if (vlen > length) {
@@ -58,4 +132,30 @@ public abstract class Iso8583UnicodeVarStringFieldType extends Iso8583AbstractSt
 		FastInteger.writeUint(writer, vlen, lcount);
 		writer.write(value, 0, vlen);
 	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (object == this) {
+			return true;
+		}
+
+		if ((object == null) || (object.getClass() != getClass())) {
+			return false;
+		}
+
+		Iso8583UnicodeVarStringFieldType another = (Iso8583UnicodeVarStringFieldType) object;
+
+		return (id == another.id) && (lcount == another.lcount) && (length == another.length)
+				&& emptyValue.equals(another.emptyValue);
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = id;
+
+		hash = hash * 31 + lcount;
+		hash = hash * 31 + emptyValue.hashCode();
+
+		return hash;
+	}
 }
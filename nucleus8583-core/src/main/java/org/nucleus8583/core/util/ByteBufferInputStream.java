@@ -0,0 +1,59 @@
+package org.nucleus8583.core.util;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads from a {@link ByteBuffer}, advancing its position by the number of
+ * bytes read.
+ */
+public final class ByteBufferInputStream extends InputStream {
+	private final ByteBuffer buffer;
+
+	public ByteBufferInputStream(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	@Override
+	public int read() {
+		if (!buffer.hasRemaining()) {
+			return -1;
+		}
+
+		return buffer.get() & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) {
+		if (len == 0) {
+			return 0;
+		}
+
+		int remaining = buffer.remaining();
+		if (remaining == 0) {
+			return -1;
+		}
+
+		int n = Math.min(len, remaining);
+		buffer.get(b, off, n);
+
+		return n;
+	}
+
+	@Override
+	public long skip(long n) {
+		int skipped = (int) Math.min(n, buffer.remaining());
+		if (skipped <= 0) {
+			return 0;
+		}
+
+		buffer.position(buffer.position() + skipped);
+
+		return skipped;
+	}
+
+	@Override
+	public int available() {
+		return buffer.remaining();
+	}
+}
@@ -0,0 +1,27 @@
+package org.nucleus8583.core.util;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes into a {@link ByteBuffer}, advancing its position by the number of
+ * bytes written. Writing past the limit of the buffer throws
+ * {@link java.nio.BufferOverflowException}.
+ */
+public final class ByteBufferOutputStream extends OutputStream {
+	private final ByteBuffer buffer;
+
+	public ByteBufferOutputStream(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	@Override
+	public void write(int b) {
+		buffer.put((byte) b);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) {
+		buffer.put(b, off, len);
+	}
+}
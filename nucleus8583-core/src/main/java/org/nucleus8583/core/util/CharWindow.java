@@ -0,0 +1,85 @@
+package org.nucleus8583.core.util;
+
+/**
+ * A reusable window over a char buffer, receives values read by
+ * {@link org.nucleus8583.core.field.type.Iso8583FieldType#read(java.io.Reader, CharWindow)}
+ * without creating strings. The buffer grows as needed and is overwritten by
+ * the next read, so a value must be consumed before the next field is read.
+ */
+public final class CharWindow {
+	private char[] buffer;
+
+	private int offset;
+
+	private int length;
+
+	public CharWindow() {
+		this(64);
+	}
+
+	public CharWindow(int capacity) {
+		this.buffer = new char[capacity];
+	}
+
+	public char[] getBuffer() {
+		return buffer;
+	}
+
+	public int getOffset() {
+		return offset;
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * make sure the buffer can hold <code>capacity</code> chars. Content of
+	 * the buffer is not preserved.
+	 *
+	 * @param capacity
+	 *            required capacity
+	 * @return the buffer
+	 */
+	public char[] ensureCapacity(int capacity) {
+		if (buffer.length < capacity) {
+			buffer = new char[Math.max(capacity, buffer.length << 1)];
+		}
+
+		return buffer;
+	}
+
+	/**
+	 * set the window over current buffer.
+	 */
+	public void set(int offset, int length) {
+		this.offset = offset;
+		this.length = length;
+	}
+
+	/**
+	 * copy <code>value</code> into the buffer and set the window over it.
+	 */
+	public void set(char[] value, int offset, int length) {
+		System.arraycopy(value, offset, ensureCapacity(length), 0, length);
+
+		this.offset = 0;
+		this.length = length;
+	}
+
+	/**
+	 * copy <code>value</code> into the buffer and set the window over it.
+	 */
+	public void set(String value) {
+		int vlen = value.length();
+		value.getChars(0, vlen, ensureCapacity(vlen), 0);
+
+		this.offset = 0;
+		this.length = vlen;
+	}
+
+	@Override
+	public String toString() {
+		return new String(buffer, offset, length);
+	}
+}
@@ -0,0 +1,56 @@
+package org.nucleus8583.core.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reader which counts number of chars read or skipped from an underlying
+ * reader. An instance can be reused by calling {@link #reset(Reader)}.
+ */
+public final class CountingReader extends Reader {
+	private Reader in;
+
+	private int count;
+
+	public void reset(Reader in) {
+		this.in = in;
+		this.count = 0;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int ichar = in.read();
+		if (ichar >= 0) {
+			++count;
+		}
+
+		return ichar;
+	}
+
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		int nbread = in.read(cbuf, off, len);
+		if (nbread > 0) {
+			count += nbread;
+		}
+
+		return nbread;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long nbskip = in.skip(n);
+		if (nbskip > 0) {
+			count += (int) nbskip;
+		}
+
+		return nbskip;
+	}
+
+	public void close() throws IOException {
+		in.close();
+	}
+}
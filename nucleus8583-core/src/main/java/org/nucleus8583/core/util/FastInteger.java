@@ -47,6 +47,60 @@ public abstract class FastInteger {
 		return new String(cc);
 	}
 
+	/**
+	 * convert non-negative <code>lvalue</code> into a string of exactly
+	 * <code>len</code> digits, padded with leading zeros.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if <code>lvalue</code> is negative or has more than
+	 *             <code>len</code> digits.
+	 */
+	public static String ulongToString(long lvalue, int len) {
+		if (lvalue < 0) {
+			throw new IllegalArgumentException(lvalue + " is negative");
+		}
+
+		long rem = lvalue;
+		char[] cc = new char[len];
+
+		for (int i = len - 1; i >= 0; --i) {
+			cc[i] = intToDigits[(int) (rem % 10)];
+			rem = rem / 10;
+		}
+
+		if (rem != 0) {
+			throw new IllegalArgumentException(lvalue + " does not fit in " + len + " digits");
+		}
+
+		return new String(cc);
+	}
+
+	/**
+	 * convert non-negative <code>lvalue</code> into a string without leading
+	 * zeros.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if <code>lvalue</code> is negative.
+	 */
+	public static String ulongToString(long lvalue) {
+		if (lvalue < 0) {
+			throw new IllegalArgumentException(lvalue + " is negative");
+		}
+
+		if (lvalue == 0) {
+			return "0";
+		}
+
+		char[] cc = new char[19];
+		int i = cc.length;
+
+		for (long rem = lvalue; rem > 0; rem /= 10) {
+			cc[--i] = intToDigits[(int) (rem % 10)];
+		}
+
+		return new String(cc, i, cc.length - i);
+	}
+
 	public static void writeUint(Writer writer, int ivalue, int len)
 			throws IOException {
 		int rem = ivalue;
@@ -82,6 +136,31 @@ public abstract class FastInteger {
 		return ivalue;
 	}
 
+	/**
+	 * same as {@link #readUint(Reader, int)}, but returns <code>-1</code> if
+	 * the end of stream has been reached or <code>-2</code> if a char is not
+	 * a digit, instead of throwing exception.
+	 */
+	public static int tryReadUint(Reader reader, int len) throws IOException {
+		int ivalue = 0;
+		int ichar;
+
+		for (int i = len - 1; i >= 0; --i) {
+			ichar = reader.read();
+			if (ichar < 0) {
+				return -1;
+			}
+
+			if ((ichar < '0') || (ichar > '9')) {
+				return -2;
+			}
+
+			ivalue += digitsToInt[ichar][i];
+		}
+
+		return ivalue;
+	}
+
 	public static int parseUint(char[] s, int start, int len) {
 		int ivalue = 0;
 
@@ -120,4 +199,53 @@ public abstract class FastInteger {
 	public static int parseUint(CharSequence s) {
 		return parseUint(s, s.length());
 	}
+
+	/**
+	 * parse up to 18 digits of <code>s</code>, starting from
+	 * <code>start</code>, as non-negative long. An empty range is parsed as
+	 * <code>0</code>.
+	 */
+	public static long parseUlong(char[] s, int start, int len) {
+		if (len > 18) {
+			throw new NumberFormatException(new String(s, start, len)
+					+ " is too long.");
+		}
+
+		long lvalue = 0;
+
+		for (int i = start, end = start + len; i < end; ++i) {
+			char c = s[i];
+			if ((c < '0') || (c > '9')) {
+				throw new NumberFormatException(c + " is not a number.");
+			}
+
+			lvalue = lvalue * 10 + (c - '0');
+		}
+
+		return lvalue;
+	}
+
+	/**
+	 * parse up to 18 digits of <code>s</code> as non-negative long. An empty
+	 * sequence is parsed as <code>0</code>.
+	 */
+	public static long parseUlong(CharSequence s) {
+		int len = s.length();
+		if (len > 18) {
+			throw new NumberFormatException(s + " is too long.");
+		}
+
+		long lvalue = 0;
+
+		for (int i = 0; i < len; ++i) {
+			char c = s.charAt(i);
+			if ((c < '0') || (c > '9')) {
+				throw new NumberFormatException(c + " is not a number.");
+			}
+
+			lvalue = lvalue * 10 + (c - '0');
+		}
+
+		return lvalue;
+	}
 }
@@ -7,6 +7,16 @@ import java.io.Reader;
 public abstract class ReaderUtils {
 
 	public static void readFully(Reader reader, char[] cbuf, int length) throws IOException {
+		if (!tryReadFully(reader, cbuf, length)) {
+			throw new EOFException();
+		}
+	}
+
+	/**
+	 * same as {@link #readFully(Reader, char[], int)}, but returns
+	 * <code>false</code> instead of throwing {@link EOFException}.
+	 */
+	public static boolean tryReadFully(Reader reader, char[] cbuf, int length) throws IOException {
 		int cbufWriteIndex = 0;
 		int remaining = length;
 
@@ -15,11 +25,34 @@ public abstract class ReaderUtils {
 		while (remaining > 0) {
 			nbread = reader.read(cbuf, cbufWriteIndex, remaining);
 			if (nbread == -1) {
-				throw new EOFException();
+				return false;
 			}
 
 			remaining -= nbread;
 			cbufWriteIndex += nbread;
 		}
+
+		return true;
+	}
+
+	public static void skipFully(Reader reader, int length) throws IOException {
+		int remaining = length;
+
+		long nbskip;
+
+		while (remaining > 0) {
+			nbskip = reader.skip(remaining);
+
+			if (nbskip <= 0) {
+				// skip() may return 0 before the end of stream, so check it
+				if (reader.read() < 0) {
+					throw new EOFException();
+				}
+
+				--remaining;
+			} else {
+				remaining -= nbskip;
+			}
+		}
 	}
 }
@@ -1,8 +1,10 @@
 package org.nucleus8583.core.util;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -117,4 +119,30 @@ public abstract class ResourceUtils {
 
 		return resolved;
 	}
+
+	public static byte[] toByteArray(InputStream in) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		byte[] buf = new byte[4096];
+
+		int nbread;
+		while ((nbread = in.read(buf)) >= 0) {
+			baos.write(buf, 0, nbread);
+		}
+
+		return baos.toByteArray();
+	}
+
+	public static byte[] toByteArray(String location) throws IOException {
+		URL found = getURL(location);
+		if (found == null) {
+			throw new FileNotFoundException("unable to find " + location);
+		}
+
+		InputStream in = found.openStream();
+		try {
+			return toByteArray(in);
+		} finally {
+			in.close();
+		}
+	}
 }
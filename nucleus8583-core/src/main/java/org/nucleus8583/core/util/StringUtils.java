@@ -2,8 +2,16 @@ package org.nucleus8583.core.util;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public abstract class StringUtils {
+	private static final char[] EMPTY_CHARS = new char[0];
+
+	private static final ConcurrentMap<Character, char[]> padders = new ConcurrentHashMap<Character, char[]>();
+
+	private static final ConcurrentMap<String, char[]> sharedChars = new ConcurrentHashMap<String, char[]>();
 
 	public static boolean isNull(String value) {
 		return value == null;
@@ -37,6 +45,57 @@ public abstract class StringUtils {
 		return value;
 	}
 
+	/**
+	 * retrieve a padder array filled with <code>padWith</code> whose length is
+	 * at least <code>length</code>. Padders are shared by all field types, one
+	 * per pad char sized to the longest requested length, so callers must not
+	 * modify them. A longer padder replaces the pooled one for later callers
+	 * only, callers keep the array they have got.
+	 */
+	public static char[] padder(char padWith, int length) {
+		Character key = Character.valueOf(padWith);
+
+		while (true) {
+			char[] existing = padders.get(key);
+			if ((existing != null) && (existing.length >= length)) {
+				return existing;
+			}
+
+			char[] padder = new char[existing == null ? length : Math.max(length, existing.length)];
+			Arrays.fill(padder, padWith);
+
+			if (existing == null) {
+				if (padders.putIfAbsent(key, padder) == null) {
+					return padder;
+				}
+			} else if (padders.replace(key, existing, padder)) {
+				return padder;
+			}
+		}
+	}
+
+	/**
+	 * retrieve a shared char array containing <code>value</code>. Callers must
+	 * not modify the returned array.
+	 */
+	public static char[] sharedCharArray(String value) {
+		if (value.length() == 0) {
+			return EMPTY_CHARS;
+		}
+
+		char[] existing = sharedChars.get(value);
+		if (existing == null) {
+			char[] chars = value.toCharArray();
+
+			existing = sharedChars.putIfAbsent(value, chars);
+			if (existing == null) {
+				existing = chars;
+			}
+		}
+
+		return existing;
+	}
+
 	public static void pad(Writer writer, String value, int valueLength, int expectedLength, char align, char[] padder) throws IOException {
 		if (valueLength == 0) {
 			writer.write(padder, 0, expectedLength);
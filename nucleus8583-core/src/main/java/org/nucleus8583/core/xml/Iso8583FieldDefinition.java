@@ -1,29 +1,16 @@
 package org.nucleus8583.core.xml;
 
-import javax.xml.bind.annotation.XmlAccessType;
-import javax.xml.bind.annotation.XmlAccessorType;
-import javax.xml.bind.annotation.XmlAttribute;
-import javax.xml.bind.annotation.XmlRootElement;
-
-@XmlRootElement(name = "iso-field", namespace = "http://www.nucleus8583.org/schema/iso-message")
-@XmlAccessorType(XmlAccessType.FIELD)
 public class Iso8583FieldDefinition {
-	@XmlAttribute(name = "id", required = true)
 	private int id;
 
-	@XmlAttribute(name = "type", required = true)
 	private String type;
 
-	@XmlAttribute(name = "length")
 	private final int length;
 
-	@XmlAttribute(name = "align")
 	private final Iso8583FieldAlignments align;
 
-	@XmlAttribute(name = "pad-with")
 	private final String padWith;
 
-	@XmlAttribute(name = "empty-value")
 	private final String emptyValue;
 
 	public Iso8583FieldDefinition() {
@@ -35,6 +22,19 @@ public class Iso8583FieldDefinition {
 		emptyValue = null;
 	}
 
+	public Iso8583FieldDefinition(int id, String type, int length, Iso8583FieldAlignments align, String padWith,
+			String emptyValue) {
+		this.id = id;
+		this.type = type;
+
+		this.length = length;
+
+		this.align = align;
+		this.padWith = padWith;
+
+		this.emptyValue = emptyValue;
+	}
+
 	public int getId() {
 		return id;
 	}
@@ -0,0 +1,220 @@
+package org.nucleus8583.core.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Read <code>iso-message</code> configuration into
+ * {@link Iso8583MessageDefinition} using a SAX parser, without reflection.
+ */
+public abstract class Iso8583MessageDefinitionReader {
+	public static final String NAMESPACE = "http://www.nucleus8583.org/schema/iso-message";
+
+	private static final SAXParserFactory factory;
+
+	static {
+		factory = SAXParserFactory.newInstance();
+		factory.setNamespaceAware(true);
+		factory.setValidating(false);
+
+		// configuration never needs a DTD, refuse it so that no external
+		// entity nor external DTD is ever resolved
+		setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+		setFeature("http://xml.org/sax/features/external-general-entities", false);
+		setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+		setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+	}
+
+	private static void setFeature(String name, boolean value) {
+		try {
+			factory.setFeature(name, value);
+		} catch (Exception e) {
+			// not supported by this parser, the other features still apply
+		}
+	}
+
+	public static Iso8583MessageDefinition read(URL url) throws IOException {
+		InputStream in = url.openStream();
+
+		try {
+			return read(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	public static Iso8583MessageDefinition read(InputStream in) throws IOException {
+		Handler handler = new Handler(false);
+		parse(in, handler);
+
+		return handler.toDefinition();
+	}
+
+	/**
+	 * read a single <code>iso-field</code> element.
+	 */
+	public static Iso8583FieldDefinition readField(InputStream in) throws IOException {
+		Handler handler = new Handler(true);
+		parse(in, handler);
+
+		return handler.toField();
+	}
+
+	private static void parse(InputStream in, Handler handler) throws IOException {
+		try {
+			SAXParser parser;
+
+			synchronized (factory) {
+				parser = factory.newSAXParser();
+			}
+
+			parser.parse(in, handler);
+		} catch (ParserConfigurationException e) {
+			throw new RuntimeException(e);
+		} catch (SAXException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+	}
+
+	public static Iso8583MessageDefinition read(Node node) {
+		Element root;
+
+		if (node.getNodeType() == Node.DOCUMENT_NODE) {
+			root = ((Document) node).getDocumentElement();
+		} else if (node.getNodeType() == Node.ELEMENT_NODE) {
+			root = (Element) node;
+		} else {
+			root = null;
+		}
+
+		if ((root == null) || !isMessageElement(root.getNamespaceURI(), localName(root))) {
+			throw new IllegalArgumentException("iso-message element expected");
+		}
+
+		List<Iso8583FieldDefinition> fields = new ArrayList<Iso8583FieldDefinition>();
+
+		for (Node child = root.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (child.getNodeType() != Node.ELEMENT_NODE) {
+				continue;
+			}
+
+			Element e = (Element) child;
+			if (isFieldElement(e.getNamespaceURI(), localName(e))) {
+				fields.add(createField(attribute(e, "id"), attribute(e, "type"), attribute(e, "length"), attribute(e,
+						"align"), attribute(e, "pad-with"), attribute(e, "empty-value")));
+			}
+		}
+
+		return new Iso8583MessageDefinition(attribute(root, "encoding"), fields);
+	}
+
+	private static String localName(Node node) {
+		String name = node.getLocalName();
+		if (name == null) {
+			name = node.getNodeName();
+		}
+
+		return name;
+	}
+
+	private static String attribute(Element e, String name) {
+		return e.hasAttribute(name) ? e.getAttribute(name) : null;
+	}
+
+	private static boolean isMessageElement(String uri, String localName) {
+		return NAMESPACE.equals(uri) && "iso-message".equals(localName);
+	}
+
+	private static boolean isFieldElement(String uri, String localName) {
+		return NAMESPACE.equals(uri) && "iso-field".equals(localName);
+	}
+
+	private static Iso8583FieldDefinition createField(String id, String type, String length, String align,
+			String padWith, String emptyValue) {
+		if (id == null) {
+			throw new IllegalArgumentException("attribute id of iso-field is required");
+		}
+
+		return new Iso8583FieldDefinition(Integer.parseInt(id.trim()), type, length == null ? 0 : Integer
+				.parseInt(length.trim()), Iso8583FieldAlignments.enumValueOf(align), padWith, emptyValue);
+	}
+
+	private static final class Handler extends DefaultHandler {
+		private final boolean fieldOnly;
+
+		private String encoding;
+
+		private final List<Iso8583FieldDefinition> fields = new ArrayList<Iso8583FieldDefinition>();
+
+		private int depth = 0;
+
+		private boolean found = false;
+
+		Handler(boolean fieldOnly) {
+			this.fieldOnly = fieldOnly;
+		}
+
+		public void startElement(String uri, String localName, String qName, Attributes attributes)
+				throws SAXException {
+			++depth;
+
+			if ((depth == 1) && fieldOnly) {
+				if (!isFieldElement(uri, localName)) {
+					throw new SAXException("iso-field element expected");
+				}
+
+				addField(attributes);
+				found = true;
+			} else if (depth == 1) {
+				if (!isMessageElement(uri, localName)) {
+					throw new SAXException("iso-message element expected");
+				}
+
+				encoding = attributes.getValue("encoding");
+				found = true;
+			} else if ((depth == 2) && !fieldOnly && isFieldElement(uri, localName)) {
+				addField(attributes);
+			}
+		}
+
+		private void addField(Attributes attributes) {
+			fields.add(createField(attributes.getValue("id"), attributes.getValue("type"), attributes
+					.getValue("length"), attributes.getValue("align"), attributes.getValue("pad-with"), attributes
+					.getValue("empty-value")));
+		}
+
+		public void endElement(String uri, String localName, String qName) throws SAXException {
+			--depth;
+		}
+
+		Iso8583MessageDefinition toDefinition() {
+			if (!found) {
+				throw new IllegalArgumentException("iso-message element expected");
+			}
+
+			return new Iso8583MessageDefinition(encoding, fields);
+		}
+
+		Iso8583FieldDefinition toField() {
+			if (!found) {
+				throw new IllegalArgumentException("iso-field element expected");
+			}
+
+			return fields.get(0);
+		}
+	}
+}
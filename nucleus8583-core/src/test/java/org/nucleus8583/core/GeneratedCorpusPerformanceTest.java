@@ -0,0 +1,54 @@
+package org.nucleus8583.core;
+
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+@Ignore
+public class GeneratedCorpusPerformanceTest {
+	private Iso8583MessageSerializer serializer;
+
+	private byte[][] corpus;
+
+	@Before
+	public void initialize() throws Exception {
+		serializer = new Iso8583MessageSerializer("classpath:META-INF/codec8583.xml");
+
+		Iso8583MessageGenerator generator = new Iso8583MessageGenerator(serializer, 8583);
+		generator.addMti("0200", 70);
+		generator.addMti("0400", 10);
+		generator.addMti("0800", 20);
+		generator.setPresence(0.25);
+
+		corpus = new byte[1024][];
+		for (int i = 0; i < corpus.length; ++i) {
+			corpus[i] = generator.nextFrame();
+		}
+	}
+
+	private long measure(int loops) throws Exception {
+		Iso8583Message msg = new Iso8583Message();
+
+		long startDate = System.currentTimeMillis();
+
+		for (int i = loops - 1; i >= 0; --i) {
+			msg.clear();
+			serializer.read(corpus[i & 1023], msg);
+		}
+		long endDate = System.currentTimeMillis();
+
+		return endDate - startDate;
+	}
+
+	@Test
+	public void shouldVeryFast() throws Exception {
+		int loops = 1000000;
+
+		for (int i = 0; i < 1; ++i) {
+			long elapsed = measure(loops);
+
+			System.out.println("[read generated] loops / sec = " + (loops * 1000 / elapsed));
+			Thread.yield();
+		}
+	}
+}
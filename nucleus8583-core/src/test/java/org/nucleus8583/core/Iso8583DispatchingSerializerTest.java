@@ -0,0 +1,91 @@
+package org.nucleus8583.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class Iso8583DispatchingSerializerTest {
+	private Iso8583MessageSerializer serializer;
+
+	private Iso8583MessageSerializer serializerL;
+
+	private String packed;
+
+	@Before
+	public void initialize() throws Exception {
+		serializer = new Iso8583MessageSerializer("classpath:META-INF/codec8583.xml");
+		serializerL = new Iso8583MessageSerializer("classpath:META-INF/codec8583L.xml");
+
+		packed = "C00000000001000104000000000000000603000000499980000000000000000301";
+	}
+
+	@Test
+	public void testDispatchByMti() throws Exception {
+		Iso8583DispatchingSerializer dispatcher = new Iso8583DispatchingSerializer(0);
+		dispatcher.register("0xxx", serializer);
+		dispatcher.register("1xxx", serializerL);
+		dispatcher.register("08x0", serializerL);
+
+		assertSame(serializer, dispatcher.dispatch("0200"));
+		assertSame(serializerL, dispatcher.dispatch("1200"));
+		assertSame(serializerL, dispatcher.dispatch("0810"));
+		assertSame(serializer, dispatcher.dispatch("0811"));
+		assertNull(dispatcher.dispatch("2200"));
+		assertNull(dispatcher.dispatch("02a0"));
+
+		Iso8583Message msg = new Iso8583Message();
+		assertSame(serializerL, dispatcher.read(("1200" + packed).getBytes(), msg));
+
+		assertEquals("1200", msg.getMti());
+		assertEquals("030000", msg.getString(2));
+		assertEquals("301", msg.getString(70));
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		dispatcher.write(msg, baos);
+
+		assertEquals("1200" + packed, new String(baos.toByteArray()));
+	}
+
+	@Test
+	public void testDispatchByHeader() throws Exception {
+		Iso8583DispatchingSerializer dispatcher = new Iso8583DispatchingSerializer(1);
+		dispatcher.register("xxxx", serializer);
+		dispatcher.register(new Iso8583HeaderPredicate() {
+
+			public boolean matches(byte[] buf, int off, int len) {
+				return buf[off] == 'L';
+			}
+		}, serializerL);
+
+		assertSame(serializerL, dispatcher.read(("L0200" + packed).getBytes(), new Iso8583Message()));
+		assertSame(serializer, dispatcher.read(("A0200" + packed).getBytes(), new Iso8583Message()));
+	}
+
+	@Test(expected = IOException.class)
+	public void testNoMatch() throws Exception {
+		Iso8583DispatchingSerializer dispatcher = new Iso8583DispatchingSerializer(0);
+		dispatcher.register("1xxx", serializerL);
+
+		dispatcher.read(("0200" + packed).getBytes(), new Iso8583Message());
+	}
+
+	@Test
+	public void testDefault() throws Exception {
+		Iso8583DispatchingSerializer dispatcher = new Iso8583DispatchingSerializer(0);
+		dispatcher.register("1xxx", serializerL);
+		dispatcher.setDefault(serializer);
+
+		assertSame(serializer, dispatcher.read(("0200" + packed).getBytes(), new Iso8583Message()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMalformedPattern() {
+		new Iso8583DispatchingSerializer(0).register("1xx", serializer);
+	}
+}
@@ -0,0 +1,45 @@
+package org.nucleus8583.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class Iso8583FieldSetTest {
+
+	@Test
+	public void testContains() {
+		Iso8583FieldSet set = Iso8583FieldSet.of(0, 2, 70, 2);
+
+		assertTrue(set.contains(0));
+		assertTrue(set.contains(2));
+		assertTrue(set.contains(70));
+		assertFalse(set.contains(3));
+		assertFalse(set.contains(71));
+		assertFalse(set.contains(-1));
+
+		assertEquals(70, set.getHighest());
+		assertEquals(3, set.size());
+	}
+
+	@Test
+	public void testToArray() {
+		int[] fields = Iso8583FieldSet.of(70, 0, 2).toArray();
+
+		assertEquals(3, fields.length);
+		assertEquals(0, fields[0]);
+		assertEquals(2, fields[1]);
+		assertEquals(70, fields[2]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOfField65() {
+		Iso8583FieldSet.of(2, 65);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOfOutOfRange() {
+		Iso8583FieldSet.of(193);
+	}
+}
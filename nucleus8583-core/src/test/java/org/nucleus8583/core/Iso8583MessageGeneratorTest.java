@@ -0,0 +1,152 @@
+package org.nucleus8583.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class Iso8583MessageGeneratorTest {
+	private Iso8583MessageSerializer serializer;
+
+	@Before
+	public void initialize() throws Exception {
+		serializer = new Iso8583MessageSerializer("classpath:META-INF/codec8583.xml");
+	}
+
+	@Test
+	public void shouldBeReproducible() {
+		Iso8583MessageGenerator g1 = new Iso8583MessageGenerator(serializer, 42);
+		Iso8583MessageGenerator g2 = new Iso8583MessageGenerator(serializer, 42);
+
+		for (int i = 0; i < 100; ++i) {
+			assertArrayEquals(g1.nextFrame(), g2.nextFrame());
+		}
+	}
+
+	@Test
+	public void shouldProduceReadableFrames() throws Exception {
+		Iso8583MessageGenerator generator = new Iso8583MessageGenerator(serializer, 8583);
+		generator.setPresence(1.0);
+
+		Iso8583Message msg = new Iso8583Message();
+		Iso8583Message unpacked = new Iso8583Message();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		for (int i = 0; i < 100; ++i) {
+			generator.next(msg);
+
+			out.reset();
+			serializer.write(msg, out);
+
+			unpacked.clear();
+			serializer.read(out.toByteArray(), unpacked);
+
+			assertEquals(msg, unpacked);
+		}
+	}
+
+	@Test
+	public void testPresence() {
+		Iso8583MessageGenerator generator = new Iso8583MessageGenerator(serializer, 1);
+		generator.setPresence(0.0);
+		generator.setPresence(2, 1.0);
+		generator.setPresence(70, 1.0);
+
+		for (int i = 0; i < 100; ++i) {
+			Iso8583Message msg = generator.next();
+
+			for (int j = 2; j <= 128; ++j) {
+				if (j == 65) {
+					continue;
+				}
+
+				assertEquals((j == 2) || (j == 70), msg.get(j) != null);
+			}
+		}
+	}
+
+	@Test
+	public void testLengthRange() {
+		Iso8583MessageGenerator generator = new Iso8583MessageGenerator(serializer, 1);
+		generator.setPresence(0.0);
+		generator.setPresence(48, 1.0);
+		generator.setLengthRange(48, 5, 10);
+
+		boolean min = false;
+		boolean max = false;
+
+		for (int i = 0; i < 1000; ++i) {
+			int length = generator.next().getString(48).length();
+
+			assertTrue(length >= 5);
+			assertTrue(length <= 10);
+
+			min |= length == 5;
+			max |= length == 10;
+		}
+
+		assertTrue(min);
+		assertTrue(max);
+	}
+
+	@Test
+	public void lengthRangeShouldBeLimitedToFieldLength() {
+		Iso8583MessageGenerator generator = new Iso8583MessageGenerator(serializer, 1);
+		generator.setPresence(0.0);
+		generator.setPresence(2, 1.0);
+		generator.setLengthRange(2, 0, 1000);
+
+		for (int i = 0; i < 1000; ++i) {
+			assertTrue(generator.next().getString(2).length() <= 99);
+		}
+	}
+
+	@Test
+	public void lengthRangeShouldRejectBinaryField() {
+		Iso8583MessageGenerator generator = new Iso8583MessageGenerator(serializer, 1);
+
+		try {
+			generator.setLengthRange(64, 0, 8);
+			fail("field #64 is a binary field");
+		} catch (IllegalArgumentException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testMtiMix() {
+		Iso8583MessageGenerator generator = new Iso8583MessageGenerator(serializer, 1);
+		generator.addMti("0200", 3);
+		generator.addMti("0800", 1);
+
+		int financial = 0;
+		int network = 0;
+
+		for (int i = 0; i < 4000; ++i) {
+			String mti = generator.next().getMti();
+
+			if ("0200".equals(mti)) {
+				++financial;
+			} else if ("0800".equals(mti)) {
+				++network;
+			} else {
+				fail("unexpected MTI " + mti);
+			}
+		}
+
+		assertTrue(financial > 2 * network);
+		assertFalse(network == 0);
+	}
+
+	@Test
+	public void defaultMtiShouldBe0200() {
+		assertEquals("0200", new Iso8583MessageGenerator(serializer, 1).next().getMti());
+	}
+}
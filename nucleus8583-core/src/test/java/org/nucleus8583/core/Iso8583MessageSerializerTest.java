@@ -1,6 +1,8 @@
 package org.nucleus8583.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -8,10 +10,14 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
 import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.nucleus8583.core.util.CharWindow;
 
 public class Iso8583MessageSerializerTest {
 	private Iso8583MessageSerializer serializer;
@@ -113,4 +119,180 @@ public class Iso8583MessageSerializerTest {
 		serializer.write(unpacked, sw);
 		assertEquals(this.packed, sw.toString());
 	}
+
+	@Test
+	public void testReadProjectionFromBytes() throws Exception {
+		Iso8583Message expected = new Iso8583Message();
+		expected.setMti("0200");
+		expected.set(48, "9998");
+		expected.set(70, "301");
+
+		Iso8583Message unpacked = new Iso8583Message();
+		serializer.read(packed.getBytes(), unpacked, Iso8583FieldSet.of(0, 48, 70));
+
+		assertEquals(expected, unpacked);
+	}
+
+	@Test
+	public void testReadProjectionFromString() throws Exception {
+		Iso8583Message expected = new Iso8583Message();
+		expected.set(2, "030000");
+
+		Iso8583Message unpacked = new Iso8583Message();
+		serializer.read(packed, unpacked, Iso8583FieldSet.of(2));
+
+		assertEquals(expected, unpacked);
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadProjectionFromTruncatedString() throws Exception {
+		serializer.read(packed.substring(0, packed.length() - 2), new Iso8583Message(), Iso8583FieldSet.of(2));
+	}
+
+	@Test
+	public void testPeekFromBytes() throws Exception {
+		Iso8583PeekResult result = new Iso8583PeekResult();
+		serializer.peek(packed.getBytes(), Iso8583FieldSet.of(0, 2), result);
+
+		assertEquals("0200", result.getMti());
+		assertEquals("030000", result.getString(2));
+		assertEquals(null, result.get(48));
+
+		assertEquals(Iso8583Message.fieldMask(2, 48, 64, 70)[0] | 1L, result.getBitmapWord(0));
+		assertEquals(Iso8583Message.fieldMask(2, 48, 64, 70)[1], result.getBitmapWord(1));
+		assertEquals(0L, result.getBitmapWord(2));
+
+		assertTrue(result.isPresent(48));
+		assertFalse(result.isPresent(3));
+	}
+
+	@Test
+	public void testPeekReuseResult() throws Exception {
+		Iso8583PeekResult result = new Iso8583PeekResult();
+
+		serializer.peek(packed, Iso8583FieldSet.of(0, 2), result);
+		serializer.peek(packed, Iso8583FieldSet.of(70), result);
+
+		assertEquals("", result.getMti());
+		assertEquals(null, result.getString(2));
+		assertEquals("301", result.getString(70));
+	}
+
+	@Test(expected = IOException.class)
+	public void testPeekFromTruncatedString() throws Exception {
+		serializer.peek(packed.substring(0, 30), Iso8583FieldSet.of(2), new Iso8583PeekResult());
+	}
+
+	@Test
+	public void testPeekStopsAfterHighestField() throws Exception {
+		Iso8583PeekResult result = new Iso8583PeekResult();
+
+		// field 64 and 70 are truncated but not needed
+		serializer.peek(packed.substring(0, 51), Iso8583FieldSet.of(2, 48), result);
+
+		assertEquals("030000", result.getString(2));
+		assertEquals("9998", result.getString(48));
+	}
+
+	@Test
+	public void testReadWithResultFromBytes() throws Exception {
+		Iso8583DecodeResult result = new Iso8583DecodeResult();
+
+		Iso8583Message unpacked = new Iso8583Message();
+
+		assertTrue(serializer.read(packed.getBytes(), unpacked, result));
+		assertEquals(Iso8583DecodeResult.OK, result.getCode());
+		assertEquals(-1, result.getFieldId());
+		assertEquals(this.unpacked, unpacked);
+	}
+
+	@Test
+	public void testReadWithResultFromTruncatedString() throws Exception {
+		Iso8583DecodeResult result = new Iso8583DecodeResult();
+
+		assertFalse(serializer.read(packed.substring(0, 49), new Iso8583Message(), result));
+		assertEquals(Iso8583DecodeResult.EOF, result.getCode());
+		assertEquals(48, result.getFieldId());
+		assertEquals(44, result.getOffset());
+	}
+
+	@Test
+	public void testReadWithResultInvalidLength() throws Exception {
+		Iso8583DecodeResult result = new Iso8583DecodeResult();
+
+		String malformed = packed.substring(0, 36) + "0x" + packed.substring(38);
+
+		assertFalse(serializer.read(malformed.getBytes(), new Iso8583Message(), result));
+		assertEquals(Iso8583DecodeResult.INVALID_LENGTH, result.getCode());
+		assertEquals(2, result.getFieldId());
+		assertEquals(36, result.getOffset());
+
+		// the result can be reused
+		assertTrue(serializer.read(packed, new Iso8583Message(), result));
+		assertEquals(Iso8583DecodeResult.OK, result.getCode());
+	}
+
+	@Test
+	public void testWarmUp() {
+		assertFalse(serializer.isWarmedUp());
+
+		serializer.warmUp(0);
+		assertFalse(serializer.isWarmedUp());
+
+		assertTrue(serializer.warmUp(100) >= 0);
+		assertTrue(serializer.isWarmedUp());
+
+		Iso8583MessageSerializer serializerL = new Iso8583MessageSerializer("classpath:META-INF/codec8583L.xml");
+		assertTrue(serializerL.warmUp(100) >= 0);
+		assertTrue(serializerL.isWarmedUp());
+	}
+
+	@Test
+	public void testReadFromByteBuffer() throws Exception {
+		ByteBuffer buf = ByteBuffer.wrap(("XX" + packed + "YY").getBytes());
+		buf.position(2);
+
+		Iso8583Message unpacked = new Iso8583Message();
+		serializer.read(buf, unpacked);
+
+		assertEquals(this.unpacked, unpacked);
+		assertEquals(2 + packed.length(), buf.position());
+	}
+
+	@Test
+	public void testWriteToByteBuffer() throws Exception {
+		ByteBuffer buf = ByteBuffer.allocate(packed.length() + 10);
+		buf.put((byte) 'X');
+
+		serializer.write(unpacked, buf);
+
+		assertEquals(1 + packed.length(), buf.position());
+		assertEquals("X" + packed, new String(buf.array(), 0, buf.position()));
+	}
+
+	@Test
+	public void testReadWithVisitor() throws Exception {
+		final Map<Integer, Object> values = new HashMap<Integer, Object>();
+
+		serializer.read(ByteBuffer.wrap(packed.getBytes()), new Iso8583FieldVisitor() {
+
+			public boolean accept(int no) {
+				return no != 48;
+			}
+
+			public void visit(int no, CharWindow value) {
+				values.put(Integer.valueOf(no), value.toString());
+			}
+
+			public void visit(int no, BitSet value) {
+				values.put(Integer.valueOf(no), value);
+			}
+		});
+
+		assertEquals(4, values.size());
+		assertEquals("0200", values.get(0));
+		assertEquals("030000", values.get(2));
+		assertEquals(new BitSet(), values.get(64));
+		assertEquals("301", values.get(70));
+	}
 }
@@ -0,0 +1,99 @@
+package org.nucleus8583.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.BitSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class Iso8583MessageTemplateTest {
+	private Iso8583MessageSerializer serializer;
+
+	private String packed;
+
+	private Iso8583Message constants;
+
+	@Before
+	public void initialize() throws Exception {
+		serializer = new Iso8583MessageSerializer("classpath:META-INF/codec8583.xml");
+
+		packed = "0200C00000000001000104000000000000000603000000499980000000000000000301";
+
+		constants = new Iso8583Message();
+		constants.setMti("0200");
+		constants.set(48, "9998");
+		constants.set(70, "301");
+	}
+
+	@Test
+	public void testGetVariableFields() {
+		Iso8583MessageTemplate template = Iso8583MessageTemplate.compile(serializer, new int[] { 2, 48, 64, 70 },
+				constants);
+
+		int[] variables = template.getVariableFields();
+
+		assertEquals(2, variables.length);
+		assertEquals(2, variables[0]);
+		assertEquals(64, variables[1]);
+	}
+
+	@Test
+	public void testRenderToWriter() throws Exception {
+		Iso8583MessageTemplate template = Iso8583MessageTemplate.compile(serializer, new int[] { 2, 48, 64, 70 },
+				constants);
+
+		StringWriter sw = new StringWriter();
+		template.render(sw, "030000", new BitSet());
+
+		assertEquals(packed, sw.toString());
+	}
+
+	@Test
+	public void testRenderToOutputStream() throws Exception {
+		Iso8583MessageTemplate template = Iso8583MessageTemplate.compile(serializer, new int[] { 2, 48, 64, 70 },
+				constants);
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		template.render(baos, "030000", new BitSet());
+
+		assertEquals(packed, new String(baos.toByteArray()));
+	}
+
+	@Test
+	public void testRenderVariableMti() throws Exception {
+		constants.unsetMti();
+
+		Iso8583MessageTemplate template = Iso8583MessageTemplate.compile(serializer, new int[] { 2, 48, 64, 70 },
+				constants);
+
+		assertEquals(packed, new String(template.renderToBytes("0200", "030000", new BitSet())));
+	}
+
+	@Test
+	public void testRenderAllConstants() throws Exception {
+		constants.set(2, "030000");
+		constants.set(64, new BitSet());
+
+		Iso8583MessageTemplate template = Iso8583MessageTemplate.compile(serializer, new int[] { 2, 48, 64, 70 },
+				constants);
+
+		assertEquals(0, template.getVariableFields().length);
+		assertEquals(packed, new String(template.renderToBytes()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCompileConstantNotInBitmap() {
+		Iso8583MessageTemplate.compile(serializer, new int[] { 2, 64, 70 }, constants);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRenderMissingValue() throws Exception {
+		Iso8583MessageTemplate template = Iso8583MessageTemplate.compile(serializer, new int[] { 2, 48, 64, 70 },
+				constants);
+
+		template.render(new StringWriter(), "030000");
+	}
+}
@@ -303,4 +303,32 @@ public class Iso8583MessageTest {
 		dump.clear();
 		msg1.clear();
 	}
+
+	@Test
+	public void testCopyFields() {
+		BitSet bits = new BitSet();
+		bits.set(3);
+
+		msg1.setMti("0200");
+		msg1.set(2, "400");
+		msg1.set(11, "123456");
+		msg1.set(64, bits);
+		msg1.set(70, "301");
+
+		msg2.set(39, "00");
+		msg2.copyFields(msg1, Iso8583Message.fieldMask(2, 7, 64, 70));
+
+		assertEquals("", msg2.getMti());
+		assertEquals("400", msg2.getString(2));
+		assertNull(msg2.get(7));
+		assertNull(msg2.get(11));
+		assertEquals(bits, msg2.getBinary(64));
+		assertEquals("301", msg2.getString(70));
+		assertEquals("00", msg2.getString(39));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFieldMaskOutOfRange() {
+		Iso8583Message.fieldMask(2, 65);
+	}
 }
@@ -0,0 +1,123 @@
+package org.nucleus8583.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.nucleus8583.core.util.ResourceUtils;
+
+public class Iso8583ReloadableSerializerTest {
+	private File file;
+
+	private Iso8583ReloadableSerializer reloadable;
+
+	private void copy(String location) throws IOException {
+		FileOutputStream out = new FileOutputStream(file);
+
+		try {
+			out.write(ResourceUtils.toByteArray(location));
+		} finally {
+			out.close();
+		}
+	}
+
+	@Before
+	public void initialize() throws Exception {
+		file = File.createTempFile("nucleus8583", ".xml");
+		copy("classpath:META-INF/codec8583.xml");
+
+		reloadable = new Iso8583ReloadableSerializer(file.toURI().toString());
+	}
+
+	@After
+	public void destroy() {
+		reloadable.stopWatching();
+		file.delete();
+	}
+
+	@Test
+	public void testReload() throws Exception {
+		Iso8583MessageSerializer old = reloadable.get();
+
+		assertEquals(1, reloadable.getVersion());
+		assertEquals(129, old.directFields().length);
+
+		copy("classpath:META-INF/codec8583L.xml");
+
+		assertTrue(reloadable.reload());
+		assertEquals(2, reloadable.getVersion());
+		assertEquals(193, reloadable.get().directFields().length);
+
+		// the old instance is still usable
+		assertEquals(129, old.directFields().length);
+	}
+
+	@Test
+	public void testReloadInvalidKeepsCurrent() throws Exception {
+		Iso8583MessageSerializer old = reloadable.get();
+
+		copy("classpath:META-INF/codec8583-4.xml");
+
+		assertFalse(reloadable.reload());
+		assertNotNull(reloadable.getLastError());
+		assertEquals(1, reloadable.getVersion());
+		assertSame(old, reloadable.get());
+
+		copy("classpath:META-INF/codec8583.xml");
+
+		assertTrue(reloadable.reload());
+		assertNull(reloadable.getLastError());
+	}
+
+	@Test
+	public void testFailedFileIsNotReloadedUntilModified() throws Exception {
+		copy("classpath:META-INF/codec8583-4.xml");
+		file.setLastModified(file.lastModified() + 2000);
+
+		assertFalse(reloadable.reloadIfModified());
+		Throwable error = reloadable.getLastError();
+		assertNotNull(error);
+
+		// same broken file, not parsed again
+		assertFalse(reloadable.reloadIfModified());
+		assertSame(error, reloadable.getLastError());
+
+		copy("classpath:META-INF/codec8583L.xml");
+		file.setLastModified(file.lastModified() + 4000);
+
+		assertTrue(reloadable.reloadIfModified());
+		assertNull(reloadable.getLastError());
+		assertEquals(2, reloadable.getVersion());
+	}
+
+	@Test
+	public void testWatch() throws Exception {
+		reloadable.startWatching(10);
+
+		copy("classpath:META-INF/codec8583L.xml");
+		file.setLastModified(file.lastModified() + 2000);
+
+		for (int i = 0; (i < 500) && (reloadable.getVersion() == 1); ++i) {
+			Thread.sleep(10);
+		}
+
+		assertEquals(2, reloadable.getVersion());
+		assertEquals(193, reloadable.get().directFields().length);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testWatchTwice() {
+		reloadable.startWatching(1000);
+		reloadable.startWatching(1000);
+	}
+}
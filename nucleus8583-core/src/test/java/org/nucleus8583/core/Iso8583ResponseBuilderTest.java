@@ -0,0 +1,72 @@
+package org.nucleus8583.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class Iso8583ResponseBuilderTest {
+	private Iso8583ResponseBuilder builder;
+
+	private Iso8583Message request;
+
+	@Before
+	public void initialize() throws Exception {
+		builder = new Iso8583ResponseBuilder(new Iso8583MessageSerializer("classpath:META-INF/codec8583.xml"));
+
+		request = new Iso8583Message();
+		request.setMti("0200");
+		request.set(2, "030000");
+		request.set(11, "123456");
+		request.set(48, "9998");
+		request.set(70, "301");
+	}
+
+	@Test
+	public void testResponseMti() {
+		assertEquals("0210", Iso8583ResponseBuilder.responseMti("0200"));
+		assertEquals("0210", Iso8583ResponseBuilder.responseMti("0201"));
+		assertEquals("0430", Iso8583ResponseBuilder.responseMti("0421"));
+		assertEquals("0810", Iso8583ResponseBuilder.responseMti("0800"));
+		assertEquals("0210", Iso8583ResponseBuilder.responseMti("0210"));
+	}
+
+	@Test
+	public void testBuildFinancial() {
+		Iso8583Message response = builder.build(request);
+
+		assertEquals("0210", response.getMti());
+		assertEquals("030000", response.getString(2));
+		assertEquals("123456", response.getString(11));
+		assertNull(response.get(48));
+		assertNull(response.get(70));
+	}
+
+	@Test
+	public void testBuildNetworkManagement() {
+		request.setMti("0800");
+
+		Iso8583Message response = builder.build(request);
+
+		assertEquals("0810", response.getMti());
+		assertNull(response.get(2));
+		assertEquals("123456", response.getString(11));
+		assertEquals("301", response.getString(70));
+	}
+
+	@Test
+	public void testBuildWithOverride() {
+		builder.setEchoFields("0200", 48);
+
+		Iso8583Message response = new Iso8583Message();
+		response.set(39, "00");
+
+		builder.build(request, response);
+
+		assertEquals("0210", response.getMti());
+		assertNull(response.get(2));
+		assertEquals("9998", response.getString(48));
+		assertEquals("00", response.getString(39));
+	}
+}
@@ -0,0 +1,147 @@
+package org.nucleus8583.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.BitSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class Iso8583SchemaSnapshotTest {
+	private static final String LOCATION = "classpath:META-INF/codec8583.xml";
+
+	private String packed;
+
+	private Iso8583Message unpacked;
+
+	private byte[] snapshot;
+
+	@Before
+	public void initialize() throws Exception {
+		packed = "0200C00000000001000104000000000000000603000000499980000000000000000301";
+
+		unpacked = new Iso8583Message();
+		unpacked.setMti("0200");
+		unpacked.set(2, "030000");
+		unpacked.set(48, "9998");
+		unpacked.set(64, new BitSet());
+		unpacked.set(70, "301");
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		Iso8583SchemaSnapshot.compile(LOCATION, baos);
+
+		snapshot = baos.toByteArray();
+	}
+
+	@Test
+	public void testRestore() throws Exception {
+		Iso8583MessageSerializer serializer = Iso8583SchemaSnapshot.restore(new ByteArrayInputStream(snapshot),
+				Iso8583SchemaSnapshot.checksum(LOCATION));
+
+		assertEquals("ASCII", serializer.getEncoding());
+
+		Iso8583Message msg = new Iso8583Message();
+		serializer.read(packed, msg);
+
+		assertEquals(unpacked, msg);
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		serializer.write(unpacked, baos);
+
+		assertEquals(packed, new String(baos.toByteArray()));
+	}
+
+	@Test
+	public void testRestoreSameAsXml() throws Exception {
+		Iso8583MessageSerializer fromXml = new Iso8583MessageSerializer("classpath:META-INF/codec8583L.xml");
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		Iso8583SchemaSnapshot.compile("classpath:META-INF/codec8583L.xml", baos);
+
+		Iso8583MessageSerializer fromSnapshot = Iso8583SchemaSnapshot.restore(new ByteArrayInputStream(baos
+				.toByteArray()));
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		fromXml.write(unpacked, expected);
+
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		fromSnapshot.write(unpacked, actual);
+
+		assertEquals(new String(expected.toByteArray()), new String(actual.toByteArray()));
+	}
+
+	@Test(expected = IOException.class)
+	public void testRestoreStale() throws Exception {
+		Iso8583SchemaSnapshot.restore(new ByteArrayInputStream(snapshot), Iso8583SchemaSnapshot
+				.checksum("classpath:META-INF/codec8583L.xml"));
+	}
+
+	@Test(expected = IOException.class)
+	public void testRestoreCorrupted() throws Exception {
+		snapshot[snapshot.length / 2] ^= 0x55;
+
+		Iso8583SchemaSnapshot.restore(new ByteArrayInputStream(snapshot));
+	}
+
+	@Test
+	public void testLoad() throws Exception {
+		File file = File.createTempFile("nucleus8583", ".snapshot");
+
+		try {
+			assertTrue(file.delete());
+
+			Iso8583MessageSerializer first = Iso8583SchemaSnapshot.load(LOCATION, file);
+			assertTrue(file.isFile());
+
+			Iso8583MessageSerializer second = Iso8583SchemaSnapshot.load(LOCATION, file);
+
+			Iso8583Message msg1 = new Iso8583Message();
+			first.read(packed, msg1);
+
+			Iso8583Message msg2 = new Iso8583Message();
+			second.read(packed, msg2);
+
+			assertEquals(unpacked, msg1);
+			assertEquals(unpacked, msg2);
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testLoadReplacesCorrupted() throws Exception {
+		File dir = File.createTempFile("nucleus8583", ".dir");
+		assertTrue(dir.delete() && dir.mkdir());
+
+		File file = new File(dir, "nucleus8583.snapshot");
+
+		try {
+			FileOutputStream out = new FileOutputStream(file);
+			try {
+				out.write(snapshot, 0, snapshot.length / 2);
+			} finally {
+				out.close();
+			}
+
+			Iso8583MessageSerializer serializer = Iso8583SchemaSnapshot.load(LOCATION, file);
+
+			Iso8583Message msg = new Iso8583Message();
+			serializer.read(packed, msg);
+
+			assertEquals(unpacked, msg);
+			assertEquals(snapshot.length, file.length());
+
+			// the temporary file has been renamed
+			assertEquals(1, dir.list().length);
+		} finally {
+			file.delete();
+			dir.delete();
+		}
+	}
+}
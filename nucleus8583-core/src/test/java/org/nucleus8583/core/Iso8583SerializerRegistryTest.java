@@ -0,0 +1,131 @@
+package org.nucleus8583.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nucleus8583.core.field.type.Iso8583FieldType;
+import org.nucleus8583.core.util.ResourceUtils;
+
+public class Iso8583SerializerRegistryTest {
+	private Iso8583SerializerRegistry registry;
+
+	@Before
+	public void initialize() {
+		registry = new Iso8583SerializerRegistry();
+	}
+
+	@Test
+	public void testGetByLocation() {
+		Iso8583MessageSerializer serializer = registry.get("classpath:META-INF/codec8583.xml");
+
+		assertSame(serializer, registry.get("classpath:META-INF/codec8583.xml"));
+	}
+
+	@Test
+	public void testGetBySameContent() {
+		assertSame(registry.get("classpath:META-INF/codec8583.xml"), registry
+				.get("file:src/test/resources/META-INF/codec8583.xml"));
+	}
+
+	@Test
+	public void testSharedFieldTypes() {
+		Iso8583FieldType[] fields = registry.get("classpath:META-INF/codec8583.xml").directFields();
+		Iso8583FieldType[] fieldsL = registry.get("classpath:META-INF/codec8583L.xml").directFields();
+
+		for (int i = 0; i < fields.length; ++i) {
+			assertSame(fields[i], fieldsL[i]);
+		}
+
+		assertEquals(fieldsL.length, registry.getFieldTypesCount());
+	}
+
+	@Test
+	public void testInvalidate() {
+		Iso8583MessageSerializer serializer = registry.get("classpath:META-INF/codec8583.xml");
+
+		registry.invalidate("classpath:META-INF/codec8583.xml");
+
+		assertNotSame(serializer, registry.get("classpath:META-INF/codec8583.xml"));
+	}
+
+	@Test
+	public void testInvalidateReleasesUnusedFieldTypes() {
+		registry.get("classpath:META-INF/codec8583.xml");
+		registry.get("classpath:META-INF/codec8583L.xml");
+
+		assertEquals(193, registry.getFieldTypesCount());
+
+		registry.invalidate("classpath:META-INF/codec8583L.xml");
+
+		assertEquals(129, registry.getFieldTypesCount());
+		assertEquals(1, registry.getMemoryReport().getFieldArraysCount());
+
+		registry.invalidate("classpath:META-INF/codec8583.xml");
+
+		assertEquals(0, registry.getFieldTypesCount());
+	}
+
+	@Test
+	public void testFieldTypeEquality() {
+		Iso8583FieldType[] fields = new Iso8583MessageSerializer("classpath:META-INF/codec8583.xml").directFields();
+		Iso8583FieldType[] another = new Iso8583MessageSerializer("classpath:META-INF/codec8583.xml").directFields();
+
+		for (int i = 0; i < fields.length; ++i) {
+			assertEquals(fields[i], another[i]);
+			assertEquals(fields[i].hashCode(), another[i].hashCode());
+		}
+
+		assertFalse(fields[3].equals(fields[4]));
+	}
+
+	@Test
+	public void testSharedFieldArrays() throws Exception {
+		byte[] content = ResourceUtils.toByteArray("classpath:META-INF/codec8583.xml");
+
+		// same definitions, different content
+		byte[] another = new byte[content.length + 1];
+		System.arraycopy(content, 0, another, 0, content.length);
+		another[content.length] = '\n';
+
+		Iso8583MessageSerializer serializer = registry.get(content);
+		Iso8583MessageSerializer anotherSerializer = registry.get(another);
+
+		assertNotSame(serializer, anotherSerializer);
+		assertSame(serializer.directFields(), anotherSerializer.directFields());
+	}
+
+	@Test
+	public void testMemoryReport() {
+		registry.get("classpath:META-INF/codec8583.xml");
+		registry.get("file:src/test/resources/META-INF/codec8583.xml");
+		registry.get("classpath:META-INF/codec8583L.xml");
+
+		Iso8583RegistryMemoryReport report = registry.getMemoryReport();
+
+		assertEquals(2, report.getSerializersCount());
+		assertEquals(129 + 193, report.getFieldSlotsCount());
+		assertEquals(2, report.getFieldArraysCount());
+		assertEquals(193, report.getFieldTypesCount());
+	}
+
+	@Test
+	public void testMemoryReportCountsReplacedPadders() {
+		registry.get(definition(4));
+		long padderChars = registry.getMemoryReport().getPadderChars();
+
+		// a longer padder replaces the pooled one, the first serializer still holds the old one
+		registry.get(definition(4000));
+
+		assertEquals(padderChars + 4000, registry.getMemoryReport().getPadderChars());
+	}
+
+	private static byte[] definition(int length) {
+		return ("<iso-message encoding=\"ASCII\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\">"
+				+ "<iso-field id=\"0\" type=\"a\" length=\"" + length + "\" pad-with=\"~\" />"
+				+ "<iso-field id=\"1\" type=\"b\" length=\"16\" />" + "</iso-message>").getBytes();
+	}
+}
@@ -0,0 +1,47 @@
+package org.nucleus8583.core;
+
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+@Ignore
+public class PeekPerformanceTest {
+	private Iso8583MessageSerializer serializer;
+
+	private Iso8583FieldSet fields;
+
+	private byte[] bpacked;
+
+	@Before
+	public void initialize() throws Exception {
+		serializer = new Iso8583MessageSerializer("classpath:META-INF/codec8583.xml");
+
+		fields = Iso8583FieldSet.of(0, 3);
+
+		bpacked = "0200423800080A010000000000000000000004312501041324311     1324310104C010000001762745214  0003701000abcdefghijkl                    ".getBytes();
+	}
+
+	private long measure(int loops) throws Exception {
+		Iso8583PeekResult result = new Iso8583PeekResult();
+
+		long startDate = System.currentTimeMillis();
+		for (int i = 0; i < loops; ++i) {
+			serializer.peek(bpacked, fields, result);
+		}
+		long endDate = System.currentTimeMillis();
+
+		return endDate - startDate;
+	}
+
+	@Test
+	public void shouldVeryFast() throws Exception {
+		int loops = 1000000;
+
+		for (int i = 0; i < 1; ++i) {
+			long elapsed = measure(loops);
+
+			System.out.println("[peek] loops / sec = " + (loops * 1000 / elapsed));
+			Thread.yield();
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package org.nucleus8583.core;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ * measures time to the first serializer, latency of the first transaction and
+ * number of classes loaded for them.
+ * Only meaningful when run in a fresh JVM, e.g.
+ * <code>mvn test -Dtest=StartupPerformanceTest</code>.
+ */
+@Ignore
+public class StartupPerformanceTest {
+
+	@Test
+	public void shouldStartFast() throws Exception {
+		ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+
+		long classesBefore = classLoading.getTotalLoadedClassCount();
+		long startDate = System.currentTimeMillis();
+
+		Iso8583MessageSerializer serializer = new Iso8583MessageSerializer("classpath:META-INF/codec8583.xml");
+
+		long endDate = System.currentTimeMillis();
+		long classesAfter = classLoading.getTotalLoadedClassCount();
+
+		System.out.println("[startup] time to first serializer (ms) = " + (endDate - startDate));
+		System.out.println("[startup] classes loaded = " + (classesAfter - classesBefore));
+
+		byte[] packed = "0200C00000000001000104000000000000000603000000499980000000000000000301".getBytes();
+
+		long startNanos = System.nanoTime();
+
+		Iso8583Message msg = new Iso8583Message();
+		serializer.read(packed, msg);
+		serializer.write(msg, new ByteArrayOutputStream());
+
+		long endNanos = System.nanoTime();
+
+		System.out.println("[startup] first transaction latency (us) = " + ((endNanos - startNanos) / 1000));
+		System.out.println("[startup] classes loaded by first transaction = "
+				+ (classLoading.getTotalLoadedClassCount() - classesAfter));
+	}
+}
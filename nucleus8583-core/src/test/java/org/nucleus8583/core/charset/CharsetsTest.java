@@ -0,0 +1,30 @@
+package org.nucleus8583.core.charset;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.nucleus8583.core.charset.spi.AsciiProvider;
+import org.nucleus8583.core.charset.spi.CharsetProvider;
+import org.nucleus8583.core.charset.spi.Utf8Provider;
+
+public class CharsetsTest {
+
+	@Test
+	public void testGetProvider() {
+		assertTrue(Charsets.getProvider("ascii") instanceof AsciiProvider);
+		assertTrue(Charsets.getProvider("UTF-8") instanceof Utf8Provider);
+		assertSame(Charsets.getProvider("ASCII"), Charsets.getProvider("ascii"));
+
+		assertNull(Charsets.getProvider("EBCDIC"));
+	}
+
+	@Test
+	public void testRegister() {
+		CharsetProvider provider = new AsciiProvider();
+		Charsets.register("x-test-ascii", provider);
+
+		assertSame(provider, Charsets.getProvider("X-TEST-ASCII"));
+	}
+}
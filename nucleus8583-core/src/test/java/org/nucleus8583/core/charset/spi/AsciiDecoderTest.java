@@ -4,11 +4,13 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Test;
+import org.nucleus8583.core.util.ReaderUtils;
 
 public class AsciiDecoderTest {
 
@@ -72,4 +74,29 @@ public class AsciiDecoderTest {
 
 		assertEquals(-1, decoder.read(cbuf, 0, cbuf.length));
 	}
+
+	@Test
+	public void testSkip() throws Exception {
+		AsciiDecoder decoder = new AsciiDecoder(new ByteArrayInputStream(
+				"abcde".getBytes()));
+
+		assertEquals(3, decoder.skip(3));
+		assertEquals('d', decoder.read());
+	}
+
+	@Test
+	public void testSkipPastEof() throws Exception {
+		AsciiDecoder decoder = new AsciiDecoder(new ByteArrayInputStream(
+				"abc".getBytes()));
+
+		assertEquals(3, decoder.skip(4));
+		assertEquals(-1, decoder.read());
+		assertEquals(0, decoder.skip(1));
+	}
+
+	@Test(expected = EOFException.class)
+	public void testSkipFullyPastEof() throws Exception {
+		ReaderUtils.skipFully(new AsciiDecoder(new ByteArrayInputStream(
+				"abc".getBytes())), 4);
+	}
 }
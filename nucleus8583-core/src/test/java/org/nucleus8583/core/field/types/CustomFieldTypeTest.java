@@ -7,23 +7,17 @@ import static org.junit.Assert.assertTrue;
 import java.io.ByteArrayInputStream;
 import java.io.StringWriter;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.Unmarshaller;
-
 import org.junit.Test;
 import org.nucleus8583.core.field.type.Iso8583FieldType;
 import org.nucleus8583.core.field.type.Iso8583FieldTypes;
 import org.nucleus8583.core.xml.Iso8583FieldDefinition;
+import org.nucleus8583.core.xml.Iso8583MessageDefinitionReader;
 
 public class CustomFieldTypeTest {
 
 	@Test
 	public void testDummyField() throws Exception {
-		Unmarshaller unmarshaller = JAXBContext.newInstance(
-				Iso8583FieldDefinition.class).createUnmarshaller();
-
-		Object x = unmarshaller
-				.unmarshal(new ByteArrayInputStream(
+		Object x = Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(
 						("<iso-field id=\"1\" type=\"dummy\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\" length=\"4\" />")
 								.getBytes()));
 
@@ -54,11 +48,7 @@ public class CustomFieldTypeTest {
 
 	@Test(expected = RuntimeException.class)
 	public void testDummyField2() throws Exception {
-		Unmarshaller unmarshaller = JAXBContext.newInstance(
-				Iso8583FieldDefinition.class).createUnmarshaller();
-
-		Object x = unmarshaller
-				.unmarshal(new ByteArrayInputStream(
+		Object x = Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(
 						("<iso-field id=\"1\" type=\"dummy2\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\" length=\"4\" />")
 								.getBytes()));
 
@@ -70,11 +60,7 @@ public class CustomFieldTypeTest {
 
 	@Test(expected = RuntimeException.class)
 	public void testDummyField3() throws Exception {
-		Unmarshaller unmarshaller = JAXBContext.newInstance(
-				Iso8583FieldDefinition.class).createUnmarshaller();
-
-		Object x = unmarshaller
-				.unmarshal(new ByteArrayInputStream(
+		Object x = Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(
 						("<iso-field id=\"1\" type=\"dummy3\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\" length=\"4\" />")
 								.getBytes()));
 
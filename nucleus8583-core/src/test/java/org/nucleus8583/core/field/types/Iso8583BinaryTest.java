@@ -9,25 +9,19 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.BitSet;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.Unmarshaller;
-
 import org.junit.Before;
 import org.junit.Test;
+import org.nucleus8583.core.Iso8583DecodeResult;
 import org.nucleus8583.core.field.type.Iso8583FieldType;
 import org.nucleus8583.core.field.type.Iso8583FieldTypes;
-import org.nucleus8583.core.xml.Iso8583FieldDefinition;
+import org.nucleus8583.core.xml.Iso8583MessageDefinitionReader;
 
 public class Iso8583BinaryTest {
 	private Iso8583FieldType binaryField;
 
 	@Before
 	public void before() throws Exception {
-		Unmarshaller unmarshaller = JAXBContext.newInstance(
-				Iso8583FieldDefinition.class).createUnmarshaller();
-
-		binaryField = Iso8583FieldTypes.getType((Iso8583FieldDefinition) unmarshaller
-				.unmarshal(new ByteArrayInputStream(
+		binaryField = Iso8583FieldTypes.getType(Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(
 						("<iso-field id=\"35\" type=\"b\" length=\"1\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\" />")
 								.getBytes())));
 	}
@@ -244,6 +238,28 @@ public class Iso8583BinaryTest {
 		binaryField.read(new StringReader(""), new BitSet());
 	}
 
+	@Test(expected = IllegalArgumentException.class)
+	public void unpackLowerCaseBinary() throws Exception {
+		binaryField.read(new StringReader("a0"), new BitSet());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unpackNonHexBinary() throws Exception {
+		binaryField.readBinary(new StringReader("G0"));
+	}
+
+	@Test
+	public void tryUnpackBinary() throws Exception {
+		BitSet bits = new BitSet();
+
+		assertEquals(Iso8583DecodeResult.OK, binaryField.tryRead(new StringReader("A0"), bits));
+		assertTrue(bits.get(0) && bits.get(2) && (bits.cardinality() == 2));
+
+		assertEquals(Iso8583DecodeResult.INVALID_VALUE, binaryField.tryRead(new StringReader("a0"), new BitSet()));
+		assertEquals(Iso8583DecodeResult.INVALID_VALUE, binaryField.tryRead(new StringReader("0G"), new BitSet()));
+		assertEquals(Iso8583DecodeResult.EOF, binaryField.tryRead(new StringReader("0"), new BitSet()));
+	}
+
 	@Test(expected = UnsupportedOperationException.class)
 	public void unpackString() throws Exception {
 		binaryField.readString(new StringReader(""));
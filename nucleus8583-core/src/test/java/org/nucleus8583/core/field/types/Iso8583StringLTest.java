@@ -8,25 +8,21 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.BitSet;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.Unmarshaller;
-
 import org.junit.Before;
 import org.junit.Test;
+import org.nucleus8583.core.Iso8583DecodeResult;
 import org.nucleus8583.core.field.type.Iso8583FieldType;
 import org.nucleus8583.core.field.type.Iso8583FieldTypes;
-import org.nucleus8583.core.xml.Iso8583FieldDefinition;
+import org.nucleus8583.core.field.type.Iso8583UnicodeVarStringFieldType;
+import org.nucleus8583.core.util.CharWindow;
+import org.nucleus8583.core.xml.Iso8583MessageDefinitionReader;
 
 public class Iso8583StringLTest {
 	private Iso8583FieldType stringField;
 
 	@Before
 	public void before() throws Exception {
-		Unmarshaller unmarshaller = JAXBContext.newInstance(
-				Iso8583FieldDefinition.class).createUnmarshaller();
-
-		stringField = Iso8583FieldTypes.getType((Iso8583FieldDefinition) unmarshaller
-				.unmarshal(new ByteArrayInputStream(
+		stringField = Iso8583FieldTypes.getType(Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(
 						("<iso-field id=\"39\" type=\"a .\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\" />").getBytes())));
 	}
 
@@ -79,4 +75,51 @@ public class Iso8583StringLTest {
 	public void unpackStringUnpadOverflow() throws Exception {
 		stringField.readString(new StringReader("5ab"));
 	}
+
+	@Test
+	public void skipString() throws Exception {
+		StringReader reader = new StringReader("220x");
+		stringField.skip(reader);
+
+		assertEquals('x', reader.read());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void skipStringLengthOutOfRange() throws Exception {
+		Iso8583FieldType shortField = new Iso8583UnicodeVarStringFieldType(39, "", 1, 5) {
+			private static final long serialVersionUID = 1L;
+		};
+
+		shortField.skip(new StringReader("6abcdef"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unpackStringLengthOutOfRange() throws Exception {
+		Iso8583FieldType shortField = new Iso8583UnicodeVarStringFieldType(39, "", 1, 5) {
+			private static final long serialVersionUID = 1L;
+		};
+
+		shortField.readString(new StringReader("6abcdef"));
+	}
+
+	@Test
+	public void tryUnpackString() throws Exception {
+		CharWindow window = new CharWindow();
+
+		assertEquals(Iso8583DecodeResult.OK, stringField.tryRead(new StringReader("220"), window));
+		assertEquals("20", window.toString());
+
+		assertEquals(Iso8583DecodeResult.EOF, stringField.tryRead(new StringReader("5ab"), window));
+		assertEquals(Iso8583DecodeResult.INVALID_LENGTH, stringField.tryRead(new StringReader("x"), window));
+	}
+
+	@Test
+	public void tryUnpackStringLengthOutOfRange() throws Exception {
+		Iso8583FieldType shortField = new Iso8583UnicodeVarStringFieldType(39, "", 1, 5) {
+			private static final long serialVersionUID = 1L;
+		};
+
+		assertEquals(Iso8583DecodeResult.INVALID_LENGTH, shortField.tryRead(new StringReader("6abcdef"),
+				new CharWindow()));
+	}
 }
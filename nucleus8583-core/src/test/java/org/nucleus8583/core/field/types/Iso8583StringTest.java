@@ -7,14 +7,12 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.BitSet;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.Unmarshaller;
-
 import org.junit.Before;
 import org.junit.Test;
 import org.nucleus8583.core.field.type.Iso8583FieldType;
 import org.nucleus8583.core.field.type.Iso8583FieldTypes;
-import org.nucleus8583.core.xml.Iso8583FieldDefinition;
+import org.nucleus8583.core.util.CharWindow;
+import org.nucleus8583.core.xml.Iso8583MessageDefinitionReader;
 
 public class Iso8583StringTest {
 	private Iso8583FieldType stringFieldAlignL;
@@ -25,21 +23,15 @@ public class Iso8583StringTest {
 
 	@Before
 	public void before() throws Exception {
-		Unmarshaller unmarshaller = JAXBContext.newInstance(
-				Iso8583FieldDefinition.class).createUnmarshaller();
-
-		stringFieldAlignL = Iso8583FieldTypes.getType((Iso8583FieldDefinition) unmarshaller
-				.unmarshal(new ByteArrayInputStream(
+		stringFieldAlignL = Iso8583FieldTypes.getType(Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(
 						("<iso-field id=\"39\" type=\"a\" length=\"2\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\" />")
 								.getBytes())));
 
-		stringFieldAlignR = Iso8583FieldTypes.getType((Iso8583FieldDefinition) unmarshaller
-				.unmarshal(new ByteArrayInputStream(
+		stringFieldAlignR = Iso8583FieldTypes.getType(Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(
 						("<iso-field id=\"39\" type=\"custom\" align=\"right\" pad-with=\" \" length=\"2\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\" />")
 								.getBytes())));
 
-		stringFieldAlignN = Iso8583FieldTypes.getType((Iso8583FieldDefinition) unmarshaller
-				.unmarshal(new ByteArrayInputStream(
+		stringFieldAlignN = Iso8583FieldTypes.getType(Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(
 						("<iso-field id=\"39\" type=\"custom\" align=\"none\" pad-with=\"\" length=\"2\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\" />")
 								.getBytes())));
 	}
@@ -163,4 +155,21 @@ public class Iso8583StringTest {
 
 		assertEquals("j ", stringFieldAlignN.readString(new StringReader("j kl")));
 	}
+
+	private static String readWindow(Iso8583FieldType field, String value) throws Exception {
+		CharWindow window = new CharWindow(1);
+		field.read(new StringReader(value), window);
+
+		return window.toString();
+	}
+
+	@Test
+	public void unpackStringIntoWindow() throws Exception {
+		assertEquals("j", readWindow(stringFieldAlignL, "j "));
+		assertEquals("j", readWindow(stringFieldAlignR, " j"));
+		assertEquals("j ", readWindow(stringFieldAlignN, "j "));
+
+		assertEquals("", readWindow(stringFieldAlignL, "  "));
+		assertEquals("", readWindow(stringFieldAlignR, "  "));
+	}
 }
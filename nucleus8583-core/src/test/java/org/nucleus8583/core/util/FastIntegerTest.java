@@ -95,4 +95,63 @@ public class FastIntegerTest {
 	public void readUintShouldThrowEOFException() throws IOException {
 		FastInteger.readUint(new StringReader("1"), 2);
 	}
+
+	@Test
+	public void smokeTestTryReadUint() throws IOException {
+		assertEquals(123, FastInteger.tryReadUint(new StringReader("123"), 3));
+		assertEquals(-1, FastInteger.tryReadUint(new StringReader("12"), 3));
+		assertEquals(-2, FastInteger.tryReadUint(new StringReader("1x3"), 3));
+	}
+
+	@Test
+	public void smokeTestUlongToString() {
+		Random rnd = new Random();
+
+		for (int i = 1; i < 1000; ++i) {
+			long z = Math.abs(rnd.nextLong() % 1000000000000000000L);
+			String sz = String.valueOf(z);
+
+			assertEquals(sz, FastInteger.ulongToString(z));
+			assertEquals(z, FastInteger.parseUlong(sz));
+		}
+
+		assertEquals("0", FastInteger.ulongToString(0));
+		assertEquals("000000001234", FastInteger.ulongToString(1234, 12));
+		assertEquals("1234", FastInteger.ulongToString(1234, 4));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void ulongToStringShouldRejectOverflow() {
+		FastInteger.ulongToString(1234, 3);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void ulongToStringShouldRejectNegative() {
+		FastInteger.ulongToString(-1, 12);
+	}
+
+	@Test
+	public void parseUlongShouldAcceptEmpty() {
+		assertEquals(0, FastInteger.parseUlong(""));
+	}
+
+	@Test
+	public void parseUlongFromCharArray() {
+		char[] s = "**000000001234**".toCharArray();
+
+		assertEquals(1234, FastInteger.parseUlong(s, 2, 12));
+		assertEquals(0, FastInteger.parseUlong(s, 2, 0));
+		assertEquals(999999999999999999L, FastInteger.parseUlong(
+				"999999999999999999".toCharArray(), 0, 18));
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void parseUlongFromCharArrayShouldThrowNumberFormatException() {
+		FastInteger.parseUlong("12a4".toCharArray(), 0, 4);
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void parseUlongShouldThrowNumberFormatException() {
+		FastInteger.parseUlong("12a");
+	}
 }
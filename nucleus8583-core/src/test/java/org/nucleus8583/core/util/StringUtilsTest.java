@@ -0,0 +1,38 @@
+package org.nucleus8583.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class StringUtilsTest {
+
+	@Test
+	public void padderShouldBeSharedPerPadChar() {
+		char[] padder = StringUtils.padder('#', 5);
+
+		assertTrue(padder.length >= 5);
+		assertSame(padder, StringUtils.padder('#', 3));
+	}
+
+	@Test
+	public void padderShouldGrowToLongestLength() {
+		StringUtils.padder('$', 4);
+
+		char[] padder = StringUtils.padder('$', 20);
+		assertTrue(padder.length >= 20);
+
+		for (int i = 0; i < padder.length; ++i) {
+			assertEquals('$', padder[i]);
+		}
+
+		assertSame(padder, StringUtils.padder('$', 4));
+	}
+
+	@Test
+	public void testSharedCharArray() {
+		assertSame(StringUtils.sharedCharArray("00"), StringUtils.sharedCharArray(new String("00")));
+		assertEquals(0, StringUtils.sharedCharArray("").length);
+	}
+}
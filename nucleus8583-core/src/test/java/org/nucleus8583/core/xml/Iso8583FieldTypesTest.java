@@ -2,20 +2,20 @@ package org.nucleus8583.core.xml;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.lang.reflect.Field;
 import java.util.Random;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.Unmarshaller;
-
 import org.junit.Test;
 import org.nucleus8583.core.field.type.Iso8583AbstractBinaryFieldType;
 import org.nucleus8583.core.field.type.Iso8583AbstractStringFieldType;
 import org.nucleus8583.core.field.type.Iso8583FieldType;
 import org.nucleus8583.core.field.type.Iso8583FieldTypes;
+import org.nucleus8583.core.field.type.Iso8583StringFieldType;
 
 public class Iso8583FieldTypesTest {
 	private static String[] binaryTypes = new String[] { "b" };
@@ -74,8 +74,6 @@ public class Iso8583FieldTypesTest {
 
 	@Test
 	public void smokeTestStringField() throws Exception {
-		Unmarshaller unmarshaller = JAXBContext.newInstance(Iso8583FieldDefinition.class).createUnmarshaller();
-
 		int xlen;
 		Object x;
 
@@ -85,7 +83,7 @@ public class Iso8583FieldTypesTest {
 			for (String s : stringTypes) {
 				xlen = rnd.nextInt(800) + 1;
 
-				x = unmarshaller.unmarshal(new ByteArrayInputStream(
+				x = Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(
 								("<iso-field id=\"1\" type=\"" + s
 										+ "\" length=\"" + xlen + "\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\" />")
 										.getBytes()));
@@ -97,8 +95,6 @@ public class Iso8583FieldTypesTest {
 
 	@Test
 	public void smokeTestBinaryField() throws Exception {
-		Unmarshaller unmarshaller = JAXBContext.newInstance(Iso8583FieldDefinition.class).createUnmarshaller();
-
 		int xlen;
 		Object x;
 
@@ -108,7 +104,7 @@ public class Iso8583FieldTypesTest {
 			for (String s : binaryTypes) {
 				xlen = rnd.nextInt(800) + 1;
 
-				x = unmarshaller.unmarshal(new ByteArrayInputStream(
+				x = Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(
 								("<iso-field id=\"1\" type=\"" + s
 										+ "\" length=\"" + xlen + "\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\" />")
 										.getBytes()));
@@ -120,13 +116,11 @@ public class Iso8583FieldTypesTest {
 
 	@Test
 	public void testVarStringField() throws Exception {
-		Unmarshaller unmarshaller = JAXBContext.newInstance(Iso8583FieldDefinition.class).createUnmarshaller();
-
 		Object x;
 
 		for (String s : stringTypes) {
 			for (int i = 0; i < dots.length; ++i) {
-				x = unmarshaller.unmarshal(new ByteArrayInputStream(
+				x = Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(
 								("<iso-field id=\"1\" type=\"" + s + dots[i] + "\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\" />")
 										.getBytes()));
 
@@ -137,12 +131,8 @@ public class Iso8583FieldTypesTest {
 
 	@Test(expected = IllegalArgumentException.class)
 	public void testStringFieldWithLenLT0() throws Exception {
-		Unmarshaller unmarshaller = JAXBContext.newInstance(
-				Iso8583FieldDefinition.class).createUnmarshaller();
-
 		for (String s : stringTypes) {
-			Object x = unmarshaller
-					.unmarshal(new ByteArrayInputStream(
+			Object x = Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(
 							("<iso-field id=\"1\" type=\"" + s + "\" length=\"0\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\" />")
 									.getBytes()));
 
@@ -155,12 +145,8 @@ public class Iso8583FieldTypesTest {
 
 	@Test(expected = IllegalArgumentException.class)
 	public void testBinaryFieldWithLenLT0() throws Exception {
-		Unmarshaller unmarshaller = JAXBContext.newInstance(
-				Iso8583FieldDefinition.class).createUnmarshaller();
-
 		for (String s : binaryTypes) {
-			Object x = unmarshaller
-					.unmarshal(new ByteArrayInputStream(
+			Object x = Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(
 							("<iso-field id=\"1\" type=\"" + s + "\" length=\"0\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\" />")
 									.getBytes()));
 
@@ -173,11 +159,7 @@ public class Iso8583FieldTypesTest {
 
 	@Test(expected = RuntimeException.class)
 	public void shouldThrowUnknownType() throws Exception {
-		Unmarshaller unmarshaller = JAXBContext.newInstance(
-				Iso8583FieldDefinition.class).createUnmarshaller();
-
-		Object x = unmarshaller
-				.unmarshal(new ByteArrayInputStream(
+		Object x = Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(
 						("<iso-field id=\"1\" type=\"zzz\" length=\"1\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\" />")
 								.getBytes()));
 
@@ -186,4 +168,44 @@ public class Iso8583FieldTypesTest {
 
 		Iso8583FieldTypes.getType((Iso8583FieldDefinition) x);
 	}
+
+	@Test
+	public void testRegister() throws Exception {
+		Iso8583FieldTypes.register("zz-test", Iso8583StringFieldType.class, Iso8583FieldAlignments.RIGHT, "0", "");
+
+		Iso8583FieldType field = Iso8583FieldTypes.getType(new Iso8583FieldDefinition(3, "ZZ-test", 4, null, null,
+				null));
+
+		assertTrue(field instanceof Iso8583StringFieldType);
+		assertEquals('r', ((Iso8583StringFieldType) field).getAlign());
+		assertEquals('0', ((Iso8583StringFieldType) field).getPadWith());
+	}
+
+	@Test
+	public void testLoadErrorRecorded() throws Exception {
+		try {
+			Iso8583FieldTypes.getType(new Iso8583FieldDefinition(1, "dummy2", 4, null, null, null));
+		} catch (RuntimeException e) {
+			// expected
+		}
+
+		assertNotNull(Iso8583FieldTypes.getLoadErrors().get("DUMMY2"));
+	}
+
+	@Test
+	public void testLoadErrorCached() throws Exception {
+		Throwable[] causes = new Throwable[2];
+
+		for (int i = 0; i < causes.length; ++i) {
+			try {
+				Iso8583FieldTypes.getType(new Iso8583FieldDefinition(1, "dummy2", 4, null, null, null));
+				fail("dummy2 should not be loaded");
+			} catch (RuntimeException e) {
+				causes[i] = e.getCause();
+			}
+		}
+
+		assertNotNull(causes[0]);
+		assertSame(causes[0], causes[1]);
+	}
 }
@@ -0,0 +1,109 @@
+package org.nucleus8583.core.xml;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.nucleus8583.core.util.ResourceUtils;
+import org.w3c.dom.Document;
+
+public class Iso8583MessageDefinitionReaderTest {
+
+	private void assertSameDefinition(Iso8583MessageDefinition expected, Iso8583MessageDefinition actual) {
+		assertEquals(expected.getEncoding(), actual.getEncoding());
+
+		List<Iso8583FieldDefinition> expectedFields = expected.getFields();
+		List<Iso8583FieldDefinition> actualFields = actual.getFields();
+
+		assertEquals(expectedFields.size(), actualFields.size());
+
+		for (int i = 0; i < expectedFields.size(); ++i) {
+			Iso8583FieldDefinition a = expectedFields.get(i);
+			Iso8583FieldDefinition b = actualFields.get(i);
+
+			assertEquals(a.getId(), b.getId());
+			assertEquals(a.getType(), b.getType());
+			assertEquals(a.getLength(), b.getLength());
+			assertEquals(a.getAlign(), b.getAlign());
+			assertEquals(a.getPadWith(), b.getPadWith());
+			assertEquals(a.getEmptyValue(), b.getEmptyValue());
+		}
+	}
+
+	@Test
+	public void testReadSameFromNode() throws Exception {
+		String[] locations = { "classpath:META-INF/codec8583.xml", "classpath:META-INF/codec8583-2.xml",
+				"classpath:META-INF/codec8583L.xml" };
+
+		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+		dbf.setNamespaceAware(true);
+
+		for (int i = 0; i < locations.length; ++i) {
+			Document doc = dbf.newDocumentBuilder().parse(ResourceUtils.getURL(locations[i]).openStream());
+
+			assertSameDefinition(Iso8583MessageDefinitionReader.read(ResourceUtils.getURL(locations[i])),
+					Iso8583MessageDefinitionReader.read(doc));
+		}
+	}
+
+	@Test
+	public void testReadField() throws Exception {
+		String xml = "<iso-field id=\"39\" type=\"a\" length=\"2\" align=\"right\" "
+				+ "xmlns=\"http://www.nucleus8583.org/schema/iso-message\" />";
+
+		Iso8583FieldDefinition def = Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(xml.getBytes()));
+
+		assertEquals(39, def.getId());
+		assertEquals("a", def.getType());
+		assertEquals(2, def.getLength());
+		assertEquals(Iso8583FieldAlignments.RIGHT, def.getAlign());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadFieldWrongRootElement() throws Exception {
+		Iso8583MessageDefinitionReader.readField(new ByteArrayInputStream(
+				"<iso-message xmlns=\"http://www.nucleus8583.org/schema/iso-message\" />".getBytes()));
+	}
+
+	@Test
+	public void testReadAttributes() throws Exception {
+		String xml = "<iso-message encoding=\"ASCII\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\">"
+				+ "<iso-field id=\"0\" type=\"a\" length=\"4\" align=\"left\" pad-with=\"0\" empty-value=\"x\" />"
+				+ "<iso-field id=\"1\" type=\"b\" length=\"16\" /></iso-message>";
+
+		Iso8583MessageDefinition def = Iso8583MessageDefinitionReader.read(new ByteArrayInputStream(xml.getBytes()));
+
+		assertEquals("ASCII", def.getEncoding());
+		assertEquals(2, def.getFields().size());
+
+		Iso8583FieldDefinition f0 = def.getFields().get(0);
+		assertEquals(0, f0.getId());
+		assertEquals("a", f0.getType());
+		assertEquals(4, f0.getLength());
+		assertEquals(Iso8583FieldAlignments.LEFT, f0.getAlign());
+		assertEquals("0", f0.getPadWith());
+		assertEquals("x", f0.getEmptyValue());
+
+		Iso8583FieldDefinition f1 = def.getFields().get(1);
+		assertEquals(null, f1.getAlign());
+		assertEquals(null, f1.getPadWith());
+		assertEquals(null, f1.getEmptyValue());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadWrongRootElement() throws Exception {
+		Iso8583MessageDefinitionReader.read(new ByteArrayInputStream("<iso-fields />".getBytes()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRejectDoctype() throws Exception {
+		String xml = "<!DOCTYPE iso-message [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>"
+				+ "<iso-message encoding=\"&xxe;\" xmlns=\"http://www.nucleus8583.org/schema/iso-message\" />";
+
+		Iso8583MessageDefinitionReader.read(new ByteArrayInputStream(xml.getBytes()));
+	}
+}
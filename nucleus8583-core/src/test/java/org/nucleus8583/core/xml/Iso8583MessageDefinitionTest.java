@@ -2,9 +2,6 @@ package org.nucleus8583.core.xml;
 
 import static org.junit.Assert.assertEquals;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.Unmarshaller;
-
 import org.junit.Before;
 import org.junit.Test;
 import org.nucleus8583.core.util.ResourceUtils;
@@ -14,10 +11,7 @@ public class Iso8583MessageDefinitionTest {
 
 	@Before
 	public void before() throws Exception {
-		JAXBContext ctx = JAXBContext.newInstance(Iso8583MessageDefinition.class);
-		Unmarshaller unmarshaller = ctx.createUnmarshaller();
-
-		def = (Iso8583MessageDefinition) unmarshaller.unmarshal(ResourceUtils.getURL("file:src/test/resources/META-INF/codec8583.xml"));
+		def = Iso8583MessageDefinitionReader.read(ResourceUtils.getURL("file:src/test/resources/META-INF/codec8583.xml"));
 	}
 
 	@Test
@@ -0,0 +1,49 @@
+package org.nucleus8583.maven;
+
+import java.io.File;
+import java.util.Properties;
+
+/**
+ * Configuration of one generated accessor class, see
+ * {@link GenerateAccessorsMojo}.
+ */
+public class Accessor {
+	/**
+	 * the message configuration.
+	 */
+	private File schema;
+
+	/**
+	 * fully qualified name of the generated class.
+	 */
+	private String className;
+
+	/**
+	 * accessor names overriding the defaults, keyed by field number.
+	 */
+	private Properties fieldNames;
+
+	public File getSchema() {
+		return schema;
+	}
+
+	public void setSchema(File schema) {
+		this.schema = schema;
+	}
+
+	public String getClassName() {
+		return className;
+	}
+
+	public void setClassName(String className) {
+		this.className = className;
+	}
+
+	public Properties getFieldNames() {
+		return fieldNames;
+	}
+
+	public void setFieldNames(Properties fieldNames) {
+		this.fieldNames = fieldNames;
+	}
+}
@@ -0,0 +1,151 @@
+package org.nucleus8583.maven;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Map;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+import org.nucleus8583.core.xml.Iso8583MessageDefinition;
+import org.nucleus8583.core.xml.Iso8583MessageDefinitionReader;
+
+/**
+ * Generate typed accessor classes from ISO-8583 message configurations and
+ * add them to the compile source roots. For example: <code>
+ * &lt;accessors&gt;
+ *     &lt;accessor&gt;
+ *         &lt;schema&gt;src/main/resources/auth.xml&lt;/schema&gt;
+ *         &lt;className&gt;com.example.AuthRequest&lt;/className&gt;
+ *         &lt;fieldNames&gt;
+ *             &lt;property&gt;&lt;name&gt;48&lt;/name&gt;&lt;value&gt;billerData&lt;/value&gt;&lt;/property&gt;
+ *         &lt;/fieldNames&gt;
+ *     &lt;/accessor&gt;
+ * &lt;/accessors&gt;
+ * </code>
+ *
+ * @goal generate
+ * @phase generate-sources
+ */
+public class GenerateAccessorsMojo extends AbstractMojo {
+	/**
+	 * @parameter expression="${project}"
+	 * @required
+	 * @readonly
+	 */
+	private MavenProject project;
+
+	/**
+	 * directory of generated sources.
+	 *
+	 * @parameter expression="${project.build.directory}/generated-sources/nucleus8583"
+	 * @required
+	 */
+	private File outputDirectory;
+
+	/**
+	 * classes to be generated.
+	 *
+	 * @parameter
+	 * @required
+	 */
+	private Accessor[] accessors;
+
+	public void execute() throws MojoExecutionException {
+		for (int i = 0; i < accessors.length; ++i) {
+			generate(accessors[i]);
+		}
+
+		project.addCompileSourceRoot(outputDirectory.getAbsolutePath());
+	}
+
+	private void generate(Accessor accessor) throws MojoExecutionException {
+		String className = accessor.getClassName();
+
+		int dotidx = className.lastIndexOf('.');
+		String packageName = dotidx < 0 ? "" : className.substring(0, dotidx);
+		String simpleName = className.substring(dotidx + 1);
+
+		File target = new File(outputDirectory, className.replace('.', File.separatorChar) + ".java");
+
+		Iso8583MessageDefinition definition;
+
+		try {
+			definition = Iso8583MessageDefinitionReader.read(accessor.getSchema().toURI().toURL());
+		} catch (IOException e) {
+			throw new MojoExecutionException("unable to read " + accessor.getSchema(), e);
+		}
+
+		Iso8583AccessorGenerator generator = new Iso8583AccessorGenerator(definition);
+
+		if (accessor.getFieldNames() != null) {
+			for (Map.Entry<Object, Object> entry : accessor.getFieldNames().entrySet()) {
+				try {
+					generator.setFieldName(Integer.parseInt(((String) entry.getKey()).trim()), (String) entry
+							.getValue());
+				} catch (RuntimeException e) {
+					throw new MojoExecutionException("invalid field name " + entry.getKey() + "=" + entry.getValue(), e);
+				}
+			}
+		}
+
+		// the source depends on field names as well as on the schema, so it is
+		// generated anyway and only written when it changed
+		StringWriter source = new StringWriter();
+
+		try {
+			generator.generate(packageName, simpleName, source);
+		} catch (IOException e) {
+			throw new MojoExecutionException("unable to generate " + className, e);
+		} catch (RuntimeException e) {
+			throw new MojoExecutionException("unable to generate " + className, e);
+		}
+
+		String content = source.toString();
+
+		try {
+			if (target.isFile() && content.equals(readFile(target))) {
+				getLog().debug(target + " is up to date");
+				return;
+			}
+
+			target.getParentFile().mkdirs();
+
+			getLog().info("generating " + className + " from " + accessor.getSchema());
+
+			Writer writer = new OutputStreamWriter(new FileOutputStream(target), "UTF-8");
+
+			try {
+				writer.write(content);
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			throw new MojoExecutionException("unable to write " + target, e);
+		}
+	}
+
+	private static String readFile(File file) throws IOException {
+		Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+
+		try {
+			StringBuilder sb = new StringBuilder((int) file.length());
+			char[] cbuf = new char[4096];
+
+			for (int n = reader.read(cbuf); n >= 0; n = reader.read(cbuf)) {
+				sb.append(cbuf, 0, n);
+			}
+
+			return sb.toString();
+		} finally {
+			reader.close();
+		}
+	}
+}
@@ -0,0 +1,271 @@
+package org.nucleus8583.maven;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.nucleus8583.core.field.type.Iso8583BinaryFieldType;
+import org.nucleus8583.core.field.type.Iso8583FieldType;
+import org.nucleus8583.core.field.type.Iso8583FieldTypes;
+import org.nucleus8583.core.field.type.Iso8583StringFieldType;
+import org.nucleus8583.core.xml.Iso8583FieldDefinition;
+import org.nucleus8583.core.xml.Iso8583MessageDefinition;
+
+/**
+ * Generate source of a class with typed accessors of an
+ * <code>Iso8583Message</code> from a message configuration. Field numbers and
+ * types are bound at generation time, generated accessors read and write
+ * message storage by field number directly.
+ *
+ * Fixed length numeric fields (right aligned and padded with
+ * <code>0</code>, up to 18 digits) get <code>long</code> accessors, whose
+ * setters reject negative values and values that do not fit, binary
+ * fields get <code>BitSet</code> accessors and other fields get
+ * <code>String</code> accessors. Field names default to
+ * {@link Iso8583FieldNames}.
+ */
+public class Iso8583AccessorGenerator {
+	private static final int MAX_LONG_DIGITS = 18;
+
+	private final Iso8583MessageDefinition definition;
+
+	private final Map<Integer, String> names;
+
+	private Writer writer;
+
+	/**
+	 * create a new generator for given configuration.
+	 *
+	 * @param definition
+	 *            the configuration
+	 */
+	public Iso8583AccessorGenerator(Iso8583MessageDefinition definition) {
+		this.definition = definition;
+		this.names = new HashMap<Integer, String>();
+	}
+
+	/**
+	 * override accessor name of a field.
+	 *
+	 * @param id
+	 *            number of field
+	 * @param name
+	 *            the name, a valid java identifier, e.g. <code>rrn</code>
+	 *            produces <code>getRrn()</code>
+	 */
+	public void setFieldName(int id, String name) {
+		if (!isIdentifier(name)) {
+			throw new IllegalArgumentException(name + " is not a valid name of field #" + id);
+		}
+
+		names.put(Integer.valueOf(id), name);
+	}
+
+	private static boolean isIdentifier(String name) {
+		if ((name == null) || (name.length() == 0) || !Character.isJavaIdentifierStart(name.charAt(0))) {
+			return false;
+		}
+
+		for (int i = 1, n = name.length(); i < n; ++i) {
+			if (!Character.isJavaIdentifierPart(name.charAt(i))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private String getName(int id) {
+		String name = names.get(Integer.valueOf(id));
+		if (name == null) {
+			name = Iso8583FieldNames.get(id);
+		}
+
+		return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	/**
+	 * generate the class source.
+	 *
+	 * @param packageName
+	 *            package of the class, empty for default package
+	 * @param className
+	 *            simple name of the class
+	 * @param writer
+	 *            receives the source
+	 * @throws IOException
+	 *             thrown if an IO error occurred while writing.
+	 */
+	public void generate(String packageName, String className, Writer writer) throws IOException {
+		this.writer = writer;
+
+		List<Iso8583FieldDefinition> fields = new ArrayList<Iso8583FieldDefinition>(definition.getFields());
+
+		int count = 0;
+		for (Iso8583FieldDefinition def : fields) {
+			count = Math.max(count, def.getId());
+		}
+
+		// the serializer always keeps the secondary bitmap at slot 65
+		count = Math.max(128, Math.min(count, 192));
+
+		if ((packageName != null) && (packageName.length() > 0)) {
+			line("package " + packageName + ";");
+			line("");
+		}
+
+		line("import java.util.BitSet;");
+		line("");
+		line("import org.nucleus8583.core.Iso8583Message;");
+		line("import org.nucleus8583.core.util.FastInteger;");
+		line("");
+		line("/**");
+		line(" * Typed accessors of {@link Iso8583Message}.");
+		line(" *");
+		line(" * Generated by nucleus8583-maven-plugin, DO NOT EDIT.");
+		line(" */");
+		line("public final class " + className + " {");
+		line("\tprivate final Iso8583Message msg;");
+		line("");
+		line("\tpublic " + className + "() {");
+		line("\t\tthis(new Iso8583Message(" + count + "));");
+		line("\t}");
+		line("");
+		line("\tpublic " + className + "(Iso8583Message msg) {");
+		line("\t\tthis.msg = msg;");
+		line("\t}");
+		line("");
+		line("\tpublic Iso8583Message getMessage() {");
+		line("\t\treturn msg;");
+		line("\t}");
+		line("");
+		line("\tpublic String getMti() {");
+		line("\t\treturn msg.getMti();");
+		line("\t}");
+		line("");
+		line("\tpublic void setMti(String mti) {");
+		line("\t\tmsg.setMti(mti);");
+		line("\t}");
+
+		Set<String> used = new HashSet<String>();
+
+		for (Iso8583FieldDefinition def : fields) {
+			int id = def.getId();
+			if ((id <= 1) || (id == 65) || (id > 192)) {
+				continue;
+			}
+
+			String name = getName(id);
+			if (!used.add(name)) {
+				throw new IllegalArgumentException("duplicate name " + name + " of field #" + id);
+			}
+
+			Iso8583FieldType type = Iso8583FieldTypes.getType(def);
+
+			if (type instanceof Iso8583BinaryFieldType) {
+				generateBinary(id, name, def);
+			} else if (isNumeric(type)) {
+				generateNumeric(id, name, def, ((Iso8583StringFieldType) type).getLength());
+			} else {
+				generateString(id, name, def);
+			}
+		}
+
+		line("}");
+
+		this.writer = null;
+	}
+
+	private static boolean isNumeric(Iso8583FieldType type) {
+		if (!(type instanceof Iso8583StringFieldType)) {
+			return false;
+		}
+
+		Iso8583StringFieldType stype = (Iso8583StringFieldType) type;
+
+		return (stype.getAlign() == 'r') && (stype.getPadWith() == '0') && (stype.getLength() <= MAX_LONG_DIGITS);
+	}
+
+	private void generateHas(int id, String name, String getter, Iso8583FieldDefinition def) throws IOException {
+		line("");
+		line("\t/**");
+		line("\t * field #" + id + " (" + def.getType() + (def.getLength() > 0 ? " " + def.getLength() : "") + ")");
+		line("\t */");
+		line("\tpublic boolean has" + name + "() {");
+		line("\t\treturn msg." + getter + "(" + id + ") != null;");
+		line("\t}");
+		line("");
+		line("\tpublic void clear" + name + "() {");
+		line("\t\tmsg.unsafeUnset(" + id + ");");
+		line("\t}");
+	}
+
+	private void generateString(int id, String name, Iso8583FieldDefinition def) throws IOException {
+		generateHas(id, name, "unsafeGetString", def);
+
+		line("");
+		line("\tpublic String get" + name + "() {");
+		line("\t\treturn msg.unsafeGetString(" + id + ");");
+		line("\t}");
+		line("");
+		line("\tpublic void set" + name + "(String value) {");
+		line("\t\tif (value == null) {");
+		line("\t\t\tmsg.unsafeUnset(" + id + ");");
+		line("\t\t} else {");
+		line("\t\t\tmsg.unsafeSet(" + id + ", value);");
+		line("\t\t}");
+		line("\t}");
+	}
+
+	private void generateNumeric(int id, String name, Iso8583FieldDefinition def, int length) throws IOException {
+		generateHas(id, name, "unsafeGetString", def);
+
+		line("");
+		line("\tpublic long get" + name + "() {");
+		line("\t\tString value = msg.unsafeGetString(" + id + ");");
+		line("");
+		line("\t\treturn value == null ? 0 : FastInteger.parseUlong(value);");
+		line("\t}");
+		line("");
+		StringBuilder max = new StringBuilder(length);
+		for (int i = 0; i < length; ++i) {
+			max.append('9');
+		}
+
+		line("\tpublic void set" + name + "(long value) {");
+		line("\t\tif ((value < 0) || (value > " + max + "L)) {");
+		line("\t\t\tthrow new IllegalArgumentException(\"value of field #" + id + " is out of range, expected 0-" + max
+				+ " but actual is \" + value);");
+		line("\t\t}");
+		line("");
+		line("\t\tmsg.unsafeSet(" + id + ", FastInteger.ulongToString(value, " + length + "));");
+		line("\t}");
+	}
+
+	private void generateBinary(int id, String name, Iso8583FieldDefinition def) throws IOException {
+		generateHas(id, name, "unsafeGetBinary", def);
+
+		line("");
+		line("\tpublic BitSet get" + name + "() {");
+		line("\t\treturn msg.unsafeGetBinary(" + id + ");");
+		line("\t}");
+		line("");
+		line("\tpublic void set" + name + "(BitSet value) {");
+		line("\t\tif (value == null) {");
+		line("\t\t\tmsg.unsafeUnset(" + id + ");");
+		line("\t\t} else {");
+		line("\t\t\tmsg.unsafeSet(" + id + ", value);");
+		line("\t\t}");
+		line("\t}");
+	}
+
+	private void line(String line) throws IOException {
+		writer.write(line);
+		writer.write('\n');
+	}
+}
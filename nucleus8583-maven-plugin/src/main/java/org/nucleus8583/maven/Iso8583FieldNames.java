@@ -0,0 +1,127 @@
+package org.nucleus8583.maven;
+
+/**
+ * Default accessor names of ISO-8583:1987 data elements. Reserved and
+ * unnamed fields are named <code>fieldNNN</code>.
+ */
+public abstract class Iso8583FieldNames {
+	private static final String[] names = new String[193];
+
+	static {
+		names[2] = "pan";
+		names[3] = "processingCode";
+		names[4] = "amount";
+		names[5] = "amountSettlement";
+		names[6] = "amountCardholderBilling";
+		names[7] = "transmissionDateTime";
+		names[8] = "amountCardholderBillingFee";
+		names[9] = "conversionRateSettlement";
+		names[10] = "conversionRateCardholderBilling";
+		names[11] = "stan";
+		names[12] = "localTime";
+		names[13] = "localDate";
+		names[14] = "expirationDate";
+		names[15] = "settlementDate";
+		names[16] = "conversionDate";
+		names[17] = "captureDate";
+		names[18] = "merchantType";
+		names[19] = "acquiringInstitutionCountryCode";
+		names[20] = "panExtendedCountryCode";
+		names[21] = "forwardingInstitutionCountryCode";
+		names[22] = "posEntryMode";
+		names[23] = "cardSequenceNumber";
+		names[24] = "networkInternationalId";
+		names[25] = "posConditionCode";
+		names[26] = "posCaptureCode";
+		names[27] = "authIdResponseLength";
+		names[28] = "amountTransactionFee";
+		names[29] = "amountSettlementFee";
+		names[30] = "amountTransactionProcessingFee";
+		names[31] = "amountSettlementProcessingFee";
+		names[32] = "acquiringInstitutionId";
+		names[33] = "forwardingInstitutionId";
+		names[34] = "panExtended";
+		names[35] = "track2Data";
+		names[36] = "track3Data";
+		names[37] = "rrn";
+		names[38] = "authIdResponse";
+		names[39] = "responseCode";
+		names[40] = "serviceRestrictionCode";
+		names[41] = "terminalId";
+		names[42] = "merchantId";
+		names[43] = "merchantNameLocation";
+		names[44] = "additionalResponseData";
+		names[45] = "track1Data";
+		names[46] = "additionalDataIso";
+		names[47] = "additionalDataNational";
+		names[48] = "additionalDataPrivate";
+		names[49] = "currencyCode";
+		names[50] = "currencyCodeSettlement";
+		names[51] = "currencyCodeCardholderBilling";
+		names[52] = "pinData";
+		names[53] = "securityControlInfo";
+		names[54] = "additionalAmounts";
+		names[64] = "mac";
+		names[66] = "settlementCode";
+		names[67] = "extendedPaymentCode";
+		names[68] = "receivingInstitutionCountryCode";
+		names[69] = "settlementInstitutionCountryCode";
+		names[70] = "networkManagementCode";
+		names[71] = "messageNumber";
+		names[72] = "messageNumberLast";
+		names[73] = "actionDate";
+		names[74] = "creditsNumber";
+		names[75] = "creditsReversalNumber";
+		names[76] = "debitsNumber";
+		names[77] = "debitsReversalNumber";
+		names[78] = "transferNumber";
+		names[79] = "transferReversalNumber";
+		names[80] = "inquiriesNumber";
+		names[81] = "authorizationsNumber";
+		names[82] = "creditsProcessingFeeAmount";
+		names[83] = "creditsTransactionFeeAmount";
+		names[84] = "debitsProcessingFeeAmount";
+		names[85] = "debitsTransactionFeeAmount";
+		names[86] = "creditsAmount";
+		names[87] = "creditsReversalAmount";
+		names[88] = "debitsAmount";
+		names[89] = "debitsReversalAmount";
+		names[90] = "originalDataElements";
+		names[91] = "fileUpdateCode";
+		names[92] = "fileSecurityCode";
+		names[93] = "responseIndicator";
+		names[94] = "serviceIndicator";
+		names[95] = "replacementAmounts";
+		names[96] = "messageSecurityCode";
+		names[97] = "amountNetSettlement";
+		names[98] = "payee";
+		names[99] = "settlementInstitutionId";
+		names[100] = "receivingInstitutionId";
+		names[101] = "fileName";
+		names[102] = "accountId1";
+		names[103] = "accountId2";
+		names[104] = "transactionDescription";
+		names[128] = "mac2";
+
+		for (int i = 2; i < names.length; ++i) {
+			if (names[i] == null) {
+				names[i] = "field" + i;
+			}
+		}
+	}
+
+	/**
+	 * retrieve default accessor name of a field.
+	 *
+	 * @param id
+	 *            number of field, in range <code>2-192</code>
+	 * @return the name
+	 */
+	public static String get(int id) {
+		if ((id <= 1) || (id >= names.length)) {
+			throw new IllegalArgumentException("field no must be in range 2-192");
+		}
+
+		return names[id];
+	}
+}
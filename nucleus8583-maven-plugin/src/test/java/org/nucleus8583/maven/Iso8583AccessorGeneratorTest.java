@@ -0,0 +1,199 @@
+package org.nucleus8583.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.nucleus8583.core.Iso8583Message;
+import org.nucleus8583.core.Iso8583MessageSerializer;
+import org.nucleus8583.core.xml.Iso8583MessageDefinitionReader;
+
+public class Iso8583AccessorGeneratorTest {
+	private Iso8583AccessorGenerator generator;
+
+	@Before
+	public void initialize() throws Exception {
+		generator = new Iso8583AccessorGenerator(Iso8583MessageDefinitionReader.read(getClass().getResource(
+				"/META-INF/auth.xml")));
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (int i = 0; i < children.length; ++i) {
+				delete(children[i]);
+			}
+		}
+
+		file.delete();
+	}
+
+	/**
+	 * compile generated source and load the class.
+	 */
+	private Class<?> compile(File dir) throws Exception {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		Assume.assumeTrue(compiler != null);
+
+		File source = new File(dir, "com/example/AuthRequest.java");
+		source.getParentFile().mkdirs();
+
+		Writer writer = new OutputStreamWriter(new FileOutputStream(source), "UTF-8");
+
+		try {
+			generator.generate("com.example", "AuthRequest", writer);
+		} finally {
+			writer.close();
+		}
+
+		int status = compiler.run(null, null, null, "-classpath", System.getProperty("java.class.path"), "-d", dir
+				.getAbsolutePath(), source.getAbsolutePath());
+		assertEquals(0, status);
+
+		ClassLoader cl = new URLClassLoader(new URL[] { dir.toURI().toURL() }, getClass().getClassLoader());
+
+		return Class.forName("com.example.AuthRequest", true, cl);
+	}
+
+	private String generate() throws Exception {
+		StringWriter sw = new StringWriter();
+		generator.generate("com.example", "AuthRequest", sw);
+
+		return sw.toString();
+	}
+
+	@Test
+	public void shouldGenerateClass() throws Exception {
+		String source = generate();
+
+		assertTrue(source.startsWith("package com.example;\n"));
+		assertTrue(source.contains("public final class AuthRequest {"));
+		assertTrue(source.contains("this(new Iso8583Message(128));"));
+	}
+
+	@Test
+	public void shouldGenerateLongAccessorsForNumericField() throws Exception {
+		String source = generate();
+
+		assertTrue(source.contains("public long getAmount() {"));
+		assertTrue(source.contains("public void setAmount(long value) {"));
+		assertTrue(source.contains("if ((value < 0) || (value > 999999999999L)) {"));
+		assertTrue(source.contains("msg.unsafeSet(4, FastInteger.ulongToString(value, 12));"));
+	}
+
+	@Test
+	public void shouldGenerateStringAccessors() throws Exception {
+		String source = generate();
+
+		assertTrue(source.contains("public String getRrn() {"));
+		assertTrue(source.contains("return msg.unsafeGetString(37);"));
+		assertTrue(source.contains("public boolean hasRrn() {"));
+		assertTrue(source.contains("public void clearRrn() {"));
+
+		// variable length numeric field
+		assertTrue(source.contains("public String getPan() {"));
+	}
+
+	@Test
+	public void shouldGenerateBinaryAccessors() throws Exception {
+		String source = generate();
+
+		assertTrue(source.contains("public BitSet getMac() {"));
+		assertTrue(source.contains("public void setMac(BitSet value) {"));
+	}
+
+	@Test
+	public void shouldNotGenerateBitmapAccessors() throws Exception {
+		assertFalse(generate().contains("(1)"));
+	}
+
+	@Test
+	public void testFieldNameOverride() throws Exception {
+		generator.setFieldName(48, "billerData");
+
+		String source = generate();
+
+		assertTrue(source.contains("public String getBillerData() {"));
+		assertFalse(source.contains("getAdditionalDataPrivate"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectInvalidName() {
+		generator.setFieldName(48, "biller data");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectDuplicateName() throws Exception {
+		generator.setFieldName(48, "rrn");
+
+		generate();
+	}
+
+	@Test
+	public void generatedClassShouldRoundTrip() throws Exception {
+		File dir = File.createTempFile("nucleus8583", "-gen");
+		dir.delete();
+
+		try {
+			Class<?> cla = compile(dir);
+
+			Object request = cla.newInstance();
+			cla.getMethod("setMti", String.class).invoke(request, "0200");
+			cla.getMethod("setAmount", long.class).invoke(request, Long.valueOf(1500));
+			cla.getMethod("setRrn", String.class).invoke(request, "000000000042");
+			cla.getMethod("setPan", String.class).invoke(request, "4111111111111111");
+
+			Iso8583Message msg = (Iso8583Message) cla.getMethod("getMessage").invoke(request);
+			assertEquals("000000001500", msg.get(4));
+
+			Iso8583MessageSerializer serializer = new Iso8583MessageSerializer("classpath:META-INF/auth.xml");
+
+			StringWriter sw = new StringWriter();
+			serializer.write(msg, sw);
+
+			Iso8583Message unpacked = new Iso8583Message(128);
+			serializer.read(sw.toString(), unpacked);
+
+			Object response = cla.getConstructor(Iso8583Message.class).newInstance(unpacked);
+			assertEquals("0200", cla.getMethod("getMti").invoke(response));
+			assertEquals(Long.valueOf(1500), cla.getMethod("getAmount").invoke(response));
+			assertEquals("000000000042", cla.getMethod("getRrn").invoke(response));
+			assertEquals("4111111111111111", cla.getMethod("getPan").invoke(response));
+			assertEquals(Boolean.FALSE, cla.getMethod("hasStan").invoke(response));
+			assertEquals(Long.valueOf(0), cla.getMethod("getStan").invoke(response));
+
+			Method setAmount = cla.getMethod("setAmount", long.class);
+			long[] invalids = { -1, 1000000000000L };
+
+			for (int i = 0; i < invalids.length; ++i) {
+				try {
+					setAmount.invoke(request, Long.valueOf(invalids[i]));
+					fail(invalids[i] + " should be rejected");
+				} catch (InvocationTargetException e) {
+					assertTrue(e.getCause() instanceof IllegalArgumentException);
+				}
+			}
+
+			assertEquals("000000001500", msg.get(4));
+		} finally {
+			delete(dir);
+		}
+	}
+}
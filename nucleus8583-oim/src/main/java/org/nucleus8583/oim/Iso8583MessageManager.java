@@ -1,45 +1,214 @@
 package org.nucleus8583.oim;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.nucleus8583.Iso8583Message;
+import org.nucleus8583.core.Iso8583Message;
+import org.nucleus8583.core.Iso8583MessageSerializer;
+import org.nucleus8583.oim.component.ConversionContext;
 import org.nucleus8583.oim.component.Iso8583MessageComponent;
+import org.nucleus8583.oim.component.TransientSlots;
 import org.nucleus8583.oim.xml.Iso8583MessagesFactory;
 
 public final class Iso8583MessageManager {
+	private static final boolean compileMessages = !"false"
+			.equalsIgnoreCase(System
+					.getProperty("nucleus8583.oim.compileMessages"));
+
 	private final Iso8583MessagesFactory xmlFactory;
 
-	private final Map<String, Iso8583MessageComponent> messageComponents;
+	private final Map<String, MessageHandle> handles;
+
+	private final ThreadLocal<ConversionContext> contexts;
+
+	private final Iso8583MessageSerializer serializer;
+
+	private final ThreadLocal<Iso8583Message> messages;
 
 	public Iso8583MessageManager(List<String> pathname) throws IOException {
 		this(pathname.toArray(new String[0]));
 	}
 
 	public Iso8583MessageManager(String... locations) throws IOException {
+		this(compileMessages, locations);
+	}
+
+	/**
+	 * create a new manager.
+	 *
+	 * @param compile
+	 *            <code>true</code> to compile message mappings into generated
+	 *            classes, mappings which cannot be compiled are interpreted.
+	 *            Compilation is enabled by default unless system property
+	 *            <code>nucleus8583.oim.compileMessages</code> is
+	 *            <code>false</code>.
+	 * @param locations
+	 *            locations of mapping configurations
+	 * @throws IOException
+	 *             thrown if a configuration cannot be read.
+	 */
+	public Iso8583MessageManager(boolean compile, String... locations)
+			throws IOException {
+		this(null, compile, locations);
+	}
+
+	public Iso8583MessageManager(Iso8583MessageSerializer serializer,
+			String... locations) throws IOException {
+		this(serializer, compileMessages, locations);
+	}
+
+	/**
+	 * create a new manager which can also convert between objects and raw
+	 * messages, see {@link #decode(String, ByteBuffer)} and
+	 * {@link #encode(String, Object, ByteBuffer)}.
+	 *
+	 * @param serializer
+	 *            serializer of raw messages, can be <code>null</code> if only
+	 *            {@link Iso8583Message}s are converted.
+	 * @param compile
+	 *            <code>true</code> to compile message mappings, see
+	 *            {@link #Iso8583MessageManager(boolean, String...)}
+	 * @param locations
+	 *            locations of mapping configurations
+	 * @throws IOException
+	 *             thrown if a configuration cannot be read.
+	 */
+	public Iso8583MessageManager(Iso8583MessageSerializer serializer,
+			boolean compile, String... locations) throws IOException {
+		this.serializer = serializer;
+
+		messages = new ThreadLocal<Iso8583Message>() {
+
+			@Override
+			protected Iso8583Message initialValue() {
+				return new Iso8583Message(192);
+			}
+		};
+
 		xmlFactory = new Iso8583MessagesFactory(locations);
-		messageComponents = new HashMap<String, Iso8583MessageComponent>();
+
+		final TransientSlots slots = xmlFactory.getTransientSlots();
+		contexts = new ThreadLocal<ConversionContext>() {
+
+			@Override
+			protected ConversionContext initialValue() {
+				return slots.newContext();
+			}
+		};
+
+		handles = new HashMap<String, MessageHandle>();
 
 		for (Map.Entry<String, Iso8583MessageComponent> entry : xmlFactory
 				.getMessages().entrySet()) {
-			messageComponents.put(entry.getKey(), entry.getValue());
+			Iso8583MessageComponent component = entry.getValue();
+
+			if (compile) {
+				try {
+					component.compile();
+				} catch (Exception e) {
+					// keep interpreting this message
+				} catch (LinkageError e) {
+					// keep interpreting this message
+				}
+			}
+
+			handles.put(entry.getKey(), new MessageHandle(this, component));
 		}
 	}
 
-	private Iso8583MessageComponent findMessageComponent(String messageName) {
-		Iso8583MessageComponent found = messageComponents.get(messageName);
+	/**
+	 * resolve a message mapping. The handle should be kept by the caller
+	 * instead of calling this method for every conversion.
+	 *
+	 * @param messageName
+	 *            message name
+	 * @return the handle
+	 * @throws IllegalArgumentException
+	 *             if the message cannot be found.
+	 */
+	public MessageHandle handle(String messageName) {
+		MessageHandle found = handles.get(messageName);
 		if (found == null) {
-			throw new RuntimeException("unable to find message " + messageName);
+			throw new IllegalArgumentException("unable to find message "
+					+ messageName);
 		}
 
 		return found;
 	}
 
+	/**
+	 * create a new conversion context, to be reused by the caller for
+	 * conversions on a single thread.
+	 *
+	 * @return the context
+	 */
+	public ConversionContext newContext() {
+		return xmlFactory.getTransientSlots().newContext();
+	}
+
+	/**
+	 * DO NOT use this method directly, the context is reset by
+	 * {@link MessageHandle} before each conversion.
+	 */
+	ConversionContext context() {
+		return contexts.get();
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	Iso8583Message message() {
+		return messages.get();
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	Iso8583MessageSerializer serializer() {
+		if (serializer == null) {
+			throw new IllegalStateException(
+					"this manager has been created without serializer");
+		}
+
+		return serializer;
+	}
+
 	public Object convert(String messageName, Iso8583Message msg) {
-		return findMessageComponent(messageName).decode(msg,
-				new HashMap<String, Object>());
+		return handle(messageName).decode(msg);
+	}
+
+	/**
+	 * convert from ISO-8583 message to java plain object.
+	 *
+	 * @param messageName
+	 *            message name
+	 * @param msg
+	 *            ISO-8583 message
+	 * @param context
+	 *            the context, it will be reset first.
+	 * @return plain old java object
+	 */
+	public Object convert(String messageName, Iso8583Message msg,
+			ConversionContext context) {
+		return handle(messageName).decode(msg, context);
+	}
+
+	/**
+	 * convert from ISO-8583 message to java plain object lazily, see
+	 * {@link MessageHandle#decodeLazy(Iso8583Message)}.
+	 *
+	 * @param messageName
+	 *            message name
+	 * @param msg
+	 *            ISO-8583 message, it must not be modified or reused until
+	 *            the object has been fully loaded.
+	 * @return plain old java object
+	 */
+	public Object convertLazy(String messageName, Iso8583Message msg) {
+		return handle(messageName).decodeLazy(msg);
 	}
 
 	/**
@@ -53,7 +222,84 @@ public final class Iso8583MessageManager {
 	 *            ISO-8583 message
 	 */
 	public void convert(String messageName, Object obj, Iso8583Message msg) {
-		findMessageComponent(messageName).encode(msg, obj,
-				new HashMap<String, Object>());
+		handle(messageName).encode(obj, msg);
+	}
+
+	/**
+	 * convert from java plain object <code>obj</code> to ISO-8583 message.
+	 *
+	 * @param messageName
+	 *            message name
+	 * @param obj
+	 *            plain old java object
+	 * @param msg
+	 *            ISO-8583 message
+	 * @param context
+	 *            the context, it will be reset first.
+	 */
+	public void convert(String messageName, Object obj, Iso8583Message msg,
+			ConversionContext context) {
+		handle(messageName).encode(obj, msg, context);
+	}
+
+	/**
+	 * convert a raw message directly to java plain object, without creating
+	 * an {@link Iso8583Message}. Fields are converted in mapping order, the
+	 * same as {@link #convert(String, Iso8583Message)}. The message is decoded
+	 * directly only if numbers of the mapped fields ascend in mapping order,
+	 * e.g. a list sized by a <code>transient:</code> field must be mapped to
+	 * a higher field number than the transient. Otherwise the raw message is
+	 * read into a new {@link Iso8583Message} first. Values of mapped fields
+	 * are converted from the raw message once, see
+	 * {@link Iso8583MessageComponent#decode(Iso8583MessageSerializer, ByteBuffer, ConversionContext)}
+	 * .
+	 *
+	 * @param messageName
+	 *            message name
+	 * @param frame
+	 *            the raw message, its position is advanced past the message.
+	 * @return plain old java object
+	 * @throws IOException
+	 *             thrown if the raw message is shorter than expected.
+	 */
+	public Object decode(String messageName, ByteBuffer frame)
+			throws IOException {
+		return handle(messageName).decode(frame);
+	}
+
+	/**
+	 * convert a raw message to java plain object lazily, see
+	 * {@link MessageHandle#decodeLazy(ByteBuffer)}.
+	 *
+	 * @param messageName
+	 *            message name
+	 * @param frame
+	 *            the raw message, its position is advanced past the message.
+	 * @return plain old java object
+	 * @throws IOException
+	 *             thrown if the raw message is shorter than expected.
+	 */
+	public Object decodeLazy(String messageName, ByteBuffer frame)
+			throws IOException {
+		return handle(messageName).decodeLazy(frame);
+	}
+
+	/**
+	 * convert java plain object <code>obj</code> to a raw message. The
+	 * message is built in an {@link Iso8583Message} reused by the current
+	 * thread.
+	 *
+	 * @param messageName
+	 *            message name
+	 * @param obj
+	 *            plain old java object
+	 * @param out
+	 *            receives the raw message, starting at its position.
+	 * @throws IOException
+	 *             thrown if an IO error occurred while serializing.
+	 */
+	public void encode(String messageName, Object obj, ByteBuffer out)
+			throws IOException {
+		handle(messageName).encode(obj, out);
 	}
 }
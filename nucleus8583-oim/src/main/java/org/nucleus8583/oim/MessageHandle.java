@@ -0,0 +1,220 @@
+package org.nucleus8583.oim;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.nucleus8583.core.Iso8583Message;
+import org.nucleus8583.oim.component.ConversionContext;
+import org.nucleus8583.oim.component.Iso8583MessageComponent;
+import org.nucleus8583.oim.component.LazyLoader;
+
+/**
+ * A message mapping resolved by {@link Iso8583MessageManager#handle(String)}.
+ * Keep the handle instead of passing the message name to the manager on
+ * every conversion.
+ *
+ * Instances of this class are immutable and thread-safe. Methods which do not
+ * take a {@link ConversionContext} use a context reused by the current
+ * thread.
+ */
+public final class MessageHandle {
+	private final Iso8583MessageManager manager;
+
+	private final Iso8583MessageComponent component;
+
+	MessageHandle(Iso8583MessageManager manager,
+			Iso8583MessageComponent component) {
+		this.manager = manager;
+		this.component = component;
+	}
+
+	public String getName() {
+		return component.getName();
+	}
+
+	/**
+	 * @return <code>true</code> if the mapping is converted by a compiled
+	 *         class, <code>false</code> if it is interpreted because
+	 *         compilation is disabled or failed.
+	 */
+	public boolean isCompiled() {
+		return component.isCompiled();
+	}
+
+	/**
+	 * convert from ISO-8583 message to java plain object.
+	 *
+	 * @param msg
+	 *            ISO-8583 message
+	 * @return plain old java object
+	 */
+	public Object decode(Iso8583Message msg) {
+		return decode(msg, manager.context());
+	}
+
+	/**
+	 * convert from ISO-8583 message to java plain object.
+	 *
+	 * @param msg
+	 *            ISO-8583 message
+	 * @param context
+	 *            the context, it will be reset first.
+	 * @return plain old java object
+	 */
+	public Object decode(Iso8583Message msg, ConversionContext context) {
+		context.reset();
+
+		return component.decode(msg, context);
+	}
+
+	/**
+	 * convert from java plain object <code>obj</code> to ISO-8583 message.
+	 *
+	 * @param obj
+	 *            plain old java object
+	 * @param msg
+	 *            ISO-8583 message
+	 */
+	public void encode(Object obj, Iso8583Message msg) {
+		encode(obj, msg, manager.context());
+	}
+
+	/**
+	 * convert from java plain object <code>obj</code> to ISO-8583 message.
+	 *
+	 * @param obj
+	 *            plain old java object
+	 * @param msg
+	 *            ISO-8583 message
+	 * @param context
+	 *            the context, it will be reset first.
+	 */
+	public void encode(Object obj, Iso8583Message msg, ConversionContext context) {
+		context.reset();
+
+		component.encode(msg, obj, context);
+	}
+
+	/**
+	 * convert a raw message directly to java plain object, see
+	 * {@link Iso8583MessageManager#decode(String, ByteBuffer)}.
+	 *
+	 * @param frame
+	 *            the raw message, its position is advanced past the message.
+	 * @return plain old java object
+	 * @throws IOException
+	 *             thrown if the raw message is shorter than expected.
+	 */
+	public Object decode(ByteBuffer frame) throws IOException {
+		ConversionContext context = manager.context();
+		context.reset();
+
+		return component.decode(manager.serializer(), frame, context);
+	}
+
+	/**
+	 * convert java plain object <code>obj</code> to a raw message, see
+	 * {@link Iso8583MessageManager#encode(String, Object, ByteBuffer)}.
+	 *
+	 * @param obj
+	 *            plain old java object
+	 * @param out
+	 *            receives the raw message, starting at its position.
+	 * @throws IOException
+	 *             thrown if an IO error occurred while serializing.
+	 */
+	public void encode(Object obj, ByteBuffer out) throws IOException {
+		Iso8583Message msg = manager.message();
+		msg.clear();
+
+		ConversionContext context = manager.context();
+		context.reset();
+
+		component.encode(msg, obj, context);
+		manager.serializer().write(msg, out);
+	}
+
+	/**
+	 * convert from ISO-8583 message to java plain object lazily. Fields of
+	 * the message are converted on first access to the properties they map,
+	 * see {@link Iso8583MessageComponent#decodeLazy(Iso8583Message, ConversionContext)}
+	 * . The returned object uses its own context.
+	 *
+	 * @param msg
+	 *            ISO-8583 message, it must not be modified or reused until
+	 *            the object has been fully loaded, see
+	 *            {@link LazyLoader#ensureLoaded(Object)}.
+	 * @return plain old java object
+	 */
+	public Object decodeLazy(Iso8583Message msg) {
+		return component.decodeLazy(msg, manager.newContext());
+	}
+
+	/**
+	 * convert a raw message to java plain object lazily. The raw message is
+	 * read into a new {@link Iso8583Message} owned by the returned object,
+	 * see {@link #decodeLazy(Iso8583Message)}.
+	 *
+	 * @param frame
+	 *            the raw message, its position is advanced past the message.
+	 * @return plain old java object
+	 * @throws IOException
+	 *             thrown if the raw message is shorter than expected.
+	 */
+	public Object decodeLazy(ByteBuffer frame) throws IOException {
+		Iso8583Message msg = new Iso8583Message(192);
+		manager.serializer().read(frame, msg);
+
+		return decodeLazy(msg);
+	}
+
+	/**
+	 * convert a batch of ISO-8583 messages to java plain objects. One context
+	 * is used for the whole batch, it is reset before each message.
+	 *
+	 * @param msgs
+	 *            ISO-8583 messages
+	 * @return plain old java objects, in the same order
+	 */
+	public List<Object> decodeAll(List<Iso8583Message> msgs) {
+		ConversionContext context = manager.context();
+
+		int count = msgs.size();
+		List<Object> result = new ArrayList<Object>(count);
+
+		for (int i = 0; i < count; ++i) {
+			context.reset();
+			result.add(component.decode(msgs.get(i), context));
+		}
+
+		return result;
+	}
+
+	/**
+	 * convert a batch of java plain objects to ISO-8583 messages. One context
+	 * is used for the whole batch, it is reset before each object.
+	 *
+	 * @param objs
+	 *            plain old java objects
+	 * @param msgs
+	 *            ISO-8583 messages, one for each object
+	 * @throws IllegalArgumentException
+	 *             if number of messages is not the same as number of objects.
+	 */
+	public void encodeAll(List<?> objs, List<Iso8583Message> msgs) {
+		int count = objs.size();
+		if (msgs.size() != count) {
+			throw new IllegalArgumentException("expected " + count
+					+ " messages but actual is " + msgs.size());
+		}
+
+		ConversionContext context = manager.context();
+
+		for (int i = 0; i < count; ++i) {
+			context.reset();
+			component.encode(msgs.get(i), objs.get(i), context);
+		}
+	}
+}
@@ -3,50 +3,52 @@ package org.nucleus8583.oim.component;
 import java.io.IOException;
 import java.io.Reader;
 import java.lang.reflect.Array;
-import java.lang.reflect.Field;
-import java.util.Map;
 
 import org.nucleus8583.oim.util.FastStringReader;
+import org.nucleus8583.oim.util.PropertyAccessor;
+import org.nucleus8583.oim.util.PropertyAccessors;
 
 public final class ArrayComponent extends BaseComponent {
 	private final int no;
 
 	private final String name;
 
-	private final Field field;
+	private final PropertyAccessor accessor;
 
 	private final Class<?> componentType;
 
-	private final Field sizeBasic;
+	private final PropertyAccessor sizeBasic;
 
-	private final String sizeTransient;
+	private final int sizeTransient;
 
 	private final DataStructureComponent dataStructure;
 
 	public ArrayComponent(HasFieldsComponent parent, int no, String name,
-			String size, DataStructureComponent dscomp) {
+			String size, DataStructureComponent dscomp,
+			TransientSlots slots) {
 		this.no = no;
 		this.name = name;
 
-		field = parent.getField(name);
-		componentType = field.getType().getComponentType();
+		accessor = PropertyAccessors.create(parent.getField(name));
+		componentType = accessor.getType().getComponentType();
 
 		if (size == null) {
 			sizeBasic = null;
-			sizeTransient = null;
+			sizeTransient = -1;
 		} else if (size.startsWith("transient:")) {
 			sizeBasic = null;
-			sizeTransient = size.substring(10);
+			sizeTransient = slots.slotOf(size.substring(10));
 		} else {
 			// basic:
 			size = size.substring(6);
 
-			sizeBasic = parent.getField(size.substring(10));
+			sizeBasic = PropertyAccessors.create(parent.getField(size
+					.substring(10)));
 			if (sizeBasic == null) {
 				throw new IllegalArgumentException("field " + size
 						+ " cannot be found");
 			}
-			sizeTransient = null;
+			sizeTransient = -1;
 		}
 
 		dataStructure = dscomp;
@@ -67,14 +69,8 @@ public final class ArrayComponent extends BaseComponent {
 
 	@Override
 	public void encode(StringBuilder sb, Object pojo,
-			Map<String, Object> session) {
-		Object array;
-
-		try {
-			array = field.get(pojo);
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
-		}
+			ConversionContext context) {
+		Object[] array = (Object[]) accessor.get(pojo);
 
 		if (array == null) {
 			return;
@@ -82,118 +78,88 @@ public final class ArrayComponent extends BaseComponent {
 
 		int count;
 
-		if (sizeTransient != null) {
-			count = ((Integer) session.get(sizeTransient)).intValue();
+		if (sizeTransient >= 0) {
+			count = context.getInt(sizeTransient);
 		} else if (sizeBasic != null) {
-			try {
-				count = sizeBasic.getInt(pojo);
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+			count = sizeBasic.getInt(pojo);
 		} else {
-			count = Array.getLength(array);
+			count = array.length;
 		}
 
 		for (int i = 0; i < count; ++i) {
-			dataStructure.encode(sb, Array.get(array, i), session);
+			dataStructure.encode(sb, array[i], context);
 		}
 	}
 
 	@Override
-	public String encodeToString(Object pojo, Map<String, Object> session) {
-		Object array;
-
-		try {
-			array = field.get(pojo);
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
-		}
+	public String encodeToString(Object pojo, ConversionContext context) {
+		Object[] array = (Object[]) accessor.get(pojo);
 
 		if (array == null) {
 			return null;
 		}
 
-		StringBuilder sb = new StringBuilder();
+		StringBuilder sb = context.buffer();
 		int count;
 
-		if (sizeTransient != null) {
-			count = ((Integer) session.get(sizeTransient)).intValue();
+		if (sizeTransient >= 0) {
+			count = context.getInt(sizeTransient);
 		} else if (sizeBasic != null) {
-			try {
-				count = sizeBasic.getInt(pojo);
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+			count = sizeBasic.getInt(pojo);
 		} else {
-			count = Array.getLength(array);
+			count = array.length;
 		}
 
 		for (int i = 0; i < count; ++i) {
-			dataStructure.encode(sb, Array.get(array, i), session);
+			dataStructure.encode(sb, array[i], context);
 		}
 
 		return sb.toString();
 	}
 
 	@Override
-	public void decode(String value, Object pojo, Map<String, Object> session) {
+	public void decode(String value, Object pojo, ConversionContext context) {
 		Reader reader = new FastStringReader(value);
 		int count;
 
-		if (sizeTransient != null) {
-			count = ((Integer) session.get(sizeTransient)).intValue();
+		if (sizeTransient >= 0) {
+			count = context.getInt(sizeTransient);
 		} else if (sizeBasic != null) {
-			try {
-				count = sizeBasic.getInt(pojo);
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+			count = sizeBasic.getInt(pojo);
 		} else {
 			throw new IllegalStateException("please set size attribute value");
 		}
 
-		Object array = Array.newInstance(componentType, count);
+		Object[] array = (Object[]) Array.newInstance(componentType, count);
 		try {
 			for (int i = 0; i < count; ++i) {
-				Array.set(array, i, dataStructure.decode(reader, session));
+				array[i] = dataStructure.decode(reader, context);
 			}
 		} catch (IOException ex) {
 			throw new RuntimeException("internal error", ex);
 		}
 
-		try {
-			field.set(pojo, array);
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
-		}
+		accessor.set(pojo, array);
 	}
 
 	@Override
-	public void decode(Reader reader, Object pojo, Map<String, Object> session)
+	public void decode(Reader reader, Object pojo, ConversionContext context)
 			throws IOException {
 		int count;
 
-		if (sizeTransient != null) {
-			count = ((Integer) session.get(sizeTransient)).intValue();
+		if (sizeTransient >= 0) {
+			count = context.getInt(sizeTransient);
 		} else if (sizeBasic != null) {
-			try {
-				count = sizeBasic.getInt(pojo);
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+			count = sizeBasic.getInt(pojo);
 		} else {
 			throw new IllegalStateException("please set size attribute value");
 		}
 
-		Object array = Array.newInstance(componentType, count);
+		Object[] array = (Object[]) Array.newInstance(componentType, count);
 		for (int i = 0; i < count; ++i) {
-			Array.set(array, i, dataStructure.decode(reader, session));
+			array[i] = dataStructure.decode(reader, context);
 		}
 
-		try {
-			field.set(pojo, array);
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
-		}
+		accessor.set(pojo, array);
 	}
 }
@@ -3,52 +3,60 @@ package org.nucleus8583.oim.component;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.BitSet;
-import java.util.Map;
 
 public abstract class BaseComponent {
 	public boolean isBinary() {
 		throw new UnsupportedOperationException();
 	}
 
-	public void decode(Reader reader, Object pojo, Map<String, Object> session)
+	public void decode(Reader reader, Object pojo, ConversionContext context)
 			throws IOException {
 		throw new UnsupportedOperationException();
 	}
 
-	public Object decode(Reader reader, Map<String, Object> session)
+	public Object decode(Reader reader, ConversionContext context)
 			throws IOException {
 		throw new UnsupportedOperationException();
 	}
 
-	public void decode(String value, Object pojo, Map<String, Object> session) {
+	public void decode(String value, Object pojo, ConversionContext context) {
 		throw new UnsupportedOperationException();
 	}
 
-	public Object decode(String value, Map<String, Object> session) {
+	public Object decode(String value, ConversionContext context) {
 		throw new UnsupportedOperationException();
 	}
 
-	public void decode(BitSet value, Object pojo, Map<String, Object> session) {
+	/**
+	 * same as {@link #decode(String, Object, ConversionContext)}, but the
+	 * value is given as a window of a char buffer.
+	 */
+	public void decode(char[] value, int off, int len, Object pojo,
+			ConversionContext context) {
+		decode(new String(value, off, len), pojo, context);
+	}
+
+	public void decode(BitSet value, Object pojo, ConversionContext context) {
 		throw new UnsupportedOperationException();
 	}
 
-	public BitSet decode(BitSet value, Map<String, Object> session) {
+	public BitSet decode(BitSet value, ConversionContext context) {
 		throw new UnsupportedOperationException();
 	}
 
 	public void encode(StringBuilder sb, Object pojo,
-			Map<String, Object> session) {
+			ConversionContext context) {
 		throw new UnsupportedOperationException();
 	}
 
-	public String encodeToString(Object pojo, Map<String, Object> session) {
-		StringBuilder sb = new StringBuilder();
-		encode(sb, pojo, session);
+	public String encodeToString(Object pojo, ConversionContext context) {
+		StringBuilder sb = context.buffer();
+		encode(sb, pojo, context);
 
 		return sb.toString();
 	}
 
-	public BitSet encodeToBinary(Object pojo, Map<String, Object> session) {
+	public BitSet encodeToBinary(Object pojo, ConversionContext context) {
 		throw new UnsupportedOperationException();
 	}
 }
@@ -3,21 +3,28 @@ package org.nucleus8583.oim.component;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.Reader;
-import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.BitSet;
-import java.util.Map;
 
+import org.nucleus8583.core.util.ReaderUtils;
 import org.nucleus8583.oim.converter.BinaryConverter;
 import org.nucleus8583.oim.converter.TypeConverter;
 import org.nucleus8583.oim.util.ElExpression;
+import org.nucleus8583.oim.util.PropertyAccessor;
+import org.nucleus8583.oim.util.PropertyAccessors;
 
 public final class BasicComponent extends BaseComponent {
 	private final int no;
 
 	private final String name;
 
-	private final Field field;
+	private final PropertyAccessor accessor;
+
+	/**
+	 * <code>int.class</code> or <code>long.class</code> if the property is
+	 * converted without boxing, <code>null</code> otherwise.
+	 */
+	private final Class<?> primitiveType;
 
 	private final ElExpression generatedValue;
 
@@ -41,7 +48,15 @@ public final class BasicComponent extends BaseComponent {
 		this.no = no;
 		this.name = name;
 
-		this.field = name == null ? null : parent.getField(name);
+		this.accessor = name == null ? null : PropertyAccessors.create(parent
+				.getField(name));
+
+		Class<?> type = accessor == null ? null : accessor.getType();
+		if ((type == int.class) || (type == long.class)) {
+			this.primitiveType = type;
+		} else {
+			this.primitiveType = null;
+		}
 
 		this.converter = converter;
 		this.binary = BinaryConverter.class.isInstance(converter);
@@ -79,44 +94,40 @@ public final class BasicComponent extends BaseComponent {
 		}
 	}
 
-	private void skip(Reader reader, int length) throws IOException {
-		int crem = length;
-
-		while (crem > 0) {
-			crem -= (int) reader.skip(crem);
-		}
-	}
-
 	private Object getValueFromPojo(Object pojo) {
 		Object value;
 
-		if (field == null) {
+		if (accessor == null) {
 			if (generatedValue != null) {
 				value = generatedValue.eval(pojo);
 			} else {
 				value = null;
 			}
 		} else {
-			try {
-				value = field.get(pojo);
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+			value = accessor.get(pojo);
 		}
 
 		return value;
 	}
 
 	private void setValueToPojo(Object pojo, Object value) {
-		if (field != null) {
-			try {
-				field.set(pojo, value);
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+		if (accessor != null) {
+			accessor.set(pojo, value);
 		}
 	}
 
+	private String getIsoValue(Object pojo) {
+		if (primitiveType == int.class) {
+			return converter.convertIntToIsoString(accessor.getInt(pojo));
+		}
+
+		if (primitiveType == long.class) {
+			return converter.convertLongToIsoString(accessor.getLong(pojo));
+		}
+
+		return converter.convertToIsoString(getValueFromPojo(pojo));
+	}
+
 	public int getNo() {
 		return no;
 	}
@@ -125,23 +136,27 @@ public final class BasicComponent extends BaseComponent {
 		return name;
 	}
 
+	PropertyAccessor getAccessor() {
+		return accessor;
+	}
+
+	TypeConverter getConverter() {
+		return converter;
+	}
+
+	Class<?> getPrimitiveType() {
+		return primitiveType;
+	}
+
 	@Override
 	public boolean isBinary() {
 		return binary;
 	}
 
-	@Override
-	public void encode(StringBuilder sb, Object pojo,
-			Map<String, Object> session) {
-		if (binary) {
-			throw new UnsupportedOperationException();
-		}
-
-		String value = converter.convertToIsoString(getValueFromPojo(pojo));
-		if (value == null) {
-			return;
-		}
-
+	/**
+	 * append <code>value</code> padded to the length of this component.
+	 */
+	public void pad(StringBuilder sb, String value) {
 		int vlen = value.length();
 		if (vlen > length) {
 			throw new IllegalArgumentException("value too long, expected "
@@ -174,17 +189,10 @@ public final class BasicComponent extends BaseComponent {
 		}
 	}
 
-	@Override
-	public String encodeToString(Object pojo, Map<String, Object> session) {
-		if (binary) {
-			throw new UnsupportedOperationException();
-		}
-
-		String value = converter.convertToIsoString(getValueFromPojo(pojo));
-		if (value == null) {
-			return null;
-		}
-
+	/**
+	 * pad <code>value</code> to the length of this component.
+	 */
+	public String pad(String value) {
 		int vlen = value.length();
 		if (vlen > length) {
 			throw new IllegalArgumentException("value too long, expected "
@@ -199,18 +207,58 @@ public final class BasicComponent extends BaseComponent {
 			return value;
 		}
 
-		switch (align) {
-		case 'l':
-			return value + padder.substring(0, length - vlen).intern();
-		case 'r':
-			return padder.substring(0, length - vlen).intern() + value;
-		default:
-			return value + padder.substring(0, length - vlen).intern();
+		char[] cbuf = new char[length];
+
+		if (align == 'r') {
+			System.arraycopy(cpadder, 0, cbuf, 0, length - vlen);
+			value.getChars(0, vlen, cbuf, length - vlen);
+		} else {
+			value.getChars(0, vlen, cbuf, 0);
+			System.arraycopy(cpadder, 0, cbuf, vlen, length - vlen);
 		}
+
+		return new String(cbuf);
 	}
 
 	@Override
-	public BitSet encodeToBinary(Object pojo, Map<String, Object> session) {
+	public void encode(StringBuilder sb, Object pojo,
+			ConversionContext context) {
+		if (binary) {
+			throw new UnsupportedOperationException();
+		}
+
+		String value = getIsoValue(pojo);
+		if (value == null) {
+			return;
+		}
+
+		pad(sb, value);
+	}
+
+	@Override
+	public String encodeToString(Object pojo, ConversionContext context) {
+		if (binary) {
+			throw new UnsupportedOperationException();
+		}
+
+		String value = getIsoValue(pojo);
+		if (value == null) {
+			return null;
+		}
+
+		int vlen = value.length();
+		if ((vlen == 0) || (vlen == length)) {
+			return pad(value);
+		}
+
+		StringBuilder sb = context.buffer();
+		pad(sb, value);
+
+		return sb.toString();
+	}
+
+	@Override
+	public BitSet encodeToBinary(Object pojo, ConversionContext context) {
 		if (!binary) {
 			return null;
 		}
@@ -219,52 +267,98 @@ public final class BasicComponent extends BaseComponent {
 	}
 
 	@Override
-	public void decode(BitSet value, Object pojo, Map<String, Object> session) {
-		if (binary) {
+	public void decode(BitSet value, Object pojo, ConversionContext context) {
+		if (!binary) {
 			throw new UnsupportedOperationException();
 		}
 
-		if (field != null) {
+		if (accessor != null) {
 			setValueToPojo(pojo, value);
 		}
 	}
 
 	@Override
-	public BitSet decode(BitSet value, Map<String, Object> session) {
+	public BitSet decode(BitSet value, ConversionContext context) {
 		return value;
 	}
 
 	@Override
-	public void decode(String value, Object pojo, Map<String, Object> session) {
+	public void decode(String value, Object pojo, ConversionContext context) {
 		if (binary) {
 			throw new UnsupportedOperationException();
 		}
 
-		if (field != null) {
+		if (primitiveType == int.class) {
+			accessor.setInt(pojo, converter.convertToInt(value));
+		} else if (primitiveType == long.class) {
+			accessor.setLong(pojo, converter.convertToLong(value));
+		} else if (accessor != null) {
 			setValueToPojo(pojo, converter.convertToJavaObject(value));
 		}
 	}
 
 	@Override
-	public Object decode(String value, Map<String, Object> session) {
+	public void decode(char[] value, int off, int len, Object pojo,
+			ConversionContext context) {
+		if (binary) {
+			throw new UnsupportedOperationException();
+		}
+
+		if (primitiveType == int.class) {
+			accessor.setInt(pojo, converter.convertToInt(value, off, len));
+		} else if (primitiveType == long.class) {
+			accessor.setLong(pojo, converter.convertToLong(value, off, len));
+		} else if (accessor != null) {
+			setValueToPojo(pojo, converter.convertToJavaObject(value, off, len));
+		}
+	}
+
+	@Override
+	public Object decode(String value, ConversionContext context) {
 		return converter.convertToJavaObject(value);
 	}
 
 	@Override
-	public void decode(Reader reader, Object pojo, Map<String, Object> session)
+	public void decode(Reader reader, Object pojo, ConversionContext context)
 			throws IOException {
-		setValueToPojo(pojo, decode(reader, session));
+		if (primitiveType == null) {
+			setValueToPojo(pojo, decode(reader, context));
+			return;
+		}
+
+		char[] cbuf = new char[length];
+		read(reader, cbuf, length);
+
+		int beginIndex = 0;
+		int endIndex = length;
+
+		switch (align) {
+		case 'l':
+			while ((endIndex > 0) && (cbuf[endIndex - 1] == padWith)) {
+				--endIndex;
+			}
+			break;
+		case 'r':
+			while ((beginIndex < length) && (cbuf[beginIndex] == padWith)) {
+				++beginIndex;
+			}
+			break;
+		default: // 'n'
+			break;
+		}
+
+		decode(cbuf, beginIndex, endIndex - beginIndex, pojo, context);
 	}
 
 	@Override
-	public Object decode(Reader reader, Map<String, Object> session)
+	public Object decode(Reader reader, ConversionContext context)
 			throws IOException {
 		if (binary) {
 			throw new UnsupportedOperationException();
 		}
 
-		if (field == null) {
-			skip(reader, length);
+		if (accessor == null) {
+			ReaderUtils.skipFully(reader, length);
 			return null;
 		}
 
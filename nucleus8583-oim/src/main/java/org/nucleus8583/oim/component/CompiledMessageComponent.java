@@ -0,0 +1,14 @@
+package org.nucleus8583.oim.component;
+
+import org.nucleus8583.core.Iso8583Message;
+
+/**
+ * Base class of message mappings compiled by {@link Iso8583MessageCompiler}.
+ */
+public abstract class CompiledMessageComponent {
+	public abstract void encode(Iso8583Message msg, Object pojo,
+			ConversionContext context);
+
+	public abstract void decode(Iso8583Message msg, Object pojo,
+			ConversionContext context);
+}
@@ -0,0 +1,143 @@
+package org.nucleus8583.oim.component;
+
+import java.util.Arrays;
+
+/**
+ * Holds transient values while a message is being converted. Each transient
+ * is stored in a slot assigned by {@link TransientSlots}, numeric values can
+ * be stored in primitive slots without boxing.
+ *
+ * Values of fields are encoded into a char buffer owned by the context, see
+ * {@link #buffer()}.
+ *
+ * A context can be reused for many conversions, see {@link #reset()}.
+ * Instances of this class are not thread-safe.
+ */
+public final class ConversionContext {
+	private static final byte UNSET = 0;
+
+	private static final byte OBJECT = 1;
+
+	private static final byte INT = 2;
+
+	private static final byte LONG = 3;
+
+	private final String[] names;
+
+	private final byte[] states;
+
+	private final Object[] objects;
+
+	private final long[] primitives;
+
+	private StringBuilder buffer;
+
+	ConversionContext(String[] names) {
+		this.names = names;
+
+		this.states = new byte[names.length];
+		this.objects = new Object[names.length];
+		this.primitives = new long[names.length];
+	}
+
+	/**
+	 * unset all slots.
+	 */
+	public void reset() {
+		Arrays.fill(states, UNSET);
+		Arrays.fill(objects, null);
+	}
+
+	public boolean isSet(int slot) {
+		return states[slot] != UNSET;
+	}
+
+	public void unset(int slot) {
+		states[slot] = UNSET;
+		objects[slot] = null;
+	}
+
+	/**
+	 * @return value of the slot or <code>null</code> if the slot is not set.
+	 *         Values set by {@link #setInt(int, int)} are returned as
+	 *         {@link Integer}, values set by {@link #setLong(int, long)} as
+	 *         {@link Long}.
+	 */
+	public Object get(int slot) {
+		switch (states[slot]) {
+		case OBJECT:
+			return objects[slot];
+		case INT:
+			return Integer.valueOf((int) primitives[slot]);
+		case LONG:
+			return Long.valueOf(primitives[slot]);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * set value of the slot, <code>null</code> unsets it.
+	 */
+	public void set(int slot, Object value) {
+		if (value == null) {
+			unset(slot);
+		} else {
+			states[slot] = OBJECT;
+			objects[slot] = value;
+		}
+	}
+
+	public int getInt(int slot) {
+		return (int) getLong(slot);
+	}
+
+	public void setInt(int slot, int value) {
+		states[slot] = INT;
+		objects[slot] = null;
+		primitives[slot] = value;
+	}
+
+	/**
+	 * @throws IllegalStateException
+	 *             if the slot is not set.
+	 * @throws ClassCastException
+	 *             if the slot holds a value which is not a number.
+	 */
+	public long getLong(int slot) {
+		switch (states[slot]) {
+		case INT:
+		case LONG:
+			return primitives[slot];
+		case OBJECT:
+			return ((Number) objects[slot]).longValue();
+		default:
+			throw new IllegalStateException("transient " + names[slot]
+					+ " is not set");
+		}
+	}
+
+	public void setLong(int slot, long value) {
+		states[slot] = LONG;
+		objects[slot] = null;
+		primitives[slot] = value;
+	}
+
+	/**
+	 * retrieve the buffer value of a field is encoded into, emptied. Every
+	 * component of the field, however deeply nested, appends to this buffer,
+	 * the value is taken by <code>toString()</code> once the field has been
+	 * encoded. The buffer is reused for the next field.
+	 *
+	 * @return the buffer
+	 */
+	public StringBuilder buffer() {
+		if (buffer == null) {
+			buffer = new StringBuilder(256);
+		} else {
+			buffer.setLength(0);
+		}
+
+		return buffer;
+	}
+}
@@ -1,5 +1,6 @@
 package org.nucleus8583.oim.component;
 
+import java.io.CharArrayReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.lang.reflect.Field;
@@ -8,6 +9,8 @@ import java.util.Map;
 
 import org.nucleus8583.oim.util.BeanUtil;
 import org.nucleus8583.oim.util.FastStringReader;
+import org.nucleus8583.oim.util.PropertyAccessor;
+import org.nucleus8583.oim.util.PropertyAccessors;
 import org.nucleus8583.oim.util.StringUtil;
 
 public final class DataStructureComponent extends BaseComponent implements
@@ -16,7 +19,7 @@ public final class DataStructureComponent extends BaseComponent implements
 
 	private final String name;
 
-	private final Field field;
+	private final PropertyAccessor accessor;
 
 	private final Class<?> _class;
 
@@ -51,9 +54,9 @@ public final class DataStructureComponent extends BaseComponent implements
 		this.name = name;
 
 		if (ignoreField || (name == null)) {
-			field = null;
+			accessor = null;
 		} else {
-			field = fields.get(name);
+			accessor = PropertyAccessors.create(fields.get(name));
 		}
 
 		this.childComponents = childComponents;
@@ -69,7 +72,39 @@ public final class DataStructureComponent extends BaseComponent implements
 	}
 
 	public boolean hasField() {
-		return field != null;
+		return accessor != null;
+	}
+
+	PropertyAccessor getAccessor() {
+		return accessor;
+	}
+
+	boolean hasClass() {
+		return _class != null;
+	}
+
+	BaseComponent[] getChildComponents() {
+		return childComponents == null ? new BaseComponent[0] : childComponents;
+	}
+
+	/**
+	 * create a new instance of the class of this data structure.
+	 *
+	 * @return the instance or <code>null</code> if this data structure has
+	 *         no class.
+	 */
+	public Object newInstance() {
+		if (_class == null) {
+			return null;
+		}
+
+		try {
+			return _class.newInstance();
+		} catch (InstantiationException e) {
+			throw new RuntimeException(e);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
 	}
 
 	@Override
@@ -79,97 +114,78 @@ public final class DataStructureComponent extends BaseComponent implements
 
 	@Override
 	public void encode(StringBuilder sb, Object pojo,
-			Map<String, Object> session) {
-		if (field != null) {
-			try {
-				pojo = field.get(pojo);
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+			ConversionContext context) {
+		if (accessor != null) {
+			pojo = accessor.get(pojo);
 		}
 
 		for (int i = 0; i < childrenCount; ++i) {
-			childComponents[i].encode(sb, pojo, session);
+			childComponents[i].encode(sb, pojo, context);
 		}
 	}
 
 	@Override
-	public String encodeToString(Object pojo, Map<String, Object> session) {
-		StringBuilder sb = new StringBuilder();
-		encode(sb, pojo, session);
+	public String encodeToString(Object pojo, ConversionContext context) {
+		StringBuilder sb = context.buffer();
+		encode(sb, pojo, context);
 
 		return sb.toString();
 	}
 
 	@Override
-	public void decode(Reader reader, Object pojo, Map<String, Object> session)
+	public void decode(Reader reader, Object pojo, ConversionContext context)
 			throws IOException {
-		if ((field != null) && (_class != null)) {
-			Object newpojo;
-
-			try {
-				newpojo = _class.newInstance();
-				field.set(pojo, newpojo);
-			} catch (InstantiationException e) {
-				throw new RuntimeException(e);
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+		if ((accessor != null) && (_class != null)) {
+			Object newpojo = newInstance();
+			accessor.set(pojo, newpojo);
 
 			pojo = newpojo;
 		}
 
 		for (int i = 0; i < childrenCount; ++i) {
-			childComponents[i].decode(reader, pojo, session);
+			childComponents[i].decode(reader, pojo, context);
 		}
 	}
 
 	@Override
-	public Object decode(Reader reader, Map<String, Object> session)
+	public Object decode(Reader reader, ConversionContext context)
 			throws IOException {
 		if (_class == null) {
 			return null;
 		}
 
-		Object pojo;
-
-		try {
-			pojo = _class.newInstance();
-		} catch (InstantiationException e) {
-			throw new RuntimeException(e);
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
-		}
+		Object pojo = newInstance();
 
 		for (int i = 0; i < childrenCount; ++i) {
-			childComponents[i].decode(reader, pojo, session);
+			childComponents[i].decode(reader, pojo, context);
 		}
 
 		return pojo;
 	}
 
 	@Override
-	public void decode(String value, Object pojo, Map<String, Object> session) {
-		if ((field != null) && (_class != null)) {
-			Object newpojo;
+	public void decode(String value, Object pojo, ConversionContext context) {
+		decodeValue(new FastStringReader(value), pojo, context);
+	}
 
-			try {
-				newpojo = _class.newInstance();
-				field.set(pojo, newpojo);
-			} catch (InstantiationException e) {
-				throw new RuntimeException(e);
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+	@Override
+	public void decode(char[] value, int off, int len, Object pojo,
+			ConversionContext context) {
+		decodeValue(new CharArrayReader(value, off, len), pojo, context);
+	}
+
+	private void decodeValue(Reader reader, Object pojo,
+			ConversionContext context) {
+		if ((accessor != null) && (_class != null)) {
+			Object newpojo = newInstance();
+			accessor.set(pojo, newpojo);
 
 			pojo = newpojo;
 		}
 
-		Reader reader = new FastStringReader(value);
-
 		try {
 			for (int i = 0; i < childrenCount; ++i) {
-				childComponents[i].decode(reader, pojo, session);
+				childComponents[i].decode(reader, pojo, context);
 			}
 		} catch (IOException e) {
 			throw new RuntimeException("internal error", e);
@@ -177,25 +193,17 @@ public final class DataStructureComponent extends BaseComponent implements
 	}
 
 	@Override
-	public Object decode(String value, Map<String, Object> session) {
+	public Object decode(String value, ConversionContext context) {
 		if (_class == null) {
 			return null;
 		}
 
 		Reader reader = new FastStringReader(value);
-		Object pojo;
-
-		try {
-			pojo = _class.newInstance();
-		} catch (InstantiationException e) {
-			throw new RuntimeException(e);
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
-		}
+		Object pojo = newInstance();
 
 		try {
 			for (int i = 0; i < childrenCount; ++i) {
-				childComponents[i].decode(reader, pojo, session);
+				childComponents[i].decode(reader, pojo, context);
 			}
 		} catch (IOException e) {
 			throw new RuntimeException("internal error", e);
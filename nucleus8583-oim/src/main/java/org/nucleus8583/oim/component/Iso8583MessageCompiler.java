@@ -0,0 +1,453 @@
+package org.nucleus8583.oim.component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+
+import org.nucleus8583.core.Iso8583Message;
+import org.nucleus8583.oim.converter.TypeConverter;
+import org.nucleus8583.oim.util.FastStringReader;
+import org.nucleus8583.oim.util.GeneratedClasses;
+import org.nucleus8583.oim.util.PropertyAccessor;
+
+/**
+ * Compiles a whole message mapping into a single class. The generated
+ * <code>encode</code> and <code>decode</code> methods visit fields of the
+ * message in straight-line code, with every component, accessor and converter
+ * held in a field of its concrete type, instead of looping over the component
+ * tree. Children of data structures are inlined as well.
+ *
+ * Basic components and data structures are compiled, other components (lists,
+ * arrays, skips, transient values and binary fields) are called from the
+ * generated code as they are.
+ *
+ * Components are passed to the constructor of the generated class, so
+ * mappings compiled into the same code share one class, see
+ * {@link GeneratedClasses}.
+ */
+public final class Iso8583MessageCompiler {
+	private static final String MESSAGE = Iso8583Message.class.getName();
+
+	private static final String READER = FastStringReader.class.getName();
+
+	private static final String CONTEXT = ConversionContext.class.getName();
+
+	private static final AtomicInteger counter = new AtomicInteger();
+
+	private final List<Object> refs = new ArrayList<Object>();
+
+	private final List<String> refTypes = new ArrayList<String>();
+
+	private int vars;
+
+	private Iso8583MessageCompiler() {
+		// do nothing
+	}
+
+	/**
+	 * compile given message mapping.
+	 *
+	 * @param message
+	 *            the message mapping
+	 * @return compiled mapping
+	 * @throws RuntimeException
+	 *             if the mapping cannot be compiled.
+	 */
+	public static CompiledMessageComponent compile(
+			Iso8583MessageComponent message) {
+		try {
+			return new Iso8583MessageCompiler().doCompile(message);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException("unable to compile message "
+					+ message.getName(), e);
+		}
+	}
+
+	private CompiledMessageComponent doCompile(Iso8583MessageComponent message)
+			throws Exception {
+		BaseComponent[] components = message.getIsoFieldsComponent();
+		int[] numbers = message.getIsoFieldsNumber();
+		int count = message.getIsoFieldsCount();
+
+		StringBuilder encode = new StringBuilder();
+		StringBuilder decode = new StringBuilder();
+
+		for (int i = 0; i < count; ++i) {
+			encodeField(encode, components[i], numbers[i]);
+			decodeField(decode, components[i], numbers[i]);
+		}
+
+		ClassLoader loader = Iso8583MessageCompiler.class.getClassLoader();
+
+		// mappings having the same code share the generated class
+		String key = refTypes + "\n" + encode + "\n" + decode;
+
+		Class<?> generated = GeneratedClasses.get(loader, key);
+		if (generated == null) {
+			generated = GeneratedClasses.put(loader, key, generateClass(
+					message, loader, encode, decode));
+		}
+
+		return (CompiledMessageComponent) generated.getConstructor(
+				Object[].class).newInstance(new Object[] { refs.toArray() });
+	}
+
+	private Class<?> generateClass(Iso8583MessageComponent message,
+			ClassLoader loader, StringBuilder encode, StringBuilder decode)
+			throws Exception {
+		String name = CompiledMessageComponent.class.getName() + "$"
+				+ sanitize(message.getName()) + "$" + counter.incrementAndGet();
+		String simpleName = name.substring(name.lastIndexOf('.') + 1);
+
+		ClassPool pool = new ClassPool(false);
+		pool.appendClassPath(new ClassClassPath(Iso8583MessageCompiler.class));
+		pool.appendClassPath(new ClassClassPath(Iso8583Message.class));
+
+		CtClass cc = pool.makeClass(name, pool
+				.get(CompiledMessageComponent.class.getName()));
+
+		StringBuilder init = new StringBuilder();
+		init.append("public ").append(simpleName).append(
+				"(Object[] refs) { super(); ");
+
+		for (int i = 0, n = refs.size(); i < n; ++i) {
+			String type = refTypes.get(i);
+
+			cc.addField(CtField.make("private " + type + " r" + i + ";", cc));
+			init.append("r").append(i).append(" = (").append(type).append(
+					") $1[").append(i).append("]; ");
+		}
+
+		init.append("}");
+		cc.addConstructor(CtNewConstructor.make(init.toString(), cc));
+
+		cc.addMethod(CtNewMethod.make("public void encode(" + MESSAGE
+				+ " msg, Object pojo, " + CONTEXT + " context) { " + encode
+				+ "}", cc));
+		cc.addMethod(CtNewMethod.make("public void decode(" + MESSAGE
+				+ " msg, Object pojo, " + CONTEXT + " context) { " + decode
+				+ "}", cc));
+
+		try {
+			return cc.toClass(loader, Iso8583MessageCompiler.class
+					.getProtectionDomain());
+		} finally {
+			cc.detach();
+		}
+	}
+
+	private static String sanitize(String name) {
+		StringBuilder sb = new StringBuilder(name.length());
+
+		for (int i = 0, n = name.length(); i < n; ++i) {
+			char c = name.charAt(i);
+			sb.append(Character.isJavaIdentifierPart(c) ? c : '_');
+		}
+
+		return sb.toString();
+	}
+
+	private String ref(Object value, Class<?> type) {
+		refs.add(value);
+		refTypes.add(type.getName());
+
+		return "r" + (refs.size() - 1);
+	}
+
+	private String var() {
+		return "v" + (vars++);
+	}
+
+	private static boolean isCompilable(BaseComponent component) {
+		if (component instanceof BasicComponent) {
+			BasicComponent basic = (BasicComponent) component;
+			return !basic.isBinary() && (basic.getAccessor() != null);
+		}
+
+		return component instanceof DataStructureComponent;
+	}
+
+	/**
+	 * expression converting the property of a basic component into ISO
+	 * string, primitive properties are converted without boxing.
+	 */
+	private static String isoValue(BasicComponent basic, String accessor,
+			String converter, String pojo) {
+		Class<?> type = basic.getPrimitiveType();
+
+		if (type == int.class) {
+			return converter + ".convertIntToIsoString(" + accessor
+					+ ".getInt(" + pojo + "))";
+		}
+
+		if (type == long.class) {
+			return converter + ".convertLongToIsoString(" + accessor
+					+ ".getLong(" + pojo + "))";
+		}
+
+		return converter + ".convertToIsoString(" + accessor + ".get(" + pojo
+				+ "))";
+	}
+
+	private void encodeField(StringBuilder code, BaseComponent component,
+			int isoNo) {
+		if ((isoNo != 0) && component.isBinary()) {
+			String c = ref(component, component.getClass());
+			String v = var();
+
+			code.append("java.util.BitSet ").append(v).append(" = ").append(c)
+					.append(".encodeToBinary($2, $3); ");
+			code.append("if (").append(v).append(" == null) { $1.unsafeUnset(")
+					.append(isoNo).append("); } else { $1.unsafeSet(").append(
+							isoNo).append(", ").append(v).append("); } ");
+			return;
+		}
+
+		String v = encodeString(code, component, "$2");
+
+		if (isoNo == 0) {
+			code.append("if (").append(v).append(
+					" == null) { $1.unsetMti(); } else { $1.setMti(").append(v)
+					.append("); } ");
+		} else {
+			code.append("if (").append(v).append(" == null) { $1.unsafeUnset(")
+					.append(isoNo).append("); } else { $1.unsafeSet(").append(
+							isoNo).append(", ").append(v).append("); } ");
+		}
+	}
+
+	/**
+	 * generate equivalent of <code>component.encodeToString(pojo, context)</code>,
+	 * returns name of the variable holding the result.
+	 */
+	private String encodeString(StringBuilder code, BaseComponent component,
+			String pojo) {
+		String v = var();
+
+		if (!isCompilable(component)) {
+			String c = ref(component, component.getClass());
+
+			code.append("String ").append(v).append(" = ").append(c).append(
+					".encodeToString(").append(pojo).append(", $3); ");
+		} else if (component instanceof BasicComponent) {
+			BasicComponent basic = (BasicComponent) component;
+
+			String c = ref(basic, BasicComponent.class);
+			String a = ref(basic.getAccessor(), PropertyAccessor.class);
+			String k = ref(basic.getConverter(), TypeConverter.class);
+
+			code.append("String ").append(v).append(" = ").append(
+					isoValue(basic, a, k, pojo)).append("; ");
+			code.append("if (").append(v).append(" != null) { ").append(v)
+					.append(" = ").append(c).append(".pad(").append(v).append(
+							"); } ");
+		} else {
+			String sb = var();
+
+			code.append("StringBuilder ").append(sb).append(
+					" = $3.buffer(); ");
+			encodeTo(code, component, sb, pojo);
+			code.append("String ").append(v).append(" = ").append(sb).append(
+					".toString(); ");
+		}
+
+		return v;
+	}
+
+	/**
+	 * generate equivalent of <code>component.encode(sb, pojo, context)</code>.
+	 */
+	private void encodeTo(StringBuilder code, BaseComponent component,
+			String sb, String pojo) {
+		if (!isCompilable(component)) {
+			String c = ref(component, component.getClass());
+
+			code.append(c).append(".encode(").append(sb).append(", ").append(
+					pojo).append(", $3); ");
+		} else if (component instanceof BasicComponent) {
+			BasicComponent basic = (BasicComponent) component;
+
+			String c = ref(basic, BasicComponent.class);
+			String a = ref(basic.getAccessor(), PropertyAccessor.class);
+			String k = ref(basic.getConverter(), TypeConverter.class);
+			String v = var();
+
+			code.append("String ").append(v).append(" = ").append(
+					isoValue(basic, a, k, pojo)).append("; ");
+			code.append("if (").append(v).append(" != null) { ").append(c)
+					.append(".pad(").append(sb).append(", ").append(v).append(
+							"); } ");
+		} else {
+			DataStructureComponent ds = (DataStructureComponent) component;
+			String p = var();
+
+			code.append("Object ").append(p).append(" = ");
+			if (ds.getAccessor() == null) {
+				code.append(pojo);
+			} else {
+				code.append(ref(ds.getAccessor(), PropertyAccessor.class))
+						.append(".get(").append(pojo).append(")");
+			}
+			code.append("; ");
+
+			BaseComponent[] children = ds.getChildComponents();
+			for (int i = 0; i < children.length; ++i) {
+				encodeTo(code, children[i], sb, p);
+			}
+		}
+	}
+
+	private void decodeField(StringBuilder code, BaseComponent component,
+			int isoNo) {
+		if (isoNo == 0) {
+			String v = var();
+
+			code.append("String ").append(v).append(" = $1.getMti(); ");
+			decodeString(code, component, v, "$2");
+		} else if (component.isBinary()) {
+			String c = ref(component, component.getClass());
+			String v = var();
+
+			code.append("java.util.BitSet ").append(v).append(
+					" = $1.unsafeGetBinary(").append(isoNo).append("); ");
+			code.append("if (").append(v).append(" != null) { ").append(c)
+					.append(".decode(").append(v).append(", $2, $3); } ");
+		} else {
+			String v = var();
+
+			code.append("String ").append(v).append(" = $1.unsafeGetString(")
+					.append(isoNo).append("); ");
+			code.append("if (").append(v).append(" != null) { ");
+			decodeString(code, component, v, "$2");
+			code.append("} ");
+		}
+	}
+
+	/**
+	 * generate equivalent of <code>component.decode(value, pojo, context)</code>.
+	 */
+	private void decodeString(StringBuilder code, BaseComponent component,
+			String value, String pojo) {
+		if (!isCompilable(component)) {
+			String c = ref(component, component.getClass());
+
+			code.append(c).append(".decode(").append(value).append(", ")
+					.append(pojo).append(", $3); ");
+		} else if (component instanceof BasicComponent) {
+			BasicComponent basic = (BasicComponent) component;
+
+			String a = ref(basic.getAccessor(), PropertyAccessor.class);
+			String k = ref(basic.getConverter(), TypeConverter.class);
+
+			Class<?> type = basic.getPrimitiveType();
+
+			if (type == int.class) {
+				code.append(a).append(".setInt(").append(pojo).append(", ")
+						.append(k).append(".convertToInt(").append(value)
+						.append(")); ");
+			} else if (type == long.class) {
+				code.append(a).append(".setLong(").append(pojo).append(", ")
+						.append(k).append(".convertToLong(").append(value)
+						.append(")); ");
+			} else {
+				code.append(a).append(".set(").append(pojo).append(", ")
+						.append(k).append(".convertToJavaObject(").append(
+								value).append(")); ");
+			}
+		} else {
+			DataStructureComponent ds = (DataStructureComponent) component;
+
+			String p = newPojo(code, ds, pojo);
+
+			BaseComponent[] children = ds.getChildComponents();
+			if (children.length == 0) {
+				return;
+			}
+
+			String r = var();
+			String e = var();
+
+			code.append("java.io.Reader ").append(r).append(" = new ").append(
+					READER).append("(").append(value).append("); ");
+			code.append("try { ");
+
+			for (int i = 0; i < children.length; ++i) {
+				decodeFrom(code, children[i], r, p);
+			}
+
+			code.append("} catch (java.io.IOException ").append(e).append(
+					") { throw new RuntimeException(\"internal error\", ")
+					.append(e).append("); } ");
+		}
+	}
+
+	/**
+	 * generate equivalent of <code>component.decode(reader, pojo, context)</code>.
+	 */
+	private void decodeFrom(StringBuilder code, BaseComponent component,
+			String reader, String pojo) {
+		if (!isCompilable(component)) {
+			String c = ref(component, component.getClass());
+
+			code.append(c).append(".decode(").append(reader).append(", ")
+					.append(pojo).append(", $3); ");
+		} else if (component instanceof BasicComponent) {
+			BasicComponent basic = (BasicComponent) component;
+
+			String c = ref(basic, BasicComponent.class);
+
+			if (basic.getPrimitiveType() != null) {
+				code.append(c).append(".decode(").append(reader).append(", ")
+						.append(pojo).append(", $3); ");
+			} else {
+				String a = ref(basic.getAccessor(), PropertyAccessor.class);
+
+				code.append(a).append(".set(").append(pojo).append(", ")
+						.append(c).append(".decode(").append(reader).append(
+								", $3)); ");
+			}
+		} else {
+			DataStructureComponent ds = (DataStructureComponent) component;
+
+			String p = newPojo(code, ds, pojo);
+
+			BaseComponent[] children = ds.getChildComponents();
+			for (int i = 0; i < children.length; ++i) {
+				decodeFrom(code, children[i], reader, p);
+			}
+		}
+	}
+
+	/**
+	 * generate creation of the data structure's object, returns name of the
+	 * variable holding the object children are decoded into.
+	 */
+	private String newPojo(StringBuilder code, DataStructureComponent ds,
+			String pojo) {
+		String p = var();
+
+		if ((ds.getAccessor() != null) && ds.hasClass()) {
+			String c = ref(ds, DataStructureComponent.class);
+			String a = ref(ds.getAccessor(), PropertyAccessor.class);
+
+			code.append("Object ").append(p).append(" = ").append(c).append(
+					".newInstance(); ");
+			code.append(a).append(".set(").append(pojo).append(", ").append(p)
+					.append("); ");
+		} else {
+			code.append("Object ").append(p).append(" = ").append(pojo)
+					.append("; ");
+		}
+
+		return p;
+	}
+}
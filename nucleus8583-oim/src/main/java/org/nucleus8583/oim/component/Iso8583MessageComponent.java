@@ -1,14 +1,47 @@
 package org.nucleus8583.oim.component;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
 
-import org.nucleus8583.Iso8583Message;
+import org.nucleus8583.core.Iso8583FieldVisitor;
+import org.nucleus8583.core.Iso8583Message;
+import org.nucleus8583.core.Iso8583MessageSerializer;
+import org.nucleus8583.core.util.CharWindow;
 import org.nucleus8583.oim.util.BeanUtil;
 
 public final class Iso8583MessageComponent implements HasFieldsComponent {
+	private static final class FieldDecoder implements Iso8583FieldVisitor {
+		private final BaseComponent[] components;
+
+		private final Object pojo;
+
+		private final ConversionContext context;
+
+		public FieldDecoder(BaseComponent[] components, Object pojo,
+				ConversionContext context) {
+			this.components = components;
+			this.pojo = pojo;
+			this.context = context;
+		}
+
+		public boolean accept(int no) {
+			return (no < components.length) && (components[no] != null);
+		}
+
+		public void visit(int no, CharWindow value) {
+			components[no].decode(value.getBuffer(), value.getOffset(), value
+					.getLength(), pojo, context);
+		}
+
+		public void visit(int no, BitSet value) {
+			components[no].decode(value, pojo, context);
+		}
+	}
+
 	private final String name;
 
 	private final Class<?> _class;
@@ -21,6 +54,16 @@ public final class Iso8583MessageComponent implements HasFieldsComponent {
 
 	private final int isoFieldsCount;
 
+	private volatile CompiledMessageComponent compiled;
+
+	private volatile BaseComponent[] componentsByNo;
+
+	private volatile boolean wireOrdered;
+
+	private volatile boolean lazyResolved;
+
+	private volatile LazyPojoFactory lazyFactory;
+
 	public Iso8583MessageComponent(String name, Class<?> _class,
 			BaseComponent[] isoFieldsComponent, int[] isoFieldsNumber,
 			int isoFieldsCount) {
@@ -35,8 +78,32 @@ public final class Iso8583MessageComponent implements HasFieldsComponent {
 		BeanUtil.collectFields(_class, fields);
 	}
 
+	/**
+	 * compile this mapping, see {@link Iso8583MessageCompiler}. Once compiled,
+	 * messages are encoded and decoded by the compiled class.
+	 *
+	 * @throws RuntimeException
+	 *             if the mapping cannot be compiled.
+	 */
+	public void compile() {
+		compiled = Iso8583MessageCompiler.compile(this);
+	}
+
+	public boolean isCompiled() {
+		return compiled != null;
+	}
+
 	public void encode(Iso8583Message msg, Object pojo,
-			Map<String, Object> session) {
+			ConversionContext context) {
+		// generated accessors may read fields directly
+		LazyLoader.ensureLoaded(pojo);
+
+		CompiledMessageComponent c = compiled;
+		if (c != null) {
+			c.encode(msg, pojo, context);
+			return;
+		}
+
 		BaseComponent component;
 		int isoNo;
 
@@ -45,7 +112,7 @@ public final class Iso8583MessageComponent implements HasFieldsComponent {
 			isoNo = isoFieldsNumber[i];
 
 			if (isoNo == 0) {
-				String value = component.encodeToString(pojo, session);
+				String value = component.encodeToString(pojo, context);
 				if (value == null) {
 					msg.unsetMti();
 				} else {
@@ -53,14 +120,14 @@ public final class Iso8583MessageComponent implements HasFieldsComponent {
 				}
 			} else {
 				if (component.isBinary()) {
-					BitSet value = component.encodeToBinary(pojo, session);
+					BitSet value = component.encodeToBinary(pojo, context);
 					if (value == null) {
 						msg.unsafeUnset(isoNo);
 					} else {
 						msg.unsafeSet(isoNo, value);
 					}
 				} else {
-					String value = component.encodeToString(pojo, session);
+					String value = component.encodeToString(pojo, context);
 					if (value == null) {
 						msg.unsafeUnset(isoNo);
 					} else {
@@ -72,47 +139,200 @@ public final class Iso8583MessageComponent implements HasFieldsComponent {
 	}
 
 	public void decode(Iso8583Message msg, Object pojo,
-			Map<String, Object> session) {
-		BaseComponent component;
-		int isoNo;
+			ConversionContext context) {
+		CompiledMessageComponent c = compiled;
+		if (c != null) {
+			c.decode(msg, pojo, context);
+			return;
+		}
 
 		for (int i = 0; i < isoFieldsCount; ++i) {
-			component = isoFieldsComponent[i];
-			isoNo = isoFieldsNumber[i];
+			decode(i, msg, pojo, context);
+		}
+	}
 
-			if (isoNo == 0) {
-				component.decode(msg.getMti(), pojo, session);
+	/**
+	 * decode field of the message at given index of this mapping.
+	 */
+	void decode(int index, Iso8583Message msg, Object pojo,
+			ConversionContext context) {
+		BaseComponent component = isoFieldsComponent[index];
+		int isoNo = isoFieldsNumber[index];
+
+		if (isoNo == 0) {
+			component.decode(msg.getMti(), pojo, context);
+		} else {
+			if (component.isBinary()) {
+				BitSet value = msg.unsafeGetBinary(isoNo);
+				if (value != null) {
+					component.decode(value, pojo, context);
+				}
 			} else {
-				if (component.isBinary()) {
-					BitSet value = msg.unsafeGetBinary(isoNo);
-					if (value != null) {
-						component.decode(value, pojo, session);
-					}
-				} else {
-					String value = msg.unsafeGetString(isoNo);
-					if (value != null) {
-						component.decode(value, pojo, session);
-					}
+				String value = msg.unsafeGetString(isoNo);
+				if (value != null) {
+					component.decode(value, pojo, context);
+				}
+			}
+		}
+	}
+
+	private LazyPojoFactory lazyFactory() {
+		if (!lazyResolved) {
+			synchronized (this) {
+				if (!lazyResolved) {
+					lazyFactory = LazyPojoFactory.create(this);
+					lazyResolved = true;
 				}
 			}
 		}
+
+		return lazyFactory;
+	}
+
+	/**
+	 * decode <code>msg</code> lazily. The returned object is an instance of a
+	 * generated subclass of the mapped class, implementing {@link LazyPojo}.
+	 * Each field of the message is decoded on the first call to a getter or
+	 * setter of a property it maps, see {@link LazyPojoFactory}. Methods of
+	 * the mapped class reading its fields directly see undecoded values, call
+	 * {@link LazyLoader#ensureLoaded(Object)} before. If the mapped class
+	 * cannot be subclassed, the message is decoded immediately.
+	 *
+	 * @param msg
+	 *            the message, it must not be modified until the object has
+	 *            been fully loaded.
+	 * @param context
+	 *            the context, owned by the returned object until it has been
+	 *            fully loaded.
+	 * @return the object
+	 */
+	public Object decodeLazy(Iso8583Message msg, ConversionContext context) {
+		LazyPojoFactory factory = lazyFactory();
+		if (factory == null) {
+			return decode(msg, context);
+		}
+
+		return factory.newInstance(msg, context);
 	}
 
-	public Object decode(Iso8583Message msg, Map<String, Object> session) {
-		Object pojo;
+	private BaseComponent[] componentsByNo() {
+		BaseComponent[] byNo = componentsByNo;
+
+		if (byNo == null) {
+			int max = 0;
+			for (int i = 0; i < isoFieldsCount; ++i) {
+				max = Math.max(max, isoFieldsNumber[i]);
+			}
+
+			byNo = new BaseComponent[max + 1];
+			boolean ordered = true;
+
+			for (int i = 0; i < isoFieldsCount; ++i) {
+				byNo[isoFieldsNumber[i]] = isoFieldsComponent[i];
+
+				if ((i > 0) && (isoFieldsNumber[i] <= isoFieldsNumber[i - 1])) {
+					ordered = false;
+				}
+			}
+
+			wireOrdered = ordered;
+			componentsByNo = byNo;
+		}
+
+		return byNo;
+	}
 
+	/**
+	 * decode a raw message directly into <code>pojo</code>, without creating
+	 * an {@link Iso8583Message}. Values of fields are read by the serializer
+	 * into a reusable char window and converted from there, fields which are
+	 * not mapped are skipped.
+	 *
+	 * Fields must be decoded in mapping order, e.g. a <code>transient:</code>
+	 * size is set by one field and read by a list in a later one. If numbers
+	 * of mapped fields ascend in mapping order, fields are decoded directly as
+	 * they appear in the message. Otherwise the raw message is read into a
+	 * new {@link Iso8583Message} first and decoded like
+	 * {@link #decode(Iso8583Message, Object, ConversionContext)}.
+	 *
+	 * @param serializer
+	 *            serializer of the raw message
+	 * @param frame
+	 *            the raw message, its position is advanced past the message.
+	 * @param pojo
+	 *            the object
+	 * @param context
+	 *            the context
+	 * @throws IOException
+	 *             thrown if the raw message is shorter than expected.
+	 */
+	public void decode(Iso8583MessageSerializer serializer, ByteBuffer frame,
+			Object pojo, ConversionContext context) throws IOException {
+		BaseComponent[] byNo = componentsByNo();
+
+		if (wireOrdered) {
+			serializer.read(frame, new FieldDecoder(byNo, pojo, context));
+		} else {
+			Iso8583Message msg = new Iso8583Message(192);
+			serializer.read(frame, msg);
+
+			decode(msg, pojo, context);
+		}
+	}
+
+	public Object decode(Iso8583MessageSerializer serializer, ByteBuffer frame,
+			ConversionContext context) throws IOException {
+		Object pojo = newInstance();
+
+		decode(serializer, frame, pojo, context);
+		return pojo;
+	}
+
+	private Object newInstance() {
 		try {
-			pojo = _class.newInstance();
+			return _class.newInstance();
 		} catch (InstantiationException e) {
 			throw new RuntimeException(e);
 		} catch (IllegalAccessException e) {
 			throw new RuntimeException(e);
 		}
+	}
 
-		decode(msg, pojo, session);
+	public Object decode(Iso8583Message msg, ConversionContext context) {
+		Object pojo = newInstance();
+
+		decode(msg, pojo, context);
 		return pojo;
 	}
 
+	/**
+	 * DO NOT use this method directly
+	 */
+	Class<?> getMessageClass() {
+		return _class;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	BaseComponent[] getIsoFieldsComponent() {
+		return isoFieldsComponent;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	int[] getIsoFieldsNumber() {
+		return isoFieldsNumber;
+	}
+
+	/**
+	 * DO NOT use this method directly
+	 */
+	int getIsoFieldsCount() {
+		return isoFieldsCount;
+	}
+
 	public String getName() {
 		return name;
 	}
@@ -0,0 +1,87 @@
+package org.nucleus8583.oim.component;
+
+import org.nucleus8583.core.Iso8583Message;
+
+/**
+ * Decodes fields of a lazily decoded object on first access. Each field of the
+ * message is decoded at most once, the message and the context are released
+ * once every field has been decoded.
+ *
+ * Instances of this class are not thread-safe, like the objects owning them.
+ */
+public final class LazyLoader {
+	private final Iso8583MessageComponent component;
+
+	private final boolean[] loaded;
+
+	private int remaining;
+
+	private Iso8583Message msg;
+
+	private ConversionContext context;
+
+	LazyLoader(Iso8583MessageComponent component, Iso8583Message msg,
+			ConversionContext context) {
+		this.component = component;
+		this.msg = msg;
+		this.context = context;
+
+		this.remaining = component.getIsoFieldsCount();
+		this.loaded = new boolean[remaining];
+	}
+
+	/**
+	 * make sure all fields of <code>pojo</code> have been decoded if it has
+	 * been lazily decoded, do nothing otherwise.
+	 *
+	 * @param pojo
+	 *            the object
+	 */
+	public static void ensureLoaded(Object pojo) {
+		if (pojo instanceof LazyPojo) {
+			LazyLoader loader = ((LazyPojo) pojo).getOimLazyLoader();
+
+			if (loader != null) {
+				loader.loadAll(pojo);
+			}
+		}
+	}
+
+	public boolean isLoaded(int index) {
+		return loaded[index];
+	}
+
+	/**
+	 * decode field of the message at given index of the mapping into
+	 * <code>pojo</code>, if it has not been decoded yet. Called by generated
+	 * getters and setters.
+	 *
+	 * @param pojo
+	 *            the object owning this loader
+	 * @param index
+	 *            index of the field in the mapping
+	 */
+	public void load(Object pojo, int index) {
+		if (loaded[index]) {
+			return;
+		}
+
+		// mark first, setters called while decoding must not load again
+		loaded[index] = true;
+
+		try {
+			component.decode(index, msg, pojo, context);
+		} finally {
+			if (--remaining == 0) {
+				msg = null;
+				context = null;
+			}
+		}
+	}
+
+	public void loadAll(Object pojo) {
+		for (int i = 0; (i < loaded.length) && (remaining > 0); ++i) {
+			load(pojo, i);
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package org.nucleus8583.oim.component;
+
+/**
+ * Implemented by objects created by lazy decoding, see
+ * {@link Iso8583MessageComponent#decodeLazy(org.nucleus8583.core.Iso8583Message, ConversionContext)}
+ * . Methods of this interface are implemented by generated classes, DO NOT
+ * implement it directly.
+ */
+public interface LazyPojo {
+	LazyLoader getOimLazyLoader();
+
+	void setOimLazyLoader(LazyLoader loader);
+}
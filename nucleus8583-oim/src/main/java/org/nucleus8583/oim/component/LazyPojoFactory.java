@@ -0,0 +1,362 @@
+package org.nucleus8583.oim.component;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+import org.nucleus8583.core.Iso8583Message;
+import org.nucleus8583.oim.util.GeneratedClasses;
+
+/**
+ * Creates lazily decoded objects of a message mapping. A subclass of the
+ * mapped class is generated, overriding getters and setters of properties
+ * mapped by each field of the message to decode that field on first call.
+ *
+ * A field is decoded lazily only if it is mapped by basic components and data
+ * structures of basic components, and every property it maps has a getter
+ * which can be overridden. Other fields (transient values, lists, arrays,
+ * properties without getter) are decoded when the object is created.
+ */
+final class LazyPojoFactory {
+	private static final String LOADER = LazyLoader.class.getName();
+
+	private static final AtomicInteger counter = new AtomicInteger();
+
+	private final Iso8583MessageComponent component;
+
+	private final Class<?> generated;
+
+	/**
+	 * indexes of fields decoded when the object is created.
+	 */
+	private final int[] eager;
+
+	private final int eagerCount;
+
+	private LazyPojoFactory(Iso8583MessageComponent component,
+			Class<?> generated, int[] eager, int eagerCount) {
+		this.component = component;
+		this.generated = generated;
+		this.eager = eager;
+		this.eagerCount = eagerCount;
+	}
+
+	/**
+	 * create factory of given message mapping.
+	 *
+	 * @param message
+	 *            the message mapping
+	 * @return the factory, or <code>null</code> if the mapped class cannot be
+	 *         subclassed (e.g. final class, private constructor, or the class
+	 *         loader of the class cannot see OIM classes) or no field can be
+	 *         decoded lazily.
+	 */
+	static LazyPojoFactory create(Iso8583MessageComponent message) {
+		try {
+			return doCreate(message);
+		} catch (Exception e) {
+			return null;
+		} catch (LinkageError e) {
+			return null;
+		}
+	}
+
+	private static LazyPojoFactory doCreate(Iso8583MessageComponent message)
+			throws Exception {
+		Class<?> owner = message.getMessageClass();
+
+		int mod = owner.getModifiers();
+		if (owner.isInterface() || Modifier.isFinal(mod)
+				|| Modifier.isAbstract(mod) || Modifier.isPrivate(mod)) {
+			return null;
+		}
+
+		if (Modifier.isPrivate(owner.getDeclaredConstructor().getModifiers())) {
+			return null;
+		}
+
+		ClassLoader loader = owner.getClassLoader();
+		if (loader == null) {
+			return null;
+		}
+
+		BaseComponent[] components = message.getIsoFieldsComponent();
+		int count = message.getIsoFieldsCount();
+
+		List<String> methods = new ArrayList<String>();
+		Set<String> overridden = new HashSet<String>();
+
+		int[] eager = new int[count];
+		int eagerCount = 0;
+
+		for (int i = 0; i < count; ++i) {
+			List<String> names = new ArrayList<String>();
+			List<String> group = new ArrayList<String>();
+
+			boolean lazy = collectProperties(components[i], names)
+					&& !names.isEmpty();
+
+			for (int j = 0, n = names.size(); lazy && (j < n); ++j) {
+				Field field = message.getField(names.get(j));
+				Method getter = field == null ? null : findGetter(owner, field);
+
+				if (getter == null) {
+					lazy = false;
+				} else {
+					group.add(override(getter, i));
+
+					Method setter = findSetter(owner, field);
+					if (setter != null) {
+						group.add(override(setter, i));
+					}
+				}
+			}
+
+			if (lazy) {
+				for (int j = 0, n = names.size(); j < n; ++j) {
+					if (!overridden.add(names.get(j))) {
+						// property mapped by more than one field
+						return null;
+					}
+				}
+
+				methods.addAll(group);
+			} else {
+				eager[eagerCount++] = i;
+			}
+		}
+
+		if (methods.isEmpty()) {
+			return null;
+		}
+
+		// mappings overriding the same methods share the generated class
+		StringBuilder key = new StringBuilder(owner.getName());
+		for (int i = 0, n = methods.size(); i < n; ++i) {
+			key.append('\n').append(methods.get(i));
+		}
+
+		Class<?> generated = GeneratedClasses.get(loader, key.toString());
+		if (generated == null) {
+			generated = GeneratedClasses.put(loader, key.toString(),
+					generateClass(owner, loader, methods));
+		}
+
+		return new LazyPojoFactory(message, generated, eager, eagerCount);
+	}
+
+	private static Class<?> generateClass(Class<?> owner, ClassLoader loader,
+			List<String> methods) throws Exception {
+		// generated class lives in the same runtime package as the POJO
+		String name = owner.getName() + "$$OimLazy$"
+				+ counter.incrementAndGet();
+		String simpleName = name.substring(name.lastIndexOf('.') + 1);
+
+		ClassPool pool = new ClassPool(false);
+		pool.appendClassPath(new ClassClassPath(LazyPojo.class));
+		pool.appendClassPath(new LoaderClassPath(loader));
+
+		CtClass cc = pool.makeClass(name, pool.get(owner.getName()));
+		cc.addInterface(pool.get(LazyPojo.class.getName()));
+
+		cc.addField(CtField.make("private " + LOADER + " oimLazyLoader;", cc));
+		cc.addConstructor(CtNewConstructor.make("public " + simpleName
+				+ "() { super(); }", cc));
+
+		cc.addMethod(CtNewMethod.make("public " + LOADER
+				+ " getOimLazyLoader() { return oimLazyLoader; }", cc));
+		cc.addMethod(CtNewMethod.make("public void setOimLazyLoader(" + LOADER
+				+ " loader) { oimLazyLoader = $1; }", cc));
+
+		for (int i = 0, n = methods.size(); i < n; ++i) {
+			cc.addMethod(CtNewMethod.make(methods.get(i), cc));
+		}
+
+		try {
+			return cc.toClass(loader, owner.getProtectionDomain());
+		} finally {
+			cc.detach();
+		}
+	}
+
+	/**
+	 * collect names of properties of the message class mapped by
+	 * <code>component</code>.
+	 *
+	 * @return <code>false</code> if the component cannot be decoded lazily.
+	 */
+	private static boolean collectProperties(BaseComponent component,
+			List<String> names) {
+		if (component instanceof BasicComponent) {
+			String name = ((BasicComponent) component).getName();
+			if (name != null) {
+				names.add(name);
+			}
+
+			return true;
+		}
+
+		if (component instanceof SkipComponent) {
+			return true;
+		}
+
+		if (!(component instanceof DataStructureComponent)) {
+			// transient values, lists and arrays
+			return false;
+		}
+
+		DataStructureComponent ds = (DataStructureComponent) component;
+
+		List<String> childNames;
+		if (ds.hasField()) {
+			// children are properties of the data structure's object
+			names.add(ds.getName());
+			childNames = new ArrayList<String>();
+		} else {
+			childNames = names;
+		}
+
+		BaseComponent[] children = ds.getChildComponents();
+		for (int i = 0; i < children.length; ++i) {
+			if (!collectProperties(children[i], childNames)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static String override(Method method, int index) {
+		String load = "{ if (oimLazyLoader != null) { oimLazyLoader.load(this, "
+				+ index + "); } ";
+
+		if (method.getParameterTypes().length == 0) {
+			return "public " + sourceName(method.getReturnType()) + " "
+					+ method.getName() + "() " + load + "return super."
+					+ method.getName() + "(); }";
+		}
+
+		return "public void " + method.getName() + "("
+				+ sourceName(method.getParameterTypes()[0]) + " value) "
+				+ load + "super." + method.getName() + "($1); }";
+	}
+
+	private static boolean isOverridable(Method method, Class<?> owner) {
+		int mod = method.getModifiers();
+
+		if (Modifier.isStatic(mod) || Modifier.isPrivate(mod)
+				|| Modifier.isFinal(mod)) {
+			return false;
+		}
+
+		if (Modifier.isPublic(mod) || Modifier.isProtected(mod)) {
+			return true;
+		}
+
+		// package-private, the generated class is in the package of owner
+		return packageOf(method.getDeclaringClass()).equals(packageOf(owner));
+	}
+
+	private static String packageOf(Class<?> type) {
+		String name = type.getName();
+		int index = name.lastIndexOf('.');
+
+		return index < 0 ? "" : name.substring(0, index);
+	}
+
+	private static Method findMethod(Class<?> owner, String name,
+			Class<?>... parameterTypes) {
+		for (Class<?> c = owner; c != null; c = c.getSuperclass()) {
+			try {
+				Method method = c.getDeclaredMethod(name, parameterTypes);
+
+				return isOverridable(method, owner) ? method : null;
+			} catch (NoSuchMethodException e) {
+				// try superclass
+			}
+		}
+
+		return null;
+	}
+
+	private static String capitalize(String name) {
+		return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	private static Method findGetter(Class<?> owner, Field field) {
+		String name = capitalize(field.getName());
+
+		Method method = null;
+		if (field.getType() == boolean.class) {
+			method = findMethod(owner, "is" + name);
+		}
+		if (method == null) {
+			method = findMethod(owner, "get" + name);
+		}
+
+		if ((method == null) || (method.getReturnType() != field.getType())) {
+			return null;
+		}
+
+		return method;
+	}
+
+	private static Method findSetter(Class<?> owner, Field field) {
+		return findMethod(owner, "set" + capitalize(field.getName()), field
+				.getType());
+	}
+
+	private static String sourceName(Class<?> type) {
+		if (type.isArray()) {
+			return sourceName(type.getComponentType()) + "[]";
+		}
+
+		return type.getName();
+	}
+
+	/**
+	 * create a lazily decoded object. Fields which cannot be decoded lazily
+	 * are decoded immediately.
+	 *
+	 * @param msg
+	 *            the message, it must not be modified until the object has
+	 *            been fully loaded.
+	 * @param context
+	 *            the context, owned by the object until it has been fully
+	 *            loaded.
+	 * @return the object
+	 */
+	Object newInstance(Iso8583Message msg, ConversionContext context) {
+		Object pojo;
+
+		try {
+			pojo = generated.newInstance();
+		} catch (InstantiationException e) {
+			throw new RuntimeException(e);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+
+		LazyLoader loader = new LazyLoader(component, msg, context);
+		((LazyPojo) pojo).setOimLazyLoader(loader);
+
+		for (int i = 0; i < eagerCount; ++i) {
+			loader.load(pojo, eager[i]);
+		}
+
+		return pojo;
+	}
+}
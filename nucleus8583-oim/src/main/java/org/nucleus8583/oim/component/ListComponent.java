@@ -2,51 +2,53 @@ package org.nucleus8583.oim.component;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.nucleus8583.oim.util.FastStringReader;
+import org.nucleus8583.oim.util.PropertyAccessor;
+import org.nucleus8583.oim.util.PropertyAccessors;
 
 public final class ListComponent extends BaseComponent {
 	private final int no;
 
 	private final String name;
 
-	private final Field field;
+	private final PropertyAccessor accessor;
 
-	private final Field sizeBasic;
+	private final PropertyAccessor sizeBasic;
 
-	private final String sizeTransient;
+	private final int sizeTransient;
 
 	private final boolean append;
 
 	private final DataStructureComponent dataStructure;
 
 	public ListComponent(HasFieldsComponent parent, int no, String name,
-			String size, boolean append, DataStructureComponent dscomp) {
+			String size, boolean append, DataStructureComponent dscomp,
+			TransientSlots slots) {
 		this.no = no;
 		this.name = name;
 
-		field = parent.getField(name);
+		accessor = PropertyAccessors.create(parent.getField(name));
 
 		if (size == null) {
 			sizeBasic = null;
-			sizeTransient = null;
+			sizeTransient = -1;
 		} else if (size.startsWith("transient:")) {
 			sizeBasic = null;
-			sizeTransient = size.substring(10);
+			sizeTransient = slots.slotOf(size.substring(10));
 		} else {
 			// basic:
 			size = size.substring(6);
 
-			sizeBasic = parent.getField(size.substring(10));
+			sizeBasic = PropertyAccessors.create(parent.getField(size
+					.substring(10)));
 			if (sizeBasic == null) {
 				throw new IllegalArgumentException("field " + size
 						+ " cannot be found");
 			}
-			sizeTransient = null;
+			sizeTransient = -1;
 		}
 
 		this.append = append;
@@ -68,14 +70,8 @@ public final class ListComponent extends BaseComponent {
 
 	@Override
 	public void encode(StringBuilder sb, Object pojo,
-			Map<String, Object> session) {
-		List<?> list;
-
-		try {
-			list = (List<?>) field.get(pojo);
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
-		}
+			ConversionContext context) {
+		List<?> list = (List<?>) accessor.get(pojo);
 
 		if (list == null) {
 			return;
@@ -83,54 +79,40 @@ public final class ListComponent extends BaseComponent {
 
 		int count;
 
-		if (sizeTransient != null) {
-			count = ((Integer) session.get(sizeTransient)).intValue();
+		if (sizeTransient >= 0) {
+			count = context.getInt(sizeTransient);
 		} else if (sizeBasic != null) {
-			try {
-				count = sizeBasic.getInt(pojo);
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+			count = sizeBasic.getInt(pojo);
 		} else {
 			count = list.size();
 		}
 
 		for (int i = 0; i < count; ++i) {
-			dataStructure.encode(sb, list.get(i), session);
+			dataStructure.encode(sb, list.get(i), context);
 		}
 	}
 
 	@Override
-	public String encodeToString(Object pojo, Map<String, Object> session) {
-		List<?> list;
-
-		try {
-			list = (List<?>) field.get(pojo);
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
-		}
+	public String encodeToString(Object pojo, ConversionContext context) {
+		List<?> list = (List<?>) accessor.get(pojo);
 
 		if (list == null) {
 			return null;
 		}
 
-		StringBuilder sb = new StringBuilder();
+		StringBuilder sb = context.buffer();
 		int count;
 
-		if (sizeTransient != null) {
-			count = ((Integer) session.get(sizeTransient)).intValue();
+		if (sizeTransient >= 0) {
+			count = context.getInt(sizeTransient);
 		} else if (sizeBasic != null) {
-			try {
-				count = sizeBasic.getInt(pojo);
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+			count = sizeBasic.getInt(pojo);
 		} else {
 			count = list.size();
 		}
 
 		for (int i = 0; i < count; ++i) {
-			dataStructure.encode(sb, list.get(i), session);
+			dataStructure.encode(sb, list.get(i), context);
 		}
 
 		return sb.toString();
@@ -138,42 +120,34 @@ public final class ListComponent extends BaseComponent {
 
 	@SuppressWarnings("unchecked")
 	@Override
-	public void decode(String value, Object pojo, Map<String, Object> session) {
+	public void decode(String value, Object pojo, ConversionContext context) {
 		List list;
 
-		try {
-			if (append) {
-				list = (List) field.get(pojo);
-				if (list == null) {
-					list = new ArrayList<Object>();
-					field.set(pojo, list);
-				}
-			} else {
+		if (append) {
+			list = (List) accessor.get(pojo);
+			if (list == null) {
 				list = new ArrayList<Object>();
-				field.set(pojo, list);
+				accessor.set(pojo, list);
 			}
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
+		} else {
+			list = new ArrayList<Object>();
+			accessor.set(pojo, list);
 		}
 
 		Reader reader = new FastStringReader(value);
 		int count;
 
-		if (sizeTransient != null) {
-			count = ((Integer) session.get(sizeTransient)).intValue();
+		if (sizeTransient >= 0) {
+			count = context.getInt(sizeTransient);
 		} else if (sizeBasic != null) {
-			try {
-				count = sizeBasic.getInt(pojo);
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+			count = sizeBasic.getInt(pojo);
 		} else {
 			throw new IllegalStateException("please set size attribute value");
 		}
 
 		try {
 			for (int i = 0; i < count; ++i) {
-				list.add(dataStructure.decode(reader, session));
+				list.add(dataStructure.decode(reader, context));
 			}
 		} catch (IOException ex) {
 			throw new RuntimeException("internal error", ex);
@@ -182,42 +156,33 @@ public final class ListComponent extends BaseComponent {
 
 	@SuppressWarnings("unchecked")
 	@Override
-	public void decode(Reader reader, Object pojo, Map<String, Object> session)
+	public void decode(Reader reader, Object pojo, ConversionContext context)
 			throws IOException {
 		List list;
 
-		try {
-			list = (List) field.get(pojo);
-			if (append) {
-				list = (List) field.get(pojo);
-				if (list == null) {
-					list = new ArrayList<Object>();
-					field.set(pojo, list);
-				}
-			} else {
+		if (append) {
+			list = (List) accessor.get(pojo);
+			if (list == null) {
 				list = new ArrayList<Object>();
-				field.set(pojo, list);
+				accessor.set(pojo, list);
 			}
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
+		} else {
+			list = new ArrayList<Object>();
+			accessor.set(pojo, list);
 		}
 
 		int count;
 
-		if (sizeTransient != null) {
-			count = ((Integer) session.get(sizeTransient)).intValue();
+		if (sizeTransient >= 0) {
+			count = context.getInt(sizeTransient);
 		} else if (sizeBasic != null) {
-			try {
-				count = sizeBasic.getInt(pojo);
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+			count = sizeBasic.getInt(pojo);
 		} else {
 			throw new IllegalStateException("please set size attribute value");
 		}
 
 		for (int i = 0; i < count; ++i) {
-			list.add(dataStructure.decode(reader, session));
+			list.add(dataStructure.decode(reader, context));
 		}
 	}
 }
@@ -1,9 +1,9 @@
 package org.nucleus8583.oim.component;
 
-import java.io.EOFException;
 import java.io.IOException;
 import java.io.Reader;
-import java.util.Map;
+
+import org.nucleus8583.core.util.ReaderUtils;
 
 public final class SkipComponent extends BaseComponent {
 	private final String filler;
@@ -15,20 +15,6 @@ public final class SkipComponent extends BaseComponent {
 		this.length = length;
 	}
 
-	private void skip(Reader reader, int length) throws IOException {
-		int crem = length;
-		int dcrem;
-
-		while (crem > 0) {
-			dcrem = (int) reader.skip(length);
-			if (dcrem <= 0) {
-				throw new EOFException();
-			}
-
-			crem -= dcrem;
-		}
-	}
-
 	@Override
 	public boolean isBinary() {
 		return false;
@@ -36,23 +22,23 @@ public final class SkipComponent extends BaseComponent {
 
 	@Override
 	public void encode(StringBuilder sb, Object pojo,
-			Map<String, Object> session) {
+			ConversionContext context) {
 		sb.append(filler);
 	}
 
 	@Override
-	public String encodeToString(Object pojo, Map<String, Object> session) {
+	public String encodeToString(Object pojo, ConversionContext context) {
 		return filler;
 	}
 
 	@Override
-	public void decode(String value, Object pojo, Map<String, Object> session) {
+	public void decode(String value, Object pojo, ConversionContext context) {
 		// do nothing
 	}
 
 	@Override
-	public void decode(Reader reader, Object pojo, Map<String, Object> session)
+	public void decode(Reader reader, Object pojo, ConversionContext context)
 			throws IOException {
-		skip(reader, length);
+		ReaderUtils.skipFully(reader, length);
 	}
 }
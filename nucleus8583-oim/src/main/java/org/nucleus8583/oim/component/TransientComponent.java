@@ -5,7 +5,6 @@ import java.io.IOException;
 import java.io.Reader;
 import java.util.Arrays;
 import java.util.BitSet;
-import java.util.Map;
 
 import org.nucleus8583.oim.converter.BinaryConverter;
 import org.nucleus8583.oim.converter.TypeConverter;
@@ -16,6 +15,8 @@ public final class TransientComponent extends BaseComponent {
 
 	private final String name;
 
+	private final int slot;
+
 	private final ElExpression generatedValue;
 
 	private final TypeConverter converter;
@@ -32,10 +33,12 @@ public final class TransientComponent extends BaseComponent {
 
 	private final int length;
 
-	public TransientComponent(int no, String name, TypeConverter converter,
-			char align, char padWith, int length, ElExpression generatedValue) {
+	public TransientComponent(TransientSlots slots, int no, String name,
+			TypeConverter converter, char align, char padWith, int length,
+			ElExpression generatedValue) {
 		this.no = no;
 		this.name = name;
+		this.slot = slots.slotOf(name);
 
 		this.converter = converter;
 		this.binary = BinaryConverter.class.isInstance(converter);
@@ -73,18 +76,14 @@ public final class TransientComponent extends BaseComponent {
 		}
 	}
 
-	private Object getValueFromSession(Object pojo, Map<String, Object> session) {
+	private Object getValueFromContext(Object pojo, ConversionContext context) {
 		Object value;
 
 		if (generatedValue != null) {
 			value = generatedValue.eval(pojo);
-			if (value == null) {
-				session.remove(name);
-			} else {
-				session.put(name, value);
-			}
+			context.set(slot, value);
 		} else {
-			value = session.get(name);
+			value = context.get(slot);
 		}
 
 		return value;
@@ -98,6 +97,10 @@ public final class TransientComponent extends BaseComponent {
 		return name;
 	}
 
+	public int getSlot() {
+		return slot;
+	}
+
 	@Override
 	public boolean isBinary() {
 		return binary;
@@ -105,17 +108,21 @@ public final class TransientComponent extends BaseComponent {
 
 	@Override
 	public void encode(StringBuilder sb, Object pojo,
-			Map<String, Object> session) {
+			ConversionContext context) {
 		if (binary) {
 			throw new UnsupportedOperationException();
 		}
 
-		String value = converter.convertToIsoString(getValueFromSession(pojo,
-				session));
+		String value = converter.convertToIsoString(getValueFromContext(pojo,
+				context));
 		if (value == null) {
 			return;
 		}
 
+		pad(sb, value);
+	}
+
+	private void pad(StringBuilder sb, String value) {
 		int vlen = value.length();
 		if (vlen > length) {
 			throw new IllegalArgumentException("value too long, expected "
@@ -148,100 +155,90 @@ public final class TransientComponent extends BaseComponent {
 	}
 
 	@Override
-	public String encodeToString(Object pojo, Map<String, Object> session) {
+	public String encodeToString(Object pojo, ConversionContext context) {
 		if (binary) {
 			throw new UnsupportedOperationException();
 		}
 
-		String value = converter.convertToIsoString(getValueFromSession(pojo,
-				session));
+		String value = converter.convertToIsoString(getValueFromContext(pojo,
+				context));
 		if (value == null) {
 			return null;
 		}
 
 		int vlen = value.length();
-		if (vlen > length) {
-			throw new IllegalArgumentException("value too long, expected "
-					+ length + " but actual is " + vlen);
-		}
-
 		if (vlen == 0) {
 			return padder;
 		}
 
-		if (vlen == length) {
+		if ((vlen == length) || ((vlen < length) && (align != 'l')
+				&& (align != 'r'))) {
 			return value;
 		}
 
-		switch (align) {
-		case 'l':
-			return value + padder.substring(0, length - vlen).intern();
-		case 'r':
-			return padder.substring(0, length - vlen).intern() + value;
-		default:
-			return value;
-		}
+		StringBuilder sb = context.buffer();
+		pad(sb, value);
+
+		return sb.toString();
 	}
 
 	@Override
-	public BitSet encodeToBinary(Object pojo, Map<String, Object> session) {
+	public BitSet encodeToBinary(Object pojo, ConversionContext context) {
 		if (!binary) {
 			return null;
 		}
 
-		return converter.convertToIsoBinary(getValueFromSession(pojo, session));
+		return converter.convertToIsoBinary(getValueFromContext(pojo, context));
 	}
 
 	@Override
-	public void decode(BitSet value, Object pojo, Map<String, Object> session) {
-		if (binary) {
+	public void decode(BitSet value, Object pojo, ConversionContext context) {
+		if (!binary) {
 			throw new UnsupportedOperationException();
 		}
 
-		if (value == null) {
-			session.remove(name);
-		} else {
-			session.put(name, value);
-		}
+		context.set(slot, value);
 	}
 
 	@Override
-	public BitSet decode(BitSet value, Map<String, Object> session) {
+	public BitSet decode(BitSet value, ConversionContext context) {
 		return value;
 	}
 
 	@Override
-	public void decode(String value, Object pojo, Map<String, Object> session) {
+	public void decode(String value, Object pojo, ConversionContext context) {
 		if (binary) {
 			throw new UnsupportedOperationException();
 		}
 
 		Object ovalue = converter.convertToJavaObject(value);
-		if (ovalue == null) {
-			session.remove(name);
-		} else {
-			session.put(name, ovalue);
+		context.set(slot, ovalue);
+	}
+
+	@Override
+	public void decode(char[] value, int off, int len, Object pojo,
+			ConversionContext context) {
+		if (binary) {
+			throw new UnsupportedOperationException();
 		}
+
+		context.set(slot, converter.convertToJavaObject(value, off, len));
 	}
 
 	@Override
-	public Object decode(String value, Map<String, Object> session) {
+	public Object decode(String value, ConversionContext context) {
 		return converter.convertToJavaObject(value);
 	}
 
 	@Override
-	public void decode(Reader reader, Object pojo, Map<String, Object> session)
+	public void decode(Reader reader, Object pojo, ConversionContext context)
 			throws IOException {
-		Object ovalue = decode(reader, session);
-		if (ovalue == null) {
-			session.remove(name);
-		} else {
-			session.put(name, ovalue);
-		}
+		Object ovalue = decode(reader, context);
+		context.set(slot, ovalue);
 	}
 
 	@Override
-	public Object decode(Reader reader, Map<String, Object> session)
+	public Object decode(Reader reader, ConversionContext context)
 			throws IOException {
 		if (binary) {
 			throw new UnsupportedOperationException();
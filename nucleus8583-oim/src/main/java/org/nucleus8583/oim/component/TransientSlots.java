@@ -0,0 +1,59 @@
+package org.nucleus8583.oim.component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns slots of {@link ConversionContext} to transient names. Names are
+ * resolved once, while configurations are loaded, components only use the
+ * slot numbers.
+ */
+public final class TransientSlots {
+	private final Map<String, Integer> slots;
+
+	private final List<String> names;
+
+	public TransientSlots() {
+		slots = new HashMap<String, Integer>();
+		names = new ArrayList<String>();
+	}
+
+	/**
+	 * retrieve slot of a transient, assigning a new slot if the name is not
+	 * known yet.
+	 *
+	 * @param name
+	 *            name of the transient
+	 * @return the slot
+	 */
+	public synchronized int slotOf(String name) {
+		Integer slot = slots.get(name);
+
+		if (slot == null) {
+			slot = Integer.valueOf(names.size());
+
+			slots.put(name, slot);
+			names.add(name);
+		}
+
+		return slot.intValue();
+	}
+
+	/**
+	 * @return number of assigned slots
+	 */
+	public synchronized int size() {
+		return names.size();
+	}
+
+	/**
+	 * create a new context large enough for every assigned slot.
+	 *
+	 * @return the context
+	 */
+	public synchronized ConversionContext newContext() {
+		return new ConversionContext(names.toArray(new String[names.size()]));
+	}
+}
@@ -2,40 +2,422 @@ package org.nucleus8583.oim.converter;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.TimeZone;
 
+/**
+ * Converts {@link Date} values. Fixed patterns built from <code>yy</code>,
+ * <code>yyyy</code>, <code>MM</code>, <code>dd</code>, <code>HH</code>,
+ * <code>mm</code>, <code>ss</code>, <code>SSS</code> and non-letter literals
+ * (e.g. <code>MMddHHmmss</code>, <code>HHmmss</code>, <code>MMdd</code>,
+ * <code>yyMM</code>) are compiled: digits are parsed straight from the char
+ * buffer into epoch millis and formatted into a char buffer, without
+ * {@link SimpleDateFormat} or {@link Calendar}. Values are interpreted in the
+ * default time zone and missing fields default to January 1st, 1970, as
+ * {@link SimpleDateFormat} does. Local times skipped by a daylight saving
+ * transition are shifted forward and repeated local times resolve to the
+ * later instant, also like {@link SimpleDateFormat}. Other patterns are
+ * handled by {@link SimpleDateFormat}.
+ *
+ * Two-digit years are resolved within 80 years before and 20 years after the
+ * moment the converter is created, the same as a {@link SimpleDateFormat}
+ * created at that moment would do. Like the formatter, the range does not
+ * move afterwards.
+ */
 public class DateTimeConverter extends TypeConverter {
+	private static final int YEAR2 = 0;
+
+	private static final int YEAR4 = 1;
+
+	private static final int MONTH = 2;
+
+	private static final int DAY = 3;
+
+	private static final int HOUR = 4;
+
+	private static final int MINUTE = 5;
+
+	private static final int SECOND = 6;
+
+	private static final int MILLIS = 7;
+
+	private static final int LITERAL = 8;
+
+	private static final long MILLIS_PER_DAY = 86400000L;
+
+	private static final long MILLIS_PER_HOUR = 3600000L;
+
 	private final String pattern;
 
 	private final Integer length;
 
+	private final TimeZone timeZone;
+
+	private final long centuryStart;
+
+	private final int centuryStartYear;
+
+	/**
+	 * kind of each char of the pattern, <code>null</code> if the pattern
+	 * cannot be compiled.
+	 */
+	private final int[] kinds;
+
 	private final ThreadLocal<SimpleDateFormat> formatter;
 
 	public DateTimeConverter(String pattern) {
 		this.pattern = pattern;
 		this.length = Integer.valueOf(pattern.length());
 
+		this.timeZone = TimeZone.getDefault();
+
+		// two-digit years are resolved like SimpleDateFormat does, within
+		// 80 years before and 20 years after now
+		Calendar start = Calendar.getInstance(timeZone);
+		start.add(Calendar.YEAR, -80);
+
+		this.centuryStart = start.getTimeInMillis();
+		this.centuryStartYear = start.get(Calendar.YEAR);
+
+		this.kinds = compile(pattern);
+
 		this.formatter = new ThreadLocal<SimpleDateFormat>();
 	}
 
-	private String format(Date value) {
-		SimpleDateFormat fmt = formatter.get();
-		if (fmt == null) {
-			fmt = new SimpleDateFormat(pattern);
-			formatter.set(fmt);
+	private static int[] compile(String pattern) {
+		int plen = pattern.length();
+		int[] kinds = new int[plen];
+
+		for (int i = 0; i < plen;) {
+			char c = pattern.charAt(i);
+
+			if (!Character.isLetter(c)) {
+				if (c == '\'') {
+					return null;
+				}
+
+				kinds[i++] = LITERAL;
+				continue;
+			}
+
+			int j = i + 1;
+			while ((j < plen) && (pattern.charAt(j) == c)) {
+				++j;
+			}
+
+			int kind;
+
+			switch (c) {
+			case 'y':
+				if (j - i == 2) {
+					kind = YEAR2;
+				} else if (j - i == 4) {
+					kind = YEAR4;
+				} else {
+					return null;
+				}
+				break;
+			case 'M':
+				kind = MONTH;
+				break;
+			case 'd':
+				kind = DAY;
+				break;
+			case 'H':
+				kind = HOUR;
+				break;
+			case 'm':
+				kind = MINUTE;
+				break;
+			case 's':
+				kind = SECOND;
+				break;
+			case 'S':
+				kind = MILLIS;
+				break;
+			default:
+				return null;
+			}
+
+			if ((kind == MILLIS) ? (j - i != 3)
+					: ((kind > YEAR4) && (j - i != 2))) {
+				return null;
+			}
+
+			for (; i < j; ++i) {
+				kinds[i] = kind;
+			}
 		}
 
-		return fmt.format(value);
+		return kinds;
+	}
+
+	/**
+	 * @return <code>true</code> if the pattern is parsed and formatted
+	 *         without {@link SimpleDateFormat}.
+	 */
+	public boolean isCompiled() {
+		return kinds != null;
 	}
 
-	private Date parse(String value) throws ParseException {
+	private SimpleDateFormat formatter() {
 		SimpleDateFormat fmt = formatter.get();
 		if (fmt == null) {
 			fmt = new SimpleDateFormat(pattern);
 			formatter.set(fmt);
 		}
 
-		return fmt.parse(value);
+		return fmt;
+	}
+
+	private RuntimeException parseError(char[] value, int off, int len) {
+		return new RuntimeException("unable to parse date/time string "
+				+ new String(value, off, len) + ", pattern used is " + pattern);
+	}
+
+	/**
+	 * parse a value of compiled pattern.
+	 *
+	 * @param value
+	 *            buffer containing the value
+	 * @param off
+	 *            offset of the value
+	 * @param len
+	 *            length of the value, must be the same as length of the
+	 *            pattern.
+	 * @return epoch millis
+	 * @throws RuntimeException
+	 *             if the value does not match the pattern.
+	 * @throws IllegalStateException
+	 *             if the pattern is not compiled.
+	 */
+	public long parseMillis(char[] value, int off, int len) {
+		if (kinds == null) {
+			throw new IllegalStateException("pattern " + pattern
+					+ " is not compiled");
+		}
+
+		if (len != kinds.length) {
+			throw parseError(value, off, len);
+		}
+
+		int year = 1970;
+		int month = 1;
+		int day = 1;
+		int hour = 0;
+		int minute = 0;
+		int second = 0;
+		int millis = 0;
+
+		boolean ambiguous = false;
+
+		for (int i = 0; i < len;) {
+			int kind = kinds[i];
+
+			if (kind == LITERAL) {
+				if (value[off + i] != pattern.charAt(i)) {
+					throw parseError(value, off, len);
+				}
+
+				++i;
+				continue;
+			}
+
+			int n = 0;
+			for (; (i < len) && (kinds[i] == kind); ++i) {
+				int digit = value[off + i] - '0';
+				if ((digit < 0) || (digit > 9)) {
+					throw parseError(value, off, len);
+				}
+
+				n = n * 10 + digit;
+			}
+
+			switch (kind) {
+			case YEAR2:
+				year = centuryStartYear - (centuryStartYear % 100) + n;
+				if (year < centuryStartYear) {
+					year += 100;
+				}
+				ambiguous = true;
+				break;
+			case YEAR4:
+				year = n;
+				break;
+			case MONTH:
+				month = n;
+				break;
+			case DAY:
+				day = n;
+				break;
+			case HOUR:
+				hour = n;
+				break;
+			case MINUTE:
+				minute = n;
+				break;
+			case SECOND:
+				second = n;
+				break;
+			default: // MILLIS
+				millis = n;
+				break;
+			}
+		}
+
+		if ((month < 1) || (month > 12) || (day < 1) || (day > 31)
+				|| (hour > 23) || (minute > 59) || (second > 59)) {
+			throw parseError(value, off, len);
+		}
+
+		long ofDay = ((hour * 60L + minute) * 60L + second) * 1000L + millis;
+
+		long result = toUtc(daysFromCivil(year, month, day) * MILLIS_PER_DAY
+				+ ofDay);
+
+		// e.g. a date of the start year, but before the start day
+		if (ambiguous && (result < centuryStart)) {
+			result = toUtc(daysFromCivil(year + 100, month, day)
+					* MILLIS_PER_DAY + ofDay);
+		}
+
+		return result;
+	}
+
+	/**
+	 * convert local millis into epoch millis, resolving daylight saving
+	 * transitions like {@link SimpleDateFormat} does.
+	 */
+	private long toUtc(long local) {
+		// offsets before and after a transition near the local time, zone
+		// offsets are within -12 and +14 hours
+		int before = timeZone.getOffset(local - 14 * MILLIS_PER_HOUR);
+		int after = timeZone.getOffset(local + 12 * MILLIS_PER_HOUR);
+
+		if (before == after) {
+			return local - before;
+		}
+
+		int lower = Math.min(before, after);
+		int upper = Math.max(before, after);
+
+		// repeated local time, take the later instant
+		if (timeZone.getOffset(local - lower) == lower) {
+			return local - lower;
+		}
+
+		if (timeZone.getOffset(local - upper) == upper) {
+			return local - upper;
+		}
+
+		// skipped local time, shift it forward
+		return local - lower;
+	}
+
+	/**
+	 * format a value using compiled pattern.
+	 *
+	 * @param millis
+	 *            epoch millis
+	 * @param buf
+	 *            receives the formatted value, length of the pattern chars
+	 *            are written.
+	 * @param off
+	 *            offset in <code>buf</code>
+	 * @throws IllegalStateException
+	 *             if the pattern is not compiled.
+	 */
+	public void format(long millis, char[] buf, int off) {
+		if (kinds == null) {
+			throw new IllegalStateException("pattern " + pattern
+					+ " is not compiled");
+		}
+
+		long local = millis + timeZone.getOffset(millis);
+
+		long days = local / MILLIS_PER_DAY;
+		long ofDay = local % MILLIS_PER_DAY;
+		if (ofDay < 0) {
+			--days;
+			ofDay += MILLIS_PER_DAY;
+		}
+
+		// civil from days, see daysFromCivil
+		long z = days + 719468;
+		long era = (z >= 0 ? z : z - 146096) / 146097;
+		int doe = (int) (z - era * 146097);
+		int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+		int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+		int mp = (5 * doy + 2) / 153;
+
+		int day = doy - (153 * mp + 2) / 5 + 1;
+		int month = mp < 10 ? mp + 3 : mp - 9;
+		int year = (int) (yoe + era * 400) + (month <= 2 ? 1 : 0);
+
+		int msOfDay = (int) ofDay;
+
+		int len = kinds.length;
+
+		for (int i = len - 1; i >= 0;) {
+			int kind = kinds[i];
+
+			if (kind == LITERAL) {
+				buf[off + i] = pattern.charAt(i);
+				--i;
+				continue;
+			}
+
+			int n;
+
+			switch (kind) {
+			case YEAR2:
+				n = year % 100;
+				break;
+			case YEAR4:
+				n = year;
+				break;
+			case MONTH:
+				n = month;
+				break;
+			case DAY:
+				n = day;
+				break;
+			case HOUR:
+				n = msOfDay / 3600000;
+				break;
+			case MINUTE:
+				n = (msOfDay / 60000) % 60;
+				break;
+			case SECOND:
+				n = (msOfDay / 1000) % 60;
+				break;
+			default: // MILLIS
+				n = msOfDay % 1000;
+				break;
+			}
+
+			// digits are written backward
+			for (; (i >= 0) && (kinds[i] == kind); --i) {
+				buf[off + i] = (char) ('0' + (n % 10));
+				n /= 10;
+			}
+		}
+	}
+
+	/**
+	 * number of days since 1970-01-01 of a date in the proleptic gregorian
+	 * calendar.
+	 */
+	private static long daysFromCivil(int year, int month, int day) {
+		long y = month <= 2 ? year - 1 : year;
+		long era = (y >= 0 ? y : y - 399) / 400;
+		int yoe = (int) (y - era * 400);
+		int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day
+				- 1;
+		int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+
+		return era * 146097 + doe - 719468;
 	}
 
 	@Override
@@ -44,12 +426,14 @@ public class DateTimeConverter extends TypeConverter {
 			return null;
 		}
 
+		if (kinds != null) {
+			return new Date(parseMillis(value, off, len));
+		}
+
 		try {
-			return parse(new String(value, off, off + len));
+			return formatter().parse(new String(value, off, len));
 		} catch (ParseException ex) {
-			throw new RuntimeException("unable to parse date/time string "
-					+ new String(value, off, off + len) + ", pattern used is "
-					+ pattern);
+			throw parseError(value, off, len);
 		}
 	}
 
@@ -59,8 +443,13 @@ public class DateTimeConverter extends TypeConverter {
 			return null;
 		}
 
+		if (kinds != null) {
+			return new Date(parseMillis(value.toCharArray(), 0, value
+					.length()));
+		}
+
 		try {
-			return parse(value);
+			return formatter().parse(value);
 		} catch (ParseException ex) {
 			throw new RuntimeException("unable to parse date/time string "
 					+ value + ", pattern used is " + pattern);
@@ -73,7 +462,14 @@ public class DateTimeConverter extends TypeConverter {
 			return EMPTY;
 		}
 
-		return format((Date) value);
+		if (kinds != null) {
+			char[] buf = new char[kinds.length];
+			format(((Date) value).getTime(), buf, 0);
+
+			return new String(buf);
+		}
+
+		return formatter().format((Date) value);
 	}
 
 	@Override
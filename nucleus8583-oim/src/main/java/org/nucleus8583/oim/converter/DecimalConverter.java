@@ -2,34 +2,108 @@ package org.nucleus8583.oim.converter;
 
 import java.math.BigDecimal;
 
+/**
+ * Converts decimal amounts. ISO values hold the amount in minor units, e.g.
+ * <code>00001234</code> with precision 2 is <code>12.34</code>.
+ *
+ * By default, java values are {@link BigDecimal}s. Values of up to 18 digits
+ * are parsed using digit arithmetic, longer values and values having sign or
+ * decimal point are parsed by {@link BigDecimal}.
+ *
+ * If <code>minorUnits</code> is set, java values are {@link Long}s holding
+ * the amount in minor units (e.g. <code>1234</code> for <code>12.34</code>)
+ * and no {@link BigDecimal} is created at all, components bound to
+ * <code>long</code> properties convert without boxing. ISO values which do
+ * not fit in a <code>long</code> are rejected.
+ */
 public class DecimalConverter extends TypeConverter {
+	private static final int MAX_LONG_DIGITS = 18;
+
+	private static final Long ZERO = Long.valueOf(0);
+
 	private final int precision;
 
+	private final boolean minorUnits;
+
 	public DecimalConverter(int precision) {
+		this(precision, false);
+	}
+
+	public DecimalConverter(int precision, boolean minorUnits) {
 		this.precision = precision;
+		this.minorUnits = minorUnits;
 	}
 
-	@Override
-	public Object convertToJavaObject(char[] value, int off, int len) {
-		if (len == 0) {
-			return BigDecimal.ZERO;
+	/**
+	 * parse digits of a value.
+	 *
+	 * @return the value, or <code>-1</code> if the value has more than 18
+	 *         digits or contains non-digit chars.
+	 */
+	private static long parseDigits(char[] value, int off, int len) {
+		if (len > MAX_LONG_DIGITS) {
+			return -1;
 		}
 
-		BigDecimal result = new BigDecimal(new String(value, off, len));
+		long result = 0;
 
-		if (precision > 0) {
-			return result.movePointLeft(precision);
+		for (int i = off, end = off + len; i < end; ++i) {
+			int digit = value[i] - '0';
+			if ((digit < 0) || (digit > 9)) {
+				return -1;
+			}
+
+			result = result * 10 + digit;
 		}
 
 		return result;
 	}
 
-	@Override
-	public Object convertToJavaObject(String value) {
-		if (value.length() == 0) {
-			return BigDecimal.ZERO;
+	/**
+	 * parse a value into minor units.
+	 *
+	 * @throws RuntimeException
+	 *             if the value is not a number or does not fit in a
+	 *             <code>long</code>.
+	 */
+	private static long parseMinorUnits(char[] value, int off, int len) {
+		boolean negative = false;
+		int i = off;
+		int end = off + len;
+
+		if ((value[i] == '-') || (value[i] == '+')) {
+			negative = value[i] == '-';
+			++i;
+		}
+
+		if (i == end) {
+			throw new RuntimeException(new String(value, off, len)
+					+ " is not a number");
 		}
 
+		// accumulate negatively, so Long.MIN_VALUE can be parsed
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long result = 0;
+
+		for (; i < end; ++i) {
+			int digit = value[i] - '0';
+			if ((digit < 0) || (digit > 9)) {
+				throw new RuntimeException(new String(value, off, len)
+						+ " is not a number");
+			}
+
+			if ((result < limit / 10) || (result * 10 < limit + digit)) {
+				throw new RuntimeException(new String(value, off, len)
+						+ " does not fit in minor units of long");
+			}
+
+			result = result * 10 - digit;
+		}
+
+		return negative ? result : -result;
+	}
+
+	private BigDecimal toBigDecimal(String value) {
 		BigDecimal result = new BigDecimal(value);
 
 		if (precision > 0) {
@@ -39,12 +113,67 @@ public class DecimalConverter extends TypeConverter {
 		return result;
 	}
 
+	@Override
+	public Object convertToJavaObject(char[] value, int off, int len) {
+		if (len == 0) {
+			return minorUnits ? ZERO : BigDecimal.ZERO;
+		}
+
+		if (minorUnits) {
+			return Long.valueOf(parseMinorUnits(value, off, len));
+		}
+
+		long unscaled = parseDigits(value, off, len);
+		if (unscaled >= 0) {
+			return BigDecimal.valueOf(unscaled, Math.max(precision, 0));
+		}
+
+		return toBigDecimal(new String(value, off, len));
+	}
+
+	@Override
+	public Object convertToJavaObject(String value) {
+		return convertToJavaObject(value.toCharArray(), 0, value.length());
+	}
+
+	@Override
+	public long convertToLong(char[] value, int off, int len) {
+		if (!minorUnits) {
+			return super.convertToLong(value, off, len);
+		}
+
+		return len == 0 ? 0 : parseMinorUnits(value, off, len);
+	}
+
+	@Override
+	public long convertToLong(String value) {
+		return convertToLong(value.toCharArray(), 0, value.length());
+	}
+
+	@Override
+	public String convertIntToIsoString(int value) {
+		return convertLongToIsoString(value);
+	}
+
+	@Override
+	public String convertLongToIsoString(long value) {
+		if (!minorUnits) {
+			return convertToIsoString(BigDecimal.valueOf(value));
+		}
+
+		return Long.toString(value);
+	}
+
 	@Override
 	public String convertToIsoString(Object value) {
 		if (value == null) {
 			return EMPTY;
 		}
 
+		if (minorUnits) {
+			return Long.toString(((Number) value).longValue());
+		}
+
 		if (precision > 0) {
 			return ((BigDecimal) value).movePointRight(precision)
 					.toPlainString();
@@ -7,7 +7,7 @@ public class StringConverter extends TypeConverter {
 			return EMPTY;
 		}
 
-		return new String(value, off, off + len);
+		return new String(value, off, len);
 	}
 
 	@Override
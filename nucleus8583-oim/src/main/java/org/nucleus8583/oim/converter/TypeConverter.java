@@ -1,5 +1,7 @@
 package org.nucleus8583.oim.converter;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.BitSet;
 
 public abstract class TypeConverter {
@@ -13,7 +15,7 @@ public abstract class TypeConverter {
 
 	protected static final Character PAD_ZERO = Character.valueOf('0');
 
-	protected static final String EMPTY = "".intern();
+	protected static final String EMPTY = "";
 
 	protected String name;
 
@@ -25,6 +27,55 @@ public abstract class TypeConverter {
 		this.name = name;
 	}
 
+	/**
+	 * convert a result of {@link #convertToJavaObject(String)} to
+	 * <code>long</code> exactly, <code>null</code> is <code>0</code>.
+	 *
+	 * @throws ArithmeticException
+	 *             if the value has a fractional part or does not fit in a
+	 *             <code>long</code>.
+	 */
+	private static long longValueExact(Object value) {
+		if (value == null) {
+			return 0;
+		}
+
+		if ((value instanceof Long) || (value instanceof Integer)
+				|| (value instanceof Short) || (value instanceof Byte)) {
+			return ((Number) value).longValue();
+		}
+
+		BigDecimal decimal;
+		if (value instanceof BigDecimal) {
+			decimal = (BigDecimal) value;
+		} else if (value instanceof BigInteger) {
+			decimal = new BigDecimal((BigInteger) value);
+		} else {
+			decimal = new BigDecimal(((Number) value).toString());
+		}
+
+		try {
+			return decimal.longValueExact();
+		} catch (ArithmeticException e) {
+			throw new ArithmeticException(value
+					+ " cannot be converted to long exactly");
+		}
+	}
+
+	/**
+	 * same as {@link #longValueExact(Object)} for <code>int</code>.
+	 */
+	private static int intValueExact(Object value) {
+		long result = longValueExact(value);
+
+		if ((result < Integer.MIN_VALUE) || (result > Integer.MAX_VALUE)) {
+			throw new ArithmeticException(value
+					+ " cannot be converted to int exactly");
+		}
+
+		return (int) result;
+	}
+
 	public String convertToIsoString(Object value) {
 		throw new UnsupportedOperationException();
 	}
@@ -45,6 +96,68 @@ public abstract class TypeConverter {
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * convert to <code>int</code>, used by components bound to
+	 * <code>int</code> properties. Subclasses should override this method to
+	 * convert without boxing, the default implementation unboxes the result
+	 * of {@link #convertToJavaObject(char[], int, int)} and converts
+	 * <code>null</code> to <code>0</code>.
+	 *
+	 * @throws ArithmeticException
+	 *             if the result has a fractional part or does not fit in an
+	 *             <code>int</code>.
+	 */
+	public int convertToInt(char[] value, int off, int len) {
+		return intValueExact(convertToJavaObject(value, off, len));
+	}
+
+	/**
+	 * same as {@link #convertToInt(char[], int, int)}.
+	 */
+	public int convertToInt(String value) {
+		return intValueExact(convertToJavaObject(value));
+	}
+
+	/**
+	 * convert to <code>long</code>, used by components bound to
+	 * <code>long</code> properties. Subclasses should override this method to
+	 * convert without boxing, the default implementation unboxes the result
+	 * of {@link #convertToJavaObject(char[], int, int)} and converts
+	 * <code>null</code> to <code>0</code>.
+	 *
+	 * @throws ArithmeticException
+	 *             if the result has a fractional part or does not fit in a
+	 *             <code>long</code>.
+	 */
+	public long convertToLong(char[] value, int off, int len) {
+		return longValueExact(convertToJavaObject(value, off, len));
+	}
+
+	/**
+	 * same as {@link #convertToLong(char[], int, int)}.
+	 */
+	public long convertToLong(String value) {
+		return longValueExact(convertToJavaObject(value));
+	}
+
+	/**
+	 * same as {@link #convertToIsoString(Object)} for <code>int</code>
+	 * values. Subclasses should override this method to convert without
+	 * boxing.
+	 */
+	public String convertIntToIsoString(int value) {
+		return convertToIsoString(Integer.valueOf(value));
+	}
+
+	/**
+	 * same as {@link #convertToIsoString(Object)} for <code>long</code>
+	 * values. Subclasses should override this method to convert without
+	 * boxing.
+	 */
+	public String convertLongToIsoString(long value) {
+		return convertToIsoString(Long.valueOf(value));
+	}
+
 	public Character getDefaultAlignment() {
 		return null;
 	}
@@ -1,8 +1,12 @@
 package org.nucleus8583.oim.converter;
 
-import org.nucleus8583.util.FastInteger;
+import org.nucleus8583.core.util.FastInteger;
 
-public class IntegerConverter extends TypeConverter {
+/**
+ * Converts unsigned integers of up to 10 digits. Components bound to
+ * <code>int</code> or <code>long</code> properties convert without boxing.
+ */
+public class UIntConverter extends TypeConverter {
 	private static final Integer ZERO = Integer.valueOf(0);
 
 	@Override
@@ -11,7 +15,7 @@ public class IntegerConverter extends TypeConverter {
 			return ZERO;
 		}
 
-		return FastInteger.parseUint(value, off, len);
+		return Integer.valueOf(FastInteger.parseUint(value, off, len));
 	}
 
 	@Override
@@ -21,7 +25,27 @@ public class IntegerConverter extends TypeConverter {
 			return ZERO;
 		}
 
-		return FastInteger.parseUint(value, vlen);
+		return Integer.valueOf(FastInteger.parseUint(value, vlen));
+	}
+
+	@Override
+	public int convertToInt(char[] value, int off, int len) {
+		return FastInteger.parseUint(value, off, len);
+	}
+
+	@Override
+	public int convertToInt(String value) {
+		return FastInteger.parseUint(value, value.length());
+	}
+
+	@Override
+	public long convertToLong(char[] value, int off, int len) {
+		return FastInteger.parseUint(value, off, len);
+	}
+
+	@Override
+	public long convertToLong(String value) {
+		return FastInteger.parseUint(value, value.length());
 	}
 
 	@Override
@@ -33,6 +57,16 @@ public class IntegerConverter extends TypeConverter {
 		return ((Integer) value).toString();
 	}
 
+	@Override
+	public String convertIntToIsoString(int value) {
+		return Integer.toString(value);
+	}
+
+	@Override
+	public String convertLongToIsoString(long value) {
+		return Long.toString(value);
+	}
+
 	@Override
 	public Character getDefaultAlignment() {
 		return ALIGN_RIGHT;
@@ -1,8 +1,12 @@
 package org.nucleus8583.oim.converter;
 
-import org.nucleus8583.util.FastInteger;
+import org.nucleus8583.core.util.FastInteger;
 
-public class IntegerConverter extends TypeConverter {
+/**
+ * Converts unsigned integers of up to 18 digits. Components bound to
+ * <code>long</code> properties convert without boxing.
+ */
+public class ULongConverter extends TypeConverter {
 	private static final Long ZERO = Long.valueOf(0);
 
 	@Override
@@ -11,17 +15,26 @@ public class IntegerConverter extends TypeConverter {
 			return ZERO;
 		}
 
-		return FastLong.parseUlong(value, off, len);
+		return Long.valueOf(FastInteger.parseUlong(value, off, len));
 	}
 
 	@Override
 	public Object convertToJavaObject(String value) {
-		int vlen = value.length();
-		if (vlen == 0) {
+		if (value.length() == 0) {
 			return ZERO;
 		}
 
-		return FastLong.parseULong(value, vlen);
+		return Long.valueOf(FastInteger.parseUlong(value));
+	}
+
+	@Override
+	public long convertToLong(char[] value, int off, int len) {
+		return FastInteger.parseUlong(value, off, len);
+	}
+
+	@Override
+	public long convertToLong(String value) {
+		return FastInteger.parseUlong(value);
 	}
 
 	@Override
@@ -33,6 +46,11 @@ public class IntegerConverter extends TypeConverter {
 		return ((Long) value).toString();
 	}
 
+	@Override
+	public String convertLongToIsoString(long value) {
+		return Long.toString(value);
+	}
+
 	@Override
 	public Character getDefaultAlignment() {
 		return ALIGN_RIGHT;
@@ -9,7 +9,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.nucleus8583.oim.language.spi.CompiledExpression;
 import org.nucleus8583.oim.language.spi.Language;
-import org.nucleus8583.util.ResourceUtils;
+import org.nucleus8583.core.util.ResourceUtils;
 
 public abstract class Languages {
 	private static ConcurrentHashMap<String, Language> map = new ConcurrentHashMap<String, Language>();
@@ -10,7 +10,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.nucleus8583.oim.language.spi.CompiledExpression;
 import org.nucleus8583.oim.type.spi.DataType;
 import org.nucleus8583.oim.type.spi.DataTypeFactory;
-import org.nucleus8583.util.ResourceUtils;
+import org.nucleus8583.core.util.ResourceUtils;
 
 public abstract class DataTypes {
 	private static ConcurrentHashMap<String, DataType> map = new ConcurrentHashMap<String, DataType>();
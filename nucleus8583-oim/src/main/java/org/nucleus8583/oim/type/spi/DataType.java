@@ -13,7 +13,7 @@ public abstract class DataType {
 
 	protected static final Character PAD_ZERO = Character.valueOf('0');
 
-	protected static final String EMPTY = "".intern();
+	protected static final String EMPTY = "";
 
 	public String writeObjectAsString(Object value) {
 		throw new UnsupportedOperationException();
@@ -0,0 +1,62 @@
+package org.nucleus8583.oim.util;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Cache of generated classes, by class loader they are defined in and a key
+ * describing their content (e.g. the generated source). A class defined in a
+ * class loader cannot be unloaded until the class loader is, so a class is
+ * generated once per content instead of once per message manager.
+ *
+ * Neither class loaders nor classes are kept reachable by this cache.
+ */
+public final class GeneratedClasses {
+	private static final Map<ClassLoader, Map<String, WeakReference<Class<?>>>> classes = new WeakHashMap<ClassLoader, Map<String, WeakReference<Class<?>>>>();
+
+	private GeneratedClasses() {
+		// do nothing
+	}
+
+	/**
+	 * @return the class generated for given key, or <code>null</code> if not
+	 *         generated yet.
+	 */
+	public static synchronized Class<?> get(ClassLoader loader, String key) {
+		Map<String, WeakReference<Class<?>>> byKey = classes.get(loader);
+		if (byKey == null) {
+			return null;
+		}
+
+		WeakReference<Class<?>> ref = byKey.get(key);
+		return ref == null ? null : ref.get();
+	}
+
+	/**
+	 * register a class generated for given key.
+	 *
+	 * @return the class registered for the key, which is
+	 *         <code>generated</code> unless another one has been registered
+	 *         concurrently.
+	 */
+	public static synchronized Class<?> put(ClassLoader loader, String key,
+			Class<?> generated) {
+		Map<String, WeakReference<Class<?>>> byKey = classes.get(loader);
+		if (byKey == null) {
+			byKey = new HashMap<String, WeakReference<Class<?>>>();
+			classes.put(loader, byKey);
+		}
+
+		WeakReference<Class<?>> ref = byKey.get(key);
+		Class<?> existing = ref == null ? null : ref.get();
+
+		if (existing != null) {
+			return existing;
+		}
+
+		byKey.put(key, new WeakReference<Class<?>>(generated));
+		return generated;
+	}
+}
@@ -0,0 +1,202 @@
+package org.nucleus8583.oim.util;
+
+/**
+ * Reads and writes one property of a POJO. Instances are created by
+ * {@link PropertyAccessors}, usually as generated classes accessing the
+ * property directly.
+ */
+public abstract class PropertyAccessor {
+	private final String name;
+
+	private final Class<?> type;
+
+	protected PropertyAccessor(String name, Class<?> type) {
+		this.name = name;
+		this.type = type;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	public abstract Object get(Object pojo);
+
+	public abstract void set(Object pojo, Object value);
+
+	/**
+	 * same as <code>get(pojo)</code> for <code>int</code> properties, without
+	 * boxing if the accessor is generated.
+	 */
+	public int getInt(Object pojo) {
+		return ((Number) get(pojo)).intValue();
+	}
+
+	/**
+	 * same as <code>set(pojo, value)</code> for <code>int</code> properties,
+	 * without boxing if the accessor is generated.
+	 */
+	public void setInt(Object pojo, int value) {
+		set(pojo, Integer.valueOf(value));
+	}
+
+	/**
+	 * same as <code>get(pojo)</code> for <code>long</code> properties,
+	 * without boxing if the accessor is generated.
+	 */
+	public long getLong(Object pojo) {
+		return ((Number) get(pojo)).longValue();
+	}
+
+	/**
+	 * same as <code>set(pojo, value)</code> for <code>long</code> properties,
+	 * without boxing if the accessor is generated.
+	 */
+	public void setLong(Object pojo, long value) {
+		set(pojo, Long.valueOf(value));
+	}
+
+	private IllegalArgumentException cannotSet(Class<?> target, Object value) {
+		return new IllegalArgumentException("can not set " + target.getName()
+				+ " property " + name + " to "
+				+ (value == null ? "null value" : value.getClass().getName()));
+	}
+
+	/**
+	 * unbox a value of <code>boolean</code> property, used by generated
+	 * accessors.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value is <code>null</code> or not a {@link Boolean}.
+	 */
+	protected final boolean toBoolean(Object value) {
+		if (value instanceof Boolean) {
+			return ((Boolean) value).booleanValue();
+		}
+
+		throw cannotSet(boolean.class, value);
+	}
+
+	/**
+	 * unbox a value of <code>char</code> property, used by generated
+	 * accessors.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value is <code>null</code> or not a
+	 *             {@link Character}.
+	 */
+	protected final char toChar(Object value) {
+		if (value instanceof Character) {
+			return ((Character) value).charValue();
+		}
+
+		throw cannotSet(char.class, value);
+	}
+
+	/**
+	 * unbox a value of <code>byte</code> property, used by generated
+	 * accessors.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value is <code>null</code> or not a {@link Byte}.
+	 */
+	protected final byte toByte(Object value) {
+		if (value instanceof Byte) {
+			return ((Byte) value).byteValue();
+		}
+
+		throw cannotSet(byte.class, value);
+	}
+
+	/**
+	 * unbox a value of <code>short</code> property, used by generated
+	 * accessors. Only widening conversions are allowed, as
+	 * {@link java.lang.reflect.Field#set(Object, Object)} does.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value is <code>null</code> or cannot be widened.
+	 */
+	protected final short toShort(Object value) {
+		if ((value instanceof Short) || (value instanceof Byte)) {
+			return ((Number) value).shortValue();
+		}
+
+		throw cannotSet(short.class, value);
+	}
+
+	/**
+	 * unbox a value of <code>int</code> property, used by generated
+	 * accessors. Only widening conversions are allowed, as
+	 * {@link java.lang.reflect.Field#set(Object, Object)} does.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value is <code>null</code> or cannot be widened.
+	 */
+	protected final int toInt(Object value) {
+		return toInt(value, int.class);
+	}
+
+	/**
+	 * unbox a value of <code>long</code> property, used by generated
+	 * accessors. Only widening conversions are allowed, as
+	 * {@link java.lang.reflect.Field#set(Object, Object)} does.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value is <code>null</code> or cannot be widened.
+	 */
+	protected final long toLong(Object value) {
+		if (value instanceof Long) {
+			return ((Long) value).longValue();
+		}
+
+		return toInt(value, long.class);
+	}
+
+	/**
+	 * unbox a value of <code>float</code> property, used by generated
+	 * accessors. Only widening conversions are allowed, as
+	 * {@link java.lang.reflect.Field#set(Object, Object)} does.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value is <code>null</code> or cannot be widened.
+	 */
+	protected final float toFloat(Object value) {
+		if ((value instanceof Float) || (value instanceof Long)) {
+			return ((Number) value).floatValue();
+		}
+
+		return toInt(value, float.class);
+	}
+
+	/**
+	 * unbox a value of <code>double</code> property, used by generated
+	 * accessors. Only widening conversions are allowed, as
+	 * {@link java.lang.reflect.Field#set(Object, Object)} does.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value is <code>null</code> or cannot be widened.
+	 */
+	protected final double toDouble(Object value) {
+		if ((value instanceof Double) || (value instanceof Float)
+				|| (value instanceof Long)) {
+			return ((Number) value).doubleValue();
+		}
+
+		return toInt(value, double.class);
+	}
+
+	private int toInt(Object value, Class<?> target) {
+		if ((value instanceof Integer) || (value instanceof Short)
+				|| (value instanceof Byte)) {
+			return ((Number) value).intValue();
+		}
+		if (value instanceof Character) {
+			return ((Character) value).charValue();
+		}
+
+		throw cannotSet(target, value);
+	}
+}
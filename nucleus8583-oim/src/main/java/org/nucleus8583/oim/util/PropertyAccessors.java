@@ -0,0 +1,202 @@
+package org.nucleus8583.oim.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+/**
+ * Creates {@link PropertyAccessor}s. An accessor class is generated for each
+ * property, reading and writing the field directly, so the JIT can inline
+ * property access. Getters and setters are never called, values are widened
+ * like {@link Field#set(Object, Object)} does and narrowing or
+ * <code>null</code> values of primitive fields are rejected with
+ * {@link IllegalArgumentException}. If the class cannot be generated (e.g.
+ * private or final field, private class, or the class loader of the POJO
+ * cannot see OIM classes), a reflective accessor is used instead.
+ *
+ * A class is generated once per field, see {@link GeneratedClasses}.
+ *
+ * Generation can be disabled by setting system property
+ * <code>nucleus8583.oim.generateAccessors</code> to <code>false</code>.
+ */
+public final class PropertyAccessors {
+	private static final boolean generate = !"false".equalsIgnoreCase(System
+			.getProperty("nucleus8583.oim.generateAccessors"));
+
+	private static final AtomicInteger counter = new AtomicInteger();
+
+	private PropertyAccessors() {
+		// do nothing
+	}
+
+	/**
+	 * create accessor of given field.
+	 *
+	 * @param field
+	 *            the field
+	 * @return the accessor or <code>null</code> if <code>field</code> is
+	 *         <code>null</code>
+	 */
+	public static PropertyAccessor create(Field field) {
+		if (field == null) {
+			return null;
+		}
+
+		PropertyAccessor accessor = null;
+
+		if (generate) {
+			try {
+				accessor = generate(field);
+			} catch (Exception e) {
+				// fall back to reflection
+				accessor = null;
+			} catch (LinkageError e) {
+				// e.g. class loader of the POJO cannot see OIM classes
+				accessor = null;
+			}
+		}
+
+		if (accessor == null) {
+			accessor = new ReflectivePropertyAccessor(field);
+		}
+
+		return accessor;
+	}
+
+	private static PropertyAccessor generate(Field field) throws Exception {
+		Class<?> owner = field.getDeclaringClass();
+		Class<?> type = field.getType();
+
+		int mod = field.getModifiers();
+		if (Modifier.isStatic(mod) || Modifier.isPrivate(mod)
+				|| Modifier.isFinal(mod)
+				|| Modifier.isPrivate(owner.getModifiers())) {
+			return null;
+		}
+
+		ClassLoader loader = owner.getClassLoader();
+		if (loader == null) {
+			return null;
+		}
+
+		String key = owner.getName() + "#" + field.getName();
+
+		Class<?> generated = GeneratedClasses.get(loader, key);
+		if (generated == null) {
+			generated = GeneratedClasses.put(loader, key, generateClass(
+					field, loader));
+		}
+
+		return (PropertyAccessor) generated.getConstructor(String.class,
+				Class.class).newInstance(field.getName(), type);
+	}
+
+	private static Class<?> generateClass(Field field, ClassLoader loader)
+			throws Exception {
+		Class<?> owner = field.getDeclaringClass();
+		Class<?> type = field.getType();
+
+		String read = "((" + sourceName(owner) + ") $1)." + field.getName();
+		String writePrefix = read + " = ";
+
+		// generated class lives in the same runtime package as the POJO
+		String name = owner.getName() + "$$OimAccessor$" + field.getName()
+				+ "$" + counter.incrementAndGet();
+		String simpleName = name.substring(name.lastIndexOf('.') + 1);
+
+		ClassPool pool = new ClassPool(false);
+		pool.appendClassPath(new ClassClassPath(PropertyAccessor.class));
+		pool.appendClassPath(new LoaderClassPath(loader));
+
+		CtClass cc = pool.makeClass(name, pool.get(PropertyAccessor.class
+				.getName()));
+
+		cc.addConstructor(CtNewConstructor.make("public " + simpleName
+				+ "(String name, Class type) { super($1, $2); }", cc));
+
+		cc.addMethod(CtNewMethod.make("public Object get(Object pojo) { return "
+				+ box(type, read) + "; }", cc));
+		cc.addMethod(CtNewMethod.make(
+				"public void set(Object pojo, Object value) { " + writePrefix
+						+ unbox(type, "$2") + "; }", cc));
+
+		if (type == int.class) {
+			cc.addMethod(CtNewMethod.make(
+					"public int getInt(Object pojo) { return " + read + "; }",
+					cc));
+			cc.addMethod(CtNewMethod.make(
+					"public void setInt(Object pojo, int value) { "
+							+ writePrefix + "$2; }", cc));
+		} else if (type == long.class) {
+			cc.addMethod(CtNewMethod.make(
+					"public long getLong(Object pojo) { return " + read
+							+ "; }", cc));
+			cc.addMethod(CtNewMethod.make(
+					"public void setLong(Object pojo, long value) { "
+							+ writePrefix + "$2; }", cc));
+		}
+
+		try {
+			return cc.toClass(loader, owner.getProtectionDomain());
+		} finally {
+			cc.detach();
+		}
+	}
+
+	private static String sourceName(Class<?> type) {
+		if (type.isArray()) {
+			return sourceName(type.getComponentType()) + "[]";
+		}
+
+		return type.getName();
+	}
+
+	private static String box(Class<?> type, String expression) {
+		if (!type.isPrimitive()) {
+			return expression;
+		}
+
+		if (type == boolean.class) {
+			return "Boolean.valueOf(" + expression + ")";
+		}
+		if (type == char.class) {
+			return "Character.valueOf(" + expression + ")";
+		}
+		if (type == byte.class) {
+			return "Byte.valueOf(" + expression + ")";
+		}
+		if (type == short.class) {
+			return "Short.valueOf(" + expression + ")";
+		}
+		if (type == int.class) {
+			return "Integer.valueOf(" + expression + ")";
+		}
+		if (type == long.class) {
+			return "Long.valueOf(" + expression + ")";
+		}
+		if (type == float.class) {
+			return "Float.valueOf(" + expression + ")";
+		}
+
+		return "Double.valueOf(" + expression + ")";
+	}
+
+	private static String unbox(Class<?> type, String expression) {
+		if (!type.isPrimitive()) {
+			return "(" + sourceName(type) + ") " + expression;
+		}
+
+		// primitives are unboxed by PropertyAccessor, e.g. toInt($2)
+		String name = type.getName();
+
+		return "to" + Character.toUpperCase(name.charAt(0))
+				+ name.substring(1) + "(" + expression + ")";
+	}
+}
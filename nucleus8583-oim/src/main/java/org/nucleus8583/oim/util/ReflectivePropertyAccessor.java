@@ -0,0 +1,72 @@
+package org.nucleus8583.oim.util;
+
+import java.lang.reflect.Field;
+
+/**
+ * {@link PropertyAccessor} using {@link Field}, used when an accessor cannot
+ * be generated.
+ */
+public final class ReflectivePropertyAccessor extends PropertyAccessor {
+	private final Field field;
+
+	public ReflectivePropertyAccessor(Field field) {
+		super(field.getName(), field.getType());
+
+		field.setAccessible(true);
+		this.field = field;
+	}
+
+	@Override
+	public Object get(Object pojo) {
+		try {
+			return field.get(pojo);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public void set(Object pojo, Object value) {
+		try {
+			field.set(pojo, value);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public int getInt(Object pojo) {
+		try {
+			return field.getInt(pojo);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public void setInt(Object pojo, int value) {
+		try {
+			field.setInt(pojo, value);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public long getLong(Object pojo) {
+		try {
+			return field.getLong(pojo);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public void setLong(Object pojo, long value) {
+		try {
+			field.setLong(pojo, value);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -90,9 +90,11 @@ public abstract class CollectionComponentFactory {
 
 		Field field = parent.getField(name);
 		if (field.getType().isArray()) {
-			return new ArrayComponent(parent, no, name, size, dscomp);
+			return new ArrayComponent(parent, no, name, size, dscomp, factory
+					.getTransientSlots());
 		}
 
-		return new ListComponent(parent, no, name, size, append, dscomp);
+		return new ListComponent(parent, no, name, size, append, dscomp,
+				factory.getTransientSlots());
 	}
 }
@@ -10,8 +10,9 @@ import javax.xml.parsers.ParserConfigurationException;
 
 import org.nucleus8583.oim.component.DataStructureComponent;
 import org.nucleus8583.oim.component.Iso8583MessageComponent;
+import org.nucleus8583.oim.component.TransientSlots;
 import org.nucleus8583.oim.converter.TypeConverter;
-import org.nucleus8583.util.ResourceUtils;
+import org.nucleus8583.core.util.ResourceUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -25,7 +26,11 @@ public final class Iso8583MessagesFactory {
 
 	private final Map<String, Iso8583MessageComponent> messages;
 
+	private final TransientSlots transientSlots;
+
 	public Iso8583MessagesFactory(String... locations) throws IOException {
+		transientSlots = new TransientSlots();
+
 		types = new HashMap<String, TypeConverter>();
 		dataStructures = new HashMap<String, DataStructureComponent>();
 		messages = new HashMap<String, Iso8583MessageComponent>();
@@ -133,6 +138,13 @@ public final class Iso8583MessagesFactory {
 		return messages;
 	}
 
+	/**
+	 * @return slots of all transients of loaded configurations
+	 */
+	public TransientSlots getTransientSlots() {
+		return transientSlots;
+	}
+
 	public Iso8583MessageComponent findMessage(String name) {
 		return messages.containsKey(name) ? messages.get(name) : null;
 	}
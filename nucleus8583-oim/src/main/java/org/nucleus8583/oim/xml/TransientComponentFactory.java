@@ -162,7 +162,7 @@ public abstract class TransientComponentFactory {
 			generatedValue = null;
 		}
 
-		return new TransientComponent(no, name, converter, align, padWith,
-				length, generatedValue);
+		return new TransientComponent(factory.getTransientSlots(), no, name,
+				converter, align, padWith, length, generatedValue);
 	}
 }
@@ -39,6 +39,9 @@ public abstract class TypeConverterFactory {
 
 		primitives.put(Character.TYPE, "char");
 		primitives.put(Character.class, "char");
+
+		primitives.put(Boolean.TYPE, "boolean");
+		primitives.put(Boolean.class, "boolean");
 	}
 
 	private static boolean primitiveEquals(Class<?> a, Class<?> b) {
@@ -187,12 +190,11 @@ public abstract class TypeConverterFactory {
 					}
 					break;
 				}
+			}
 
-				if (instance == null) {
-					throw new RuntimeException(
-							"no matched constructor found in class "
-									+ className);
-				}
+			if (instance == null) {
+				throw new RuntimeException(
+						"no matched constructor found in class " + className);
 			}
 		}
 
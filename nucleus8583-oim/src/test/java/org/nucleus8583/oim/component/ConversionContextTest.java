@@ -0,0 +1,115 @@
+package org.nucleus8583.oim.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nucleus8583.oim.converter.UIntConverter;
+import org.nucleus8583.oim.converter.ULongConverter;
+
+public class ConversionContextTest {
+	private TransientSlots slots;
+
+	@Before
+	public void initialize() {
+		slots = new TransientSlots();
+	}
+
+	@Test
+	public void sameNameShouldHaveSameSlot() {
+		int count = slots.slotOf("count");
+		int total = slots.slotOf("total");
+
+		assertEquals(0, count);
+		assertEquals(1, total);
+		assertEquals(count, slots.slotOf("count"));
+		assertEquals(2, slots.size());
+	}
+
+	@Test
+	public void testObjectSlot() {
+		int slot = slots.slotOf("count");
+		ConversionContext context = slots.newContext();
+
+		assertFalse(context.isSet(slot));
+		assertNull(context.get(slot));
+
+		context.set(slot, Integer.valueOf(12));
+
+		assertTrue(context.isSet(slot));
+		assertEquals(Integer.valueOf(12), context.get(slot));
+		assertEquals(12, context.getInt(slot));
+		assertEquals(12L, context.getLong(slot));
+
+		context.set(slot, null);
+		assertFalse(context.isSet(slot));
+	}
+
+	@Test
+	public void testPrimitiveSlot() {
+		int slot = slots.slotOf("count");
+		ConversionContext context = slots.newContext();
+
+		context.setInt(slot, 7);
+
+		assertTrue(context.isSet(slot));
+		assertEquals(7, context.getInt(slot));
+		assertEquals(7L, context.getLong(slot));
+		assertEquals(Integer.valueOf(7), context.get(slot));
+
+		context.setLong(slot, 8L);
+
+		assertEquals(8, context.getInt(slot));
+		assertEquals(Long.valueOf(8), context.get(slot));
+	}
+
+	@Test
+	public void primitiveSlotShouldBeConvertedAsObject() {
+		int slot = slots.slotOf("count");
+		ConversionContext context = slots.newContext();
+
+		context.setInt(slot, 7);
+		assertEquals("7", new UIntConverter().convertToIsoString(context
+				.get(slot)));
+
+		context.setLong(slot, 8L);
+		assertEquals("8", new ULongConverter().convertToIsoString(context
+				.get(slot)));
+	}
+
+	@Test
+	public void resetShouldUnsetAllSlots() {
+		int a = slots.slotOf("a");
+		int b = slots.slotOf("b");
+		ConversionContext context = slots.newContext();
+
+		context.set(a, "x");
+		context.setLong(b, 1L);
+		context.reset();
+
+		assertFalse(context.isSet(a));
+		assertFalse(context.isSet(b));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void unsetSlotShouldNotBeReadAsNumber() {
+		int slot = slots.slotOf("count");
+
+		slots.newContext().getInt(slot);
+	}
+
+	@Test
+	public void bufferShouldBeReusedEmptied() {
+		ConversionContext context = slots.newContext();
+
+		StringBuilder sb = context.buffer();
+		sb.append("abc");
+
+		assertSame(sb, context.buffer());
+		assertEquals(0, sb.length());
+	}
+}
@@ -0,0 +1,160 @@
+package org.nucleus8583.oim.converter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+public class DateTimeConverterTest {
+	private static final String[] PATTERNS = { "MMddHHmmss", "HHmmss", "MMdd",
+			"yyMM", "yyyyMMdd", "yyyy-MM-dd HH:mm:ss.SSS" };
+
+	private static final String[] VALUES = { "0229235959", "000000", "1231",
+			"4912", "20000229", "1999-12-31 23:59:59.999" };
+
+	@Test
+	public void fixedPatternsShouldBeCompiled() {
+		for (int i = 0; i < PATTERNS.length; ++i) {
+			assertTrue(PATTERNS[i], new DateTimeConverter(PATTERNS[i])
+					.isCompiled());
+		}
+
+		assertFalse(new DateTimeConverter("EEE, d MMM yyyy").isCompiled());
+		assertFalse(new DateTimeConverter("yyMM'T'").isCompiled());
+	}
+
+	@Test
+	public void parseShouldMatchSimpleDateFormat() throws Exception {
+		for (int i = 0; i < PATTERNS.length; ++i) {
+			DateTimeConverter conv = new DateTimeConverter(PATTERNS[i]);
+			Date expected = new SimpleDateFormat(PATTERNS[i]).parse(VALUES[i]);
+
+			char[] buf = ("**" + VALUES[i] + "**").toCharArray();
+
+			assertEquals(PATTERNS[i], expected, conv.convertToJavaObject(buf,
+					2, VALUES[i].length()));
+			assertEquals(PATTERNS[i], expected, conv
+					.convertToJavaObject(VALUES[i]));
+		}
+	}
+
+	@Test
+	public void formatShouldMatchSimpleDateFormat() {
+		long now = System.currentTimeMillis();
+		long from = now - 400L * 86400000L;
+
+		for (int i = 0; i < PATTERNS.length; ++i) {
+			DateTimeConverter conv = new DateTimeConverter(PATTERNS[i]);
+			SimpleDateFormat fmt = new SimpleDateFormat(PATTERNS[i]);
+
+			for (long millis = from; millis < now; millis += 3599999L) {
+				Date date = new Date(millis);
+				assertEquals(PATTERNS[i], fmt.format(date), conv
+						.convertToIsoString(date));
+			}
+		}
+	}
+
+	@Test
+	public void twoDigitYearShouldMatchSimpleDateFormat() throws Exception {
+		DateTimeConverter conv = new DateTimeConverter("yyMMdd");
+		SimpleDateFormat fmt = new SimpleDateFormat("yyMMdd");
+
+		// around the start of the century, 80 years ago
+		Calendar cal = Calendar.getInstance();
+		cal.add(Calendar.YEAR, -80);
+		cal.add(Calendar.DATE, -3);
+
+		for (int i = 0; i < 7; ++i) {
+			String value = fmt.format(cal.getTime());
+
+			assertEquals(value, fmt.parse(value), conv
+					.convertToJavaObject(value));
+
+			cal.add(Calendar.DATE, 1);
+		}
+	}
+
+	@Test
+	public void parseShouldMatchSimpleDateFormatAcrossDst() throws Exception {
+		String[] zones = { "America/New_York", "Europe/Berlin",
+				"Australia/Lord_Howe" };
+
+		// days having daylight saving transitions in 2010
+		String[][] days = { { "20100314", "20101107" },
+				{ "20100328", "20101031" }, { "20100404", "20101003" } };
+
+		TimeZone tz = TimeZone.getDefault();
+
+		try {
+			for (int i = 0; i < zones.length; ++i) {
+				TimeZone.setDefault(TimeZone.getTimeZone(zones[i]));
+
+				DateTimeConverter conv = new DateTimeConverter("yyyyMMddHHmm");
+				SimpleDateFormat fmt = new SimpleDateFormat("yyyyMMddHHmm");
+
+				for (int j = 0; j < days[i].length; ++j) {
+					for (int minutes = 0; minutes < 1440; minutes += 15) {
+						int hhmm = minutes / 60 * 100 + minutes % 60;
+						String value = days[i][j]
+								+ Integer.toString(10000 + hhmm).substring(1);
+
+						Date expected = fmt.parse(value);
+
+						assertEquals(zones[i] + " " + value, expected, conv
+								.convertToJavaObject(value));
+						assertEquals(zones[i] + " " + value, fmt
+								.format(expected), conv
+								.convertToIsoString(expected));
+					}
+				}
+			}
+		} finally {
+			TimeZone.setDefault(tz);
+		}
+	}
+
+	@Test
+	public void formatIntoBuffer() {
+		DateTimeConverter conv = new DateTimeConverter("MMddHHmmss");
+		Date date = (Date) conv.convertToJavaObject("0102030405");
+
+		char[] buf = "[----------]".toCharArray();
+		conv.format(date.getTime(), buf, 1);
+
+		assertEquals("[0102030405]", new String(buf));
+	}
+
+	@Test
+	public void emptyValueShouldBeNull() {
+		DateTimeConverter conv = new DateTimeConverter("HHmmss");
+
+		assertNull(conv.convertToJavaObject(new char[0], 0, 0));
+		assertEquals("", conv.convertToIsoString(null));
+	}
+
+	@Test
+	public void invalidValueShouldBeRejected() {
+		DateTimeConverter conv = new DateTimeConverter("MMddHHmmss");
+
+		String[] invalids = { "1301000000", "0100000000", "01012a0000",
+				"010100000", "0101240000" };
+
+		for (int i = 0; i < invalids.length; ++i) {
+			try {
+				conv.convertToJavaObject(invalids[i]);
+				fail(invalids[i] + " should be rejected");
+			} catch (RuntimeException ex) {
+				// expected
+			}
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package org.nucleus8583.oim.converter;
+
+import java.math.BigDecimal;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ * compares <code>decimal;precision=2</code> mapping of
+ * <code>oim-sample.xml</code> against its minor units mode.
+ */
+@Ignore
+public class DecimalConverterPerformanceTest {
+	private static final char[] VALUE = "00001500".toCharArray();
+
+	private void decode(String label, DecimalConverter conv) {
+		int loops = 10000000;
+		Object result = null;
+
+		// warm up
+		for (int i = loops; i > 0; --i) {
+			result = conv.convertToJavaObject(VALUE, 0, VALUE.length);
+		}
+
+		long start = System.currentTimeMillis();
+		for (int i = loops; i > 0; --i) {
+			result = conv.convertToJavaObject(VALUE, 0, VALUE.length);
+		}
+		long elapsed = System.currentTimeMillis() - start;
+
+		System.out.println("[decode, " + label + "] loops / sec = "
+				+ (loops * 1000L / Math.max(elapsed, 1)) + ", last = " + result);
+	}
+
+	private void encode(String label, DecimalConverter conv, Object value) {
+		int loops = 10000000;
+		String result = null;
+
+		// warm up
+		for (int i = loops; i > 0; --i) {
+			result = conv.convertToIsoString(value);
+		}
+
+		long start = System.currentTimeMillis();
+		for (int i = loops; i > 0; --i) {
+			result = conv.convertToIsoString(value);
+		}
+		long elapsed = System.currentTimeMillis() - start;
+
+		System.out.println("[encode, " + label + "] loops / sec = "
+				+ (loops * 1000L / Math.max(elapsed, 1)) + ", last = " + result);
+	}
+
+	@Test
+	public void decodeShouldFast() {
+		decode("decimal", new DecimalConverter(2));
+		decode("minor units", new DecimalConverter(2, true));
+	}
+
+	@Test
+	public void encodeShouldFast() {
+		encode("decimal", new DecimalConverter(2), new BigDecimal("15.00"));
+		encode("minor units", new DecimalConverter(2, true), Long.valueOf(1500));
+	}
+}
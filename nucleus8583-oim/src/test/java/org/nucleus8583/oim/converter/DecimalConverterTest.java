@@ -0,0 +1,103 @@
+package org.nucleus8583.oim.converter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+public class DecimalConverterTest {
+	private static final String[] VALUES = { "00001234", "0", "00000000",
+			"999999999999999999", "1234567890123456789012", "-1234", "12.5" };
+
+	@Test
+	public void decimalShouldMatchBigDecimal() {
+		int[] precisions = { 0, 2, 5 };
+
+		for (int i = 0; i < precisions.length; ++i) {
+			DecimalConverter conv = new DecimalConverter(precisions[i]);
+
+			for (int j = 0; j < VALUES.length; ++j) {
+				BigDecimal expected = new BigDecimal(VALUES[j])
+						.movePointLeft(precisions[i]);
+				char[] buf = ("**" + VALUES[j] + "**").toCharArray();
+
+				assertEquals(VALUES[j], expected, conv.convertToJavaObject(buf,
+						2, VALUES[j].length()));
+				assertEquals(VALUES[j], expected, conv
+						.convertToJavaObject(VALUES[j]));
+			}
+		}
+	}
+
+	@Test
+	public void decimalToIsoString() {
+		DecimalConverter conv = new DecimalConverter(2);
+
+		assertEquals("1234", conv.convertToIsoString(new BigDecimal("12.34")));
+		assertEquals("1500", conv.convertToIsoString(BigDecimal.valueOf(15)));
+		assertEquals("", conv.convertToIsoString(null));
+		assertEquals(BigDecimal.ZERO, conv.convertToJavaObject(""));
+	}
+
+	@Test
+	public void minorUnits() {
+		DecimalConverter conv = new DecimalConverter(2, true);
+
+		assertEquals(Long.valueOf(1234), conv.convertToJavaObject("00001234"));
+		assertEquals(Long.valueOf(-1234), conv.convertToJavaObject("-1234"));
+		assertEquals(Long.valueOf(0), conv.convertToJavaObject(""));
+		assertEquals(Long.valueOf(Long.MAX_VALUE), conv
+				.convertToJavaObject("9223372036854775807"));
+		assertEquals(Long.valueOf(Long.MIN_VALUE), conv
+				.convertToJavaObject("-9223372036854775808"));
+
+		assertEquals("1234", conv.convertToIsoString(Long.valueOf(1234)));
+		assertEquals("", conv.convertToIsoString(null));
+	}
+
+	@Test
+	public void minorUnitsShouldRejectInvalidValue() {
+		DecimalConverter conv = new DecimalConverter(2, true);
+
+		String[] invalids = { "9223372036854775808", "-9223372036854775809",
+				"12.34", "-", "12a4" };
+
+		for (int i = 0; i < invalids.length; ++i) {
+			try {
+				conv.convertToJavaObject(invalids[i]);
+				fail(invalids[i] + " should be rejected");
+			} catch (RuntimeException ex) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void primitiveConversionShouldBeExact() {
+		DecimalConverter conv = new DecimalConverter(2);
+
+		assertEquals(15, conv.convertToInt("1500"));
+		assertEquals(15L, conv.convertToLong("1500".toCharArray(), 0, 4));
+		assertEquals(99999999999L, conv.convertToLong("9999999999900"));
+
+		String[] invalids = { "1234", "9999999999900" };
+
+		for (int i = 0; i < invalids.length; ++i) {
+			try {
+				conv.convertToInt(invalids[i]);
+				fail(invalids[i] + " should be rejected");
+			} catch (ArithmeticException ex) {
+				// expected
+			}
+		}
+
+		try {
+			conv.convertToLong("1234");
+			fail("1234 should be rejected");
+		} catch (ArithmeticException ex) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package org.nucleus8583.oim.converter;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class UIntConverterTest {
+	@Test
+	public void uintShouldConvertWithoutBoxing() {
+		UIntConverter conv = new UIntConverter();
+		char[] buf = "**001234**".toCharArray();
+
+		assertEquals(1234, conv.convertToInt(buf, 2, 6));
+		assertEquals(1234L, conv.convertToLong(buf, 2, 6));
+		assertEquals(0, conv.convertToInt(buf, 2, 0));
+		assertEquals(1234, conv.convertToInt("001234"));
+		assertEquals(Integer.valueOf(1234), conv.convertToJavaObject(buf, 2, 6));
+
+		assertEquals("1234", conv.convertIntToIsoString(1234));
+		assertEquals("1234", conv.convertLongToIsoString(1234L));
+		assertEquals("1234", conv.convertToIsoString(Integer.valueOf(1234)));
+	}
+
+	@Test
+	public void ulongShouldConvertWithoutBoxing() {
+		ULongConverter conv = new ULongConverter();
+		char[] buf = "**999999999999999999**".toCharArray();
+
+		assertEquals(999999999999999999L, conv.convertToLong(buf, 2, 18));
+		assertEquals(0L, conv.convertToLong(buf, 2, 0));
+		assertEquals(1234L, conv.convertToLong("001234"));
+		assertEquals(Long.valueOf(999999999999999999L), conv
+				.convertToJavaObject(buf, 2, 18));
+
+		assertEquals("1234", conv.convertLongToIsoString(1234L));
+		assertEquals("1234", conv.convertToIsoString(Long.valueOf(1234)));
+	}
+
+	@Test
+	public void defaultPrimitiveConversionShouldUnbox() {
+		DecimalConverter conv = new DecimalConverter(0);
+
+		assertEquals(1234, conv.convertToInt("00001234"));
+		assertEquals(1234L, conv.convertToLong("00001234".toCharArray(), 0, 8));
+		assertEquals("1234", conv.convertLongToIsoString(1234L));
+	}
+
+	@Test
+	public void minorUnitsShouldConvertWithoutBoxing() {
+		DecimalConverter conv = new DecimalConverter(2, true);
+
+		assertEquals(1234L, conv.convertToLong("00001234".toCharArray(), 0, 8));
+		assertEquals(0L, conv.convertToLong(""));
+		assertEquals("1234", conv.convertLongToIsoString(1234L));
+	}
+}
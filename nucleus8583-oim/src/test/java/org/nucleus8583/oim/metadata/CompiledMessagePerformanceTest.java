@@ -0,0 +1,98 @@
+package org.nucleus8583.oim.metadata;
+
+import java.io.StringWriter;
+
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.nucleus8583.core.Iso8583Message;
+import org.nucleus8583.core.Iso8583MessageSerializer;
+import org.nucleus8583.oim.Iso8583MessageManager;
+
+@Ignore
+public class CompiledMessagePerformanceTest {
+	private Iso8583MessageSerializer serializer;
+
+	private Iso8583MessageManager interpreted;
+
+	private Iso8583MessageManager compiled;
+
+	private Ipm1 ipm1;
+
+	private Iso8583Message msg;
+
+	@Before
+	public void initialize() throws Exception {
+		serializer = new Iso8583MessageSerializer(
+				"file:src/test/resources/META-INF/nucleus8583.xml");
+
+		interpreted = new Iso8583MessageManager(false,
+				"file:src/test/resources/META-INF/oim-types.xml",
+				"file:src/test/resources/META-INF/oim-sample.xml");
+
+		compiled = new Iso8583MessageManager(true,
+				"file:src/test/resources/META-INF/oim-types.xml",
+				"file:src/test/resources/META-INF/oim-sample.xml");
+
+		ipm1 = CompiledMessageTest.sample();
+		msg = new Iso8583Message(192);
+	}
+
+	private void pack(String label, Iso8583MessageManager manager) {
+		int loops = 1000000;
+
+		// warm up
+		for (int i = loops; i > 0; --i) {
+			manager.convert("ipm1", ipm1, msg);
+		}
+
+		long start = System.currentTimeMillis();
+		for (int i = loops; i > 0; --i) {
+			manager.convert("ipm1", ipm1, msg);
+		}
+		long elapsed = System.currentTimeMillis() - start;
+
+		System.out.println("[pack, " + label + "] loops / sec = "
+				+ (loops * 1000L / Math.max(elapsed, 1)));
+	}
+
+	private void unpack(String label, Iso8583MessageManager manager)
+			throws Exception {
+		int loops = 1000000;
+
+		Iso8583Message packed = new Iso8583Message(192);
+		interpreted.convert("ipm1", ipm1, packed);
+
+		StringWriter sw = new StringWriter();
+		serializer.write(packed, sw);
+
+		msg.clear();
+		serializer.read(sw.toString(), msg);
+
+		// warm up
+		for (int i = loops; i > 0; --i) {
+			manager.convert("ipm1", msg);
+		}
+
+		long start = System.currentTimeMillis();
+		for (int i = loops; i > 0; --i) {
+			manager.convert("ipm1", msg);
+		}
+		long elapsed = System.currentTimeMillis() - start;
+
+		System.out.println("[unpack, " + label + "] loops / sec = "
+				+ (loops * 1000L / Math.max(elapsed, 1)));
+	}
+
+	@Test
+	public void compiledPackShouldBeFaster() throws Exception {
+		pack("interpreted", interpreted);
+		pack("compiled", compiled);
+	}
+
+	@Test
+	public void compiledUnpackShouldBeFaster() throws Exception {
+		unpack("interpreted", interpreted);
+		unpack("compiled", compiled);
+	}
+}
@@ -0,0 +1,111 @@
+package org.nucleus8583.oim.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+import java.text.SimpleDateFormat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nucleus8583.core.Iso8583Message;
+import org.nucleus8583.core.Iso8583MessageSerializer;
+import org.nucleus8583.oim.Iso8583MessageManager;
+import org.nucleus8583.oim.component.CompiledMessageComponent;
+import org.nucleus8583.oim.component.Iso8583MessageCompiler;
+import org.nucleus8583.oim.xml.Iso8583MessagesFactory;
+
+public class CompiledMessageTest {
+	private Iso8583MessageSerializer serializer;
+
+	private Iso8583MessageManager compiled;
+
+	private Iso8583MessageManager interpreted;
+
+	@Before
+	public void initialize() throws Exception {
+		serializer = new Iso8583MessageSerializer(
+				"file:src/test/resources/META-INF/nucleus8583.xml");
+
+		compiled = new Iso8583MessageManager(true,
+				"file:src/test/resources/META-INF/oim-types.xml",
+				"file:src/test/resources/META-INF/oim-sample.xml");
+
+		interpreted = new Iso8583MessageManager(false,
+				"file:src/test/resources/META-INF/oim-types.xml",
+				"file:src/test/resources/META-INF/oim-sample.xml");
+	}
+
+	/**
+	 * create a sample with fixed date and time. Fields #12 and #13 are
+	 * numeric, leading zeros of e.g. <code>095849</code> would be stripped.
+	 */
+	static Ipm1 sample() throws Exception {
+		return new Ipm1(new SimpleDateFormat("yyyyMMddHHmmss")
+				.parse("20101231234512"));
+	}
+
+	private String encode(Iso8583MessageManager manager, Object pojo)
+			throws Exception {
+		Iso8583Message msg = new Iso8583Message(192);
+		manager.convert("ipm1", pojo, msg);
+
+		StringWriter sw = new StringWriter();
+		serializer.write(msg, sw);
+
+		return sw.toString();
+	}
+
+	@Test
+	public void sampleMappingShouldBeCompiled() {
+		assertTrue(compiled.handle("ipm1").isCompiled());
+		assertFalse(interpreted.handle("ipm1").isCompiled());
+	}
+
+	@Test
+	public void compiledClassShouldBeShared() throws Exception {
+		String[] locations = {
+				"file:src/test/resources/META-INF/oim-types.xml",
+				"file:src/test/resources/META-INF/oim-sample.xml" };
+
+		CompiledMessageComponent first = Iso8583MessageCompiler
+				.compile(new Iso8583MessagesFactory(locations)
+						.findMessage("ipm1"));
+		CompiledMessageComponent second = Iso8583MessageCompiler
+				.compile(new Iso8583MessagesFactory(locations)
+						.findMessage("ipm1"));
+
+		assertTrue(first != second);
+		assertTrue(first.getClass() == second.getClass());
+	}
+
+	@Test
+	public void encodeShouldMatchInterpreted() throws Exception {
+		Ipm1 ipm1 = sample();
+
+		assertEquals(encode(interpreted, ipm1), encode(compiled, ipm1));
+	}
+
+	@Test
+	public void decodeShouldMatchInterpreted() throws Exception {
+		String packed = encode(interpreted, sample());
+
+		Iso8583Message msg = new Iso8583Message(192);
+		serializer.read(packed, msg);
+
+		Ipm1 expected = (Ipm1) interpreted.convert("ipm1", msg);
+		Ipm1 actual = (Ipm1) compiled.convert("ipm1", msg);
+
+		assertEquals(expected.getCardNumber(), actual.getCardNumber());
+		assertEquals(expected.getStan(), actual.getStan());
+		assertEquals(expected.getCharge(), actual.getCharge());
+		assertEquals(expected.getRrn(), actual.getRrn());
+		assertEquals(expected.getResponseCode(), actual.getResponseCode());
+		assertEquals(expected.getDetails().length, actual.getDetails().length);
+
+		// including properties without getters
+		assertEquals(packed, encode(interpreted, actual));
+		assertEquals(packed, encode(interpreted, expected));
+	}
+}
@@ -0,0 +1,129 @@
+package org.nucleus8583.oim.metadata;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nucleus8583.core.Iso8583Message;
+import org.nucleus8583.core.Iso8583MessageSerializer;
+import org.nucleus8583.oim.Iso8583MessageManager;
+
+public class DirectCodecTest {
+	private Iso8583MessageSerializer serializer;
+
+	private Iso8583MessageManager[] managers;
+
+	@Before
+	public void initialize() throws Exception {
+		serializer = new Iso8583MessageSerializer(
+				"file:src/test/resources/META-INF/nucleus8583.xml");
+
+		managers = new Iso8583MessageManager[2];
+
+		for (int i = 0; i < managers.length; ++i) {
+			managers[i] = new Iso8583MessageManager(serializer, i == 0,
+					"file:src/test/resources/META-INF/oim-types.xml",
+					"file:src/test/resources/META-INF/oim-sample.xml");
+		}
+	}
+
+	private String convert(Iso8583MessageManager manager, Object pojo)
+			throws Exception {
+		Iso8583Message msg = new Iso8583Message(192);
+		manager.convert("ipm1", pojo, msg);
+
+		StringWriter sw = new StringWriter();
+		serializer.write(msg, sw);
+
+		return sw.toString();
+	}
+
+	private static String encode(Iso8583MessageManager manager, Object pojo)
+			throws Exception {
+		ByteBuffer out = ByteBuffer.allocate(1024);
+		out.put((byte) '*');
+
+		manager.encode("ipm1", pojo, out);
+		out.flip();
+
+		// written starting at the position
+		assertEquals('*', out.get());
+
+		byte[] bytes = new byte[out.remaining()];
+		out.get(bytes);
+
+		return new String(bytes, "ASCII");
+	}
+
+	@Test
+	public void encodeShouldMatchConvert() throws Exception {
+		Ipm1 ipm1 = CompiledMessageTest.sample();
+
+		for (int i = 0; i < managers.length; ++i) {
+			assertEquals(convert(managers[i], ipm1), encode(managers[i], ipm1));
+		}
+	}
+
+	@Test
+	public void decodeShouldMatchConvert() throws Exception {
+		for (int i = 0; i < managers.length; ++i) {
+			String packed = convert(managers[i], CompiledMessageTest.sample());
+
+			Iso8583Message msg = new Iso8583Message(192);
+			serializer.read(packed, msg);
+			Ipm1 expected = (Ipm1) managers[i].convert("ipm1", msg);
+
+			ByteBuffer frame = ByteBuffer.wrap((packed + packed)
+					.getBytes("ASCII"));
+			Ipm1 actual = (Ipm1) managers[i].decode("ipm1", frame);
+
+			// position is advanced past the message
+			assertEquals(packed.length(), frame.position());
+
+			assertEquals(expected.getCardNumber(), actual.getCardNumber());
+			assertEquals(expected.getStan(), actual.getStan());
+			assertEquals(expected.getCharge(), actual.getCharge());
+			assertEquals(expected.getRrn(), actual.getRrn());
+			assertEquals(expected.getResponseCode(), actual.getResponseCode());
+			assertEquals(expected.getDetails().length,
+					actual.getDetails().length);
+
+			// including properties without getters
+			assertEquals(packed, convert(managers[i], actual));
+
+			// next message of the frame
+			assertEquals(packed, convert(managers[i], managers[i].decode(
+					"ipm1", frame)));
+			assertEquals(frame.limit(), frame.position());
+		}
+	}
+
+	@Test
+	public void decodeShouldFollowMappingOrder() throws Exception {
+		for (int i = 0; i < 2; ++i) {
+			Iso8583MessageManager manager = new Iso8583MessageManager(
+					serializer, i == 0,
+					"file:src/test/resources/META-INF/oim-types.xml",
+					"file:src/test/resources/META-INF/oim-nested.xml");
+
+			Ipm3 ipm3 = NestedEncodeTest.sample();
+			ipm3.others.add(new Ipm3Item("T", 12));
+
+			ByteBuffer frame = ByteBuffer.allocate(1024);
+			manager.encode("ipm3sized", ipm3, frame);
+			frame.flip();
+
+			Ipm3 actual = (Ipm3) manager.decode("ipm3sized", frame);
+
+			assertEquals(2, actual.others.size());
+			assertEquals("Q", actual.others.get(0).name);
+			assertEquals(9, actual.others.get(0).quantity);
+			assertEquals("T", actual.others.get(1).name);
+			assertEquals(12, actual.others.get(1).quantity);
+			assertEquals(0, frame.remaining());
+		}
+	}
+}
@@ -28,6 +28,33 @@ public class Ipm1 {
 		details = new Ipm1Detail[] { new Ipm1Detail() };
 	}
 
+	public Ipm1(Date transactionDateTime) {
+		this();
+
+		transactionDate = transactionDateTime;
+		transactionTime = transactionDateTime;
+	}
+
+	public String getCardNumber() {
+		return cardNumber;
+	}
+
+	public String getStan() {
+		return stan;
+	}
+
+	public BigDecimal getCharge() {
+		return charge;
+	}
+
+	public String getRrn() {
+		return rrn;
+	}
+
+	public String getResponseCode() {
+		return responseCode;
+	}
+
 	public Ipm1Detail[] getDetails() {
 		return details;
 	}
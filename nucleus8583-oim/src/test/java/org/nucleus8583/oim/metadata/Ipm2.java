@@ -0,0 +1,17 @@
+package org.nucleus8583.oim.metadata;
+
+/**
+ * message having <code>int</code> and <code>long</code> properties, see
+ * <code>oim-primitives.xml</code>.
+ */
+public class Ipm2 {
+	int count;
+
+	long amount;
+
+	long charge;
+
+	int sequence;
+
+	long total;
+}
@@ -0,0 +1,39 @@
+package org.nucleus8583.oim.metadata;
+
+import java.util.List;
+
+/**
+ * message having nested data structures, lists and arrays, see
+ * <code>oim-nested.xml</code>.
+ */
+public class Ipm3 {
+	String terminal;
+
+	int batch;
+
+	List<Ipm3Item> items;
+
+	Ipm3Item[] codes;
+
+	String trailer;
+
+	String currency;
+
+	List<Ipm3Item> others;
+
+	Ipm3Item[] extras;
+
+	String reference;
+
+	public List<Ipm3Item> getItems() {
+		return items;
+	}
+
+	public Ipm3Item[] getCodes() {
+		return codes;
+	}
+
+	public List<Ipm3Item> getOthers() {
+		return others;
+	}
+}
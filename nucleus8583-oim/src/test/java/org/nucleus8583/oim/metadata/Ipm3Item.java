@@ -0,0 +1,16 @@
+package org.nucleus8583.oim.metadata;
+
+public class Ipm3Item {
+	String name;
+
+	int quantity;
+
+	public Ipm3Item() {
+		// used by decoder
+	}
+
+	public Ipm3Item(String name, int quantity) {
+		this.name = name;
+		this.quantity = quantity;
+	}
+}
@@ -0,0 +1,122 @@
+package org.nucleus8583.oim.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nucleus8583.core.Iso8583Message;
+import org.nucleus8583.core.Iso8583MessageSerializer;
+import org.nucleus8583.oim.Iso8583MessageManager;
+import org.nucleus8583.oim.component.LazyLoader;
+import org.nucleus8583.oim.component.LazyPojo;
+
+public class LazyDecodeTest {
+	private Iso8583MessageManager manager;
+
+	private String packed;
+
+	private Iso8583Message msg;
+
+	@Before
+	public void initialize() throws Exception {
+		Iso8583MessageSerializer serializer = new Iso8583MessageSerializer(
+				"file:src/test/resources/META-INF/nucleus8583.xml");
+
+		manager = new Iso8583MessageManager(serializer,
+				"file:src/test/resources/META-INF/oim-types.xml",
+				"file:src/test/resources/META-INF/oim-sample.xml");
+
+		msg = new Iso8583Message(192);
+		manager.convert("ipm1", CompiledMessageTest.sample(), msg);
+
+		StringWriter sw = new StringWriter();
+		serializer.write(msg, sw);
+		packed = sw.toString();
+
+		msg = new Iso8583Message(192);
+		serializer.read(packed, msg);
+	}
+
+	/**
+	 * the factory falls back to eager decoding if the subclass cannot be
+	 * generated, make sure it has not.
+	 */
+	private static void assertGenerated(Object pojo) {
+		assertTrue(pojo instanceof LazyPojo);
+		assertTrue(pojo.getClass().getName(), pojo.getClass().getName()
+				.startsWith(Ipm1.class.getName() + "$$OimLazy$"));
+	}
+
+	@Test
+	public void lazyClassShouldBeShared() throws Exception {
+		Iso8583MessageManager other = new Iso8583MessageManager(
+				"file:src/test/resources/META-INF/oim-types.xml",
+				"file:src/test/resources/META-INF/oim-sample.xml");
+
+		Object first = manager.convertLazy("ipm1", msg);
+		Object second = other.convertLazy("ipm1", msg);
+
+		assertGenerated(first);
+		assertTrue(first.getClass() == second.getClass());
+	}
+
+	@Test
+	public void lazyObjectShouldMatchDecodedObject() {
+		Ipm1 expected = (Ipm1) manager.convert("ipm1", msg);
+		Ipm1 actual = (Ipm1) manager.convertLazy("ipm1", msg);
+
+		assertGenerated(actual);
+
+		assertEquals(expected.getCardNumber(), actual.getCardNumber());
+		assertEquals(expected.getStan(), actual.getStan());
+		assertEquals(expected.getCharge(), actual.getCharge());
+		assertEquals(expected.getRrn(), actual.getRrn());
+		assertEquals(expected.getResponseCode(), actual.getResponseCode());
+
+		// field #48 maps a list, it is decoded immediately
+		assertEquals(expected.getDetails().length, actual.getDetails().length);
+	}
+
+	@Test
+	public void fieldShouldBeDecodedOnFirstAccess() {
+		Ipm1 ipm1 = (Ipm1) manager.convertLazy("ipm1", msg);
+		assertGenerated(ipm1);
+
+		msg.set(37, "0000000001");
+		String rrn = msg.getString(37);
+		assertEquals(rrn, ipm1.getRrn());
+
+		// decoded once
+		msg.set(37, "0000000002");
+		assertEquals(rrn, ipm1.getRrn());
+	}
+
+	@Test
+	public void ensureLoadedShouldDecodeAllFields() {
+		String rrn = msg.getString(37);
+
+		Ipm1 ipm1 = (Ipm1) manager.convertLazy("ipm1", msg);
+		assertGenerated(ipm1);
+
+		LazyLoader.ensureLoaded(ipm1);
+
+		msg.set(37, "0000000001");
+		assertEquals(rrn, ipm1.getRrn());
+	}
+
+	@Test
+	public void testByteBuffer() throws Exception {
+		Ipm1 expected = (Ipm1) manager.convert("ipm1", msg);
+		Ipm1 actual = (Ipm1) manager.decodeLazy("ipm1", ByteBuffer
+				.wrap(packed.getBytes("ASCII")));
+
+		assertGenerated(actual);
+
+		assertEquals(expected.getRrn(), actual.getRrn());
+		assertEquals(expected.getCharge(), actual.getCharge());
+	}
+}
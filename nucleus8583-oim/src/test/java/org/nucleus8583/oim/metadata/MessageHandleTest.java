@@ -0,0 +1,134 @@
+package org.nucleus8583.oim.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nucleus8583.core.Iso8583Message;
+import org.nucleus8583.core.Iso8583MessageSerializer;
+import org.nucleus8583.oim.Iso8583MessageManager;
+import org.nucleus8583.oim.MessageHandle;
+import org.nucleus8583.oim.component.ConversionContext;
+
+public class MessageHandleTest {
+	private Iso8583MessageSerializer serializer;
+
+	private Iso8583MessageManager manager;
+
+	private MessageHandle handle;
+
+	private String packed;
+
+	@Before
+	public void initialize() throws Exception {
+		serializer = new Iso8583MessageSerializer(
+				"file:src/test/resources/META-INF/nucleus8583.xml");
+
+		manager = new Iso8583MessageManager(serializer,
+				"file:src/test/resources/META-INF/oim-types.xml",
+				"file:src/test/resources/META-INF/oim-sample.xml");
+
+		handle = manager.handle("ipm1");
+		packed = write(encode(CompiledMessageTest.sample()));
+	}
+
+	private Iso8583Message encode(Object pojo) {
+		Iso8583Message msg = new Iso8583Message(192);
+		manager.convert("ipm1", pojo, msg);
+
+		return msg;
+	}
+
+	private String write(Iso8583Message msg) throws Exception {
+		StringWriter sw = new StringWriter();
+		serializer.write(msg, sw);
+
+		return sw.toString();
+	}
+
+	private Iso8583Message read() throws Exception {
+		Iso8583Message msg = new Iso8583Message(192);
+		serializer.read(packed, msg);
+
+		return msg;
+	}
+
+	@Test
+	public void handleShouldBeResolvedOnce() {
+		assertSame(handle, manager.handle("ipm1"));
+		assertEquals("ipm1", handle.getName());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownMessageShouldBeRejected() {
+		manager.handle("ipm2");
+	}
+
+	@Test
+	public void testMessage() throws Exception {
+		Iso8583Message msg = new Iso8583Message(192);
+		handle.encode(handle.decode(read()), msg);
+
+		assertEquals(packed, write(msg));
+	}
+
+	@Test
+	public void testMessageWithContext() throws Exception {
+		ConversionContext context = manager.newContext();
+
+		// the context is reset before each conversion, so it can be reused
+		for (int i = 0; i < 2; ++i) {
+			Iso8583Message msg = new Iso8583Message(192);
+			handle.encode(handle.decode(read(), context), msg, context);
+
+			assertEquals(packed, write(msg));
+		}
+	}
+
+	@Test
+	public void testByteBuffer() throws Exception {
+		Object pojo = handle.decode(ByteBuffer.wrap(packed.getBytes("ASCII")));
+
+		ByteBuffer out = ByteBuffer.allocate(1024);
+		handle.encode(pojo, out);
+		out.flip();
+
+		byte[] bytes = new byte[out.remaining()];
+		out.get(bytes);
+
+		assertEquals(packed, new String(bytes, "ASCII"));
+	}
+
+	@Test
+	public void testBatch() throws Exception {
+		List<Iso8583Message> msgs = Arrays.asList(read(), read(), read());
+
+		List<Object> pojos = handle.decodeAll(msgs);
+		assertEquals(3, pojos.size());
+
+		List<Iso8583Message> encoded = new ArrayList<Iso8583Message>();
+		for (int i = 0; i < pojos.size(); ++i) {
+			encoded.add(new Iso8583Message(192));
+		}
+
+		handle.encodeAll(pojos, encoded);
+
+		for (int i = 0; i < encoded.size(); ++i) {
+			assertEquals(packed, write(encoded.get(i)));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void batchSizesShouldMatch() throws Exception {
+		List<Object> pojos = handle.decodeAll(Arrays.asList(read(), read()));
+
+		handle.encodeAll(pojos, Arrays.asList(new Iso8583Message(192)));
+	}
+}
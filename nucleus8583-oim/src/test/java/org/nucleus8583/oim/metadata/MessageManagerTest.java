@@ -1,12 +1,14 @@
 package org.nucleus8583.oim.metadata;
 
 import java.io.StringReader;
+import java.nio.ByteBuffer;
 
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
-import org.nucleus8583.Iso8583Message;
-import org.nucleus8583.Iso8583MessageFactory;
+import org.nucleus8583.core.Iso8583Message;
+import org.nucleus8583.core.Iso8583MessageFactory;
+import org.nucleus8583.core.Iso8583MessageSerializer;
 import org.nucleus8583.oim.Iso8583MessageManager;
 
 @Ignore
@@ -15,6 +17,8 @@ public class MessageManagerTest {
 
 	private Iso8583MessageManager manager;
 
+	private Iso8583MessageManager directManager;
+
 	private Iso8583Message msg;
 
 	@Before
@@ -26,6 +30,12 @@ public class MessageManagerTest {
 				"file:src/test/resources/META-INF/oim-types.xml",
 				"file:src/test/resources/META-INF/oim-sample.xml");
 
+		directManager = new Iso8583MessageManager(
+				new Iso8583MessageSerializer(
+						"file:src/test/resources/META-INF/nucleus8583.xml"),
+				"file:src/test/resources/META-INF/oim-types.xml",
+				"file:src/test/resources/META-INF/oim-sample.xml");
+
 		msg = factory.createMessage();
 	}
 
@@ -73,4 +83,27 @@ public class MessageManagerTest {
 		System.out.println("[unpack] memory: " + memoryUsage);
 		System.out.println("[unpack] pojo:" + pojo);
 	}
+
+	@Test
+	public void decodeFrameShouldFast() throws Exception {
+		ByteBuffer out = ByteBuffer.allocate(1024);
+		directManager.encode("ipm1", CompiledMessageTest.sample(), out);
+		out.flip();
+
+		byte[] packed = new byte[out.remaining()];
+		out.get(packed);
+
+		int loops = 1000000;
+
+		Object pojo = null;
+
+		long start = System.currentTimeMillis();
+		for (int i = loops; i > 0; --i) {
+			pojo = directManager.decode("ipm1", ByteBuffer.wrap(packed));
+		}
+		long elapsed = System.currentTimeMillis() - start;
+
+		System.out.println("[decode] loops / sec: " + (loops * 1000 / elapsed));
+		System.out.println("[decode] pojo:" + pojo);
+	}
 }
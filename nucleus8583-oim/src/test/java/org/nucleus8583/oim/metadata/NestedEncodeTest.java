@@ -0,0 +1,104 @@
+package org.nucleus8583.oim.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nucleus8583.core.Iso8583Message;
+import org.nucleus8583.oim.Iso8583MessageManager;
+
+/**
+ * nested data structures, lists and arrays share one encode buffer of the
+ * conversion context, fields encoded after them must not see their content.
+ */
+public class NestedEncodeTest {
+	/**
+	 * the encoding of {@link #sample()}, as produced before the encode buffer
+	 * was shared.
+	 */
+	private static final String[] EXPECTED = {
+			"0200",
+			"T1      -00702A    001BC   02201X    003END ",
+			"360",
+			"01",
+			"Q    009",
+			"R    010S    011",
+			"REF001" };
+
+	private static final int[] NUMBERS = { 0, 48, 49, 60, 61, 62, 63 };
+
+	private Iso8583MessageManager compiled;
+
+	private Iso8583MessageManager interpreted;
+
+	@Before
+	public void initialize() throws Exception {
+		compiled = new Iso8583MessageManager(true,
+				"file:src/test/resources/META-INF/oim-types.xml",
+				"file:src/test/resources/META-INF/oim-nested.xml");
+
+		interpreted = new Iso8583MessageManager(false,
+				"file:src/test/resources/META-INF/oim-types.xml",
+				"file:src/test/resources/META-INF/oim-nested.xml");
+	}
+
+	static Ipm3 sample() {
+		Ipm3 ipm3 = new Ipm3();
+
+		ipm3.terminal = "T1";
+		ipm3.batch = 7;
+
+		ipm3.items = new ArrayList<Ipm3Item>();
+		ipm3.items.add(new Ipm3Item("A", 1));
+		ipm3.items.add(new Ipm3Item("BC", 22));
+
+		ipm3.codes = new Ipm3Item[] { new Ipm3Item("X", 3) };
+		ipm3.trailer = "END";
+		ipm3.currency = "360";
+
+		ipm3.others = new ArrayList<Ipm3Item>();
+		ipm3.others.add(new Ipm3Item("Q", 9));
+
+		ipm3.extras = new Ipm3Item[] { new Ipm3Item("R", 10),
+				new Ipm3Item("S", 11) };
+		ipm3.reference = "REF001";
+
+		return ipm3;
+	}
+
+	private void assertEncoded(Iso8583MessageManager manager) {
+		Iso8583Message msg = new Iso8583Message(192);
+		manager.convert("ipm3", sample(), msg);
+
+		for (int i = 0; i < NUMBERS.length; ++i) {
+			assertEquals("field #" + NUMBERS[i], EXPECTED[i], msg
+					.getString(NUMBERS[i]));
+		}
+	}
+
+	@Test
+	public void mappingShouldBeCompiled() {
+		assertTrue(compiled.handle("ipm3").isCompiled());
+	}
+
+	@Test
+	public void interpretedShouldEncodeAsBefore() {
+		assertEncoded(interpreted);
+	}
+
+	@Test
+	public void compiledShouldEncodeAsBefore() {
+		assertEncoded(compiled);
+	}
+
+	@Test
+	public void encodeShouldBeRepeatable() {
+		// the buffer is reused by the following conversions
+		assertEncoded(compiled);
+		assertEncoded(interpreted);
+		assertEncoded(compiled);
+	}
+}
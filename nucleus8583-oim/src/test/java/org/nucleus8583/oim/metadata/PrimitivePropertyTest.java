@@ -0,0 +1,89 @@
+package org.nucleus8583.oim.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nucleus8583.core.Iso8583Message;
+import org.nucleus8583.oim.Iso8583MessageManager;
+
+public class PrimitivePropertyTest {
+	private Iso8583MessageManager[] managers;
+
+	@Before
+	public void initialize() throws Exception {
+		managers = new Iso8583MessageManager[2];
+
+		for (int i = 0; i < managers.length; ++i) {
+			managers[i] = new Iso8583MessageManager(i == 0,
+					"file:src/test/resources/META-INF/oim-types.xml",
+					"file:src/test/resources/META-INF/oim-primitives.xml");
+		}
+	}
+
+	private static Iso8583Message message(String charge) {
+		Iso8583Message msg = new Iso8583Message(192);
+		msg.setMti("0200");
+		msg.set(4, "123456789012");
+		msg.set(5, charge);
+		msg.set(11, "000042");
+		msg.set(48, "00079876543210");
+
+		return msg;
+	}
+
+	@Test
+	public void mappingShouldBeCompiled() {
+		assertEquals(true, managers[0].handle("ipm2").isCompiled());
+		assertEquals(false, managers[1].handle("ipm2").isCompiled());
+	}
+
+	@Test
+	public void testEncode() {
+		Ipm2 ipm2 = new Ipm2();
+		ipm2.count = 42;
+		ipm2.amount = 123456789012L;
+		ipm2.charge = 15;
+		ipm2.sequence = 7;
+		ipm2.total = 9876543210L;
+
+		for (int i = 0; i < managers.length; ++i) {
+			Iso8583Message msg = new Iso8583Message(192);
+			managers[i].convert("ipm2", ipm2, msg);
+
+			assertEquals("123456789012", msg.getString(4));
+			assertEquals("000000001500", msg.getString(5));
+			assertEquals("000042", msg.getString(11));
+			assertEquals("00079876543210", msg.getString(48));
+		}
+	}
+
+	@Test
+	public void testDecode() {
+		for (int i = 0; i < managers.length; ++i) {
+			Ipm2 ipm2 = (Ipm2) managers[i].convert("ipm2",
+					message("000000001500"));
+
+			assertEquals(42, ipm2.count);
+			assertEquals(123456789012L, ipm2.amount);
+			assertEquals(15L, ipm2.charge);
+
+			// decoded from a reader over field #48
+			assertEquals(7, ipm2.sequence);
+			assertEquals(9876543210L, ipm2.total);
+		}
+	}
+
+	@Test
+	public void fractionalValueShouldBeRejected() {
+		for (int i = 0; i < managers.length; ++i) {
+			try {
+				managers[i].convert("ipm2", message("000000001234"));
+				fail("12.34 should be rejected");
+			} catch (ArithmeticException e) {
+				// expected
+			}
+		}
+	}
+}
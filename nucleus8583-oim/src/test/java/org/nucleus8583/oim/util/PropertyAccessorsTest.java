@@ -0,0 +1,144 @@
+package org.nucleus8583.oim.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class PropertyAccessorsTest {
+
+	@SuppressWarnings("unused")
+	public static class Pojo {
+		String direct;
+
+		int count;
+
+		long amount;
+
+		private String wrapped;
+
+		private String hidden;
+
+		public String getWrapped() {
+			return wrapped;
+		}
+
+		public void setWrapped(String wrapped) {
+			this.wrapped = "set:" + wrapped;
+		}
+	}
+
+	private static PropertyAccessor create(String name) throws Exception {
+		return PropertyAccessors.create(Pojo.class.getDeclaredField(name));
+	}
+
+	@Test
+	public void testDirectField() throws Exception {
+		PropertyAccessor accessor = create("direct");
+		Pojo pojo = new Pojo();
+
+		accessor.set(pojo, "abc");
+
+		assertEquals("abc", pojo.direct);
+		assertEquals("abc", accessor.get(pojo));
+		assertEquals("direct", accessor.getName());
+		assertEquals(String.class, accessor.getType());
+	}
+
+	@Test
+	public void generatedClassShouldBeShared() throws Exception {
+		PropertyAccessor first = create("direct");
+		PropertyAccessor second = create("direct");
+
+		assertTrue(first.getClass().getName().contains("$$OimAccessor$"));
+		assertTrue(first != second);
+		assertTrue(first.getClass() == second.getClass());
+	}
+
+	@Test
+	public void shouldNotCallGetterSetter() throws Exception {
+		PropertyAccessor accessor = create("wrapped");
+		Pojo pojo = new Pojo();
+
+		accessor.set(pojo, "abc");
+
+		assertEquals("abc", pojo.getWrapped());
+		assertEquals("abc", accessor.get(pojo));
+	}
+
+	@Test
+	public void testPrimitives() throws Exception {
+		PropertyAccessor count = create("count");
+		PropertyAccessor amount = create("amount");
+		Pojo pojo = new Pojo();
+
+		assertFalse(count instanceof ReflectivePropertyAccessor);
+		assertFalse(amount instanceof ReflectivePropertyAccessor);
+
+		count.setInt(pojo, 12);
+		amount.setLong(pojo, 1500L);
+
+		assertEquals(12, pojo.count);
+		assertEquals(12, count.getInt(pojo));
+		assertEquals(Integer.valueOf(12), count.get(pojo));
+
+		assertEquals(1500L, pojo.amount);
+		assertEquals(1500L, amount.getLong(pojo));
+
+		count.set(pojo, Integer.valueOf(7));
+		assertEquals(7, pojo.count);
+
+		// widening, as Field.set does
+		count.set(pojo, Short.valueOf((short) 8));
+		assertEquals(8, pojo.count);
+
+		amount.set(pojo, Integer.valueOf(9));
+		assertEquals(9L, pojo.amount);
+	}
+
+	private static void assertRejected(PropertyAccessor accessor, Object value) {
+		try {
+			accessor.set(new Pojo(), value);
+			fail(value + " should be rejected");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void shouldRejectNarrowingAndNull() throws Exception {
+		PropertyAccessor count = create("count");
+		PropertyAccessor amount = create("amount");
+
+		assertRejected(count, Long.valueOf(1));
+		assertRejected(count, Double.valueOf(1));
+		assertRejected(count, null);
+		assertRejected(amount, Double.valueOf(1));
+		assertRejected(amount, null);
+
+		// same as the reflective accessor
+		assertRejected(new ReflectivePropertyAccessor(Pojo.class
+				.getDeclaredField("count")), Long.valueOf(1));
+		assertRejected(new ReflectivePropertyAccessor(Pojo.class
+				.getDeclaredField("count")), null);
+	}
+
+	@Test
+	public void shouldFallBackToReflection() throws Exception {
+		PropertyAccessor accessor = create("hidden");
+		Pojo pojo = new Pojo();
+
+		assertTrue(accessor instanceof ReflectivePropertyAccessor);
+
+		accessor.set(pojo, "abc");
+		assertEquals("abc", accessor.get(pojo));
+	}
+
+	@Test
+	public void shouldReturnNullForMissingField() {
+		assertNull(PropertyAccessors.create(null));
+	}
+}